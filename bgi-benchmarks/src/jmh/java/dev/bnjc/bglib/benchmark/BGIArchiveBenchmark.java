@@ -0,0 +1,69 @@
+package dev.bnjc.bglib.benchmark;
+
+import dev.bnjc.bglib.BGIData;
+import dev.bnjc.bglib.BGIField;
+import dev.bnjc.bglib.BGIParseResult;
+import dev.bnjc.bglib.archive.BGIArchiveReader;
+import dev.bnjc.bglib.archive.BGIArchiveWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures reading the sample corpus back from a memory-mapped {@link BGIArchiveReader}. Each operation reads the
+ * next entry of the archive.
+ *
+ * @author Jack Grzechowiak
+ */
+@State(Scope.Thread)
+public class BGIArchiveBenchmark {
+  private Path archivePath;
+  private BGIArchiveReader archive;
+  private int nextEntry;
+
+  @Setup
+  public void setup() throws IOException {
+    this.archivePath = Files.createTempFile("bgi-benchmark", ".bgia");
+    try (BGIArchiveWriter writer = BGIArchiveWriter.create(archivePath)) {
+      for (byte[] item : BenchmarkCorpus.items()) {
+        writer.add(item);
+      }
+    }
+
+    this.archive = BGIArchiveReader.open(archivePath);
+    this.nextEntry = 0;
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    archive.close();
+    Files.deleteIfExists(archivePath);
+  }
+
+  @Benchmark
+  public BGIParseResult<BGIData> parseEntry() {
+    int entry = nextEntry;
+    nextEntry = (nextEntry + 1) % archive.size();
+    return archive.parse(entry);
+  }
+
+  @Benchmark
+  public boolean mightContainGemSockets() {
+    int entry = nextEntry;
+    nextEntry = (nextEntry + 1) % archive.size();
+    return archive.mightContain(entry, BGIField.GEM_SOCKETS);
+  }
+
+  @Benchmark
+  public boolean verifyEntry() {
+    int entry = nextEntry;
+    nextEntry = (nextEntry + 1) % archive.size();
+    return archive.verify(entry);
+  }
+}
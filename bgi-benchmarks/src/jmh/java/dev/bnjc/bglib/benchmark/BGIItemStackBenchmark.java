@@ -0,0 +1,62 @@
+package dev.bnjc.bglib.benchmark;
+
+import dev.bnjc.bglib.BGIData;
+import dev.bnjc.bglib.BGIParseResult;
+import dev.bnjc.bglib.BGIParser;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.NbtComponent;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Measures {@link BGIParser#parse(ItemStack)} for stacks carrying the corpus items in their custom data, which is
+ * what tooltips and inventory views call on every frame. Each operation parses the next stack.
+ *
+ * @author Jack Grzechowiak
+ */
+@State(Scope.Thread)
+public class BGIItemStackBenchmark {
+  private ItemStack[] stacks;
+  private ItemStack plainStack;
+  private int nextStack;
+
+  @Setup
+  public void setup() {
+    SharedConstants.createGameVersion();
+    Bootstrap.initialize();
+
+    List<byte[]> corpus = BenchmarkCorpus.items();
+    this.stacks = new ItemStack[corpus.size()];
+    for (int i = 0; i < corpus.size(); i++) {
+      NbtCompound nbt = new NbtCompound();
+      nbt.putByteArray(BGIParser.BGI_TAG, corpus.get(i));
+
+      ItemStack stack = new ItemStack(Items.DIAMOND_SWORD);
+      stack.set(DataComponentTypes.CUSTOM_DATA, NbtComponent.of(nbt));
+      this.stacks[i] = stack;
+    }
+
+    this.plainStack = new ItemStack(Items.DIAMOND_SWORD);
+  }
+
+  @Benchmark
+  public BGIParseResult<BGIData> parseStacks() {
+    ItemStack stack = stacks[nextStack];
+    nextStack = (nextStack + 1) % stacks.length;
+    return BGIParser.parse(stack);
+  }
+
+  @Benchmark
+  public BGIParseResult<BGIData> parseStackWithoutTag() {
+    return BGIParser.parse(plainStack);
+  }
+}
@@ -0,0 +1,263 @@
+package dev.bnjc.bglib.benchmark;
+
+import dev.bnjc.bglib.BGIData;
+import dev.bnjc.bglib.BGIEventReader;
+import dev.bnjc.bglib.BGIField;
+import dev.bnjc.bglib.BGIParseOptions;
+import dev.bnjc.bglib.BGIParseResult;
+import dev.bnjc.bglib.BGIParser;
+import dev.bnjc.bglib.BGIShapeCache;
+import dev.bnjc.bglib.BGIStringPool;
+import dev.bnjc.bglib.BGIType;
+import dev.bnjc.bglib.BGIValidationResult;
+import dev.bnjc.bglib.BGIValidator;
+import dev.bnjc.bglib.BGIVisitor;
+import dev.bnjc.bglib.ImmutableBGIData;
+import dev.bnjc.bglib.exceptions.BGIParseException;
+import dev.bnjc.bglib.mapping.BGI;
+import dev.bnjc.bglib.mapping.BGIRecordDecoder;
+import dev.bnjc.bglib.query.BGIQuery;
+import dev.bnjc.bglib.utils.IntObjConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Measures {@link BGIParser#parse(byte[])} over the sample corpus. Each operation parses the next item in the
+ * corpus, so the reported throughput and {@code gc.alloc.rate.norm} are per parsed item.
+ *
+ * @author Jack Grzechowiak
+ */
+@State(Scope.Thread)
+public class BGIParserBenchmark {
+  private static final BGIParseOptions LAZY = BGIParseOptions.builder().lazy(true).build();
+  private static final BGIParseOptions DEFER_STREAMS = BGIParseOptions.builder().deferStreams(true).build();
+  private static final BGIParseOptions STRING_POOL = BGIParseOptions.builder().stringPool(new BGIStringPool()).build();
+  private static final BGIParseOptions SHAPE_CACHE = BGIParseOptions.builder().shapeCache(new BGIShapeCache()).build();
+  private static final BGIQuery DEFENSE_QUERY = BGIQuery.compile("DEFENSE > 5 && CAN_DECONSTRUCT != true");
+  private static final BGIQuery ABILITY_QUERY = BGIQuery.compile("ABILITY.abilities.modifiers.value > 10");
+
+  private byte[][] items;
+  private List<byte[]> itemList;
+  private byte[][] jsonItems;
+  private BGIData[] parsedItems;
+  private ImmutableBGIData[] immutableItems;
+  private ByteBuffer[] itemBuffers;
+  private final BGIEventReader reader = new BGIEventReader();
+  private final StatsVisitor statsVisitor = new StatsVisitor();
+  private final AttributeCounter attributeCounter = new AttributeCounter();
+  private final BGIRecordDecoder<GearStats> gearStatsDecoder = BGIRecordDecoder.of(GearStats.class);
+  private int nextItem;
+  private int nextJsonItem;
+
+  @Setup
+  public void setup() {
+    this.items = BenchmarkCorpus.items().toArray(byte[][]::new);
+    this.itemList = List.of(items);
+    this.jsonItems = BenchmarkCorpus.jsonItems().toArray(byte[][]::new);
+    this.parsedItems = BenchmarkCorpus.items().stream()
+        .map(item -> BGIParser.parse(item).result().orElse(null))
+        .filter(Objects::nonNull)
+        .toArray(BGIData[]::new);
+    this.immutableItems = Arrays.stream(parsedItems)
+        .map(BGIData::toImmutable)
+        .toArray(ImmutableBGIData[]::new);
+    this.itemBuffers = BenchmarkCorpus.items().stream()
+        .map(ByteBuffer::wrap)
+        .toArray(ByteBuffer[]::new);
+  }
+
+  @Benchmark
+  public BGIParseResult<BGIData> parseCorpus() {
+    byte[] item = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+    return BGIParser.parse(item);
+  }
+
+  /**
+   * Parses the whole corpus in one batch, unlike the other benchmarks which parse a single item per operation
+   */
+  @Benchmark
+  public List<BGIParseResult<BGIData>> parseAllCorpus() {
+    return BGIParser.parseAll(itemList);
+  }
+
+  @Benchmark
+  public BGIParseResult<BGIData> parseCorpusDeferStreams() {
+    byte[] item = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+    return BGIParser.parse(item, DEFER_STREAMS);
+  }
+
+  @Benchmark
+  public BGIParseResult<BGIData> parseCorpusStringPool() {
+    byte[] item = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+    return BGIParser.parse(item, STRING_POOL);
+  }
+
+  @Benchmark
+  public BGIParseResult<BGIData> parseCorpusShapeCache() {
+    byte[] item = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+    return BGIParser.parse(item, SHAPE_CACHE);
+  }
+
+  @Benchmark
+  public BGIParseResult<BGIData> parseCorpusLazy() {
+    byte[] item = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+    return BGIParser.parse(item, LAZY);
+  }
+
+  @Benchmark
+  public Object parseCorpusLazyItemId() {
+    byte[] item = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+    return BGIParser.parse(item, LAZY).result().flatMap(data -> data.getString(BGIField.ITEM_ID)).orElse(null);
+  }
+
+  @Benchmark
+  public String peekItemId() {
+    byte[] item = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+    return BGIParser.peekString(item, BGIField.ITEM_ID);
+  }
+
+  @Benchmark
+  public double peekDefense() {
+    byte[] item = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+    return BGIParser.peekDouble(item, BGIField.DEFENSE, 0.0);
+  }
+
+  @Benchmark
+  public double visitNumericStats() {
+    ByteBuffer item = itemBuffers[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+
+    statsVisitor.total = 0;
+    try {
+      reader.read(item.clear(), statsVisitor);
+    } catch (BGIParseException e) {
+      return Double.NaN;
+    }
+    return statsVisitor.total;
+  }
+
+  @Benchmark
+  public BGIParseResult<GearStats> decodeGearStats() {
+    byte[] item = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+    return gearStatsDecoder.decode(item);
+  }
+
+  @Benchmark
+  public boolean matchQuery() {
+    byte[] item = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+    return DEFENSE_QUERY.matches(item);
+  }
+
+  @Benchmark
+  public boolean matchStreamQuery() {
+    byte[] item = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+    return ABILITY_QUERY.matches(item);
+  }
+
+  @Benchmark
+  public BGIValidationResult validateCorpus() {
+    byte[] item = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+    return BGIValidator.validate(item);
+  }
+
+  @Benchmark
+  public Map<String, Object> mapToFieldNames() {
+    BGIData data = parsedItems[nextItem % parsedItems.length];
+    nextItem = (nextItem + 1) % items.length;
+    return data.getAttributesMappedToFieldName();
+  }
+
+  @Benchmark
+  public int copyAttributes() {
+    BGIData data = parsedItems[nextItem % parsedItems.length];
+    nextItem = (nextItem + 1) % items.length;
+    return data.getAttributes().size();
+  }
+
+  @Benchmark
+  public int forEachAttribute() {
+    BGIData data = parsedItems[nextItem % parsedItems.length];
+    nextItem = (nextItem + 1) % items.length;
+    attributeCounter.count = 0;
+    data.forEachAttribute(attributeCounter);
+    return attributeCounter.count;
+  }
+
+  @Benchmark
+  public int forEachImmutableAttribute() {
+    ImmutableBGIData data = immutableItems[nextItem % immutableItems.length];
+    nextItem = (nextItem + 1) % items.length;
+    attributeCounter.count = 0;
+    data.forEachAttribute(attributeCounter);
+    return attributeCounter.count;
+  }
+
+  @Benchmark
+  public ImmutableBGIData toImmutable() {
+    BGIData data = parsedItems[nextItem % parsedItems.length];
+    nextItem = (nextItem + 1) % items.length;
+    return data.toImmutable();
+  }
+
+  @Benchmark
+  public BGIParseResult<BGIData> parseJsonSamples() {
+    byte[] item = jsonItems[nextJsonItem];
+    nextJsonItem = (nextJsonItem + 1) % jsonItems.length;
+    return BGIParser.parse(item);
+  }
+
+  public record GearStats(
+      @BGI(BGIField.DEFENSE) double defense,
+      @BGI(BGIField.MAX_HEALTH) double maxHealth,
+      @BGI(BGIField.TIER) String tier,
+      @BGI(BGIField.ITEM_ID) String id
+  ) {}
+
+  private static final class AttributeCounter implements IntObjConsumer<Object> {
+    private int count;
+
+    @Override
+    public void accept(int key, Object value) {
+      if (value != null) {
+        count++;
+      }
+    }
+  }
+
+  private static final class StatsVisitor implements BGIVisitor {
+    private static final int DEFENSE = BGIField.DEFENSE.key();
+    private static final int MAX_HEALTH = BGIField.MAX_HEALTH.key();
+
+    private double total;
+
+    @Override
+    public boolean visitProperty(int key, BGIType type) {
+      return key == DEFENSE || key == MAX_HEALTH;
+    }
+
+    @Override
+    public void visitDouble(int key, double value) {
+      total += value;
+    }
+  }
+}
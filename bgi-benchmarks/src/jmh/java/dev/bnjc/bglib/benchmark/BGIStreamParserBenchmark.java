@@ -0,0 +1,46 @@
+package dev.bnjc.bglib.benchmark;
+
+import dev.bnjc.bglib.benchmark.BenchmarkCorpus.StreamKind;
+import dev.bnjc.bglib.benchmark.BenchmarkCorpus.StreamPayload;
+import dev.bnjc.bglib.exceptions.BGIParseException;
+import dev.bnjc.bglib.stream.BGIStreamParser;
+import dev.bnjc.bglib.stream.object.StreamObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Measures each branch of {@link BGIStreamParser} using the stream payloads found in the corpus. Each operation
+ * decodes the next payload of the selected kind.
+ *
+ * @author Jack Grzechowiak
+ */
+@State(Scope.Thread)
+public class BGIStreamParserBenchmark {
+  @Param({"COMMANDS", "ABILITY", "GEM_SOCKETS", "CONSUMABLE_BUFFS", "ARROW_PARTICLES", "HISTORY"})
+  public StreamKind kind;
+
+  private StreamPayload[] payloads;
+  private int nextPayload;
+
+  @Setup
+  public void setup() {
+    List<StreamPayload> found = BenchmarkCorpus.streams(kind);
+    if (found.isEmpty()) {
+      throw new IllegalStateException("No " + kind + " streams found in the corpus");
+    }
+    this.payloads = found.toArray(StreamPayload[]::new);
+    this.nextPayload = 0;
+  }
+
+  @Benchmark
+  public StreamObject parseStream() throws BGIParseException {
+    StreamPayload payload = payloads[nextPayload];
+    nextPayload = (nextPayload + 1) % payloads.length;
+    return BGIStreamParser.parse(payload.key(), payload.bytes());
+  }
+}
@@ -0,0 +1,92 @@
+package dev.bnjc.bglib.benchmark;
+
+import dev.bnjc.bglib.BGIField;
+import dev.bnjc.bglib.BGIWriter;
+import dev.bnjc.bglib.benchmark.BenchmarkCorpus.RawProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures {@link BGIWriter} by re-encoding every corpus item from its decoded properties. Only properties with a
+ * known {@link BGIField} name and a type supported by the writer are replayed. Each operation writes the next item.
+ *
+ * @author Jack Grzechowiak
+ */
+@State(Scope.Thread)
+public class BGIWriterBenchmark {
+  private WriteOp[][] items;
+  private int nextItem;
+  private BGIWriter reusedWriter;
+  private ByteBuffer output;
+
+  @Setup
+  public void setup() {
+    List<byte[]> corpus = BenchmarkCorpus.items();
+    this.items = new WriteOp[corpus.size()][];
+    for (int i = 0; i < corpus.size(); i++) {
+      List<WriteOp> ops = new ArrayList<>();
+      for (RawProperty property : BenchmarkCorpus.properties(corpus.get(i))) {
+        BGIField.fromHashCode(property.key()).ifPresent(field -> {
+          switch (property.type()) {
+            case INTEGER, STRING, STRING_ARRAY, DOUBLE, BOOLEAN, STREAM ->
+                ops.add(new WriteOp(field.name(), property));
+            default -> {
+              // Not supported by the writer
+            }
+          }
+        });
+      }
+      this.items[i] = ops.toArray(WriteOp[]::new);
+    }
+
+    this.nextItem = 0;
+    this.reusedWriter = new BGIWriter((short) 1);
+    this.output = ByteBuffer.allocate(1 << 16);
+  }
+
+  @Benchmark
+  public byte[] writeCorpus() {
+    WriteOp[] ops = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+
+    BGIWriter writer = new BGIWriter((short) 1);
+    for (WriteOp op : ops) {
+      op.apply(writer);
+    }
+    return writer.write();
+  }
+
+  @Benchmark
+  public int writeCorpusReused() {
+    WriteOp[] ops = items[nextItem];
+    nextItem = (nextItem + 1) % items.length;
+
+    BGIWriter writer = reusedWriter.reset();
+    for (WriteOp op : ops) {
+      op.apply(writer);
+    }
+    output.clear();
+    return writer.writeTo(output);
+  }
+
+  private record WriteOp(String name, RawProperty property) {
+    void apply(BGIWriter writer) {
+      Object value = property.value();
+      switch (property.type()) {
+        case INTEGER -> writer.addInt(name, (Integer) value);
+        case STRING -> writer.addString(name, (String) value);
+        case STRING_ARRAY -> writer.addStringArray(name, (String[]) value);
+        case DOUBLE -> writer.addDouble(name, (Double) value);
+        case BOOLEAN -> writer.addBoolean(name, (Boolean) value);
+        case STREAM -> writer.addStream(name, (byte[]) value);
+        default -> throw new IllegalStateException("Unsupported type [" + property.type() + "]");
+      }
+    }
+  }
+}
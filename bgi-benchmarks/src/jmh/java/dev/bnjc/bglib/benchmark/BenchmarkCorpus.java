@@ -0,0 +1,176 @@
+package dev.bnjc.bglib.benchmark;
+
+import dev.bnjc.bglib.BGIField;
+import dev.bnjc.bglib.BGIType;
+import dev.bnjc.bglib.exceptions.BGIParseException;
+import dev.bnjc.bglib.utils.ByteParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Loads the sample BGI data shipped with the parser tests so every benchmark runs against the same realistic input.
+ *
+ * @author Jack Grzechowiak
+ */
+public final class BenchmarkCorpus {
+  private static final String CORPUS_RESOURCE = "itemBGI.bytes";
+  private static final String[] JSON_RESOURCES = {"data/item1.json", "data/item2.json"};
+  private static final byte[] SEPARATOR = "<<<END>>>".getBytes(StandardCharsets.UTF_8);
+
+  private BenchmarkCorpus() {}
+
+  /**
+   * Returns every item blob found in the {@code itemBGI.bytes} corpus
+   *
+   * @return the individual BGI byte arrays
+   */
+  public static List<byte[]> items() {
+    return splitBySeparator(readResource(CORPUS_RESOURCE));
+  }
+
+  /**
+   * Returns the byte arrays stored in the {@code data/item*.json} samples
+   *
+   * @return the individual BGI byte arrays
+   */
+  public static List<byte[]> jsonItems() {
+    List<byte[]> items = new ArrayList<>();
+    for (String resource : JSON_RESOURCES) {
+      items.add(parseJsonByteArray(new String(readResource(resource), StandardCharsets.UTF_8)));
+    }
+    return items;
+  }
+
+  /**
+   * Walks the top level properties of every corpus item and collects the raw payloads of the stream properties
+   * that {@link dev.bnjc.bglib.stream.BGIStreamParser} would dispatch to the given kind.
+   *
+   * @param kind The stream decoder to collect payloads for
+   * @return the matching stream properties
+   */
+  public static List<StreamPayload> streams(StreamKind kind) {
+    List<StreamPayload> payloads = new ArrayList<>();
+    for (byte[] item : items()) {
+      for (RawProperty property : properties(item)) {
+        if (property.type() == BGIType.STREAM && StreamKind.of(property.key()) == kind) {
+          payloads.add(new StreamPayload(property.key(), (byte[]) property.value()));
+        }
+      }
+    }
+    return payloads;
+  }
+
+  /**
+   * Reads the top level properties of an item without going through {@link dev.bnjc.bglib.BGIParser}. Stream
+   * values are kept as their raw payload bytes. Reading stops at the first property that cannot be decoded.
+   *
+   * @param item The BGI byte array
+   * @return the properties in the order they were written
+   */
+  public static List<RawProperty> properties(byte[] item) {
+    List<RawProperty> properties = new ArrayList<>();
+    if (item.length < 5 || item[0] != 7) {
+      return properties;
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(item);
+    buffer.position(1);
+    ByteParser.getShort(buffer); // Data version
+
+    int count = ByteParser.getShort(buffer);
+    try {
+      for (int i = 0; i < count; i++) {
+        int key = ByteParser.getInt(buffer);
+        BGIType type = BGIType.fromTypeId(buffer.get(buffer.position()));
+        if (type == null) {
+          break;
+        }
+
+        Object value;
+        if (type == BGIType.STREAM) {
+          buffer.get();
+          byte[] payload = new byte[ByteParser.getVarInt(buffer)];
+          buffer.get(payload);
+          value = payload;
+        } else {
+          value = ByteParser.getByType(key, buffer);
+        }
+        properties.add(new RawProperty(key, type, value));
+      }
+    } catch (BGIParseException | RuntimeException e) {
+      // Keep whatever could be read before the malformed property
+    }
+
+    return properties;
+  }
+
+  private static byte[] readResource(String name) {
+    try (InputStream in = BenchmarkCorpus.class.getClassLoader().getResourceAsStream(name)) {
+      if (in == null) {
+        throw new IllegalStateException("Missing benchmark resource [" + name + "]");
+      }
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static List<byte[]> splitBySeparator(byte[] input) {
+    List<byte[]> result = new ArrayList<>();
+    int start = 0;
+    for (int i = 0; i <= input.length - SEPARATOR.length; i++) {
+      if (Arrays.equals(input, i, i + SEPARATOR.length, SEPARATOR, 0, SEPARATOR.length)) {
+        result.add(Arrays.copyOfRange(input, start, i));
+        start = i + SEPARATOR.length;
+        i += SEPARATOR.length - 1;
+      }
+    }
+    if (start < input.length) {
+      result.add(Arrays.copyOfRange(input, start, input.length));
+    }
+    return result;
+  }
+
+  private static byte[] parseJsonByteArray(String json) {
+    String body = json.trim();
+    body = body.substring(1, body.length() - 1);
+
+    String[] values = body.split(",");
+    byte[] bytes = new byte[values.length];
+    for (int i = 0; i < values.length; i++) {
+      bytes[i] = Byte.parseByte(values[i].trim());
+    }
+    return bytes;
+  }
+
+  /**
+   * The stream decoders selected by {@link dev.bnjc.bglib.stream.BGIStreamParser}
+   */
+  public enum StreamKind {
+    COMMANDS,
+    ABILITY,
+    GEM_SOCKETS,
+    CONSUMABLE_BUFFS,
+    ARROW_PARTICLES,
+    HISTORY;
+
+    static StreamKind of(int key) {
+      if (BGIField.COMMANDS.key() == key) return COMMANDS;
+      if (BGIField.ABILITY.key() == key) return ABILITY;
+      if (BGIField.GEM_SOCKETS.key() == key) return GEM_SOCKETS;
+      if (BGIField.CONSUMABLE_BUFFS.key() == key) return CONSUMABLE_BUFFS;
+      if (BGIField.ARROW_PARTICLES.key() == key) return ARROW_PARTICLES;
+      return HISTORY;
+    }
+  }
+
+  public record RawProperty(int key, BGIType type, Object value) {}
+  public record StreamPayload(int key, byte[] bytes) {}
+}
@@ -0,0 +1,76 @@
+package dev.bnjc.bglib.benchmark;
+
+import dev.bnjc.bglib.BGIData;
+import dev.bnjc.bglib.BGIField;
+import dev.bnjc.bglib.BGIParser;
+import dev.bnjc.bglib.table.ItemStatsTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Measures filtering and ranking a listing of items, both through an {@link ItemStatsTable} and by walking the
+ * parsed {@link BGIData} directly. The sample corpus is repeated to reach the requested number of rows.
+ *
+ * @author Jack Grzechowiak
+ */
+@State(Scope.Thread)
+public class ItemStatsTableBenchmark {
+  @Param({"10000", "100000"})
+  public int rows;
+
+  private List<BGIData> items;
+  private ItemStatsTable table;
+
+  @Setup
+  public void setup() {
+    List<BGIData> corpus = new ArrayList<>();
+    for (byte[] item : BenchmarkCorpus.items()) {
+      BGIParser.parse(item).result().ifPresent(corpus::add);
+    }
+
+    this.items = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      items.add(corpus.get(i % corpus.size()));
+    }
+    this.table = ItemStatsTable.of(items);
+  }
+
+  @Benchmark
+  public int[] tableFilterTop() {
+    BitSet rows = table.range(BGIField.REQUIRED_LEVEL_CLASS, 10, 40);
+    rows.and(table.range(BGIField.DEFENSE, 5, Double.POSITIVE_INFINITY));
+    return table.top(BGIField.DEFENSE, 10, true, rows);
+  }
+
+  @Benchmark
+  public int dataFilter() {
+    int matches = 0;
+    for (BGIData item : items) {
+      double level = item.getDoubleOrDefault(BGIField.REQUIRED_LEVEL_CLASS, Double.NaN);
+      double defense = item.getDoubleOrDefault(BGIField.DEFENSE, Double.NaN);
+      if (level >= 10 && level <= 40 && defense >= 5) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+
+  @Benchmark
+  public BitSet tableFilter() {
+    BitSet rows = table.range(BGIField.REQUIRED_LEVEL_CLASS, 10, 40);
+    rows.and(table.range(BGIField.DEFENSE, 5, Double.POSITIVE_INFINITY));
+    return rows;
+  }
+
+  @Benchmark
+  public int[] tableSort() {
+    return table.sort(BGIField.DEFENSE, true);
+  }
+}
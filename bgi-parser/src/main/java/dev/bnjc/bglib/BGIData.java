@@ -1,10 +1,12 @@
 package dev.bnjc.bglib;
 
 import dev.bnjc.bglib.stream.object.StreamObject;
+import dev.bnjc.bglib.utils.IntObjConsumer;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 
 /**
  * A class representing the data extracted from the BGI byte array.
@@ -14,21 +16,45 @@ import java.util.Optional;
  */
 public class BGIData {
   private final int dataVersion;
-  private final Map<Integer, Object> properties;
+  private final BGIPropertyMap properties;
 
   /**
    * Constructs a BGIData object with the given configuration. This is used internally as the result of parsing
    * the BGI byte array.
    *
+   * <p>The properties are copied into the data's own storage, so changes made to the given map afterwards are not
+   * seen by this object.</p>
+   *
    * @param dataVersion The data version of this data
    * @param properties The keyed properties found when parsing the data. The key of these properties match the
    *                   {@link #hashCode()} of key's string name. A subset of these keys can be found in {@link BGIField}.
    */
   public BGIData(int dataVersion, Map<Integer, Object> properties) {
+    this(dataVersion, BGIPropertyMap.of(properties));
+  }
+
+  /**
+   * Constructs a BGIData object backed by the given property storage
+   *
+   * @param dataVersion The data version of this data
+   * @param properties The keyed properties found when parsing the data
+   */
+  BGIData(int dataVersion, BGIPropertyMap properties) {
     this.dataVersion = dataVersion;
     this.properties = properties;
   }
 
+  /**
+   * Constructs a BGIData object for subclasses that provide their own property storage by overriding the
+   * package-private accessors at the end of this class.
+   *
+   * @param dataVersion The data version of this data
+   */
+  BGIData(int dataVersion) {
+    this.dataVersion = dataVersion;
+    this.properties = null;
+  }
+
   /**
    * Returns the data version found and used to parse this data
    *
@@ -46,7 +72,7 @@ public class BGIData {
    * @since 0.1.7
    */
   public int getNumAttributes() {
-    return properties.size();
+    return size();
   }
 
   /**
@@ -57,7 +83,7 @@ public class BGIData {
    * @since 0.1.0
    */
   public Optional<Object> getAttribute(String key) {
-    return Optional.ofNullable(properties.getOrDefault(key.hashCode(), null));
+    return Optional.ofNullable(getValue(key.hashCode()));
   }
 
   /**
@@ -68,7 +94,7 @@ public class BGIData {
    * @since 0.1.0
    */
   public Optional<Object> getAttribute(BGIField field) {
-    return getAttribute(field.name());
+    return Optional.ofNullable(getValue(field.key()));
   }
 
   /**
@@ -80,9 +106,7 @@ public class BGIData {
    * @since 0.1.0
    */
   public Optional<String> getString(String key) {
-    return getAttribute(key)
-        .filter(value -> value instanceof String)
-        .map(value -> (String) value);
+    return getValue(key.hashCode()) instanceof String value ? Optional.of(value) : Optional.empty();
   }
 
   /**
@@ -94,7 +118,7 @@ public class BGIData {
    * @since 0.1.0
    */
   public Optional<String> getString(BGIField field) {
-    return getString(field.name());
+    return getValue(field.key()) instanceof String value ? Optional.of(value) : Optional.empty();
   }
 
   /**
@@ -106,9 +130,7 @@ public class BGIData {
    * @since 0.1.0
    */
   public Optional<Integer> getInt(String key) {
-    return getAttribute(key)
-        .filter(value -> value instanceof Integer)
-        .map(value -> (Integer) value);
+    return getValue(key.hashCode()) instanceof Integer value ? Optional.of(value) : Optional.empty();
   }
 
   /**
@@ -120,7 +142,7 @@ public class BGIData {
    * @since 0.1.0
    */
   public Optional<Integer> getInt(BGIField field) {
-    return getInt(field.name());
+    return getValue(field.key()) instanceof Integer value ? Optional.of(value) : Optional.empty();
   }
 
   /**
@@ -132,9 +154,7 @@ public class BGIData {
    * @since 0.1.0
    */
   public Optional<Double> getDouble(String key) {
-    return getAttribute(key)
-        .filter(value -> value instanceof Double)
-        .map(value -> (Double) value);
+    return getValue(key.hashCode()) instanceof Double value ? Optional.of(value) : Optional.empty();
   }
 
   /**
@@ -146,7 +166,7 @@ public class BGIData {
    * @since 0.1.0
    */
   public Optional<Double> getDouble(BGIField field) {
-    return getDouble(field.name());
+    return getValue(field.key()) instanceof Double value ? Optional.of(value) : Optional.empty();
   }
 
   /**
@@ -158,9 +178,7 @@ public class BGIData {
    * @since 0.1.0
    */
   public Optional<Boolean> getBoolean(String key) {
-    return getAttribute(key)
-        .filter(value -> value instanceof Boolean)
-        .map(value -> (Boolean) value);
+    return getValue(key.hashCode()) instanceof Boolean value ? Optional.of(value) : Optional.empty();
   }
 
   /**
@@ -172,7 +190,7 @@ public class BGIData {
    * @since 0.1.0
    */
   public Optional<Boolean> getBoolean(BGIField field) {
-    return getBoolean(field.name());
+    return getValue(field.key()) instanceof Boolean value ? Optional.of(value) : Optional.empty();
   }
 
   /**
@@ -184,9 +202,7 @@ public class BGIData {
    * @since 0.1.0
    */
   public Optional<String[]> getStringArray(String key) {
-    return getAttribute(key)
-        .filter(value -> value instanceof String[])
-        .map(value -> (String[]) value);
+    return getValue(key.hashCode()) instanceof String[] value ? Optional.of(value) : Optional.empty();
   }
 
   /**
@@ -198,7 +214,7 @@ public class BGIData {
    * @since 0.1.0
    */
   public Optional<String[]> getStringArray(BGIField field) {
-    return getStringArray(field.name());
+    return getValue(field.key()) instanceof String[] value ? Optional.of(value) : Optional.empty();
   }
 
   /**
@@ -210,9 +226,7 @@ public class BGIData {
    * @since 0.1.2
    */
   public Optional<StreamObject> getStream(String key) {
-    return getAttribute(key)
-        .filter(value -> value instanceof StreamObject)
-        .map(value -> (StreamObject) value);
+    return getValue(key.hashCode()) instanceof StreamObject value ? Optional.of(value) : Optional.empty();
   }
 
   /**
@@ -224,7 +238,172 @@ public class BGIData {
    * @since 0.1.2
    */
   public Optional<StreamObject> getStream(BGIField field) {
-    return getStream(field.name());
+    return getValue(field.key()) instanceof StreamObject value ? Optional.of(value) : Optional.empty();
+  }
+
+  /**
+   * Whether a property exists with the given key, even if its value could not be decoded
+   *
+   * @param key The property name
+   * @return {@code true} if the property is present
+   * @since 0.3.0
+   */
+  public boolean hasAttribute(String key) {
+    return containsKey(key.hashCode());
+  }
+
+  /**
+   * Whether a property exists for the given BGI field, even if its value could not be decoded
+   *
+   * @param field The BGI field to search
+   * @return {@code true} if the property is present
+   * @since 0.3.0
+   */
+  public boolean hasField(BGIField field) {
+    return containsKey(field.key());
+  }
+
+  /**
+   * Returns a string property found using the given key, without wrapping it in an {@link Optional}. If a
+   * property exists but is not a string, then the default value will be returned.
+   *
+   * @param key The property name
+   * @param defaultValue The value returned if there is no string property
+   * @return A {@link String} property found using the given key, or the default value
+   * @since 0.3.0
+   */
+  public String getStringOrDefault(String key, String defaultValue) {
+    return getValue(key.hashCode()) instanceof String value ? value : defaultValue;
+  }
+
+  /**
+   * Returns a string property found using the given BGI field name, without wrapping it in an {@link Optional}.
+   * If a property exists but is not a string, then the default value will be returned.
+   *
+   * @param field The BGI field to search
+   * @param defaultValue The value returned if there is no string property
+   * @return A {@link String} property found using the given BGI field, or the default value
+   * @since 0.3.0
+   */
+  public String getStringOrDefault(BGIField field, String defaultValue) {
+    return getValue(field.key()) instanceof String value ? value : defaultValue;
+  }
+
+  /**
+   * Returns an integer property found using the given key, without boxing it. If a property exists but is not an
+   * integer, then the default value will be returned.
+   *
+   * @param key The property name
+   * @param defaultValue The value returned if there is no integer property
+   * @return An integer property found using the given key, or the default value
+   * @since 0.3.0
+   */
+  public int getIntOrDefault(String key, int defaultValue) {
+    return getIntValue(key.hashCode(), defaultValue);
+  }
+
+  /**
+   * Returns an integer property found using the given BGI field name, without boxing it. If a property exists but
+   * is not an integer, then the default value will be returned.
+   *
+   * @param field The BGI field to search
+   * @param defaultValue The value returned if there is no integer property
+   * @return An integer property found using the given BGI field, or the default value
+   * @since 0.3.0
+   */
+  public int getIntOrDefault(BGIField field, int defaultValue) {
+    return getIntValue(field.key(), defaultValue);
+  }
+
+  /**
+   * Returns a double property found using the given key, without boxing it. If a property exists but is not a
+   * double, then the default value will be returned.
+   *
+   * @param key The property name
+   * @param defaultValue The value returned if there is no double property
+   * @return A double property found using the given key, or the default value
+   * @since 0.3.0
+   */
+  public double getDoubleOrDefault(String key, double defaultValue) {
+    return getDoubleValue(key.hashCode(), defaultValue);
+  }
+
+  /**
+   * Returns a double property found using the given BGI field name, without boxing it. If a property exists but
+   * is not a double, then the default value will be returned.
+   *
+   * @param field The BGI field to search
+   * @param defaultValue The value returned if there is no double property
+   * @return A double property found using the given BGI field, or the default value
+   * @since 0.3.0
+   */
+  public double getDoubleOrDefault(BGIField field, double defaultValue) {
+    return getDoubleValue(field.key(), defaultValue);
+  }
+
+  /**
+   * Returns a boolean property found using the given key, without boxing it. If a property exists but is not a
+   * boolean, then the default value will be returned.
+   *
+   * @param key The property name
+   * @param defaultValue The value returned if there is no boolean property
+   * @return A boolean property found using the given key, or the default value
+   * @since 0.3.0
+   */
+  public boolean getBooleanOrDefault(String key, boolean defaultValue) {
+    return getBooleanValue(key.hashCode(), defaultValue);
+  }
+
+  /**
+   * Returns a boolean property found using the given BGI field name, without boxing it. If a property exists but
+   * is not a boolean, then the default value will be returned.
+   *
+   * @param field The BGI field to search
+   * @param defaultValue The value returned if there is no boolean property
+   * @return A boolean property found using the given BGI field, or the default value
+   * @since 0.3.0
+   */
+  public boolean getBooleanOrDefault(BGIField field, boolean defaultValue) {
+    return getBooleanValue(field.key(), defaultValue);
+  }
+
+  /**
+   * Performs the given action for each attribute without copying the attributes into a map. Attributes are visited
+   * in no particular order, and the value of an attribute that could not be decoded is {@code null}. Numbers and
+   * booleans are boxed as they are visited, unless this is an {@link ImmutableBGIData}, which stores them boxed.
+   *
+   * @param action The action to perform with each attribute's key hash and value
+   * @since 0.3.0
+   */
+  public void forEachAttribute(IntObjConsumer<Object> action) {
+    forEachProperty(action);
+  }
+
+  /**
+   * Performs the given action for each attribute that is a known {@link BGIField}, skipping every other attribute.
+   * Attributes are visited in no particular order.
+   *
+   * @param action The action to perform with each attribute's field and value
+   * @since 0.3.0
+   */
+  public void forEachField(BiConsumer<BGIField, Object> action) {
+    forEachProperty((key, value) -> {
+      BGIField field = BGIField.fromKey(key);
+      if (field != null) {
+        action.accept(field, value);
+      }
+    });
+  }
+
+  /**
+   * Returns a deeply immutable copy of this data that can be shared between threads without synchronization. Lazy
+   * data has every remaining value decoded by the copy.
+   *
+   * @return the immutable data, which is this data if it is already immutable
+   * @since 0.3.0
+   */
+  public ImmutableBGIData toImmutable() {
+    return ImmutableBGIData.copyOf(this);
   }
 
   /**
@@ -236,13 +415,9 @@ public class BGIData {
   public HashMap<String, Object> getAttributesMappedToFieldName() {
     var attrs = new HashMap<String, Object>();
 
-    for (var entry : this.properties.entrySet()) {
-      attrs.put(
-          BGIField.fromHashCode(entry.getKey())
-              .map(Enum::name)
-              .orElse(entry.getKey().toString()),
-          entry.getValue()
-      );
+    for (var entry : copyProperties().entrySet()) {
+      BGIField field = BGIField.fromKey(entry.getKey());
+      attrs.put(field != null ? field.name() : entry.getKey().toString(), entry.getValue());
     }
 
     return attrs;
@@ -257,6 +432,86 @@ public class BGIData {
   }
 
   public HashMap<Integer, Object> getAttributes() {
-    return new HashMap<>(this.properties);
+    return copyProperties();
+  }
+
+  /**
+   * Returns the value stored with the given key hash
+   *
+   * @param key The key hash
+   * @return the value, or {@code null} if there is none
+   */
+  Object getValue(int key) {
+    return properties.get(key);
+  }
+
+  /**
+   * Returns the double stored with the given key hash without boxing it
+   *
+   * @param key The key hash
+   * @param defaultValue The value returned if there is no double stored with the key
+   * @return the double value, or the default value
+   */
+  double getDoubleValue(int key, double defaultValue) {
+    return properties.getDouble(key, defaultValue);
+  }
+
+  /**
+   * Returns the integer stored with the given key hash without boxing it
+   *
+   * @param key The key hash
+   * @param defaultValue The value returned if there is no integer stored with the key
+   * @return the integer value, or the default value
+   */
+  int getIntValue(int key, int defaultValue) {
+    return properties.getInt(key, defaultValue);
+  }
+
+  /**
+   * Returns the boolean stored with the given key hash without boxing it
+   *
+   * @param key The key hash
+   * @param defaultValue The value returned if there is no boolean stored with the key
+   * @return the boolean value, or the default value
+   */
+  boolean getBooleanValue(int key, boolean defaultValue) {
+    return properties.getBoolean(key, defaultValue);
+  }
+
+  /**
+   * Whether a property is stored with the given key hash
+   *
+   * @param key The key hash
+   * @return {@code true} if the property is present
+   */
+  boolean containsKey(int key) {
+    return properties.containsKey(key);
+  }
+
+  /**
+   * Returns the number of properties stored
+   *
+   * @return the number of properties
+   */
+  int size() {
+    return properties.size();
+  }
+
+  /**
+   * Copies every property into a new map keyed by key hash
+   *
+   * @return a new map of the properties
+   */
+  HashMap<Integer, Object> copyProperties() {
+    return properties.toHashMap();
+  }
+
+  /**
+   * Performs the given action for each property stored
+   *
+   * @param action The action to perform with each key hash and value
+   */
+  void forEachProperty(IntObjConsumer<Object> action) {
+    properties.forEach(action);
   }
 }
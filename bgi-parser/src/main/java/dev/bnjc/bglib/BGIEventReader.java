@@ -0,0 +1,216 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.exceptions.BGIParseException;
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import dev.bnjc.bglib.stream.BGIStreamParser;
+import dev.bnjc.bglib.stream.object.StreamObject;
+import dev.bnjc.bglib.utils.ByteParser;
+import dev.bnjc.bglib.utils.Utf8CharSequence;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reads BGI data in a single pass, pushing every property to a {@link BGIVisitor} instead of building a
+ * {@link BGIData}. No map, boxed value or string is created while reading, which makes this the cheapest way to
+ * pull a few values out of a large number of items.
+ *
+ * <pre>
+ *   BGIEventReader reader = new BGIEventReader();
+ *   for (ByteBuffer item : items) {
+ *     reader.read(item, visitor);
+ *   }
+ * </pre>
+ *
+ * <p>Strings are passed to the visitor as a reused {@link Utf8CharSequence} over the data itself, so ASCII strings
+ * are never decoded and other strings are only decoded if the visitor reads them. Readers are not thread-safe; use
+ * one per thread.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class BGIEventReader {
+  private final Utf8CharSequence string = new Utf8CharSequence();
+
+  /**
+   * Reads the specified byte array, calling the visitor for each property
+   *
+   * @param data Byte array from NBT data
+   * @param visitor The visitor to call
+   * @throws BGIParseException if the data is not valid BGI data or ends before every property is read
+   * @see #read(ByteBuffer, BGIVisitor)
+   */
+  public void read(byte[] data, BGIVisitor visitor) throws BGIParseException {
+    read(ByteBuffer.wrap(data), visitor);
+  }
+
+  /**
+   * Reads the BGI data between the buffer's position and limit, calling the visitor for each property. The data is
+   * always read big-endian, regardless of the buffer's order. The buffer's position is advanced past the data that
+   * was read.
+   *
+   * <p>Exceptions thrown by the visitor are passed on unchanged; only errors in the data are reported as a
+   * {@link BGIParseException}.</p>
+   *
+   * @param buffer The buffer holding the data
+   * @param visitor The visitor to call
+   * @throws BGIParseException if the data is not valid BGI data or ends before every property is read
+   */
+  public void read(ByteBuffer buffer, BGIVisitor visitor) throws BGIParseException {
+    if (buffer.order() == ByteOrder.BIG_ENDIAN) {
+      readData(buffer, visitor);
+      return;
+    }
+
+    ByteBuffer data = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    try {
+      readData(data, visitor);
+    } finally {
+      buffer.position(data.position());
+    }
+  }
+
+  private void readData(ByteBuffer buffer, BGIVisitor visitor) throws BGIParseException {
+    if (buffer.remaining() < 5) {
+      throw new BGIParseException(ErrorCode.DATA_TOO_SHORT);
+    }
+
+    if (ByteParser.getByte(buffer) != 7) {
+      throw new BGIParseException(ErrorCode.GOBLINLESS);
+    }
+
+    int dataVersion = ByteParser.getShort(buffer);
+    int numAttributes = ByteParser.getShort(buffer);
+    visitor.visitHeader(dataVersion, numAttributes);
+
+    for (int i = 0; i < numAttributes; i++) {
+      require(buffer, 5);
+      int key = ByteParser.getInt(buffer);
+      BGIType type = BGIType.fromTypeId(ByteParser.getByte(buffer));
+      if (type == null) {
+        // The size of the value is unknown, so nothing after it can be read
+        throw new BGIParseException("Could not read property [" + key + "]", ErrorCode.UNKNOWN_DATA_TYPE);
+      }
+
+      if (visitor.visitProperty(key, type)) {
+        readValue(key, type, buffer, visitor);
+      } else {
+        skip(type, buffer);
+      }
+    }
+
+    visitor.visitEnd();
+  }
+
+  /**
+   * Decodes a value and passes it to the visitor. Only the decoding is guarded, so that exceptions thrown by the
+   * visitor are not mistaken for errors in the data.
+   */
+  private void readValue(int key, BGIType type, ByteBuffer buffer, BGIVisitor visitor) throws BGIParseException {
+    switch (type) {
+      case BYTE -> {
+        require(buffer, 1);
+        visitor.visitByte(key, ByteParser.getByte(buffer));
+      }
+      case INTEGER -> visitor.visitInt(key, readVarInt(buffer));
+      case STRING -> visitor.visitString(key, readString(buffer));
+      case STRING_ARRAY -> {
+        int length = readVarInt(buffer);
+        visitor.visitStringArray(key, length);
+        for (int j = 0; j < length; j++) {
+          visitor.visitStringArrayElement(key, j, readString(buffer));
+        }
+      }
+      case SHORT -> {
+        require(buffer, 2);
+        visitor.visitShort(key, ByteParser.getShort(buffer));
+      }
+      case LONG -> {
+        require(buffer, 8);
+        visitor.visitLong(key, ByteParser.getLong(buffer));
+      }
+      case FLOAT -> {
+        require(buffer, 4);
+        visitor.visitFloat(key, ByteParser.getFloat(buffer));
+      }
+      case DOUBLE -> {
+        require(buffer, 8);
+        visitor.visitDouble(key, ByteParser.getDouble(buffer));
+      }
+      case STREAM -> readStream(key, buffer, visitor);
+      case BOOLEAN -> {
+        require(buffer, 1);
+        visitor.visitBoolean(key, ByteParser.getBoolean(buffer));
+      }
+      case UUID -> {
+        require(buffer, 16);
+        visitor.visitUUID(key, ByteParser.getLong(buffer), ByteParser.getLong(buffer));
+      }
+    }
+  }
+
+  private void readStream(int key, ByteBuffer buffer, BGIVisitor visitor) throws BGIParseException {
+    int length = readVarInt(buffer);
+    require(buffer, length);
+
+    if (!visitor.visitStreamStart(key, length)) {
+      ByteParser.skipBytes(buffer, length);
+      return;
+    }
+
+    ByteBuffer streamBuffer = buffer.slice(buffer.position(), length);
+    ByteParser.skipBytes(buffer, length);
+
+    StreamObject stream;
+    try {
+      stream = BGIStreamParser.parse(key, streamBuffer, BGIParseOptions.DEFAULT);
+    } catch (BGIParseException | RuntimeException e) {
+      stream = null;
+    }
+    visitor.visitStream(key, stream);
+  }
+
+  /**
+   * Reads a length-prefixed UTF-8 string into the reused sequence, which only decodes it if the visitor needs it
+   */
+  private CharSequence readString(ByteBuffer buffer) throws BGIParseException {
+    try {
+      return ByteParser.getLazyString(buffer, string);
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      throw malformed(e);
+    }
+  }
+
+  private static int readVarInt(ByteBuffer buffer) throws BGIParseException {
+    // The variable int is measured first, since reading one stops quietly at the end of the buffer
+    int length = ByteParser.measure(BGIType.INTEGER, buffer, buffer.position());
+    if (length < 0) {
+      throw new BGIParseException(length == ByteParser.TRUNCATED ? ErrorCode.DATA_TOO_SHORT : ErrorCode.MALFORMED_VAR_INT);
+    }
+    return ByteParser.getVarInt(buffer);
+  }
+
+  private static void skip(BGIType type, ByteBuffer buffer) throws BGIParseException {
+    try {
+      ByteParser.skip(type, buffer);
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      throw malformed(e);
+    }
+  }
+
+  /**
+   * Checks that the data holds the given number of bytes, which may be negative if read from malformed data
+   */
+  private static void require(ByteBuffer buffer, int length) throws BGIParseException {
+    if (length < 0 || length > buffer.remaining()) {
+      throw new BGIParseException(ErrorCode.DATA_TOO_SHORT);
+    }
+  }
+
+  private static BGIParseException malformed(RuntimeException e) {
+    return e instanceof BufferUnderflowException
+        ? new BGIParseException(e, ErrorCode.DATA_TOO_SHORT)
+        : new BGIParseException(e);
+  }
+}
@@ -1,5 +1,7 @@
 package dev.bnjc.bglib;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.util.Optional;
 
 /**
@@ -214,20 +216,65 @@ public enum BGIField {
   WILL_BREAK(BGIType.BOOLEAN);
 
   public final BGIType type;
+  private final int key;
+
   BGIField(BGIType type) {
     this.type = type;
+    this.key = this.name().hashCode();
+  }
+
+  /**
+   * Open-addressed table of every field indexed by its key hash, sized to keep probe sequences short
+   */
+  private static final BGIField[] BY_KEY;
+  private static final int BY_KEY_SHIFT;
+  static {
+    BGIField[] fields = values();
+    int capacity = Integer.highestOneBit(fields.length * 4);
+    BY_KEY = new BGIField[capacity];
+    BY_KEY_SHIFT = 32 - Integer.numberOfTrailingZeros(capacity);
+
+    for (var field : fields) {
+      int index = slot(field.key);
+      while (BY_KEY[index] != null && BY_KEY[index].key != field.key) {
+        index = (index + 1) & (capacity - 1);
+      }
+
+      // Like a scan of the values, the first field declared with a key wins
+      if (BY_KEY[index] == null) {
+        BY_KEY[index] = field;
+      }
+    }
   }
 
   public int key() {
-    return this.name().hashCode();
+    return this.key;
   }
 
   public static Optional<BGIField> fromHashCode(int hash) {
-    for (var field : BGIField.values()) {
-      if (field.key() == hash) {
-        return Optional.of(field);
+    return Optional.ofNullable(fromKey(hash));
+  }
+
+  /**
+   * Returns the field with the given key hash without wrapping it in an {@link Optional}
+   *
+   * @param key The field name hash code to match
+   * @return the matching field, or {@code null} if there is none
+   * @since 0.3.0
+   */
+  public static @Nullable BGIField fromKey(int key) {
+    int index = slot(key);
+    BGIField field;
+    while ((field = BY_KEY[index]) != null) {
+      if (field.key == key) {
+        return field;
       }
+      index = (index + 1) & (BY_KEY.length - 1);
     }
-    return Optional.empty();
+    return null;
+  }
+
+  private static int slot(int key) {
+    return (key * 0x9E3779B9) >>> BY_KEY_SHIFT;
   }
 }
@@ -0,0 +1,324 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.NbtComponent;
+import net.minecraft.item.ItemStack;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of parse results, useful when the same item stacks are parsed over and over (such as by tooltips,
+ * slot overlays and HUDs on every frame).
+ *
+ * <pre>
+ *   BGIParseCache cache = new BGIParseCache(512);
+ *
+ *   BGIParseResult&lt;BGIData&gt; result = cache.parse(itemStack);
+ * </pre>
+ *
+ * <p>Item stacks are cached by the identity of their custom data component. Components are immutable, so a stack
+ * only misses the cache once its custom data is replaced. Byte arrays are cached by their contents, and the last
+ * array parsed with those contents is also remembered by identity, so that it is found again without hashing it.
+ * Arrays are parsed from a copy, so a cached result never references the array it is cached under. Keys are only
+ * weakly referenced, so entries are dropped once their component or array is no longer used, and the least recently
+ * used entry is evicted once the cache is full.</p>
+ *
+ * <p>Cached results are shared between every caller, so the returned {@link BGIData} must not be modified. This
+ * class is thread-safe.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class BGIParseCache {
+  private final int maxSize;
+  private final BGIParseOptions options;
+  private final Map<Object, Entry> entries;
+  // The entries of byte arrays by array identity, so that an array parsed before is not hashed again. An entry is
+  // remembered under at most one array and forgotten once it is evicted, so this never holds extra results.
+  private final Map<Object, Entry> arrays = new HashMap<>();
+  private final ReferenceQueue<Object> collectedKeys = new ReferenceQueue<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Creates a cache holding at most the given number of results, parsed with the default options
+   *
+   * @param maxSize The maximum number of cached results
+   * @since 0.3.0
+   */
+  public BGIParseCache(int maxSize) {
+    this(maxSize, BGIParseOptions.DEFAULT);
+  }
+
+  /**
+   * Creates a cache holding at most the given number of results, parsed with the given options
+   *
+   * @param maxSize The maximum number of cached results
+   * @param options Options used when parsing on a cache miss
+   * @since 0.3.0
+   */
+  public BGIParseCache(int maxSize, BGIParseOptions options) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Cache size must be positive");
+    }
+
+    this.maxSize = maxSize;
+    this.options = options;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+        if (size() <= BGIParseCache.this.maxSize) {
+          return false;
+        }
+        forgetArray(eldest.getValue());
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Parses the specified item stack's custom data component, reusing the previous result if the component has not
+   * changed since it was last parsed.
+   *
+   * @param itemStack Item stack to find the tag in
+   * @return a {@link BGIParseResult} corresponding to the specified item stack
+   * @since 0.3.0
+   * @see BGIParser#parse(ItemStack, BGIParseOptions)
+   */
+  public BGIParseResult<BGIData> parse(ItemStack itemStack) {
+    NbtComponent component = itemStack.getOrDefault(DataComponentTypes.CUSTOM_DATA, NbtComponent.DEFAULT);
+    var lookup = new LookupKey(component, System.identityHashCode(component), false);
+
+    Entry entry = get(lookup);
+    if (entry != null) {
+      hits.increment();
+      return entry.result;
+    }
+
+    misses.increment();
+    byte[] data = BGIParser.readTag(component);
+    var result = data == null ? BGIParseResult.<BGIData>error(ErrorCode.MISSING_TAG) : BGIParser.parse(data, options);
+    return put(new WeakKey(lookup, collectedKeys), result).result;
+  }
+
+  /**
+   * Parses the specified byte array, reusing the previous result if an array with the same contents was parsed
+   * before.
+   *
+   * @param data Byte array from NBT data
+   * @return a {@link BGIParseResult} corresponding to the specified byte array
+   * @since 0.3.0
+   * @see BGIParser#parse(byte[], BGIParseOptions)
+   */
+  public BGIParseResult<BGIData> parse(byte[] data) {
+    var byIdentity = new LookupKey(data, System.identityHashCode(data), false);
+    Entry entry = getArray(byIdentity);
+    if (entry != null) {
+      hits.increment();
+      return entry.result;
+    }
+
+    var byContent = new LookupKey(data, Arrays.hashCode(data), true);
+    entry = get(byContent);
+    if (entry != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+
+      // The result holds views of the bytes it was parsed from, which must not be the weakly referenced key
+      entry = put(new WeakKey(byContent, collectedKeys), BGIParser.parse(data.clone(), options));
+    }
+    rememberArray(entry, new WeakKey(byIdentity, collectedKeys));
+    return entry.result;
+  }
+
+  /**
+   * Returns the number of lookups that reused a cached result
+   *
+   * @return the number of cache hits
+   * @since 0.3.0
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of lookups that had to parse the data
+   *
+   * @return the number of cache misses
+   * @since 0.3.0
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the number of results currently cached
+   *
+   * @return the number of cached results
+   * @since 0.3.0
+   */
+  public synchronized int size() {
+    expungeCollectedKeys();
+    return entries.size();
+  }
+
+  /**
+   * Removes every cached result. The hit and miss counts are kept.
+   *
+   * @since 0.3.0
+   */
+  public synchronized void clear() {
+    entries.clear();
+    arrays.clear();
+    while (collectedKeys.poll() != null) {
+      // Drain the queue, the keys are already gone
+    }
+  }
+
+  private synchronized Entry get(LookupKey lookup) {
+    expungeCollectedKeys();
+    return entries.get(lookup);
+  }
+
+  /**
+   * Finds the entry of an array parsed before, marking the entry as recently used
+   */
+  private synchronized Entry getArray(LookupKey lookup) {
+    expungeCollectedKeys();
+    Entry entry = arrays.get(lookup);
+    if (entry != null) {
+      entries.get(entry.key);
+    }
+    return entry;
+  }
+
+  private synchronized Entry put(WeakKey key, BGIParseResult<BGIData> result) {
+    Entry entry = new Entry(key, result);
+    Entry previous = entries.put(key, entry);
+    if (previous != null) {
+      forgetArray(previous);
+    }
+    return entry;
+  }
+
+  /**
+   * Remembers the entry under the identity of the array it was just found with, replacing the array it was
+   * remembered under before. Nothing is remembered if the entry has been evicted in the meantime.
+   */
+  private synchronized void rememberArray(Entry entry, WeakKey array) {
+    if (entries.get(entry.key) != entry) {
+      return;
+    }
+
+    forgetArray(entry);
+    entry.array = array;
+    arrays.put(array, entry);
+  }
+
+  private void forgetArray(Entry entry) {
+    if (entry.array != null) {
+      arrays.remove(entry.array);
+      entry.array = null;
+    }
+  }
+
+  private void expungeCollectedKeys() {
+    Reference<?> key;
+    while ((key = collectedKeys.poll()) != null) {
+      // A collected key is only in one of the maps
+      Entry entry = entries.remove(key);
+      if (entry != null) {
+        forgetArray(entry);
+      } else {
+        entry = arrays.remove(key);
+        if (entry != null && entry.array == key) {
+          entry.array = null;
+        }
+      }
+    }
+  }
+
+  private static boolean matches(Object a, Object b, boolean byContent) {
+    if (a == null || b == null) {
+      return false;
+    }
+    return byContent ? Arrays.equals((byte[]) a, (byte[]) b) : a == b;
+  }
+
+  /**
+   * A cached result, along with the array it is remembered under by identity, if any
+   */
+  private static final class Entry {
+    private final WeakKey key;
+    private final BGIParseResult<BGIData> result;
+    private WeakKey array;
+
+    private Entry(WeakKey key, BGIParseResult<BGIData> result) {
+      this.key = key;
+      this.result = result;
+    }
+  }
+
+  /**
+   * The key stored in the cache. It only weakly references the component or array, and keeps its hash so it can
+   * still be removed once that has been collected.
+   */
+  private static final class WeakKey extends WeakReference<Object> {
+    private final int hash;
+    private final boolean byContent;
+
+    private WeakKey(LookupKey lookup, ReferenceQueue<Object> queue) {
+      super(lookup.referent, queue);
+      this.hash = lookup.hash;
+      this.byContent = lookup.byContent;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o instanceof LookupKey lookup) return lookup.equals(this);
+      return o instanceof WeakKey other && byContent == other.byContent && matches(get(), other.get(), byContent);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * A short-lived key used for lookups, which strongly references the component or array being parsed
+   */
+  private static final class LookupKey {
+    private final Object referent;
+    private final int hash;
+    private final boolean byContent;
+
+    private LookupKey(Object referent, int hash, boolean byContent) {
+      this.referent = referent;
+      this.hash = hash;
+      this.byContent = byContent;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o instanceof WeakKey key) return byContent == key.byContent && matches(referent, key.get(), byContent);
+      return o instanceof LookupKey other && byContent == other.byContent && matches(referent, other.referent, byContent);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
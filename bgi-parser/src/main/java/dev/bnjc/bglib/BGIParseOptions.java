@@ -0,0 +1,238 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.exceptions.BGIParseException;
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Options used to change how {@link BGIParser} decodes BGI data. Options are immutable and can be shared between
+ * threads.
+ *
+ * <pre>
+ *   BGIParseOptions options = BGIParseOptions.builder()
+ *       .lazy(true)
+ *       .build();
+ *
+ *   BGIParseResult<BGIData> result = BGIParser.parse(itemStack, options);
+ * </pre>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class BGIParseOptions {
+  /**
+   * The options used by {@link BGIParser#parse(byte[])}, which eagerly decode every property
+   */
+  public static final BGIParseOptions DEFAULT = builder().build();
+
+  private final boolean lazy;
+  private final boolean deferStreams;
+  private final @Nullable BGIStringPool stringPool;
+  private final @Nullable BGIShapeCache shapeCache;
+  private final boolean stacklessErrors;
+
+  private BGIParseOptions(Builder builder) {
+    this.lazy = builder.lazy;
+    this.deferStreams = builder.deferStreams;
+    this.stringPool = builder.stringPool;
+    this.shapeCache = builder.shapeCache;
+    this.stacklessErrors = builder.stacklessErrors;
+  }
+
+  /**
+   * Whether properties are only decoded once they are requested from the {@link BGIData}
+   *
+   * @return {@code true} if lazy parsing is enabled
+   * @since 0.3.0
+   */
+  public boolean isLazy() {
+    return lazy;
+  }
+
+  /**
+   * Whether stream properties are only decoded once one of their getters is called
+   *
+   * @return {@code true} if stream decoding is deferred
+   * @since 0.3.0
+   */
+  public boolean isDeferStreams() {
+    return deferStreams;
+  }
+
+  /**
+   * The pool used to deduplicate decoded strings
+   *
+   * @return the string pool, or {@code null} if strings are not pooled
+   * @since 0.3.0
+   */
+  public @Nullable BGIStringPool getStringPool() {
+    return stringPool;
+  }
+
+  /**
+   * The cache used to remember the properties of previously parsed items
+   *
+   * @return the shape cache, or {@code null} if shapes are not cached
+   * @since 0.3.0
+   */
+  public @Nullable BGIShapeCache getShapeCache() {
+    return shapeCache;
+  }
+
+  /**
+   * Whether failures are reported with stackless exceptions, and malformed properties are checked before they are
+   * decoded
+   *
+   * @return {@code true} if stackless errors are enabled
+   * @since 0.3.0
+   */
+  public boolean isStacklessErrors() {
+    return stacklessErrors;
+  }
+
+  /**
+   * Creates a builder starting from the default options
+   *
+   * @return a new {@link Builder}
+   * @since 0.3.0
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a builder starting from these options
+   *
+   * @return a new {@link Builder}
+   * @since 0.3.0
+   */
+  public Builder toBuilder() {
+    return new Builder()
+        .lazy(lazy)
+        .deferStreams(deferStreams)
+        .stringPool(stringPool)
+        .shapeCache(shapeCache)
+        .stacklessErrors(stacklessErrors);
+  }
+
+  @Override
+  public String toString() {
+    return "BGIParseOptions{" +
+        "lazy=" + lazy +
+        ", deferStreams=" + deferStreams +
+        ", stringPool=" + stringPool +
+        ", shapeCache=" + shapeCache +
+        ", stacklessErrors=" + stacklessErrors +
+        '}';
+  }
+
+  /**
+   * A builder used to create {@link BGIParseOptions}
+   *
+   * @since 0.3.0
+   * @author Jack Grzechowiak
+   */
+  public static final class Builder {
+    private boolean lazy;
+    private boolean deferStreams;
+    private @Nullable BGIStringPool stringPool;
+    private @Nullable BGIShapeCache shapeCache;
+    private boolean stacklessErrors;
+
+    private Builder() {}
+
+    /**
+     * Sets whether properties are decoded lazily. When enabled, parsing only indexes the key, type and location
+     * of every property, and a value is decoded the first time it is requested from the {@link BGIData}. The
+     * resulting data keeps a reference to the parsed bytes, so they must not be modified afterward.
+     *
+     * @param lazy {@code true} to decode properties on demand
+     * @return this builder
+     * @since 0.3.0
+     */
+    public Builder lazy(boolean lazy) {
+      this.lazy = lazy;
+      return this;
+    }
+
+    /**
+     * Sets whether stream properties are decoded on demand. When enabled, each
+     * {@link dev.bnjc.bglib.stream.object.StreamObject} only keeps its bytes until one of its getters is called, and
+     * a stream that fails to decode is still returned with the error available from
+     * {@link dev.bnjc.bglib.stream.object.StreamObject#getParseError()}, rather than being replaced by {@code null}.
+     * The stream objects read the parsed bytes in place, without copying them, so the bytes must not be modified
+     * until every stream has been decoded.
+     *
+     * @param deferStreams {@code true} to decode streams on demand
+     * @return this builder
+     * @since 0.3.0
+     */
+    public Builder deferStreams(boolean deferStreams) {
+      this.deferStreams = deferStreams;
+      return this;
+    }
+
+    /**
+     * Sets the pool used to deduplicate decoded strings, including the strings inside streams. Pooled strings are
+     * shared between every item parsed with the same pool, which avoids creating the same short strings over and
+     * over and reduces the memory held by cached results.
+     *
+     * @param stringPool The pool to use, or {@code null} to not pool strings
+     * @return this builder
+     * @since 0.3.0
+     */
+    public Builder stringPool(@Nullable BGIStringPool stringPool) {
+      this.stringPool = stringPool;
+      return this;
+    }
+
+    /**
+     * Sets the cache used to remember the keys and types of previously parsed items. Items with properties in the
+     * same order as an earlier item are decoded without looking up each property's type or storage slot. Only
+     * eager parsing uses the cache.
+     *
+     * @param shapeCache The cache to use, or {@code null} to not cache shapes
+     * @return this builder
+     * @since 0.3.0
+     */
+    public Builder shapeCache(@Nullable BGIShapeCache shapeCache) {
+      this.shapeCache = shapeCache;
+      return this;
+    }
+
+    /**
+     * Sets whether failures are cheap to report. When enabled, failed parses hold a
+     * {@linkplain BGIParseException#stackless(ErrorCode, int, int) stackless exception} with the offset and key of
+     * the failing property, and every property is measured before it is decoded:
+     * <ul>
+     *   <li>A property that is cut off, has a malformed length or has an unknown type fails the parse, since the
+     *   properties after it cannot be found.</li>
+     *   <li>A property whose value fails to decode (such as a stream with an unsupported version) is set to
+     *   {@code null}, and parsing continues right after it using its declared length.</li>
+     * </ul>
+     * <p>Without this option, such properties are set to {@code null} and parsing continues from wherever decoding
+     * stopped.</p>
+     * <p>Streams, including deferred streams and streams decoded by lazy parsing, also report their decoding errors
+     * (see {@link dev.bnjc.bglib.stream.object.StreamObject#getParseError()}) with
+     * {@linkplain BGIParseException#stackless(ErrorCode) shared stackless exceptions}.</p>
+     *
+     * @param stacklessErrors {@code true} to report failures without stack traces
+     * @return this builder
+     * @since 0.3.0
+     */
+    public Builder stacklessErrors(boolean stacklessErrors) {
+      this.stacklessErrors = stacklessErrors;
+      return this;
+    }
+
+    /**
+     * Creates the options
+     *
+     * @return the configured {@link BGIParseOptions}
+     * @since 0.3.0
+     */
+    public BGIParseOptions build() {
+      return new BGIParseOptions(this);
+    }
+  }
+}
@@ -17,6 +17,14 @@ import java.util.function.Function;
  * @author Jack Grzechowiak
  */
 public abstract class BGIParseResult<T> {
+  private static final BGIParseError<?>[] STACKLESS_ERRORS = new BGIParseError<?>[ErrorCode.values().length];
+
+  static {
+    for (ErrorCode code : ErrorCode.values()) {
+      STACKLESS_ERRORS[code.ordinal()] = new BGIParseError<>(BGIParseException.stackless(code));
+    }
+  }
+
   private BGIParseResult() {}
 
   /**
@@ -213,6 +221,21 @@ public abstract class BGIParseResult<T> {
     return new BGIParseError<T>(new BGIParseException(code));
   }
 
+  /**
+   * Returns a shared error result for the given error code, holding a {@linkplain BGIParseException#stackless(ErrorCode)
+   * stackless exception}
+   *
+   * @param code The error code
+   * @param <T> The type of the value if it were a success
+   *
+   * @return The shared {@link BGIParseError} object
+   * @since 0.3.0
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> BGIParseError<T> stacklessError(ErrorCode code) {
+    return (BGIParseError<T>) STACKLESS_ERRORS[code.ordinal()];
+  }
+
   /**
    * If the result is a success, then the given consumer will be called with the success value of type {@link T}
    *
@@ -2,18 +2,30 @@ package dev.bnjc.bglib;
 
 import dev.bnjc.bglib.exceptions.BGIParseException;
 import dev.bnjc.bglib.exceptions.ErrorCode;
+import dev.bnjc.bglib.instrument.BGIInstrumentation;
+import dev.bnjc.bglib.instrument.BGIParseEvent;
 import dev.bnjc.bglib.utils.ByteParser;
 import net.minecraft.component.DataComponentTypes;
 import net.minecraft.component.type.NbtComponent;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtByteArray;
 import net.minecraft.nbt.NbtElement;
+import org.jetbrains.annotations.Nullable;
 
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
 
 /**
  * A parser to parse the custom Blockgame Item (BGI) tag found in the custom data component.
@@ -34,94 +46,621 @@ public final class BGIParser {
    */
   public static final String BGI_TAG = "bgi";
 
+  /**
+   * The smallest number of items parsed by a single task in {@link #parseAll(List, BGIParseOptions, Executor)}
+   */
+  private static final int MIN_BATCH_CHUNK = 64;
+
   private final ByteBuffer buffer;
-  private final byte[] originalData;
+  private final BGIParseOptions options;
 
-  private BGIParser(byte[] data) {
-    this.originalData = data;
-    this.buffer = ByteBuffer.wrap(data);
+  /**
+   * @param buffer A buffer holding only the BGI data, starting at position 0
+   * @param options Options used to control the parsing
+   */
+  private BGIParser(ByteBuffer buffer, BGIParseOptions options) {
+    this.options = options;
+    this.buffer = buffer;
     this.buffer.order(ByteOrder.BIG_ENDIAN);
   }
 
   /**
-   * Parses the specified byte array into a {@link BGIParseResult} object.
+   * Parses the specified byte array into a {@link BGIParseResult} object. Stream values keep a view of the array,
+   * so it must not be modified while the result is in use.
    *
    * @param data Byte array from NBT data
    * @return a {@link BGIParseResult} corresponding to the specified byte array
    * @since 0.1.1
    */
   public static BGIParseResult<BGIData> parse(byte[] data) {
-    var parser = new BGIParser(data);
+    return parse(data, BGIParseOptions.DEFAULT);
+  }
+
+  /**
+   * Parses the specified byte array into a {@link BGIParseResult} object using the given options.
+   *
+   * <p>The array is not copied. Stream values keep a view of it, and with {@linkplain BGIParseOptions#isLazy() lazy}
+   * parsing or {@linkplain BGIParseOptions#isDeferStreams() deferred streams} values are decoded from it after this
+   * method returns, so the array must not be modified while the result is in use. Pass a copy if the array is
+   * reused, or parse through a {@link BGIParseCache}, which copies the arrays it caches.</p>
+   *
+   * @param data Byte array from NBT data
+   * @param options Options used to control the parsing
+   * @return a {@link BGIParseResult} corresponding to the specified byte array
+   * @since 0.3.0
+   */
+  public static BGIParseResult<BGIData> parse(byte[] data, BGIParseOptions options) {
+    var parser = new BGIParser(ByteBuffer.wrap(data), options);
+    return parser.parse();
+  }
+
+  /**
+   * Parses the BGI data stored in a range of the specified byte array, without copying it.
+   *
+   * @param data Byte array holding the BGI data
+   * @param offset The index of the first byte of the BGI data
+   * @param length The length of the BGI data
+   * @return a {@link BGIParseResult} corresponding to the specified range
+   * @throws IndexOutOfBoundsException if the range is outside the array
+   * @since 0.3.0
+   */
+  public static BGIParseResult<BGIData> parse(byte[] data, int offset, int length) {
+    return parse(data, offset, length, BGIParseOptions.DEFAULT);
+  }
+
+  /**
+   * Parses the BGI data stored in a range of the specified byte array using the given options, without copying it.
+   * Like {@link #parse(byte[], BGIParseOptions)}, the array must not be modified while the result is in use.
+   *
+   * @param data Byte array holding the BGI data
+   * @param offset The index of the first byte of the BGI data
+   * @param length The length of the BGI data
+   * @param options Options used to control the parsing
+   * @return a {@link BGIParseResult} corresponding to the specified range
+   * @throws IndexOutOfBoundsException if the range is outside the array
+   * @since 0.3.0
+   */
+  public static BGIParseResult<BGIData> parse(byte[] data, int offset, int length, BGIParseOptions options) {
+    var parser = new BGIParser(ByteBuffer.wrap(data, offset, length).slice(), options);
+    return parser.parse();
+  }
+
+  /**
+   * Parses the BGI data between the buffer's position and limit, without copying it. Heap, direct and
+   * memory-mapped buffers are all supported. The buffer's position is not changed.
+   *
+   * @param data Buffer holding the BGI data
+   * @return a {@link BGIParseResult} corresponding to the specified buffer
+   * @since 0.3.0
+   */
+  public static BGIParseResult<BGIData> parse(ByteBuffer data) {
+    return parse(data, BGIParseOptions.DEFAULT);
+  }
+
+  /**
+   * Parses the BGI data between the buffer's position and limit using the given options, without copying it. Heap,
+   * direct and memory-mapped buffers are all supported. The buffer's position is not changed.
+   *
+   * <p>Stream values, and with {@linkplain BGIParseOptions#isLazy() lazy} parsing the returned data itself, keep a
+   * view of the buffer, so it must not be modified or released while the result is in use.</p>
+   *
+   * @param data Buffer holding the BGI data
+   * @param options Options used to control the parsing
+   * @return a {@link BGIParseResult} corresponding to the specified buffer
+   * @since 0.3.0
+   */
+  public static BGIParseResult<BGIData> parse(ByteBuffer data, BGIParseOptions options) {
+    var parser = new BGIParser(data.slice(), options);
     return parser.parse();
   }
 
   /**
    * Parses the specified item stack's custom data component into a {@link BGIParseResult} object. If the stack
-   * does not have the "bgi" tag in its custom data, then an error will be returned.
+   * does not have the "bgi" tag in its custom data, then an error will be returned. The tag is read in place without
+   * copying the custom data.
    *
    * @param itemStack Item stack to find the tag in
    * @return a {@link BGIParseResult} corresponding to the specified item stack
    */
   public static BGIParseResult<BGIData> parse(ItemStack itemStack) {
-    NbtCompound stackNbt = itemStack.getOrDefault(DataComponentTypes.CUSTOM_DATA, NbtComponent.DEFAULT).copyNbt();
+    return parse(itemStack, BGIParseOptions.DEFAULT);
+  }
+
+  /**
+   * Parses the specified item stack's custom data component into a {@link BGIParseResult} object using the given
+   * options. If the stack does not have the "bgi" tag in its custom data, then an error will be returned.
+   *
+   * @param itemStack Item stack to find the tag in
+   * @param options Options used to control the parsing
+   * @return a {@link BGIParseResult} corresponding to the specified item stack
+   * @since 0.3.0
+   */
+  public static BGIParseResult<BGIData> parse(ItemStack itemStack, BGIParseOptions options) {
+    byte[] data = readTag(itemStack.getOrDefault(DataComponentTypes.CUSTOM_DATA, NbtComponent.DEFAULT));
+    if (data == null) {
+      return BGIParseResult.error(ErrorCode.MISSING_TAG);
+    }
+
+    return BGIParser.parse(data, options);
+  }
+
+  /**
+   * Parses every byte array in the list on the {@linkplain ForkJoinPool#commonPool() common pool}.
+   *
+   * @param data Byte arrays from NBT data
+   * @return a {@link BGIParseResult} for each byte array, in the same order
+   * @since 0.3.0
+   * @see #parseAll(List, BGIParseOptions, Executor)
+   */
+  public static List<BGIParseResult<BGIData>> parseAll(List<byte[]> data) {
+    return parseAll(data, BGIParseOptions.DEFAULT, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Parses every byte array in the list, splitting the work into chunks that are run on the given executor (such
+   * as a {@link ForkJoinPool} or a virtual thread executor). The calling thread parses one of the chunks itself and
+   * then waits for the rest. Small lists are parsed entirely on the calling thread, as are chunks the executor
+   * rejects (such as once it has been shut down).
+   *
+   * <p>Each element gets its own result, so a malformed element is reported as a
+   * {@link BGIParseResult.BGIParseError} without affecting the others.</p>
+   *
+   * @param data Byte arrays from NBT data
+   * @param options Options used to control the parsing
+   * @param executor The executor used to run the chunks
+   * @return a {@link BGIParseResult} for each byte array, in the same order
+   * @since 0.3.0
+   */
+  public static List<BGIParseResult<BGIData>> parseAll(List<byte[]> data, BGIParseOptions options, Executor executor) {
+    if (!(data instanceof RandomAccess)) {
+      data = new ArrayList<>(data);
+    }
+
+    @SuppressWarnings("unchecked")
+    BGIParseResult<BGIData>[] results = new BGIParseResult[data.size()];
+
+    int parallelism = executor instanceof ForkJoinPool pool
+        ? pool.getParallelism()
+        : Runtime.getRuntime().availableProcessors();
+    int chunkSize = Math.max(MIN_BATCH_CHUNK, (results.length + parallelism * 4 - 1) / (parallelism * 4));
+
+    List<CompletableFuture<Void>> tasks = new ArrayList<>();
+    for (int start = chunkSize; start < results.length; start += chunkSize) {
+      List<byte[]> items = data;
+      int from = start;
+      int to = Math.min(start + chunkSize, results.length);
+      Runnable chunk = () -> parseChunk(items, options, results, from, to);
+      try {
+        tasks.add(CompletableFuture.runAsync(chunk, executor));
+      } catch (RejectedExecutionException e) {
+        chunk.run();
+      }
+    }
+
+    parseChunk(data, options, results, 0, Math.min(chunkSize, results.length));
+    for (CompletableFuture<Void> task : tasks) {
+      task.join();
+    }
+
+    return Collections.unmodifiableList(Arrays.asList(results));
+  }
+
+  /**
+   * Parses the custom data component of every item stack on the {@linkplain ForkJoinPool#commonPool() common pool}.
+   *
+   * @param itemStacks Item stacks to find the tags in
+   * @return a {@link BGIParseResult} for each item stack, in the same order
+   * @since 0.3.0
+   * @see #parseAll(Stream, BGIParseOptions, Executor)
+   */
+  public static List<BGIParseResult<BGIData>> parseAll(Stream<ItemStack> itemStacks) {
+    return parseAll(itemStacks, BGIParseOptions.DEFAULT, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Parses the custom data component of every item stack, splitting the work across the given executor. The tags
+   * are read from the stacks on the calling thread, so the stream is consumed before any parsing starts. Stacks
+   * without the "bgi" tag are reported with {@link ErrorCode#MISSING_TAG}.
+   *
+   * @param itemStacks Item stacks to find the tags in
+   * @param options Options used to control the parsing
+   * @param executor The executor used to run the chunks
+   * @return a {@link BGIParseResult} for each item stack, in the same order
+   * @since 0.3.0
+   * @see #parseAll(List, BGIParseOptions, Executor)
+   */
+  public static List<BGIParseResult<BGIData>> parseAll(Stream<ItemStack> itemStacks, BGIParseOptions options, Executor executor) {
+    List<byte[]> data = itemStacks
+        .map(stack -> readTag(stack.getOrDefault(DataComponentTypes.CUSTOM_DATA, NbtComponent.DEFAULT)))
+        .toList();
+    return parseAll(data, options, executor);
+  }
+
+  private static void parseChunk(List<byte[]> data, BGIParseOptions options, BGIParseResult<BGIData>[] results, int from, int to) {
+    for (int i = from; i < to; i++) {
+      byte[] item = data.get(i);
+      if (item == null) {
+        results[i] = BGIParseResult.error(ErrorCode.MISSING_TAG);
+        continue;
+      }
+
+      try {
+        results[i] = BGIParser.parse(item, options);
+      } catch (RuntimeException e) {
+        results[i] = BGIParseResult.error(new BGIParseException(e));
+      }
+    }
+  }
+
+  /**
+   * Returns the BGI byte array stored in the given custom data component without copying the component's NBT. The
+   * returned array is the one held by the component, so it must only ever be read.
+   *
+   * @param component The custom data component
+   * @return the BGI byte array, or {@code null} if the component has no "bgi" tag
+   */
+  @SuppressWarnings("deprecation") // getNbt() is deprecated only to discourage modifying the returned compound
+  static byte @Nullable [] readTag(NbtComponent component) {
+    NbtElement tag = component.getNbt().get(BGI_TAG);
+    if (tag instanceof NbtByteArray byteArray) {
+      return byteArray.getByteArray();
+    }
+    return null;
+  }
+
+  /**
+   * Reads a single property from the specified byte array without building a {@link BGIData}. The other properties
+   * are skipped over without being decoded, which makes this much cheaper than a full parse when only one field is
+   * needed (such as in sorting comparators and search filters). As with a full parse, the last property with the
+   * field's key is read. Data with a property that is cut off or malformed is treated as missing the field.
+   *
+   * @param data Byte array from NBT data
+   * @param field The field to read
+   * @return the decoded value, or {@code null} if the field is missing or the data is malformed
+   * @since 0.3.0
+   */
+  public static @Nullable Object peek(byte[] data, BGIField field) {
+    ByteBuffer buffer = propertiesBuffer(data);
+    if (buffer == null) {
+      return null;
+    }
+
+    BGIType type = ByteParser.seek(field.key(), buffer);
+    if (type == null) {
+      return null;
+    }
 
-    if (stackNbt != null && stackNbt.contains(BGI_TAG, NbtElement.BYTE_ARRAY_TYPE)) {
-      return BGIParser.parse(stackNbt.getByteArray(BGI_TAG));
+    try {
+      return ByteParser.getByType(field.key(), type, buffer);
+    } catch (Exception e) {
+      return null;
     }
+  }
 
-    return BGIParseResult.error(ErrorCode.MISSING_TAG);
+  /**
+   * Reads a single string property from the specified byte array without building a {@link BGIData}.
+   *
+   * @param data Byte array from NBT data
+   * @param field The field to read
+   * @return the string value, or {@code null} if the field is missing, is not a string or the data is malformed
+   * @since 0.3.0
+   * @see #peek(byte[], BGIField)
+   */
+  public static @Nullable String peekString(byte[] data, BGIField field) {
+    ByteBuffer buffer = seek(data, field, BGIType.STRING);
+    if (buffer == null) {
+      return null;
+    }
+
+    try {
+      return ByteParser.getString(buffer);
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Reads a single string array property from the specified byte array without building a {@link BGIData}.
+   *
+   * @param data Byte array from NBT data
+   * @param field The field to read
+   * @return the string array, or {@code null} if the field is missing, is not a string array or the data is malformed
+   * @since 0.3.0
+   * @see #peek(byte[], BGIField)
+   */
+  public static String @Nullable [] peekStringArray(byte[] data, BGIField field) {
+    ByteBuffer buffer = seek(data, field, BGIType.STRING_ARRAY);
+    if (buffer == null) {
+      return null;
+    }
+
+    try {
+      return ByteParser.getStringArray(buffer);
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Reads a single double property from the specified byte array without building a {@link BGIData} or boxing
+   * the value.
+   *
+   * @param data Byte array from NBT data
+   * @param field The field to read
+   * @param defaultValue The value returned if the field is missing, is not a double or the data is malformed
+   * @return the double value
+   * @since 0.3.0
+   * @see #peek(byte[], BGIField)
+   */
+  public static double peekDouble(byte[] data, BGIField field, double defaultValue) {
+    ByteBuffer buffer = seek(data, field, BGIType.DOUBLE);
+    if (buffer == null || buffer.remaining() < Double.BYTES) {
+      return defaultValue;
+    }
+    return ByteParser.getDouble(buffer);
+  }
+
+  /**
+   * Reads a single integer property from the specified byte array without building a {@link BGIData} or boxing
+   * the value.
+   *
+   * @param data Byte array from NBT data
+   * @param field The field to read
+   * @param defaultValue The value returned if the field is missing, is not an integer or the data is malformed
+   * @return the integer value
+   * @since 0.3.0
+   * @see #peek(byte[], BGIField)
+   */
+  public static int peekInt(byte[] data, BGIField field, int defaultValue) {
+    ByteBuffer buffer = seek(data, field, BGIType.INTEGER);
+    if (buffer == null || !buffer.hasRemaining()) {
+      return defaultValue;
+    }
+
+    try {
+      return ByteParser.getVarInt(buffer);
+    } catch (RuntimeException e) {
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Reads a single boolean property from the specified byte array without building a {@link BGIData} or boxing
+   * the value.
+   *
+   * @param data Byte array from NBT data
+   * @param field The field to read
+   * @param defaultValue The value returned if the field is missing, is not a boolean or the data is malformed
+   * @return the boolean value
+   * @since 0.3.0
+   * @see #peek(byte[], BGIField)
+   */
+  public static boolean peekBoolean(byte[] data, BGIField field, boolean defaultValue) {
+    ByteBuffer buffer = seek(data, field, BGIType.BOOLEAN);
+    if (buffer == null || !buffer.hasRemaining()) {
+      return defaultValue;
+    }
+    return ByteParser.getBoolean(buffer);
+  }
+
+  /**
+   * Checks whether the specified byte array contains the given field without building a {@link BGIData}.
+   *
+   * @param data Byte array from NBT data
+   * @param field The field to search for
+   * @return {@code true} if the field is present
+   * @since 0.3.0
+   */
+  public static boolean hasField(byte[] data, BGIField field) {
+    ByteBuffer buffer = propertiesBuffer(data);
+    return buffer != null && ByteParser.seek(field.key(), buffer) != null;
   }
 
   /**
    * Attempts to determine the matching {@link BGIField} from the given hash code. This is most useful for debugging
-   * purposes as it will loop over all the fields to match the hash.
+   * purposes.
    *
    * @param hashCode The field name hash code to match
    * @return if present, the matching {@link BGIField}
    */
   public static Optional<BGIField> getFieldFromHash(int hashCode) {
-    for (var field : BGIField.values()) {
-      if (field.name().hashCode() == hashCode) {
-        return Optional.of(field);
-      }
+    return BGIField.fromHashCode(hashCode);
+  }
+
+  private static @Nullable ByteBuffer seek(byte[] data, BGIField field, BGIType expectedType) {
+    ByteBuffer buffer = propertiesBuffer(data);
+    if (buffer == null || ByteParser.seek(field.key(), buffer) != expectedType) {
+      return null;
     }
-    return Optional.empty();
+    return buffer;
+  }
+
+  private static @Nullable ByteBuffer propertiesBuffer(byte[] data) {
+    if (data.length < 5 || data[0] != 7) {
+      return null;
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+    buffer.position(3); // Skip initial 7 and the data version
+    return buffer;
   }
 
   private BGIParseResult<BGIData> parse() {
-    if (originalData.length < 5) {
-      return BGIParseResult.error(ErrorCode.DATA_TOO_SHORT);
+    if (!BGIInstrumentation.isEnabled()) {
+      return parseData();
+    }
+
+    BGIParseEvent event = BGIInstrumentation.beginParse();
+    long start = System.nanoTime();
+    BGIParseResult<BGIData> result = parseData();
+
+    int dataVersion = buffer.limit() >= 3 ? buffer.getShort(1) : -1;
+    ErrorCode error = result instanceof BGIParseResult.BGIParseError<BGIData> e ? e.getError().getErrorCode() : null;
+    BGIInstrumentation.endParse(event, start, buffer.limit(), dataVersion, error);
+    return result;
+  }
+
+  private BGIParseResult<BGIData> parseData() {
+    if (buffer.limit() < 5) {
+      return error(ErrorCode.DATA_TOO_SHORT);
     }
 
-    if (originalData[0] != 7) {
-      return BGIParseResult.error(ErrorCode.GOBLINLESS);
+    if (buffer.get(0) != 7) {
+      return error(ErrorCode.GOBLINLESS);
     }
 
     buffer.position(1); // Skip initial 7
 
     try {
       int dataVersion = ByteParser.getShort(buffer);
-      var properties = parseProperties();
+      if (options.isLazy()) {
+        return BGIParseResult.success(indexProperties(dataVersion));
+      }
+
+      var properties = parseProperties(dataVersion);
       return BGIParseResult.success(new BGIData(dataVersion, properties));
     } catch (BGIParseException e) {
       return BGIParseResult.error(e);
+    } catch (BufferUnderflowException e) {
+      // A property header was cut off, since values that cannot be read are stored as null instead
+      return error(ErrorCode.DATA_TOO_SHORT);
     }
   }
 
-  private Map<Integer, Object> parseProperties() throws BGIParseException {
+  private BGIParseResult<BGIData> error(ErrorCode code) {
+    return options.isStacklessErrors() ? BGIParseResult.stacklessError(code) : BGIParseResult.error(code);
+  }
+
+  private BGIPropertyMap parseProperties(int dataVersion) throws BGIParseException {
     int numAttributes = ByteParser.getShort(buffer);
+    boolean stackless = options.isStacklessErrors();
+
+    BGIStringPool stringPool = options.getStringPool();
+    BGIShapeCache shapeCache = options.getShapeCache();
+    BGIShapeCache.Shape shape = shapeCache == null ? null : shapeCache.root(dataVersion, numAttributes);
+    boolean instrumented = BGIInstrumentation.isEnabled();
 
-    var properties = new HashMap<Integer, Object>();
+    var properties = new BGIPropertyMap(numAttributes);
     for (int i = 0; i < numAttributes; i++) {
+      int offset = buffer.position();
+      if (stackless && buffer.remaining() < 5) {
+        throw BGIParseException.stackless(ErrorCode.DATA_TOO_SHORT, offset, 0);
+      }
+
       int key = ByteParser.getInt(buffer);
+      byte typeId = ByteParser.getByte(buffer);
+
+      // Follow the shape of previous items with these properties, which already knows the type and slot
+      BGIType type;
+      int slot;
+      BGIShapeCache.Shape next = shape == null ? null : shape.next(key, typeId);
+      if (next != null) {
+        type = next.type;
+        slot = next.slot;
+      } else {
+        type = BGIType.fromTypeId(typeId);
+        slot = properties.slotOf(key);
+        next = shape == null || type == null ? null : shape.addTransition(key, type, slot);
+      }
+      shape = next;
+
+      if (instrumented) {
+        BGIInstrumentation.recordProperty(key, type);
+      }
+
+      // Measure the value first, so a malformed value is reported without an exception being thrown by the buffer
+      int end = -1;
+      if (stackless) {
+        if (type == null) {
+          throw BGIParseException.stackless(ErrorCode.UNKNOWN_DATA_TYPE, offset, key);
+        }
+
+        int length = ByteParser.measure(type, buffer, buffer.position());
+        if (length < 0) {
+          ErrorCode code = length == ByteParser.TRUNCATED ? ErrorCode.DATA_TOO_SHORT : ErrorCode.MALFORMED_VAR_INT;
+          throw BGIParseException.stackless(code, offset, key);
+        }
+        end = buffer.position() + length;
+      }
+
       try {
-        Object value = ByteParser.getByType(key, buffer);
-        properties.put(key, value);
+        switch (type) {
+          case DOUBLE -> properties.putDoubleAt(slot, key, type, ByteParser.getDouble(buffer));
+          case FLOAT -> properties.putDoubleAt(slot, key, type, ByteParser.getFloat(buffer));
+          case INTEGER -> properties.putIntAt(slot, key, type, ByteParser.getVarInt(buffer));
+          case SHORT -> properties.putIntAt(slot, key, type, ByteParser.getShort(buffer));
+          case BYTE -> properties.putIntAt(slot, key, type, ByteParser.getByte(buffer));
+          case BOOLEAN -> properties.putBooleanAt(slot, key, ByteParser.getBoolean(buffer));
+          case STREAM -> properties.putObjectAt(slot, key, options.isDeferStreams()
+              ? ByteParser.getDeferredStream(key, buffer, options)
+              : ByteParser.getStream(key, buffer, options));
+          case null, default -> properties.putObjectAt(slot, key, ByteParser.getByType(key, type, buffer, stringPool));
+        }
       } catch (Exception e) {
-        properties.put(key, null);
+        properties.putObjectAt(slot, key, null);
+
+        // The rest of the data may be misaligned, so do not record it as a shape
+        shape = null;
+      }
+
+      if (end >= 0) {
+        buffer.position(end);
       }
     }
 
     return properties;
   }
+
+  private BGIData indexProperties(int dataVersion) {
+    // A negative count reads no properties, like the eager path. Every property header takes 5 bytes, so the
+    // remaining bytes bound how many properties there can be, whatever the count claims.
+    int numAttributes = Math.max(ByteParser.getShort(buffer), 0);
+    int capacity = Math.min(numAttributes, buffer.remaining() / 5);
+
+    int[] keys = new int[capacity];
+    BGIType[] types = new BGIType[capacity];
+    int[] offsets = new int[capacity];
+    int[] lengths = new int[capacity];
+    int[] table = LazyBGIData.newTable(capacity);
+    int count = 0;
+    boolean instrumented = BGIInstrumentation.isEnabled();
+
+    for (int i = 0; i < numAttributes; i++) {
+      int key = ByteParser.getInt(buffer);
+      BGIType type = BGIType.fromTypeId(ByteParser.getByte(buffer));
+      if (instrumented) {
+        BGIInstrumentation.recordProperty(key, type);
+      }
+      int offset = buffer.position();
+
+      // Skip the value, but stop indexing if its size cannot be determined since the rest would be misaligned
+      boolean skipped;
+      try {
+        ByteParser.skip(type, buffer);
+        skipped = true;
+      } catch (Exception e) {
+        type = null;
+        skipped = false;
+      }
+
+      // A repeated key replaces the earlier value, like the eager path
+      int slot = LazyBGIData.slotOf(table, keys, key);
+      int index = table[slot] - 1;
+      if (index < 0) {
+        index = count++;
+        table[slot] = count;
+      }
+
+      keys[index] = key;
+      types[index] = type;
+      offsets[index] = offset;
+      lengths[index] = skipped ? buffer.position() - offset : 0;
+
+      if (!skipped) {
+        break;
+      }
+    }
+
+    return new LazyBGIData(dataVersion, buffer, keys, types, offsets, lengths, table, count, options);
+  }
 }
@@ -0,0 +1,314 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.utils.IntObjConsumer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A compact map from property key hashes to property values. Keys are stored in an open-addressed table with
+ * linear probing, and values are stored in parallel arrays by kind so doubles, integers and booleans never have to
+ * be boxed. The value arrays are only allocated once a value of that kind is stored.
+ *
+ * <p>This map is not thread-safe while it is being filled. Once a {@link BGIData} has been constructed from it, it
+ * is only ever read.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+final class BGIPropertyMap {
+  /**
+   * The tag of a slot that has no key
+   */
+  static final byte EMPTY = 0;
+
+  /**
+   * The tag of a slot whose value is {@code null}, such as a property that failed to decode
+   */
+  static final byte NULL = -1;
+
+  /**
+   * The tag of a slot whose value is stored in the reference array
+   */
+  static final byte OBJECT = Byte.MAX_VALUE;
+
+  private static final int MIN_CAPACITY = 8;
+
+  private int[] keys;
+  private byte[] tags;
+  private double[] doubles;
+  private int[] ints;
+  private boolean[] booleans;
+  private Object[] refs;
+  private int size;
+  private int shift;
+
+  /**
+   * Constructs a map sized to hold the expected number of properties without resizing
+   *
+   * @param expectedSize The expected number of properties
+   */
+  BGIPropertyMap(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedSize * 2) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  /**
+   * Creates a map containing the entries of the given map
+   *
+   * @param properties The properties to copy
+   * @return the new map
+   */
+  static BGIPropertyMap of(Map<Integer, Object> properties) {
+    var map = new BGIPropertyMap(properties.size());
+    properties.forEach(map::put);
+    return map;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean containsKey(int key) {
+    return tags[indexOf(key)] != EMPTY;
+  }
+
+  /**
+   * Returns the {@link BGIType#typeId} of the value stored with the given key, {@link #OBJECT} for reference values,
+   * {@link #NULL} for {@code null} values or {@link #EMPTY} if the key is missing
+   *
+   * @param key The key hash
+   * @return the value tag
+   */
+  byte tagOf(int key) {
+    return tags[indexOf(key)];
+  }
+
+  Object get(int key) {
+    return valueAt(indexOf(key));
+  }
+
+  double getDouble(int key, double defaultValue) {
+    int index = indexOf(key);
+    return tags[index] == BGIType.DOUBLE.typeId ? doubles[index] : defaultValue;
+  }
+
+  int getInt(int key, int defaultValue) {
+    int index = indexOf(key);
+    return tags[index] == BGIType.INTEGER.typeId ? ints[index] : defaultValue;
+  }
+
+  boolean getBoolean(int key, boolean defaultValue) {
+    int index = indexOf(key);
+    return tags[index] == BGIType.BOOLEAN.typeId ? booleans[index] : defaultValue;
+  }
+
+  /**
+   * Returns the slot the given key is stored in, or would be stored in. Maps with the same capacity that were given
+   * the same keys in the same order always store each key in the same slot, which {@link BGIShapeCache} relies on.
+   */
+  int slotOf(int key) {
+    return indexOf(key);
+  }
+
+  /**
+   * Stores a {@link BGIType#DOUBLE} or {@link BGIType#FLOAT} value
+   */
+  void putDouble(int key, BGIType type, double value) {
+    putDoubleAt(reserve(key), key, type, value);
+  }
+
+  /**
+   * Stores a {@link BGIType#INTEGER}, {@link BGIType#SHORT} or {@link BGIType#BYTE} value
+   */
+  void putInt(int key, BGIType type, int value) {
+    putIntAt(reserve(key), key, type, value);
+  }
+
+  void putBoolean(int key, boolean value) {
+    putBooleanAt(reserve(key), key, value);
+  }
+
+  void putObject(int key, Object value) {
+    putObjectAt(reserve(key), key, value);
+  }
+
+  /**
+   * Stores a {@link BGIType#DOUBLE} or {@link BGIType#FLOAT} value in the slot returned by {@link #slotOf(int)}. The
+   * map must have room for the key without growing.
+   */
+  void putDoubleAt(int slot, int key, BGIType type, double value) {
+    claim(slot, key, type.typeId);
+    if (doubles == null) {
+      doubles = new double[keys.length];
+    }
+    doubles[slot] = value;
+  }
+
+  /**
+   * Stores a {@link BGIType#INTEGER}, {@link BGIType#SHORT} or {@link BGIType#BYTE} value in the slot returned by
+   * {@link #slotOf(int)}. The map must have room for the key without growing.
+   */
+  void putIntAt(int slot, int key, BGIType type, int value) {
+    claim(slot, key, type.typeId);
+    if (ints == null) {
+      ints = new int[keys.length];
+    }
+    ints[slot] = value;
+  }
+
+  /**
+   * Stores a boolean value in the slot returned by {@link #slotOf(int)}. The map must have room for the key without
+   * growing.
+   */
+  void putBooleanAt(int slot, int key, boolean value) {
+    claim(slot, key, BGIType.BOOLEAN.typeId);
+    if (booleans == null) {
+      booleans = new boolean[keys.length];
+    }
+    booleans[slot] = value;
+  }
+
+  /**
+   * Stores a reference value in the slot returned by {@link #slotOf(int)}. The map must have room for the key without
+   * growing.
+   */
+  void putObjectAt(int slot, int key, Object value) {
+    if (value == null) {
+      claim(slot, key, NULL);
+      return;
+    }
+
+    claim(slot, key, OBJECT);
+    if (refs == null) {
+      refs = new Object[keys.length];
+    }
+    refs[slot] = value;
+  }
+
+  /**
+   * Stores a boxed value, unboxing it into the matching primitive array when possible
+   */
+  void put(int key, Object value) {
+    switch (value) {
+      case Double d -> putDouble(key, BGIType.DOUBLE, d);
+      case Float f -> putDouble(key, BGIType.FLOAT, f);
+      case Integer i -> putInt(key, BGIType.INTEGER, i);
+      case Short s -> putInt(key, BGIType.SHORT, s);
+      case Byte b -> putInt(key, BGIType.BYTE, b);
+      case Boolean b -> putBoolean(key, b);
+      case null, default -> putObject(key, value);
+    }
+  }
+
+  HashMap<Integer, Object> toHashMap() {
+    var map = new HashMap<Integer, Object>();
+    for (int i = 0; i < keys.length; i++) {
+      if (tags[i] != EMPTY) {
+        map.put(keys[i], valueAt(i));
+      }
+    }
+    return map;
+  }
+
+  void forEach(IntObjConsumer<Object> action) {
+    for (int i = 0; i < keys.length; i++) {
+      if (tags[i] != EMPTY) {
+        action.accept(keys[i], valueAt(i));
+      }
+    }
+  }
+
+  private Object valueAt(int index) {
+    byte tag = tags[index];
+    if (tag == EMPTY || tag == NULL) {
+      return null;
+    }
+    if (tag == OBJECT) {
+      return refs[index];
+    }
+
+    return switch (BGIType.fromTypeId(tag)) {
+      case DOUBLE -> doubles[index];
+      case FLOAT -> (float) doubles[index];
+      case INTEGER -> ints[index];
+      case SHORT -> (short) ints[index];
+      case BYTE -> (byte) ints[index];
+      case BOOLEAN -> booleans[index];
+      case null, default -> null;
+    };
+  }
+
+  /**
+   * Finds the slot holding the given key, or the empty slot where it would be inserted
+   */
+  private int indexOf(int key) {
+    int mask = keys.length - 1;
+    int index = (key * 0x9E3779B9) >>> shift;
+    while (tags[index] != EMPTY && keys[index] != key) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  /**
+   * Finds the slot for the given key, growing the map first if a new key would not fit
+   */
+  private int reserve(int key) {
+    int index = indexOf(key);
+    if (tags[index] == EMPTY && (size + 1) * 2 > keys.length) {
+      grow();
+      index = indexOf(key);
+    }
+    return index;
+  }
+
+  private void claim(int slot, int key, byte tag) {
+    if (tags[slot] == EMPTY) {
+      size++;
+      keys[slot] = key;
+    } else if (tags[slot] == OBJECT) {
+      refs[slot] = null;
+    }
+
+    tags[slot] = tag;
+  }
+
+  private void allocate(int capacity) {
+    this.keys = new int[capacity];
+    this.tags = new byte[capacity];
+    this.shift = 32 - Integer.numberOfTrailingZeros(capacity);
+  }
+
+  private void grow() {
+    int[] oldKeys = keys;
+    byte[] oldTags = tags;
+    double[] oldDoubles = doubles;
+    int[] oldInts = ints;
+    boolean[] oldBooleans = booleans;
+    Object[] oldRefs = refs;
+
+    allocate(oldKeys.length * 2);
+    doubles = oldDoubles == null ? null : new double[keys.length];
+    ints = oldInts == null ? null : new int[keys.length];
+    booleans = oldBooleans == null ? null : new boolean[keys.length];
+    refs = oldRefs == null ? null : new Object[keys.length];
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldTags[i] == EMPTY) {
+        continue;
+      }
+
+      int index = indexOf(oldKeys[i]);
+      keys[index] = oldKeys[i];
+      tags[index] = oldTags[i];
+      if (oldDoubles != null) doubles[index] = oldDoubles[i];
+      if (oldInts != null) ints[index] = oldInts[i];
+      if (oldBooleans != null) booleans[index] = oldBooleans[i];
+      if (oldRefs != null) refs[index] = oldRefs[i];
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package dev.bnjc.bglib;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Remembers the sequence of property keys and types seen in previously parsed items, so items built from the same
+ * template can be parsed without searching for where each property is stored.
+ *
+ * <pre>
+ *   BGIParseOptions options = BGIParseOptions.builder()
+ *       .shapeCache(new BGIShapeCache())
+ *       .build();
+ * </pre>
+ *
+ * <p>Shapes form a tree per data version and property count. Each shape is one property (its key and type) and
+ * knows the slot its value is stored in, given the properties before it, and the shapes that have followed it so
+ * far. Parsing walks the tree alongside the data: while the next property matches a known shape, its value is
+ * decoded as that type straight into the recorded slot. A property that does not match adds a new shape, and once
+ * the cache is full the rest of the item is parsed normally.</p>
+ *
+ * <p>Items of the same type almost always have the same properties in the same order, so most parses follow a
+ * single path through the tree. This class is thread-safe, and a single cache is meant to be shared by every
+ * parse.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class BGIShapeCache {
+  /**
+   * The default number of shapes the cache can hold
+   */
+  public static final int DEFAULT_MAX_SHAPES = 16384;
+
+  private final int maxShapes;
+  private final Map<Integer, Shape> roots = new ConcurrentHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * Creates a cache holding at most the {@linkplain #DEFAULT_MAX_SHAPES default number of shapes}
+   *
+   * @since 0.3.0
+   */
+  public BGIShapeCache() {
+    this(DEFAULT_MAX_SHAPES);
+  }
+
+  /**
+   * Creates a cache holding at most the given number of shapes
+   *
+   * @param maxShapes The maximum number of shapes, where each shape is a single property of some item template
+   * @since 0.3.0
+   */
+  public BGIShapeCache(int maxShapes) {
+    if (maxShapes <= 0) {
+      throw new IllegalArgumentException("Maximum number of shapes must be positive");
+    }
+
+    this.maxShapes = maxShapes;
+  }
+
+  /**
+   * Returns the number of shapes currently cached
+   *
+   * @return the number of shapes
+   * @since 0.3.0
+   */
+  public int size() {
+    return size.get();
+  }
+
+  /**
+   * Removes every shape. Parses that are already walking the old shapes finish normally.
+   *
+   * @since 0.3.0
+   */
+  public void clear() {
+    roots.clear();
+    size.set(0);
+  }
+
+  /**
+   * Returns the shape before the first property of items with the given header
+   *
+   * @param dataVersion The data version of the item
+   * @param propertyCount The number of properties in the item
+   * @return the root shape, or {@code null} if the cache is full
+   */
+  @Nullable Shape root(int dataVersion, int propertyCount) {
+    int header = (dataVersion << 16) | (propertyCount & 0xFFFF);
+    Shape root = roots.get(header);
+    if (root == null && reserve()) {
+      root = roots.computeIfAbsent(header, k -> new Shape(0, null, -1));
+    }
+    return root;
+  }
+
+  private boolean reserve() {
+    if (size.incrementAndGet() > maxShapes) {
+      size.decrementAndGet();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * A single property of an item template, along with the slot its value is stored in
+   */
+  final class Shape {
+    private static final Shape[] NO_TRANSITIONS = new Shape[0];
+
+    final int key;
+    final BGIType type;
+    final int slot;
+    private volatile Shape[] transitions = NO_TRANSITIONS;
+
+    private Shape(int key, BGIType type, int slot) {
+      this.key = key;
+      this.type = type;
+      this.slot = slot;
+    }
+
+    /**
+     * Finds the shape of the property that follows this one
+     *
+     * @param key The key of the next property
+     * @param typeId The type id of the next property
+     * @return the next shape, or {@code null} if the property has not followed this one before
+     */
+    @Nullable Shape next(int key, byte typeId) {
+      for (Shape shape : transitions) {
+        if (shape.key == key && shape.type.typeId == typeId) {
+          return shape;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Records the property that follows this one
+     *
+     * @param key The key of the next property
+     * @param type The type of the next property
+     * @param slot The slot the next property is stored in
+     * @return the next shape, or {@code null} if the cache is full
+     */
+    synchronized @Nullable Shape addTransition(int key, BGIType type, int slot) {
+      Shape existing = next(key, type.typeId);
+      if (existing != null) {
+        return existing;
+      }
+      if (!reserve()) {
+        return null;
+      }
+
+      Shape shape = new Shape(key, type, slot);
+      Shape[] current = transitions;
+      Shape[] updated = new Shape[current.length + 1];
+      System.arraycopy(current, 0, updated, 0, current.length);
+      updated[current.length] = shape;
+      transitions = updated;
+      return shape;
+    }
+  }
+}
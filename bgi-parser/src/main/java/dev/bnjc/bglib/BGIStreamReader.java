@@ -0,0 +1,321 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.exceptions.BGIParseException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads back-to-back BGI records from a channel or input stream one at a time, using a single fixed size buffer.
+ * Memory use only depends on the largest record, never on the size of the input, so inputs larger than the heap can
+ * be read.
+ *
+ * <p>Two framings are supported:</p>
+ * <ul>
+ *   <li>{@linkplain #lengthPrefixed(ReadableByteChannel) Length-prefixed}, where each record is preceded by its
+ *   length as a big-endian int</li>
+ *   <li>{@linkplain #delimited(ReadableByteChannel) Delimited}, where records are separated by {@code <<<END>>>}, as
+ *   in the {@code itemBGI.bytes} test corpus</li>
+ * </ul>
+ *
+ * <pre>
+ *   try (BGIStreamReader reader = BGIStreamReader.delimited(Files.newInputStream(path))) {
+ *     BGIParseResult&lt;BGIData&gt; result;
+ *     while ((result = reader.next()) != null) {
+ *       result.ifSuccess(data -> ...);
+ *     }
+ *   }
+ * </pre>
+ *
+ * <p>This class is not thread-safe.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class BGIStreamReader implements Closeable {
+  /**
+   * The default size of the largest record that can be read
+   */
+  public static final int DEFAULT_MAX_RECORD_SIZE = 1 << 20;
+
+  private static final byte[] SEPARATOR = "<<<END>>>".getBytes(StandardCharsets.UTF_8);
+
+  private final ReadableByteChannel channel;
+  private final boolean delimited;
+  private final ByteBuffer buffer;
+  private final BGIEventReader eventReader = new BGIEventReader();
+  private BGIParseOptions options = BGIParseOptions.DEFAULT;
+  private boolean endOfInput;
+
+  private BGIStreamReader(ReadableByteChannel channel, boolean delimited, int maxRecordSize) {
+    if (maxRecordSize <= 0) {
+      throw new IllegalArgumentException("Maximum record size must be positive");
+    }
+
+    this.channel = channel;
+    this.delimited = delimited;
+    this.buffer = ByteBuffer.allocate(maxRecordSize + (delimited ? SEPARATOR.length : Integer.BYTES));
+    this.buffer.limit(0);
+  }
+
+  /**
+   * Creates a reader for records that are each preceded by their length as a big-endian int
+   *
+   * @param channel The channel to read from
+   * @return the reader
+   * @since 0.3.0
+   */
+  public static BGIStreamReader lengthPrefixed(ReadableByteChannel channel) {
+    return lengthPrefixed(channel, DEFAULT_MAX_RECORD_SIZE);
+  }
+
+  /**
+   * Creates a reader for records that are each preceded by their length as a big-endian int
+   *
+   * @param channel The channel to read from
+   * @param maxRecordSize The size of the largest record that can be read
+   * @return the reader
+   * @since 0.3.0
+   */
+  public static BGIStreamReader lengthPrefixed(ReadableByteChannel channel, int maxRecordSize) {
+    return new BGIStreamReader(channel, false, maxRecordSize);
+  }
+
+  /**
+   * Creates a reader for records that are each preceded by their length as a big-endian int
+   *
+   * @param in The input stream to read from
+   * @return the reader
+   * @since 0.3.0
+   */
+  public static BGIStreamReader lengthPrefixed(InputStream in) {
+    return lengthPrefixed(Channels.newChannel(in));
+  }
+
+  /**
+   * Creates a reader for records that are each preceded by their length as a big-endian int
+   *
+   * @param in The input stream to read from
+   * @param maxRecordSize The size of the largest record that can be read
+   * @return the reader
+   * @since 0.3.0
+   */
+  public static BGIStreamReader lengthPrefixed(InputStream in, int maxRecordSize) {
+    return lengthPrefixed(Channels.newChannel(in), maxRecordSize);
+  }
+
+  /**
+   * Creates a reader for records that are separated by {@code <<<END>>>}
+   *
+   * @param channel The channel to read from
+   * @return the reader
+   * @since 0.3.0
+   */
+  public static BGIStreamReader delimited(ReadableByteChannel channel) {
+    return delimited(channel, DEFAULT_MAX_RECORD_SIZE);
+  }
+
+  /**
+   * Creates a reader for records that are separated by {@code <<<END>>>}
+   *
+   * @param channel The channel to read from
+   * @param maxRecordSize The size of the largest record that can be read
+   * @return the reader
+   * @since 0.3.0
+   */
+  public static BGIStreamReader delimited(ReadableByteChannel channel, int maxRecordSize) {
+    return new BGIStreamReader(channel, true, maxRecordSize);
+  }
+
+  /**
+   * Creates a reader for records that are separated by {@code <<<END>>>}
+   *
+   * @param in The input stream to read from
+   * @return the reader
+   * @since 0.3.0
+   */
+  public static BGIStreamReader delimited(InputStream in) {
+    return delimited(Channels.newChannel(in));
+  }
+
+  /**
+   * Creates a reader for records that are separated by {@code <<<END>>>}
+   *
+   * @param in The input stream to read from
+   * @param maxRecordSize The size of the largest record that can be read
+   * @return the reader
+   * @since 0.3.0
+   */
+  public static BGIStreamReader delimited(InputStream in, int maxRecordSize) {
+    return delimited(Channels.newChannel(in), maxRecordSize);
+  }
+
+  /**
+   * Sets the options used by {@link #next()}
+   *
+   * @param options Options used to control the parsing
+   * @return this reader
+   * @since 0.3.0
+   */
+  public BGIStreamReader withOptions(BGIParseOptions options) {
+    this.options = options;
+    return this;
+  }
+
+  /**
+   * Reads and parses the next record. The record is copied out of the reader's buffer first, so the result stays
+   * valid after later records are read.
+   *
+   * @return the result of parsing the next record, or {@code null} at the end of the input
+   * @throws IOException if the input could not be read, ends in the middle of a record or has a record larger than
+   *                     the maximum record size
+   * @since 0.3.0
+   */
+  public @Nullable BGIParseResult<BGIData> next() throws IOException {
+    ByteBuffer record = nextRecord();
+    if (record == null) {
+      return null;
+    }
+
+    byte[] data = new byte[record.remaining()];
+    record.get(data);
+    return BGIParser.parse(data, options);
+  }
+
+  /**
+   * Reads the next record and passes its properties to the visitor, straight from the reader's buffer
+   *
+   * @param visitor The visitor to call
+   * @return {@code false} at the end of the input
+   * @throws IOException if the input could not be read, ends in the middle of a record or has a record larger than
+   *                     the maximum record size
+   * @throws BGIParseException if the record is not valid BGI data
+   * @since 0.3.0
+   * @see BGIEventReader
+   */
+  public boolean next(BGIVisitor visitor) throws IOException, BGIParseException {
+    ByteBuffer record = nextRecord();
+    if (record == null) {
+      return false;
+    }
+
+    eventReader.read(record, visitor);
+    return true;
+  }
+
+  /**
+   * Reads the next record without parsing it. The returned buffer is a view of the reader's buffer, so it is only
+   * valid until the next record is read.
+   *
+   * @return the bytes of the next record, or {@code null} at the end of the input
+   * @throws IOException if the input could not be read, ends in the middle of a record or has a record larger than
+   *                     the maximum record size
+   * @since 0.3.0
+   */
+  public @Nullable ByteBuffer nextRecord() throws IOException {
+    return delimited ? nextDelimitedRecord() : nextLengthPrefixedRecord();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private @Nullable ByteBuffer nextLengthPrefixedRecord() throws IOException {
+    if (!fill(Integer.BYTES)) {
+      if (buffer.hasRemaining()) {
+        throw new EOFException("Input ended in the middle of a record length");
+      }
+      return null;
+    }
+
+    int length = buffer.getInt();
+    if (length < 0 || length > buffer.capacity() - Integer.BYTES) {
+      throw new IOException("Record length [" + length + "] exceeds the maximum record size");
+    }
+
+    if (!fill(length)) {
+      throw new EOFException("Input ended in the middle of a record");
+    }
+
+    ByteBuffer record = buffer.slice(buffer.position(), length);
+    buffer.position(buffer.position() + length);
+    return record;
+  }
+
+  private @Nullable ByteBuffer nextDelimitedRecord() throws IOException {
+    int searched = 0;
+    while (true) {
+      int separator = indexOfSeparator(buffer.position() + searched);
+      if (separator >= 0) {
+        ByteBuffer record = buffer.slice(buffer.position(), separator - buffer.position());
+        buffer.position(separator + SEPARATOR.length);
+        return record;
+      }
+
+      // The separator may start in the last few bytes, so only skip what cannot be part of it
+      searched = Math.max(0, buffer.remaining() - SEPARATOR.length + 1);
+      if (!fill(buffer.remaining() + 1)) {
+        break;
+      }
+    }
+
+    if (!buffer.hasRemaining()) {
+      return null;
+    }
+
+    // The last record does not need a separator after it
+    ByteBuffer record = buffer.slice();
+    buffer.position(buffer.limit());
+    return record;
+  }
+
+  private int indexOfSeparator(int from) {
+    int last = buffer.limit() - SEPARATOR.length;
+    outer:
+    for (int i = from; i <= last; i++) {
+      for (int j = 0; j < SEPARATOR.length; j++) {
+        if (buffer.get(i + j) != SEPARATOR[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Reads from the channel until at least the given number of bytes are available, moving the unread bytes to the
+   * start of the buffer first if needed
+   *
+   * @return {@code false} if the input ended before enough bytes were available
+   */
+  private boolean fill(int required) throws IOException {
+    if (buffer.remaining() >= required) {
+      return true;
+    }
+
+    if (required > buffer.capacity()) {
+      throw new IOException("Record exceeds the maximum record size of [" + (buffer.capacity() - (delimited ? SEPARATOR.length : Integer.BYTES)) + "] bytes");
+    }
+
+    buffer.compact();
+    try {
+      while (buffer.position() < required && !endOfInput) {
+        if (channel.read(buffer) < 0) {
+          endOfInput = true;
+        }
+      }
+    } finally {
+      buffer.flip();
+    }
+    return buffer.remaining() >= required;
+  }
+}
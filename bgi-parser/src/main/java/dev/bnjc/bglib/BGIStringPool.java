@@ -0,0 +1,189 @@
+package dev.bnjc.bglib;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A bounded pool used to deduplicate the short strings that repeat across items, such as tiers, set names, stat
+ * keys and ability modifiers. Strings are looked up by their encoded UTF-8 bytes, so a repeated string is found
+ * before any {@link String} is created for it.
+ *
+ * <pre>
+ *   BGIParseOptions options = BGIParseOptions.builder()
+ *       .stringPool(new BGIStringPool())
+ *       .build();
+ * </pre>
+ *
+ * <p>The pool is a fixed size, direct-mapped table: each string can only be stored in the one slot its hash maps to,
+ * and a new string replaces whatever was in its slot. The pool therefore never grows, and lookups never need to
+ * probe. Strings longer than the maximum length (such as lore lines) are never pooled.</p>
+ *
+ * <p>This class is thread-safe, and a single pool is meant to be shared by every parse.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class BGIStringPool {
+  /**
+   * The default number of slots in the pool
+   */
+  public static final int DEFAULT_CAPACITY = 4096;
+
+  /**
+   * The default length in bytes of the longest string that is pooled
+   */
+  public static final int DEFAULT_MAX_LENGTH = 64;
+
+  private final Entry[] table;
+  private final int mask;
+  private final int maxLength;
+
+  /**
+   * Creates a pool with the {@linkplain #DEFAULT_CAPACITY default capacity} and
+   * {@linkplain #DEFAULT_MAX_LENGTH maximum length}
+   *
+   * @since 0.3.0
+   */
+  public BGIStringPool() {
+    this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+  }
+
+  /**
+   * Creates a pool with the given size
+   *
+   * @param capacity The number of slots in the pool, rounded up to a power of two
+   * @param maxLength The length in bytes of the longest string that is pooled
+   * @since 0.3.0
+   */
+  public BGIStringPool(int capacity, int maxLength) {
+    if (capacity <= 0 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+    }
+    if (maxLength < 0) {
+      throw new IllegalArgumentException("Maximum length must not be negative");
+    }
+
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+
+    this.table = new Entry[size];
+    this.mask = size - 1;
+    this.maxLength = maxLength;
+  }
+
+  /**
+   * Returns the string encoded by the given UTF-8 bytes, reusing the pooled instance if the same bytes were seen
+   * before
+   *
+   * @param bytes The array holding the encoded string
+   * @param offset The index of the first byte
+   * @param length The number of bytes
+   * @return the decoded string
+   * @since 0.3.0
+   */
+  public String get(byte[] bytes, int offset, int length) {
+    if (length > maxLength) {
+      return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    int hash = 1;
+    for (int i = offset; i < offset + length; i++) {
+      hash = 31 * hash + bytes[i];
+    }
+    int index = slot(hash);
+
+    // Entries are immutable, so a racing replacement is either fully visible or not at all
+    Entry entry = table[index];
+    if (entry != null && Arrays.equals(entry.bytes, 0, entry.bytes.length, bytes, offset, offset + length)) {
+      return entry.value;
+    }
+
+    String value = new String(bytes, offset, length, StandardCharsets.UTF_8);
+    table[index] = new Entry(Arrays.copyOfRange(bytes, offset, offset + length), value);
+    return value;
+  }
+
+  /**
+   * Returns the string encoded by the given UTF-8 bytes of a buffer, reusing the pooled instance if the same bytes
+   * were seen before. Buffers without an accessible array, such as direct, memory-mapped and read-only buffers, are
+   * compared byte by byte with absolute reads, so a pooled string is found without copying the bytes. The buffer's
+   * position is not changed.
+   *
+   * @param buffer The buffer holding the encoded string
+   * @param index The index of the first byte
+   * @param length The number of bytes
+   * @return the decoded string
+   * @since 0.3.0
+   */
+  public String get(ByteBuffer buffer, int index, int length) {
+    if (buffer.hasArray()) {
+      return get(buffer.array(), buffer.arrayOffset() + index, length);
+    }
+
+    if (length > maxLength) {
+      return new String(copy(buffer, index, length), StandardCharsets.UTF_8);
+    }
+
+    int hash = 1;
+    for (int i = index; i < index + length; i++) {
+      hash = 31 * hash + buffer.get(i);
+    }
+    int slot = slot(hash);
+
+    Entry entry = table[slot];
+    if (entry != null && entry.matches(buffer, index, length)) {
+      return entry.value;
+    }
+
+    byte[] bytes = copy(buffer, index, length);
+    String value = new String(bytes, StandardCharsets.UTF_8);
+    table[slot] = new Entry(bytes, value);
+    return value;
+  }
+
+  /**
+   * Returns the length in bytes of the longest string that is pooled
+   *
+   * @return the maximum length in bytes
+   * @since 0.3.0
+   */
+  public int getMaxLength() {
+    return maxLength;
+  }
+
+  /**
+   * Removes every pooled string
+   *
+   * @since 0.3.0
+   */
+  public void clear() {
+    Arrays.fill(table, null);
+  }
+
+  private int slot(int hash) {
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  private static byte[] copy(ByteBuffer buffer, int index, int length) {
+    byte[] bytes = new byte[length];
+    buffer.get(index, bytes);
+    return bytes;
+  }
+
+  private record Entry(byte[] bytes, String value) {
+    boolean matches(ByteBuffer buffer, int index, int length) {
+      if (bytes.length != length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (bytes[i] != buffer.get(index + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
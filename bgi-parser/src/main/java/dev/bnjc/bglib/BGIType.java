@@ -1,7 +1,5 @@
 package dev.bnjc.bglib;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -32,14 +30,20 @@ public enum BGIType {
     this.typeClass = typeClass;
   }
 
-  private static final Map<Byte, BGIType> BY_ID = new HashMap<>();
+  private static final BGIType[] BY_ID;
   static {
+    int maxId = 0;
     for (var type : values()) {
-      BY_ID.put(type.typeId, type);
+      maxId = Math.max(maxId, type.typeId);
+    }
+
+    BY_ID = new BGIType[maxId + 1];
+    for (var type : values()) {
+      BY_ID[type.typeId] = type;
     }
   }
 
   public static BGIType fromTypeId(byte id) {
-    return BY_ID.get(id);
+    return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
   }
 }
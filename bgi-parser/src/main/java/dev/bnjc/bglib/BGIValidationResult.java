@@ -0,0 +1,96 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.exceptions.BGIParseException;
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The result of {@link BGIValidator#validate(byte[])}: either {@link #OK}, or the first violation found along with
+ * where it was found.
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class BGIValidationResult {
+  /**
+   * The result of validating well-formed BGI data
+   */
+  public static final BGIValidationResult OK = new BGIValidationResult(null, -1, 0);
+
+  private final @Nullable ErrorCode errorCode;
+  private final int offset;
+  private final int key;
+
+  private BGIValidationResult(@Nullable ErrorCode errorCode, int offset, int key) {
+    this.errorCode = errorCode;
+    this.offset = offset;
+    this.key = key;
+  }
+
+  static BGIValidationResult invalid(ErrorCode errorCode, int offset, int key) {
+    return new BGIValidationResult(errorCode, offset, key);
+  }
+
+  /**
+   * Whether the data is well-formed
+   *
+   * @return {@code true} if no violation was found
+   * @since 0.3.0
+   */
+  public boolean isValid() {
+    return errorCode == null;
+  }
+
+  /**
+   * Returns the kind of violation found
+   *
+   * @return the error code, or {@code null} if the data is well-formed
+   * @since 0.3.0
+   */
+  public @Nullable ErrorCode getErrorCode() {
+    return errorCode;
+  }
+
+  /**
+   * Returns the offset of the violation from the start of the BGI data
+   *
+   * @return the offset, or {@code -1} if the data is well-formed
+   * @since 0.3.0
+   */
+  public int getOffset() {
+    return offset;
+  }
+
+  /**
+   * Returns the key hash of the top-level property containing the violation
+   *
+   * @return the key hash, or {@code 0} if the violation is not inside a property
+   * @since 0.3.0
+   */
+  public int getKey() {
+    return key;
+  }
+
+  /**
+   * Converts the violation into a {@linkplain BGIParseException#stackless(ErrorCode, int, int) stackless exception}
+   *
+   * @return the exception, or {@code null} if the data is well-formed
+   * @since 0.3.0
+   */
+  public @Nullable BGIParseException toException() {
+    return errorCode == null ? null : BGIParseException.stackless(errorCode, offset, key);
+  }
+
+  @Override
+  public String toString() {
+    if (errorCode == null) {
+      return "BGIValidationResult{OK}";
+    }
+
+    return "BGIValidationResult{" +
+        "errorCode=" + errorCode +
+        ", offset=" + offset +
+        ", key=" + key +
+        '}';
+  }
+}
@@ -0,0 +1,312 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import dev.bnjc.bglib.stream.StreamLayout;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Checks whether BGI data is well-formed without decoding it. The header, every property's type and length, and
+ * every stream (including streams nested in history entries) are walked with absolute reads, following the
+ * {@link StreamLayout} of each stream, and no string, array or stream object is created.
+ *
+ * <pre>
+ *   BGIValidationResult result = BGIValidator.validate(bytes);
+ *   if (!result.isValid()) {
+ *     LOGGER.warn("Corrupt item at offset {}: {}", result.getOffset(), result.getErrorCode());
+ *   }
+ * </pre>
+ *
+ * <p>Validation is slightly stricter than parsing. Anything {@link BGIParser} would have to replace with
+ * {@code null}, such as an empty stream or one with an unsupported version, is a violation, as are negative counts
+ * and lengths and variable ints that are cut off at the end of the data.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class BGIValidator {
+  // Returned by the walking methods once a violation has been recorded
+  private static final int INVALID = -1;
+
+  private final ByteBuffer buffer;
+  private int limit;
+  private int varInt;
+  private ErrorCode errorCode;
+  private int errorOffset;
+
+  private BGIValidator(ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.limit = buffer.limit();
+  }
+
+  /**
+   * Validates the specified byte array
+   *
+   * @param data Byte array from NBT data
+   * @return {@link BGIValidationResult#OK}, or the first violation found
+   * @since 0.3.0
+   */
+  public static BGIValidationResult validate(byte[] data) {
+    return new BGIValidator(ByteBuffer.wrap(data)).validate();
+  }
+
+  /**
+   * Validates the BGI data between the buffer's position and limit. The buffer's position is not changed.
+   *
+   * @param data Buffer holding the BGI data
+   * @return {@link BGIValidationResult#OK}, or the first violation found
+   * @since 0.3.0
+   */
+  public static BGIValidationResult validate(ByteBuffer data) {
+    return new BGIValidator(data.slice()).validate();
+  }
+
+  private BGIValidationResult validate() {
+    if (limit < 5) {
+      return BGIValidationResult.invalid(ErrorCode.DATA_TOO_SHORT, 0, 0);
+    }
+
+    if (buffer.get(0) != 7) {
+      return BGIValidationResult.invalid(ErrorCode.GOBLINLESS, 0, 0);
+    }
+
+    int numAttributes = buffer.getShort(3);
+    int position = 5;
+    for (int i = 0; i < numAttributes; i++) {
+      if (limit - position < 5) {
+        return BGIValidationResult.invalid(ErrorCode.DATA_TOO_SHORT, position, 0);
+      }
+
+      int key = buffer.getInt(position);
+      position = value(key, position + 4);
+      if (position == INVALID) {
+        return BGIValidationResult.invalid(errorCode, errorOffset, key);
+      }
+    }
+
+    return BGIValidationResult.OK;
+  }
+
+  /**
+   * Walks a type id followed by a value of that type
+   */
+  private int value(int key, int position) {
+    if (position >= limit) {
+      return fail(ErrorCode.DATA_TOO_SHORT, position);
+    }
+
+    BGIType type = BGIType.fromTypeId(buffer.get(position));
+    if (type == null) {
+      return fail(ErrorCode.UNKNOWN_DATA_TYPE, position);
+    }
+    return value(key, type, position + 1);
+  }
+
+  /**
+   * Walks a value of the given type
+   */
+  private int value(int key, BGIType type, int position) {
+    return switch (type) {
+      case BYTE, BOOLEAN -> bytes(position, 1);
+      case SHORT -> bytes(position, 2);
+      case FLOAT -> bytes(position, 4);
+      case LONG, DOUBLE -> bytes(position, 8);
+      case UUID -> bytes(position, 16);
+      case INTEGER -> varInt(position);
+      case STRING -> string(position);
+      case STRING_ARRAY -> stringArray(position);
+      case STREAM -> stream(key, position);
+    };
+  }
+
+  private int stream(int key, int position) {
+    position = count(position);
+    if (position == INVALID) {
+      return INVALID;
+    }
+
+    int end = position + varInt;
+    if (varInt > limit - position) {
+      return fail(ErrorCode.DATA_TOO_SHORT, position);
+    }
+    if (varInt == 0) {
+      return fail(ErrorCode.DATA_TOO_SHORT, position);
+    }
+
+    // Walk the stream as if it were the whole buffer, so it cannot read past its own length
+    int outerLimit = limit;
+    limit = end;
+    int streamEnd = fields(StreamLayout.forKey(key).getFields(), position);
+    limit = outerLimit;
+
+    return streamEnd == INVALID ? INVALID : end;
+  }
+
+  /**
+   * Walks the fields of a stream, or of one element of a list in a stream
+   */
+  private int fields(List<StreamLayout.Field> fields, int position) {
+    // The last string walked, which is the key of a typed value stored after it
+    int keyStart = position;
+    int keyEnd = position;
+
+    for (int i = 0; i < fields.size() && position != INVALID; i++) {
+      StreamLayout.Field field = fields.get(i);
+      position = switch (field.kind()) {
+        case VERSION -> {
+          if (position >= limit) {
+            yield fail(ErrorCode.DATA_TOO_SHORT, position);
+          }
+          yield buffer.get(position) > 1 ? fail(ErrorCode.UNSUPPORTED_STREAM_VERSION, position) : position + 1;
+        }
+        case VALUE -> {
+          int next = value(0, field.type(), position);
+          if (next != INVALID && field.type() == BGIType.STRING) {
+            keyStart = next - varInt;
+            keyEnd = next;
+          }
+          yield next;
+        }
+        case OPTIONAL -> {
+          position = flag(position);
+          yield position == INVALID || varInt == 0 ? position : value(0, field.type(), position);
+        }
+        // Entry values are read with the entry name's hash as their key, which decides how a nested stream is laid out
+        case TYPED -> value(stringHash(keyStart, keyEnd), position);
+        case LIST -> elements(field.children(), position);
+        case FLAGGED_LIST -> {
+          position = flag(position);
+          yield position == INVALID || varInt == 0 ? position : elements(field.children(), position);
+        }
+        case REPEATED -> {
+          while (position != INVALID && position < limit) {
+            position = fields(field.children(), position);
+          }
+          yield position;
+        }
+      };
+    }
+    return position;
+  }
+
+  /**
+   * Walks a count followed by that many elements with the given fields
+   */
+  private int elements(List<StreamLayout.Field> fields, int position) {
+    position = count(position);
+    for (int i = 0, count = varInt; i < count && position != INVALID; i++) {
+      position = fields(fields, position);
+    }
+    return position;
+  }
+
+  /**
+   * Walks a presence flag, leaving {@link #varInt} set to 1 if it is set
+   */
+  private int flag(int position) {
+    position = bytes(position, 1);
+    varInt = position != INVALID && buffer.get(position - 1) != 0 ? 1 : 0;
+    return position;
+  }
+
+  /**
+   * Computes {@link String#hashCode()} of the UTF-8 string between the two offsets without decoding it. Each byte of
+   * a malformed sequence counts as a replacement character, which may not match the decoder but cannot match the
+   * name of a stream field either.
+   */
+  private int stringHash(int start, int end) {
+    int hash = 0;
+    int position = start;
+    while (position < end) {
+      int b = buffer.get(position) & 0xFF;
+      int length = b < 0x80 ? 1 : b >= 0xC2 && b < 0xE0 ? 2 : b >= 0xE0 && b < 0xF0 ? 3 : b >= 0xF0 && b < 0xF5 ? 4 : 0;
+      int codePoint = length == 1 ? b : b & (0x3F >> (length - 1));
+      for (int i = 1; i < length; i++) {
+        int next = position + i < end ? buffer.get(position + i) & 0xFF : 0;
+        if ((next & 0xC0) != 0x80) {
+          length = 0;
+          break;
+        }
+        codePoint = (codePoint << 6) | (next & 0x3F);
+      }
+
+      if (length == 0) {
+        hash = 31 * hash + 0xFFFD;
+        position++;
+      } else if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+        hash = 31 * (31 * hash + Character.highSurrogate(codePoint)) + Character.lowSurrogate(codePoint);
+        position += length;
+      } else {
+        hash = 31 * hash + codePoint;
+        position += length;
+      }
+    }
+    return hash;
+  }
+
+  private int stringArray(int position) {
+    position = count(position);
+    for (int i = 0, count = varInt; i < count && position != INVALID; i++) {
+      position = string(position);
+    }
+    return position;
+  }
+
+  private int string(int position) {
+    position = count(position);
+    return position == INVALID ? INVALID : bytes(position, varInt);
+  }
+
+  /**
+   * Walks a variable int that must not be negative, such as a length or a count
+   */
+  private int count(int position) {
+    int start = position;
+    position = varInt(position);
+    if (position != INVALID && varInt < 0) {
+      return fail(ErrorCode.MALFORMED_VAR_INT, start);
+    }
+    return position;
+  }
+
+  /**
+   * Walks a variable int, leaving its value in {@link #varInt}
+   */
+  private int varInt(int position) {
+    if (position == INVALID) {
+      return INVALID;
+    }
+
+    int value = 0;
+    for (int i = 0; i < 5; i++) {
+      if (position + i >= limit) {
+        return fail(ErrorCode.DATA_TOO_SHORT, position + i);
+      }
+
+      byte b = buffer.get(position + i);
+      value |= (b & 0x7F) << (7 * i);
+      if ((b & 0x80) == 0) {
+        varInt = value;
+        return position + i + 1;
+      }
+    }
+    return fail(ErrorCode.MALFORMED_VAR_INT, position);
+  }
+
+  private int bytes(int position, int length) {
+    if (position == INVALID) {
+      return INVALID;
+    }
+    if (length > limit - position) {
+      return fail(ErrorCode.DATA_TOO_SHORT, position);
+    }
+    return position + length;
+  }
+
+  private int fail(ErrorCode code, int position) {
+    errorCode = code;
+    errorOffset = position;
+    return INVALID;
+  }
+}
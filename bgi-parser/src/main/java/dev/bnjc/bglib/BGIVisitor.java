@@ -0,0 +1,121 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.stream.object.StreamObject;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Receives the properties of BGI data as they are read by a {@link BGIEventReader}. Every method has an empty default
+ * implementation, so a visitor only needs to override the callbacks it cares about.
+ *
+ * <p>Values are passed as primitives, so nothing is boxed. Strings are passed as a
+ * {@link dev.bnjc.bglib.utils.Utf8CharSequence} that reads the encoded bytes directly, is reused by the reader and is
+ * only valid until the callback returns; call {@link CharSequence#toString()} to keep the value.</p>
+ *
+ * <pre>
+ *   reader.read(data, new BGIVisitor() {
+ *     &#64;Override
+ *     public void visitDouble(int key, double value) {
+ *       if (key == BGIField.DEFENSE.key()) {
+ *         totalDefense += value;
+ *       }
+ *     }
+ *   });
+ * </pre>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public interface BGIVisitor {
+  /**
+   * Called once, before any property is visited
+   *
+   * @param dataVersion The data version of the BGI data
+   * @param propertyCount The number of properties that follow
+   */
+  default void visitHeader(int dataVersion, int propertyCount) {}
+
+  /**
+   * Called before each property value is read. Returning {@code false} skips the value without decoding it, so none
+   * of the value callbacks are called for this property.
+   *
+   * @param key The property key hash
+   * @param type The type of the property value
+   * @return {@code true} to read the value, {@code false} to skip it
+   */
+  default boolean visitProperty(int key, BGIType type) {
+    return true;
+  }
+
+  default void visitByte(int key, byte value) {}
+
+  default void visitShort(int key, short value) {}
+
+  default void visitInt(int key, int value) {}
+
+  default void visitLong(int key, long value) {}
+
+  default void visitFloat(int key, float value) {}
+
+  default void visitDouble(int key, double value) {}
+
+  default void visitBoolean(int key, boolean value) {}
+
+  /**
+   * Called for a {@link BGIType#UUID} value, split into its two halves so no {@link java.util.UUID} is created
+   *
+   * @param key The property key hash
+   * @param mostSigBits The most significant bits of the UUID
+   * @param leastSigBits The least significant bits of the UUID
+   */
+  default void visitUUID(int key, long mostSigBits, long leastSigBits) {}
+
+  /**
+   * Called for a {@link BGIType#STRING} value
+   *
+   * @param key The property key hash
+   * @param value The string, only valid until this method returns
+   */
+  default void visitString(int key, CharSequence value) {}
+
+  /**
+   * Called at the start of a {@link BGIType#STRING_ARRAY} value, before each of its elements is visited
+   *
+   * @param key The property key hash
+   * @param length The number of elements in the array
+   */
+  default void visitStringArray(int key, int length) {}
+
+  /**
+   * Called for each element of a {@link BGIType#STRING_ARRAY} value
+   *
+   * @param key The property key hash
+   * @param index The index of the element
+   * @param value The element, only valid until this method returns
+   */
+  default void visitStringArrayElement(int key, int index, CharSequence value) {}
+
+  /**
+   * Called at the start of a {@link BGIType#STREAM} value. Streams are skipped unless this returns {@code true}, in
+   * which case the stream is decoded and passed to {@link #visitStream(int, StreamObject)}.
+   *
+   * @param key The property key hash
+   * @param length The length of the stream in bytes
+   * @return {@code true} to decode the stream
+   */
+  default boolean visitStreamStart(int key, int length) {
+    return false;
+  }
+
+  /**
+   * Called with a decoded stream, if requested by {@link #visitStreamStart(int, int)}
+   *
+   * @param key The property key hash
+   * @param stream The decoded stream, or {@code null} if it could not be decoded
+   */
+  default void visitStream(int key, @Nullable StreamObject stream) {}
+
+  /**
+   * Called once, after every property has been visited
+   */
+  default void visitEnd() {}
+}
@@ -3,24 +3,42 @@ package dev.bnjc.bglib;
 import net.minecraft.component.DataComponentTypes;
 import net.minecraft.component.type.NbtComponent;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.Deque;
-import java.util.LinkedList;
 
 /**
- * A helper class used to simulate how the server would convert the old 
+ * A helper class used to simulate how the server would convert the old NBT item data into BGI data. Properties are
+ * written in the order they are added, and {@link #write()} puts the header in front of them.
  */
 public final class BGIWriter {
-  private final Deque<Byte> bytes;
+  private static final int HEADER_SIZE = 5;
+  private static final int DEFAULT_CAPACITY = 256;
+
   private final short dataVersion;
+  private byte[] bytes;
+  private int length;
   private short propertyCount;
 
   public BGIWriter(short dataVersion) {
-    this.bytes = new LinkedList<>();
+    this(dataVersion, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a writer whose buffer can hold the given number of property bytes before it has to grow
+   *
+   * @param dataVersion The data version written in the header
+   * @param initialCapacity The initial size of the property buffer
+   * @since 0.3.0
+   */
+  public BGIWriter(short dataVersion, int initialCapacity) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("Initial capacity must not be negative");
+    }
+
+    this.bytes = new byte[initialCapacity];
     this.dataVersion = dataVersion;
     this.propertyCount = 0;
   }
@@ -65,30 +83,55 @@ public final class BGIWriter {
     return this;
   }
 
-  public byte[] write() {
-    byte[] result = new byte[bytes.size() + 5];
-
-    int i = 0;
-
-    // Add gobliness
-    result[i++] = 7;
-
-    // Add data version
-    for (byte b : ByteBuffer.allocate(2).putShort(dataVersion).array()) {
-      result[i++] = b;
-    }
+  /**
+   * Returns the number of bytes {@link #write()} would produce, including the header
+   *
+   * @return the encoded size in bytes
+   * @since 0.3.0
+   */
+  public int size() {
+    return HEADER_SIZE + length;
+  }
+
+  /**
+   * Removes every property so the writer can be reused for another item. The buffer is kept.
+   *
+   * @return this writer
+   * @since 0.3.0
+   */
+  public BGIWriter reset() {
+    length = 0;
+    propertyCount = 0;
+    return this;
+  }
 
-    // Add number of properties
-    for (byte b : ByteBuffer.allocate(2).putShort(propertyCount).array()) {
-      result[i++] = b;
-    }
+  public byte[] write() {
+    byte[] result = new byte[size()];
+    writeHeader(result);
+    System.arraycopy(bytes, 0, result, HEADER_SIZE, length);
+    return result;
+  }
 
-    // Insert the rest of the data
-    for (byte b : bytes) {
-      result[i++] = b;
+  /**
+   * Writes the encoded data into the given buffer, starting at its current position. The bytes are always written
+   * big-endian, regardless of the buffer's order.
+   *
+   * @param buffer The buffer to write to
+   * @return the number of bytes written
+   * @throws BufferOverflowException if fewer than {@link #size()} bytes remain in the buffer
+   * @since 0.3.0
+   */
+  public int writeTo(ByteBuffer buffer) {
+    int size = size();
+    if (buffer.remaining() < size) {
+      throw new BufferOverflowException();
     }
 
-    return result;
+    buffer.put((byte) 7);
+    buffer.put((byte) (dataVersion >> 8)).put((byte) dataVersion);
+    buffer.put((byte) (propertyCount >> 8)).put((byte) propertyCount);
+    buffer.put(bytes, 0, length);
+    return size;
   }
 
   public void writeToCustomData(ItemStack itemStack) {
@@ -101,6 +144,19 @@ public final class BGIWriter {
     itemStack.set(DataComponentTypes.CUSTOM_DATA, component);
   }
 
+  private void writeHeader(byte[] dest) {
+    // Add gobliness
+    dest[0] = 7;
+
+    // Add data version
+    dest[1] = (byte) (dataVersion >> 8);
+    dest[2] = (byte) dataVersion;
+
+    // Add number of properties
+    dest[3] = (byte) (propertyCount >> 8);
+    dest[4] = (byte) propertyCount;
+  }
+
   private void putPropertyHeader(String key, BGIType type) {
     putInt(key.hashCode());
     putByte(type.typeId);
@@ -108,40 +164,70 @@ public final class BGIWriter {
     propertyCount++;
   }
 
+  private void ensureCapacity(int additional) {
+    int required = length + additional;
+    if (required > bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+    }
+  }
+
   private void putByte(byte val) {
-    bytes.addLast(val);
+    ensureCapacity(1);
+    bytes[length++] = val;
   }
 
   private void putBytes(byte[] byteArray) {
-    for (byte b : byteArray) {
-      bytes.addLast(b);
-    }
+    ensureCapacity(byteArray.length);
+    System.arraycopy(byteArray, 0, bytes, length, byteArray.length);
+    length += byteArray.length;
   }
 
-  private void putShort(short val) {
-    putBytes(ByteBuffer.allocate(2).putShort(val).array());
+  private void putInt(int val) {
+    ensureCapacity(4);
+    bytes[length++] = (byte) (val >> 24);
+    bytes[length++] = (byte) (val >> 16);
+    bytes[length++] = (byte) (val >> 8);
+    bytes[length++] = (byte) val;
   }
 
-  private void putInt(int val) {
-    putBytes(ByteBuffer.allocate(4).putInt(val).array());
+  private void putLong(long val) {
+    ensureCapacity(8);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      bytes[length++] = (byte) (val >> shift);
+    }
   }
 
   private void putVarInt(int val) {
+    ensureCapacity(5);
     while ((val & 0xFFFFFF80) != 0) {
-      bytes.addLast((byte) ((val & 0x7F) | 0x80));
+      bytes[length++] = (byte) ((val & 0x7F) | 0x80);
       val >>>= 7;
     }
-    bytes.addLast((byte) (val & 0x7F));
+    bytes[length++] = (byte) (val & 0x7F);
   }
 
   private void putDouble(double val) {
-    putBytes(ByteBuffer.allocate(8).putDouble(val).array());
+    putLong(Double.doubleToRawLongBits(val));
   }
 
   private void putString(String val) {
-    byte[] strBytes = val.getBytes(StandardCharsets.UTF_8);
-    putVarInt(strBytes.length);
-    putBytes(strBytes);
+    int strLength = val.length();
+    for (int i = 0; i < strLength; i++) {
+      if (val.charAt(i) >= 0x80) {
+        // Let the charset handle multi-byte characters and surrogates
+        byte[] strBytes = val.getBytes(StandardCharsets.UTF_8);
+        putVarInt(strBytes.length);
+        putBytes(strBytes);
+        return;
+      }
+    }
+
+    // ASCII strings encode to one byte per character
+    putVarInt(strLength);
+    ensureCapacity(strLength);
+    for (int i = 0; i < strLength; i++) {
+      bytes[length++] = (byte) val.charAt(i);
+    }
   }
 
   private void putBoolean(boolean val) {
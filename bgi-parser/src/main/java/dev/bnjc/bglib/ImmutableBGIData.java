@@ -0,0 +1,145 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.stream.object.StreamObject;
+import dev.bnjc.bglib.utils.IntObjConsumer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A {@link BGIData} that can never change, created by {@link BGIData#toImmutable()}. Every value is decoded and
+ * boxed once when the copy is made, so reading and iterating the attributes only allocates to copy string arrays,
+ * and the data can be shared between threads without synchronization.
+ *
+ * <p>The immutability is deep: string arrays are copied every time they are handed out, and streams are replaced
+ * by {@linkplain StreamObject#toImmutable() immutable copies} whose lists and maps cannot be modified, down to the
+ * streams and string arrays held by history entries. The streams are decoded on first use, which is thread-safe.
+ * The data it was copied from is not changed.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class ImmutableBGIData extends BGIData {
+  // Sorted by key so that lookups can use a binary search
+  private final int[] keys;
+  private final Object[] values;
+
+  private ImmutableBGIData(int dataVersion, int[] keys, Object[] values) {
+    super(dataVersion);
+    this.keys = keys;
+    this.values = values;
+  }
+
+  /**
+   * Copies the properties of the given data. If a key is stored more than once, the first value is kept, which is
+   * the value the data itself returns.
+   *
+   * @param data The data to copy
+   * @return the immutable copy
+   */
+  static ImmutableBGIData copyOf(BGIData data) {
+    int[] keys = new int[data.size()];
+    Object[] values = new Object[keys.length];
+    int[] count = {0};
+    data.forEachProperty((key, value) -> {
+      if (count[0] < keys.length) {
+        keys[count[0]] = key;
+        values[count[0]] = switch (value) {
+          case String[] array -> array.clone();
+          case StreamObject stream -> stream.toImmutable();
+          case null, default -> value;
+        };
+        count[0]++;
+      }
+    });
+
+    // Sort by key and then by index, packed together so the sort needs no boxing
+    int size = count[0];
+    long[] order = new long[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = ((long) keys[i] << 32) | i;
+    }
+    Arrays.sort(order);
+
+    int[] sortedKeys = new int[size];
+    Object[] sortedValues = new Object[size];
+    int unique = 0;
+    for (long entry : order) {
+      int key = (int) (entry >> 32);
+      if (unique > 0 && sortedKeys[unique - 1] == key) {
+        continue;
+      }
+      sortedKeys[unique] = key;
+      sortedValues[unique] = values[(int) entry];
+      unique++;
+    }
+
+    return new ImmutableBGIData(
+        data.getDataVersion(),
+        unique == size ? sortedKeys : Arrays.copyOf(sortedKeys, unique),
+        unique == size ? sortedValues : Arrays.copyOf(sortedValues, unique)
+    );
+  }
+
+  @Override
+  public ImmutableBGIData toImmutable() {
+    return this;
+  }
+
+  @Override
+  Object getValue(int key) {
+    int index = Arrays.binarySearch(keys, key);
+    return index < 0 ? null : copy(values[index]);
+  }
+
+  @Override
+  double getDoubleValue(int key, double defaultValue) {
+    int index = Arrays.binarySearch(keys, key);
+    return index >= 0 && values[index] instanceof Double value ? value : defaultValue;
+  }
+
+  @Override
+  int getIntValue(int key, int defaultValue) {
+    int index = Arrays.binarySearch(keys, key);
+    return index >= 0 && values[index] instanceof Integer value ? value : defaultValue;
+  }
+
+  @Override
+  boolean getBooleanValue(int key, boolean defaultValue) {
+    int index = Arrays.binarySearch(keys, key);
+    return index >= 0 && values[index] instanceof Boolean value ? value : defaultValue;
+  }
+
+  @Override
+  boolean containsKey(int key) {
+    return Arrays.binarySearch(keys, key) >= 0;
+  }
+
+  @Override
+  int size() {
+    return keys.length;
+  }
+
+  @Override
+  HashMap<Integer, Object> copyProperties() {
+    var properties = HashMap.<Integer, Object>newHashMap(keys.length);
+    for (int i = 0; i < keys.length; i++) {
+      properties.put(keys[i], copy(values[i]));
+    }
+    return properties;
+  }
+
+  @Override
+  void forEachProperty(IntObjConsumer<Object> action) {
+    for (int i = 0; i < keys.length; i++) {
+      action.accept(keys[i], copy(values[i]));
+    }
+  }
+
+  /**
+   * Copies the mutable values before they are handed out
+   */
+  private static Object copy(Object value) {
+    return value instanceof String[] array ? array.clone() : value;
+  }
+}
@@ -0,0 +1,187 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.utils.ByteParser;
+import dev.bnjc.bglib.utils.IntObjConsumer;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link BGIData} that only holds an index of where each property is located in the parsed bytes. A value is
+ * decoded the first time it is requested and then cached, so properties that are never read are never decoded.
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+final class LazyBGIData extends BGIData {
+  private static final Object UNRESOLVED = new Object();
+
+  private final ByteBuffer buffer;
+  private final int[] keys;
+  private final BGIType[] types;
+  private final int[] offsets;
+  private final int[] lengths;
+  // An open-addressed table from key to property index plus one, so that zero marks an empty slot
+  private final int[] table;
+  private final int count;
+  private final BGIParseOptions options;
+  private final AtomicReferenceArray<Object> values;
+
+  /**
+   * Constructs the lazy data from a property index
+   *
+   * @param dataVersion The data version of this data
+   * @param buffer The buffer the offsets point into
+   * @param keys The key hash of each property
+   * @param types The type of each property, or {@code null} if it could not be read
+   * @param offsets The absolute offset of each property value
+   * @param lengths The length in bytes of each property value
+   * @param table The table created by {@link #newTable(int)} and filled using {@link #slotOf(int[], int[], int)}
+   * @param count The number of properties in the index
+   * @param options The options used to decode the values
+   */
+  LazyBGIData(int dataVersion, ByteBuffer buffer, int[] keys, BGIType[] types, int[] offsets, int[] lengths, int[] table, int count, BGIParseOptions options) {
+    super(dataVersion);
+    this.buffer = buffer;
+    this.keys = keys;
+    this.types = types;
+    this.offsets = offsets;
+    this.lengths = lengths;
+    this.table = table;
+    this.count = count;
+    this.options = options;
+    this.values = new AtomicReferenceArray<>(count);
+    for (int i = 0; i < count; i++) {
+      this.values.setPlain(i, UNRESOLVED);
+    }
+  }
+
+  @Override
+  Object getValue(int key) {
+    int index = indexOf(key);
+    return index < 0 ? null : resolve(index);
+  }
+
+  @Override
+  double getDoubleValue(int key, double defaultValue) {
+    int index = indexOf(key);
+    if (index < 0 || types[index] != BGIType.DOUBLE) {
+      return defaultValue;
+    }
+    return buffer.getDouble(offsets[index]);
+  }
+
+  @Override
+  int getIntValue(int key, int defaultValue) {
+    int index = indexOf(key);
+    if (index < 0 || types[index] != BGIType.INTEGER) {
+      return defaultValue;
+    }
+    return resolve(index) instanceof Integer value ? value : defaultValue;
+  }
+
+  @Override
+  boolean getBooleanValue(int key, boolean defaultValue) {
+    int index = indexOf(key);
+    if (index < 0 || types[index] != BGIType.BOOLEAN) {
+      return defaultValue;
+    }
+    return buffer.get(offsets[index]) != 0;
+  }
+
+  @Override
+  boolean containsKey(int key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  int size() {
+    return count;
+  }
+
+  @Override
+  HashMap<Integer, Object> copyProperties() {
+    var properties = new HashMap<Integer, Object>();
+    for (int i = 0; i < count; i++) {
+      properties.put(keys[i], resolve(i));
+    }
+    return properties;
+  }
+
+  @Override
+  void forEachProperty(IntObjConsumer<Object> action) {
+    for (int i = 0; i < count; i++) {
+      action.accept(keys[i], resolve(i));
+    }
+  }
+
+  /**
+   * Creates an empty key table with room for the given number of properties
+   *
+   * @param expectedSize The most properties that will be added to the table
+   * @return the empty table
+   */
+  static int[] newTable(int expectedSize) {
+    int capacity = 8;
+    while (capacity < expectedSize * 2) {
+      capacity <<= 1;
+    }
+    return new int[capacity];
+  }
+
+  /**
+   * Finds the slot holding the given key, or the empty slot where it would be inserted
+   *
+   * @param table The key table
+   * @param keys The key of each property index
+   * @param key The key to find
+   * @return the slot
+   */
+  static int slotOf(int[] table, int[] keys, int key) {
+    int mask = table.length - 1;
+    int slot = (key * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(table.length));
+    while (table[slot] != 0 && keys[table[slot] - 1] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private int indexOf(int key) {
+    return table[slotOf(table, keys, key)] - 1;
+  }
+
+  private Object resolve(int index) {
+    Object value = values.get(index);
+    if (value != UNRESOLVED) {
+      return value;
+    }
+
+    value = decode(index);
+    if (!values.compareAndSet(index, UNRESOLVED, value)) {
+      // Another thread finished decoding first, use its value so every caller sees the same instance
+      value = values.get(index);
+    }
+    return value;
+  }
+
+  private Object decode(int index) {
+    if (types[index] == null) {
+      return null;
+    }
+
+    ByteBuffer view = buffer.duplicate();
+    view.limit(offsets[index] + lengths[index]);
+    view.position(offsets[index]);
+    try {
+      if (types[index] == BGIType.STREAM) {
+        return options.isDeferStreams()
+            ? ByteParser.getDeferredStream(keys[index], view, options)
+            : ByteParser.getStream(keys[index], view, options);
+      }
+      return ByteParser.getByType(keys[index], types[index], view, options.getStringPool());
+    } catch (Exception e) {
+      return null;
+    }
+  }
+}
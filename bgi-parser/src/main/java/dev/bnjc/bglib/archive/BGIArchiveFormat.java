@@ -0,0 +1,91 @@
+package dev.bnjc.bglib.archive;
+
+import dev.bnjc.bglib.BGIType;
+import dev.bnjc.bglib.utils.ByteParser;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Constants and helpers shared by {@link BGIArchiveWriter} and {@link BGIArchiveReader}.
+ *
+ * <p>An archive is laid out as follows, with every number stored big-endian:</p>
+ * <pre>
+ *   Header (32 bytes)
+ *     magic        4 bytes   "BGIA"
+ *     version      short     {@link #VERSION}
+ *     flags        short     {@link #FLAG_CHECKSUMS} | {@link #FLAG_BLOOM_FILTERS}
+ *     entry count  int
+ *     reserved     int
+ *     index offset long
+ *     reserved     long
+ *   Entries
+ *     the BGI byte arrays, back to back
+ *   Index (one fixed size record per entry)
+ *     offset       long      absolute file offset of the entry
+ *     length       int       length of the entry in bytes
+ *     checksum     int       CRC32 of the entry, if {@link #FLAG_CHECKSUMS} is set
+ *     bloom filter long      key hash filter of the entry, if {@link #FLAG_BLOOM_FILTERS} is set
+ * </pre>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+final class BGIArchiveFormat {
+  static final int MAGIC = 0x42474941; // "BGIA"
+  static final short VERSION = 1;
+  static final int HEADER_SIZE = 32;
+
+  static final short FLAG_CHECKSUMS = 1;
+  static final short FLAG_BLOOM_FILTERS = 1 << 1;
+
+  /**
+   * The bloom filter of an entry whose keys could not be read, which matches every key
+   */
+  static final long MATCH_ALL = -1L;
+
+  private BGIArchiveFormat() {}
+
+  static int indexEntrySize(short flags) {
+    int size = Long.BYTES + Integer.BYTES;
+    if ((flags & FLAG_CHECKSUMS) != 0) {
+      size += Integer.BYTES;
+    }
+    if ((flags & FLAG_BLOOM_FILTERS) != 0) {
+      size += Long.BYTES;
+    }
+    return size;
+  }
+
+  /**
+   * Returns the two bloom filter bits set for the given property key hash
+   */
+  static long bloomBits(int key) {
+    int h1 = (key * 0x9E3779B9) >>> 26;
+    int h2 = (key * 0x85EBCA6B) >>> 26;
+    return (1L << h1) | (1L << h2);
+  }
+
+  /**
+   * Builds the bloom filter of every property key in the given BGI data, without decoding any values
+   */
+  static long bloomFilter(ByteBuffer data) {
+    ByteBuffer buffer = data.slice();
+    if (buffer.limit() < 5 || buffer.get(0) != 7) {
+      return MATCH_ALL;
+    }
+
+    long filter = 0;
+    try {
+      buffer.position(3); // Skip initial 7 and the data version
+      int numAttributes = ByteParser.getShort(buffer);
+      for (int i = 0; i < numAttributes; i++) {
+        filter |= bloomBits(ByteParser.getInt(buffer));
+        ByteParser.skip(BGIType.fromTypeId(ByteParser.getByte(buffer)), buffer);
+      }
+    } catch (Exception e) {
+      // The remaining keys are unknown, so the entry must match every key
+      return MATCH_ALL;
+    }
+    return filter;
+  }
+}
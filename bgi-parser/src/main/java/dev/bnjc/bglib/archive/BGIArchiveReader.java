@@ -0,0 +1,260 @@
+package dev.bnjc.bglib.archive;
+
+import dev.bnjc.bglib.BGIData;
+import dev.bnjc.bglib.BGIField;
+import dev.bnjc.bglib.BGIParseOptions;
+import dev.bnjc.bglib.BGIParseResult;
+import dev.bnjc.bglib.BGIParser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static dev.bnjc.bglib.archive.BGIArchiveFormat.*;
+
+/**
+ * Reads an archive written by {@link BGIArchiveWriter}. The archive is memory-mapped instead of being read into the
+ * heap, so archives of any size can be opened, and any entry can be read in constant time.
+ *
+ * <pre>
+ *   try (BGIArchiveReader archive = BGIArchiveReader.open(path)) {
+ *     long count = archive.parseAll(BGIParseOptions.DEFAULT)
+ *         .parallel()
+ *         .filter(BGIParseResult::isSuccess)
+ *         .count();
+ *   }
+ * </pre>
+ *
+ * <p>Readers are thread-safe. Entries are returned as views of the mapped file, which must not be used once the
+ * reader is closed.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ * @see BGIArchiveFormat
+ */
+public final class BGIArchiveReader implements Closeable {
+  private final FileChannel channel;
+  private final short flags;
+  private final int count;
+  private final int indexEntrySize;
+  private final long indexOffset;
+  private final MappedWindows index;
+  private final MappedWindows entries;
+
+  private BGIArchiveReader(FileChannel channel) throws IOException {
+    this.channel = channel;
+
+    long fileSize = channel.size();
+    if (fileSize < HEADER_SIZE) {
+      throw new IOException("File is too short to be a BGI archive");
+    }
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    while (header.hasRemaining()) {
+      if (channel.read(header, header.position()) < 0) {
+        throw new IOException("File is too short to be a BGI archive");
+      }
+    }
+    header.flip();
+
+    if (header.getInt() != MAGIC) {
+      throw new IOException("File is not a BGI archive");
+    }
+
+    short version = header.getShort();
+    if (version > VERSION) {
+      throw new IOException("Unsupported BGI archive version [" + version + "]");
+    }
+
+    this.flags = header.getShort();
+    this.count = header.getInt();
+    header.getInt(); // Reserved
+    this.indexOffset = header.getLong();
+    this.indexEntrySize = indexEntrySize(flags);
+
+    long indexEnd = indexOffset + (long) count * indexEntrySize;
+    if (count < 0 || indexOffset < HEADER_SIZE || indexEnd > fileSize) {
+      throw new IOException("BGI archive index is out of bounds");
+    }
+
+    this.index = new MappedWindows(channel, indexOffset, indexEnd);
+    this.entries = new MappedWindows(channel, HEADER_SIZE, indexOffset);
+  }
+
+  /**
+   * Opens and maps an archive
+   *
+   * @param path The archive file
+   * @return the reader
+   * @throws IOException if the file could not be read or is not a BGI archive
+   * @since 0.3.0
+   */
+  public static BGIArchiveReader open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      return new BGIArchiveReader(channel);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the number of entries in the archive
+   *
+   * @return the number of entries
+   * @since 0.3.0
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Whether the archive stores a checksum of each entry
+   *
+   * @return {@code true} if {@link #verify(int)} checks the entries
+   * @since 0.3.0
+   */
+  public boolean hasChecksums() {
+    return (flags & FLAG_CHECKSUMS) != 0;
+  }
+
+  /**
+   * Whether the archive stores a bloom filter of each entry's keys
+   *
+   * @return {@code true} if {@link #mightContain(int, int)} can exclude entries
+   * @since 0.3.0
+   */
+  public boolean hasBloomFilters() {
+    return (flags & FLAG_BLOOM_FILTERS) != 0;
+  }
+
+  /**
+   * Returns a read-only view of the entry's bytes, without copying them
+   *
+   * @param index The entry index
+   * @return a buffer holding the BGI data of the entry
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @since 0.3.0
+   */
+  public ByteBuffer get(int index) {
+    ByteBuffer record = indexRecord(index);
+    return entries.slice(record.getLong(0), record.getInt(Long.BYTES)).asReadOnlyBuffer();
+  }
+
+  /**
+   * Parses the entry straight from the mapped file
+   *
+   * @param index The entry index
+   * @return a {@link BGIParseResult} corresponding to the entry
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @since 0.3.0
+   */
+  public BGIParseResult<BGIData> parse(int index) {
+    return parse(index, BGIParseOptions.DEFAULT);
+  }
+
+  /**
+   * Parses the entry straight from the mapped file using the given options
+   *
+   * @param index The entry index
+   * @param options Options used to control the parsing
+   * @return a {@link BGIParseResult} corresponding to the entry
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @since 0.3.0
+   */
+  public BGIParseResult<BGIData> parse(int index, BGIParseOptions options) {
+    return BGIParser.parse(get(index), options);
+  }
+
+  /**
+   * Checks the entry's bloom filter for the given field. A {@code false} result means the entry definitely does not
+   * have the field, so it can be skipped without reading it.
+   *
+   * @param index The entry index
+   * @param field The field to check for
+   * @return {@code false} if the entry does not have the field
+   * @since 0.3.0
+   */
+  public boolean mightContain(int index, BGIField field) {
+    return mightContain(index, field.key());
+  }
+
+  /**
+   * Checks the entry's bloom filter for the given property key hash. Archives written without bloom filters always
+   * return {@code true}.
+   *
+   * @param index The entry index
+   * @param key The property key hash
+   * @return {@code false} if the entry does not have the key
+   * @since 0.3.0
+   */
+  public boolean mightContain(int index, int key) {
+    ByteBuffer record = indexRecord(index);
+    if (!hasBloomFilters()) {
+      return true;
+    }
+
+    long bits = bloomBits(key);
+    return (record.getLong(indexEntrySize - Long.BYTES) & bits) == bits;
+  }
+
+  /**
+   * Checks the entry against its stored checksum. Archives written without checksums always return {@code true}.
+   *
+   * @param index The entry index
+   * @return {@code true} if the entry is intact
+   * @since 0.3.0
+   */
+  public boolean verify(int index) {
+    ByteBuffer record = indexRecord(index);
+    if (!hasChecksums()) {
+      return true;
+    }
+
+    var crc = new CRC32();
+    crc.update(entries.slice(record.getLong(0), record.getInt(Long.BYTES)));
+    return (int) crc.getValue() == record.getInt(Long.BYTES + Integer.BYTES);
+  }
+
+  /**
+   * Returns a stream of every entry, in order. The stream splits evenly, so it can be made
+   * {@linkplain Stream#parallel() parallel} to scan the archive on every core.
+   *
+   * @return a stream of the entries' bytes
+   * @since 0.3.0
+   */
+  public Stream<ByteBuffer> entries() {
+    return IntStream.range(0, count).mapToObj(this::get);
+  }
+
+  /**
+   * Returns a stream of every entry parsed with the given options, in order. The stream splits evenly, so it can be
+   * made {@linkplain Stream#parallel() parallel}.
+   *
+   * @param options Options used to control the parsing
+   * @return a stream of the parse results
+   * @since 0.3.0
+   */
+  public Stream<BGIParseResult<BGIData>> parseAll(BGIParseOptions options) {
+    return IntStream.range(0, count).mapToObj(i -> parse(i, options));
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private ByteBuffer indexRecord(int index) {
+    if (index < 0 || index >= count) {
+      throw new IndexOutOfBoundsException("Entry [" + index + "] is out of range for archive of size [" + count + "]");
+    }
+    return this.index.slice(indexOffset + (long) index * indexEntrySize, indexEntrySize);
+  }
+}
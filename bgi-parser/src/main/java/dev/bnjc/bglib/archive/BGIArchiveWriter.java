@@ -0,0 +1,238 @@
+package dev.bnjc.bglib.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import static dev.bnjc.bglib.archive.BGIArchiveFormat.*;
+
+/**
+ * Writes BGI byte arrays into an indexed archive that can be memory-mapped by a {@link BGIArchiveReader}.
+ *
+ * <pre>
+ *   try (BGIArchiveWriter writer = BGIArchiveWriter.create(path)) {
+ *     for (byte[] item : items) {
+ *       writer.add(item);
+ *     }
+ *   }
+ * </pre>
+ *
+ * <p>Entries are streamed to the file as they are added. The index and header are only written when the writer is
+ * closed, so an archive that was never closed cannot be read. Until then, index entries are collected in a
+ * fixed-size block, and full blocks are spilled to a temporary file next to the archive, so the memory used does not
+ * grow with the number of entries. This class is not thread-safe.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ * @see BGIArchiveFormat
+ */
+public final class BGIArchiveWriter implements Closeable {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final Path directory;
+  private final short flags;
+  private final ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+  private final ByteBuffer index = ByteBuffer.allocate(BUFFER_SIZE);
+  private final CRC32 crc = new CRC32();
+
+  private long position = HEADER_SIZE;
+  private FileChannel indexSpill; // Created when the first index block is full
+  private int count;
+  private boolean closed;
+
+  private BGIArchiveWriter(FileChannel channel, Path directory, short flags) {
+    this.channel = channel;
+    this.directory = directory;
+    this.flags = flags;
+  }
+
+  /**
+   * Creates an archive with checksums and bloom filters, replacing the file if it exists
+   *
+   * @param path The archive file
+   * @return the writer
+   * @throws IOException if the file could not be created
+   * @since 0.3.0
+   */
+  public static BGIArchiveWriter create(Path path) throws IOException {
+    return create(path, true, true);
+  }
+
+  /**
+   * Creates an archive, replacing the file if it exists
+   *
+   * @param path The archive file
+   * @param checksums Whether to store a CRC32 checksum of each entry, used by {@link BGIArchiveReader#verify(int)}
+   * @param bloomFilters Whether to store a bloom filter of each entry's keys, used by
+   *                     {@link BGIArchiveReader#mightContain(int, int)}
+   * @return the writer
+   * @throws IOException if the file could not be created
+   * @since 0.3.0
+   */
+  public static BGIArchiveWriter create(Path path, boolean checksums, boolean bloomFilters) throws IOException {
+    FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    short flags = (short) ((checksums ? FLAG_CHECKSUMS : 0) | (bloomFilters ? FLAG_BLOOM_FILTERS : 0));
+
+    var writer = new BGIArchiveWriter(channel, path.toAbsolutePath().getParent(), flags);
+    writer.out.position(HEADER_SIZE); // The header is written on close
+    return writer;
+  }
+
+  /**
+   * Appends an entry to the archive
+   *
+   * @param data The BGI byte array
+   * @return this writer
+   * @throws IOException if the entry could not be written
+   * @since 0.3.0
+   */
+  public BGIArchiveWriter add(byte[] data) throws IOException {
+    return add(ByteBuffer.wrap(data));
+  }
+
+  /**
+   * Appends a range of the byte array as an entry to the archive
+   *
+   * @param data The array holding the BGI data
+   * @param offset The index of the first byte
+   * @param length The number of bytes
+   * @return this writer
+   * @throws IOException if the entry could not be written
+   * @since 0.3.0
+   */
+  public BGIArchiveWriter add(byte[] data, int offset, int length) throws IOException {
+    return add(ByteBuffer.wrap(data, offset, length));
+  }
+
+  /**
+   * Appends the bytes between the buffer's position and limit as an entry to the archive. The buffer's position is
+   * not changed.
+   *
+   * @param data The buffer holding the BGI data
+   * @return this writer
+   * @throws IOException if the entry could not be written
+   * @since 0.3.0
+   */
+  public BGIArchiveWriter add(ByteBuffer data) throws IOException {
+    if (closed) {
+      throw new IOException("Archive writer is closed");
+    }
+
+    ByteBuffer entry = data.slice();
+    int length = entry.remaining();
+    if (index.remaining() < indexEntrySize(flags)) {
+      spillIndex();
+    }
+
+    index.putLong(position).putInt(length);
+    if ((flags & FLAG_CHECKSUMS) != 0) {
+      crc.reset();
+      crc.update(entry.duplicate());
+      index.putInt((int) crc.getValue());
+    }
+    if ((flags & FLAG_BLOOM_FILTERS) != 0) {
+      index.putLong(bloomFilter(entry));
+    }
+    count++;
+
+    write(entry);
+    position += length;
+    return this;
+  }
+
+  /**
+   * Returns the number of entries added so far
+   *
+   * @return the number of entries
+   * @since 0.3.0
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Writes the index and header, and closes the file
+   *
+   * @throws IOException if the archive could not be finished
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+
+    try (channel; FileChannel spill = indexSpill) {
+      long indexOffset = position;
+      flush();
+      if (spill != null) {
+        // Copy the spilled index blocks, then the block that is still in memory
+        spill.position(0);
+        while (spill.read(out) >= 0) {
+          flush();
+        }
+      }
+      index.flip();
+      write(index);
+      flush();
+
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+          .putInt(MAGIC)
+          .putShort(VERSION)
+          .putShort(flags)
+          .putInt(count)
+          .putInt(0)
+          .putLong(indexOffset)
+          .putLong(0)
+          .flip();
+      while (header.hasRemaining()) {
+        channel.write(header, header.position());
+      }
+      channel.force(true);
+    }
+  }
+
+  private void write(ByteBuffer entry) throws IOException {
+    if (entry.remaining() > out.remaining()) {
+      flush();
+    }
+
+    if (entry.remaining() > out.capacity()) {
+      // Too large to buffer, write it straight to the file
+      while (entry.hasRemaining()) {
+        channel.write(entry);
+      }
+    } else {
+      out.put(entry);
+    }
+  }
+
+  private void flush() throws IOException {
+    out.flip();
+    while (out.hasRemaining()) {
+      channel.write(out);
+    }
+    out.clear();
+  }
+
+  private void spillIndex() throws IOException {
+    if (indexSpill == null) {
+      Path file = Files.createTempFile(directory, "bgi-index", ".tmp");
+      indexSpill = FileChannel.open(file,
+          StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    index.flip();
+    while (index.hasRemaining()) {
+      indexSpill.write(index);
+    }
+    index.clear();
+  }
+}
@@ -0,0 +1,69 @@
+package dev.bnjc.bglib.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Maps a region of a file that may be larger than a single {@link MappedByteBuffer} can hold (2 GiB). The region is
+ * covered by overlapping windows that start every {@link #STRIDE} bytes and extend {@link #OVERLAP} bytes into the
+ * next one, so any range of at most {@code OVERLAP} bytes lies entirely inside the window its start falls in. Larger
+ * ranges are mapped on their own when requested.
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+final class MappedWindows {
+  static final long STRIDE = 1L << 30;
+  static final long OVERLAP = (1L << 30) - 1;
+
+  private final FileChannel channel;
+  private final long start;
+  private final long end;
+  private final MappedByteBuffer[] windows;
+
+  MappedWindows(FileChannel channel, long start, long end) throws IOException {
+    this.channel = channel;
+    this.start = start;
+    this.end = end;
+
+    int count = (int) ((end - start + STRIDE - 1) / STRIDE);
+    this.windows = new MappedByteBuffer[count];
+    for (int i = 0; i < count; i++) {
+      long windowStart = start + i * STRIDE;
+      long windowSize = Math.min(STRIDE + OVERLAP, end - windowStart);
+      windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+    }
+  }
+
+  /**
+   * Returns a view of the given range of the file. The view is thread-safe to create, and shares the mapped memory.
+   *
+   * @param position The absolute file offset of the range
+   * @param length The length of the range
+   * @return a buffer positioned at 0 holding exactly the range
+   */
+  ByteBuffer slice(long position, int length) {
+    if (position < start || length < 0 || position + length > end) {
+      throw new IndexOutOfBoundsException("Range [" + position + ", " + (position + length) + ") is outside the mapped region");
+    }
+
+    if (length == 0) {
+      return ByteBuffer.allocate(0);
+    }
+
+    int window = (int) ((position - start) / STRIDE);
+    int offset = (int) (position - start - window * STRIDE);
+    if (length <= OVERLAP) {
+      return windows[window].slice(offset, length);
+    }
+
+    try {
+      return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
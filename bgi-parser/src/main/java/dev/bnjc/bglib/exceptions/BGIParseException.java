@@ -7,7 +7,17 @@ package dev.bnjc.bglib.exceptions;
  * @author Jack Grzechowiak
  */
 public class BGIParseException extends Exception {
+  private static final BGIParseException[] STACKLESS = new BGIParseException[ErrorCode.values().length];
+
+  static {
+    for (ErrorCode code : ErrorCode.values()) {
+      STACKLESS[code.ordinal()] = new BGIParseException(code, -1, 0);
+    }
+  }
+
   private final ErrorCode errorCode;
+  private final int offset;
+  private final int key;
 
   public BGIParseException() {
     this(ErrorCode.DEFAULT);
@@ -16,6 +26,20 @@ public class BGIParseException extends Exception {
   public BGIParseException(ErrorCode code) {
     super();
     errorCode = code;
+    offset = -1;
+    key = 0;
+  }
+
+  /**
+   * Creates an exception without a stack trace or suppressed exceptions, which is much cheaper to create
+   *
+   * @see #stackless(ErrorCode, int, int)
+   */
+  private BGIParseException(ErrorCode code, int offset, int key) {
+    super(null, null, false, false);
+    this.errorCode = code;
+    this.offset = offset;
+    this.key = key;
   }
 
   public BGIParseException(String message) {
@@ -25,6 +49,8 @@ public class BGIParseException extends Exception {
   public BGIParseException(String message, ErrorCode code) {
     super(message);
     errorCode = code;
+    offset = -1;
+    key = 0;
   }
 
   public BGIParseException(String message, Throwable cause) {
@@ -34,6 +60,8 @@ public class BGIParseException extends Exception {
   public BGIParseException(String message, Throwable cause, ErrorCode code) {
     super(message, cause);
     errorCode = code;
+    offset = -1;
+    key = 0;
   }
 
   public BGIParseException(Throwable cause) {
@@ -43,15 +71,66 @@ public class BGIParseException extends Exception {
   public BGIParseException(Throwable cause, ErrorCode code) {
     super(cause);
     errorCode = code;
+    offset = -1;
+    key = 0;
+  }
+
+  /**
+   * Returns a shared exception for the given error code, which has no stack trace, offset or key. The same
+   * instance is returned every time, so creating it costs nothing.
+   *
+   * @param code The error code
+   * @return the shared exception
+   * @since 0.3.0
+   */
+  public static BGIParseException stackless(ErrorCode code) {
+    return STACKLESS[code.ordinal()];
+  }
+
+  /**
+   * Creates an exception for the given error code without a stack trace, which is much cheaper than filling one in
+   * when failures are expected (such as when scanning old item dumps)
+   *
+   * @param code The error code
+   * @param offset The offset of the failing property from the start of the BGI data
+   * @param key The key hash of the failing property
+   * @return the new exception
+   * @since 0.3.0
+   */
+  public static BGIParseException stackless(ErrorCode code, int offset, int key) {
+    return new BGIParseException(code, offset, key);
   }
 
   public ErrorCode getErrorCode() {
     return errorCode;
   }
 
+  /**
+   * Returns the offset of the failing property from the start of the BGI data
+   *
+   * @return the offset, or {@code -1} if it is not known
+   * @since 0.3.0
+   */
+  public int getOffset() {
+    return offset;
+  }
+
+  /**
+   * Returns the key hash of the failing property. Only meaningful when {@link #getOffset()} is known.
+   *
+   * @return the key hash, or {@code 0} if it could not be read
+   * @since 0.3.0
+   */
+  public int getKey() {
+    return key;
+  }
+
   @Override
   public String getMessage() {
     String msg = super.getMessage();
+    if (offset >= 0) {
+      msg = key == 0 ? "at offset " + offset : "property [" + key + "] at offset " + offset;
+    }
     if (msg == null || msg.isEmpty()) {
       return errorCode.getMessage();
     }
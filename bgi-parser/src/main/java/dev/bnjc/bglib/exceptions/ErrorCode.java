@@ -12,6 +12,7 @@ public enum ErrorCode {
   DATA_TOO_SHORT(2, "Data is too short to be valid"),
   UNKNOWN_DATA_TYPE(3, "Unknown data type"),
   UNSUPPORTED_STREAM_VERSION(4, "Unsupported stream version"),
+  MALFORMED_VAR_INT(5, "Malformed variable int"),
   GOBLINLESS(7, "Not goblin enough to be BGI data");
 
   // The actual error code and message
@@ -0,0 +1,265 @@
+package dev.bnjc.bglib.instrument;
+
+import dev.bnjc.bglib.BGIField;
+import dev.bnjc.bglib.BGIType;
+import dev.bnjc.bglib.exceptions.BGIParseException;
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in instrumentation of the parser. While enabled, every parse and stream decode updates a set of counters and
+ * emits a Flight Recorder event ({@link BGIParseEvent} and {@link BGIStreamDecodeEvent}), which makes parse
+ * failures and slowdowns visible as soon as the server starts sending a new data version.
+ *
+ * <pre>
+ *   BGIInstrumentation.enable();
+ *   ...
+ *   BGIMetricsSnapshot metrics = BGIInstrumentation.snapshot();
+ *   long unknownTypes = metrics.errorCount(ErrorCode.UNKNOWN_DATA_TYPE);
+ * </pre>
+ *
+ * <p>Instrumentation is disabled by default, in which case the parser only checks a single flag per parse. The
+ * counters are {@link LongAdder}s, so they stay cheap when many threads parse at once. The unknown key and data
+ * version counters each track at most {@value #MAX_TRACKED_VALUES} distinct values.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class BGIInstrumentation {
+  /**
+   * The most distinct unknown keys, and separately data versions, that are counted
+   */
+  public static final int MAX_TRACKED_VALUES = 1024;
+
+  private static final ErrorCode[] ERROR_CODES = ErrorCode.values();
+  private static final BGIType[] TYPES = BGIType.values();
+
+  private static volatile boolean enabled;
+
+  private static final LongAdder parseCount = new LongAdder();
+  private static final LongAdder parseBytes = new LongAdder();
+  private static final LongAdder parseNanos = new LongAdder();
+  private static final LongAdder streamDecodeCount = new LongAdder();
+  private static final LongAdder streamDecodeNanos = new LongAdder();
+  private static final LongAdder[] errors = adders(ERROR_CODES.length);
+  private static final LongAdder[] propertyTypes = adders(TYPES.length);
+  private static final Map<Integer, LongAdder> unknownKeys = new ConcurrentHashMap<>();
+  private static final Map<Integer, LongAdder> dataVersions = new ConcurrentHashMap<>();
+
+  private BGIInstrumentation() {}
+
+  /**
+   * Starts collecting counters and emitting events
+   *
+   * @since 0.3.0
+   */
+  public static void enable() {
+    enabled = true;
+  }
+
+  /**
+   * Stops collecting counters and emitting events. The counters are kept.
+   *
+   * @since 0.3.0
+   */
+  public static void disable() {
+    enabled = false;
+  }
+
+  /**
+   * Whether counters are being collected
+   *
+   * @return {@code true} if instrumentation is enabled
+   * @since 0.3.0
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the current value of every counter. Parses running on other threads may be partly included.
+   *
+   * @return the counters
+   * @since 0.3.0
+   */
+  public static BGIMetricsSnapshot snapshot() {
+    Map<ErrorCode, Long> errorCounts = new EnumMap<>(ErrorCode.class);
+    for (int i = 0; i < ERROR_CODES.length; i++) {
+      long count = errors[i].sum();
+      if (count > 0) {
+        errorCounts.put(ERROR_CODES[i], count);
+      }
+    }
+
+    Map<BGIType, Long> typeCounts = new EnumMap<>(BGIType.class);
+    for (int i = 0; i < TYPES.length; i++) {
+      long count = propertyTypes[i].sum();
+      if (count > 0) {
+        typeCounts.put(TYPES[i], count);
+      }
+    }
+
+    return new BGIMetricsSnapshot(
+        parseCount.sum(),
+        parseBytes.sum(),
+        parseNanos.sum(),
+        streamDecodeCount.sum(),
+        streamDecodeNanos.sum(),
+        Collections.unmodifiableMap(errorCounts),
+        Collections.unmodifiableMap(typeCounts),
+        sums(unknownKeys),
+        sums(dataVersions)
+    );
+  }
+
+  /**
+   * Sets every counter back to zero
+   *
+   * @since 0.3.0
+   */
+  public static void reset() {
+    parseCount.reset();
+    parseBytes.reset();
+    parseNanos.reset();
+    streamDecodeCount.reset();
+    streamDecodeNanos.reset();
+    for (LongAdder adder : errors) {
+      adder.reset();
+    }
+    for (LongAdder adder : propertyTypes) {
+      adder.reset();
+    }
+    unknownKeys.clear();
+    dataVersions.clear();
+  }
+
+  /**
+   * Called by the parser when a parse starts. Not meant to be called directly.
+   *
+   * @return the event to pass to {@link #endParse}
+   */
+  public static BGIParseEvent beginParse() {
+    BGIParseEvent event = new BGIParseEvent();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Called by the parser when a parse ends. Not meant to be called directly.
+   *
+   * @param event The event returned by {@link #beginParse()}
+   * @param startNanos The {@link System#nanoTime()} when the parse started
+   * @param size The size of the parsed data, in bytes
+   * @param dataVersion The data version, or {@code -1} if the data was too short to have one
+   * @param error The error that made the parse fail, or {@code null} if it succeeded
+   */
+  public static void endParse(BGIParseEvent event, long startNanos, int size, int dataVersion, @Nullable ErrorCode error) {
+    parseNanos.add(System.nanoTime() - startNanos);
+    parseCount.increment();
+    parseBytes.add(size);
+
+    // Unknown types are counted by the property that has them, whether or not the parse fails on it
+    if (error != null && error != ErrorCode.UNKNOWN_DATA_TYPE) {
+      errors[error.ordinal()].increment();
+    }
+    if (dataVersion >= 0) {
+      increment(dataVersions, dataVersion);
+    }
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.size = size;
+      event.dataVersion = dataVersion;
+      event.errorCode = error == null ? null : error.name();
+      event.commit();
+    }
+  }
+
+  /**
+   * Called by the parser for every property. Not meant to be called directly.
+   *
+   * @param key The property key hash
+   * @param type The property type, or {@code null} if the type id is unknown
+   */
+  public static void recordProperty(int key, @Nullable BGIType type) {
+    if (type == null) {
+      errors[ErrorCode.UNKNOWN_DATA_TYPE.ordinal()].increment();
+    } else {
+      propertyTypes[type.ordinal()].increment();
+    }
+
+    if (BGIField.fromKey(key) == null) {
+      increment(unknownKeys, key);
+    }
+  }
+
+  /**
+   * Called by a stream object when it starts decoding. Not meant to be called directly.
+   *
+   * @return the event to pass to {@link #endStreamDecode}
+   */
+  public static BGIStreamDecodeEvent beginStreamDecode() {
+    BGIStreamDecodeEvent event = new BGIStreamDecodeEvent();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Called by a stream object when it finishes decoding. Not meant to be called directly.
+   *
+   * @param event The event returned by {@link #beginStreamDecode()}
+   * @param startNanos The {@link System#nanoTime()} when decoding started
+   * @param key The property key hash of the stream
+   * @param size The size of the stream, in bytes
+   * @param error The error that made decoding fail, or {@code null} if it succeeded
+   */
+  public static void endStreamDecode(BGIStreamDecodeEvent event, long startNanos, int key, int size, @Nullable BGIParseException error) {
+    streamDecodeNanos.add(System.nanoTime() - startNanos);
+    streamDecodeCount.increment();
+    if (error != null) {
+      errors[error.getErrorCode().ordinal()].increment();
+    }
+
+    event.end();
+    if (event.shouldCommit()) {
+      BGIField field = BGIField.fromKey(key);
+      event.key = key;
+      event.field = field == null ? null : field.name();
+      event.size = size;
+      event.errorCode = error == null ? null : error.getErrorCode().name();
+      event.commit();
+    }
+  }
+
+  private static void increment(Map<Integer, LongAdder> counters, int value) {
+    LongAdder adder = counters.get(value);
+    if (adder == null) {
+      if (counters.size() >= MAX_TRACKED_VALUES) {
+        return;
+      }
+      adder = counters.computeIfAbsent(value, k -> new LongAdder());
+    }
+    adder.increment();
+  }
+
+  private static Map<Integer, Long> sums(Map<Integer, LongAdder> counters) {
+    Map<Integer, Long> result = new HashMap<>();
+    counters.forEach((value, adder) -> result.put(value, adder.sum()));
+    return Collections.unmodifiableMap(result);
+  }
+
+  private static LongAdder[] adders(int count) {
+    LongAdder[] adders = new LongAdder[count];
+    for (int i = 0; i < count; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+}
@@ -0,0 +1,56 @@
+package dev.bnjc.bglib.instrument;
+
+import dev.bnjc.bglib.BGIType;
+import dev.bnjc.bglib.exceptions.ErrorCode;
+
+import java.util.Map;
+
+/**
+ * The counters collected by {@link BGIInstrumentation} at a single point in time. Counters that were never
+ * incremented are left out of the maps.
+ *
+ * @param parseCount The number of parses
+ * @param parseBytes The total size of the parsed data, in bytes
+ * @param parseNanos The total time spent parsing, in nanoseconds
+ * @param streamDecodeCount The number of stream properties decoded
+ * @param streamDecodeNanos The total time spent decoding streams, in nanoseconds
+ * @param errors The number of failed parses and stream decodes, and properties with an unknown type, by error code
+ * @param propertyTypes The number of properties parsed, by type
+ * @param unknownKeys The number of properties parsed whose key does not match any {@link dev.bnjc.bglib.BGIField},
+ *                    by key hash
+ * @param dataVersions The number of parses, by data version
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public record BGIMetricsSnapshot(
+    long parseCount,
+    long parseBytes,
+    long parseNanos,
+    long streamDecodeCount,
+    long streamDecodeNanos,
+    Map<ErrorCode, Long> errors,
+    Map<BGIType, Long> propertyTypes,
+    Map<Integer, Long> unknownKeys,
+    Map<Integer, Long> dataVersions
+) {
+  /**
+   * Returns the number of failed parses and stream decodes with the given error code
+   *
+   * @param code The error code
+   * @return the number of errors
+   * @since 0.3.0
+   */
+  public long errorCount(ErrorCode code) {
+    return errors.getOrDefault(code, 0L);
+  }
+
+  /**
+   * Returns the average time spent on a single parse
+   *
+   * @return the average parse time in nanoseconds, or {@code 0} if nothing has been parsed
+   * @since 0.3.0
+   */
+  public double averageParseNanos() {
+    return parseCount == 0 ? 0 : (double) parseNanos / parseCount;
+  }
+}
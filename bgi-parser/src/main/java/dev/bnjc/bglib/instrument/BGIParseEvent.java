@@ -0,0 +1,32 @@
+package dev.bnjc.bglib.instrument;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event emitted for every parse while {@link BGIInstrumentation} is enabled
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+@Name("dev.bnjc.bglib.Parse")
+@Label("BGI Parse")
+@Category("BGI")
+@Description("Parsing of a single BGI tag")
+@StackTrace(false)
+public final class BGIParseEvent extends jdk.jfr.Event {
+  @Label("Size")
+  @DataAmount
+  int size;
+
+  @Label("Data Version")
+  int dataVersion;
+
+  @Label("Error Code")
+  @Description("The error that made the parse fail, if any")
+  String errorCode;
+}
@@ -0,0 +1,37 @@
+package dev.bnjc.bglib.instrument;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event emitted for every stream decode while {@link BGIInstrumentation} is enabled. Deferred
+ * streams are recorded when they are decoded, not when they are parsed.
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+@Name("dev.bnjc.bglib.StreamDecode")
+@Label("BGI Stream Decode")
+@Category("BGI")
+@Description("Decoding of a single stream property")
+@StackTrace(false)
+public final class BGIStreamDecodeEvent extends jdk.jfr.Event {
+  @Label("Key")
+  @Description("The key hash of the stream property")
+  int key;
+
+  @Label("Field")
+  String field;
+
+  @Label("Size")
+  @DataAmount
+  int size;
+
+  @Label("Error Code")
+  @Description("The error that made the decode fail, if any")
+  String errorCode;
+}
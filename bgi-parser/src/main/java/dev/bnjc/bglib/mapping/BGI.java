@@ -0,0 +1,31 @@
+package dev.bnjc.bglib.mapping;
+
+import dev.bnjc.bglib.BGIField;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maps a record component to the BGI field it is decoded from by a {@link BGIRecordDecoder}.
+ *
+ * <pre>
+ *   record GearStats(@BGI(DEFENSE) double defense, @BGI(TIER) String tier, @BGI(ITEM_ID) String id) {}
+ * </pre>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface BGI {
+  /**
+   * The field the component is decoded from
+   *
+   * @return the BGI field
+   */
+  BGIField value();
+}
@@ -0,0 +1,380 @@
+package dev.bnjc.bglib.mapping;
+
+import dev.bnjc.bglib.BGIField;
+import dev.bnjc.bglib.BGIParseOptions;
+import dev.bnjc.bglib.BGIParseResult;
+import dev.bnjc.bglib.BGIStringPool;
+import dev.bnjc.bglib.BGIType;
+import dev.bnjc.bglib.exceptions.BGIParseException;
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import dev.bnjc.bglib.stream.object.StreamObject;
+import dev.bnjc.bglib.utils.ByteParser;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Decodes BGI data straight into a record whose components are annotated with {@link BGI}, in a single pass over
+ * the bytes. No {@link dev.bnjc.bglib.BGIData}, map or {@link java.util.Optional} is created, and primitive
+ * components are never boxed.
+ *
+ * <pre>
+ *   record GearStats(@BGI(DEFENSE) double defense, @BGI(TIER) String tier, @BGI(ITEM_ID) String id) {}
+ *
+ *   BGIRecordDecoder&lt;GearStats&gt; decoder = BGIRecordDecoder.of(GearStats.class);
+ *   BGIParseResult&lt;GearStats&gt; result = decoder.decode(bytes);
+ * </pre>
+ *
+ * <p>Components are matched the same way as the {@link dev.bnjc.bglib.BGIData} getters: a property is only decoded
+ * if its type matches the component type, so a {@code double} component is only filled from a
+ * {@link BGIType#DOUBLE} property. Missing and mismatched properties leave the component at {@code 0},
+ * {@code false} or {@code null}, and properties without a component are skipped without being decoded. The
+ * supported component types are:</p>
+ * <ul>
+ *   <li>{@code double}, {@code float}, {@code int}, {@code short}, {@code byte}, {@code long} and {@code boolean},
+ *   from the matching {@link BGIType}</li>
+ *   <li>{@link String}, {@code String[]} and {@link UUID}</li>
+ *   <li>{@link StreamObject} or any of its subclasses, from a stream of that kind</li>
+ *   <li>{@link Object}, from a property of any type</li>
+ * </ul>
+ *
+ * <p>Decoders are built once per record type and are thread-safe.</p>
+ *
+ * @param <R> The record type
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class BGIRecordDecoder<R extends Record> {
+  private static final ClassValue<BGIRecordDecoder<?>> DECODERS = new ClassValue<>() {
+    @Override
+    protected BGIRecordDecoder<?> computeValue(Class<?> type) {
+      return new BGIRecordDecoder<>(type.asSubclass(Record.class));
+    }
+  };
+
+  private static final MethodHandle DOUBLES;
+  private static final MethodHandle LONGS;
+  private static final MethodHandle REFS;
+
+  static {
+    try {
+      var lookup = MethodHandles.lookup();
+      DOUBLES = lookup.findGetter(Values.class, "doubles", double[].class);
+      LONGS = lookup.findGetter(Values.class, "longs", long[].class);
+      REFS = lookup.findGetter(Values.class, "refs", Object[].class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final Class<R> recordType;
+  private final MethodHandle constructor;
+
+  // An open-addressed table from property key to component index
+  private final int[] tableKeys;
+  private final int[] tableComponents;
+  private final int shift;
+
+  // Per component, indexed by component
+  private final BGIType[] types;
+  private final Class<?>[] refTypes;
+  private final int[] slots;
+
+  private final int doubleCount;
+  private final int longCount;
+  private final int refCount;
+
+  private BGIRecordDecoder(Class<R> recordType) {
+    if (!recordType.isRecord()) {
+      throw new IllegalArgumentException(recordType.getName() + " is not a record");
+    }
+
+    RecordComponent[] components = recordType.getRecordComponents();
+    int count = components.length;
+
+    this.recordType = recordType;
+    this.types = new BGIType[count];
+    this.refTypes = new Class<?>[count];
+    this.slots = new int[count];
+
+    int capacity = 8;
+    while (capacity < count * 2) {
+      capacity <<= 1;
+    }
+    this.tableKeys = new int[capacity];
+    this.tableComponents = new int[capacity];
+    this.shift = 32 - Integer.numberOfTrailingZeros(capacity);
+    Arrays.fill(tableComponents, -1);
+
+    Class<?>[] parameterTypes = new Class<?>[count];
+    MethodHandle[] getters = new MethodHandle[count];
+    int doubles = 0;
+    int longs = 0;
+    int refs = 0;
+
+    for (int i = 0; i < count; i++) {
+      RecordComponent component = components[i];
+      BGI annotation = component.getAnnotation(BGI.class);
+      if (annotation == null) {
+        throw new IllegalArgumentException("Record component [" + component.getName() + "] of " + recordType.getName() + " is not annotated with @BGI");
+      }
+
+      BGIField field = annotation.value();
+      int index = indexOf(field.key());
+      if (tableComponents[index] >= 0) {
+        throw new IllegalArgumentException("Field [" + field + "] is mapped by more than one component of " + recordType.getName());
+      }
+      tableKeys[index] = field.key();
+      tableComponents[index] = i;
+
+      Class<?> type = component.getType();
+      parameterTypes[i] = type;
+      if (type == double.class || type == float.class) {
+        types[i] = type == double.class ? BGIType.DOUBLE : BGIType.FLOAT;
+        slots[i] = doubles++;
+        getters[i] = getter(DOUBLES, double[].class, slots[i], type);
+      } else if (type == long.class || type == int.class || type == short.class || type == byte.class || type == boolean.class) {
+        types[i] = switch (type.getName()) {
+          case "long" -> BGIType.LONG;
+          case "int" -> BGIType.INTEGER;
+          case "short" -> BGIType.SHORT;
+          case "byte" -> BGIType.BYTE;
+          default -> BGIType.BOOLEAN;
+        };
+        slots[i] = longs++;
+        getters[i] = getter(LONGS, long[].class, slots[i], type);
+      } else {
+        if (type == String.class) {
+          types[i] = BGIType.STRING;
+        } else if (type == String[].class) {
+          types[i] = BGIType.STRING_ARRAY;
+        } else if (type == UUID.class) {
+          types[i] = BGIType.UUID;
+        } else if (StreamObject.class.isAssignableFrom(type)) {
+          types[i] = BGIType.STREAM;
+        } else if (type != Object.class) {
+          throw new IllegalArgumentException("Record component [" + component.getName() + "] of " + recordType.getName() + " has unsupported type " + type.getName());
+        }
+        refTypes[i] = type;
+        slots[i] = refs++;
+        getters[i] = getter(REFS, Object[].class, slots[i], type);
+      }
+    }
+
+    this.doubleCount = doubles;
+    this.longCount = longs;
+    this.refCount = refs;
+
+    try {
+      Constructor<R> canonical = recordType.getDeclaredConstructor(parameterTypes);
+      canonical.setAccessible(true);
+
+      // (T0, T1, ...) -> R becomes (Values, Values, ...) -> R, and then (Values) -> R
+      MethodHandle handle = MethodHandles.lookup().unreflectConstructor(canonical);
+      handle = MethodHandles.filterArguments(handle, 0, getters);
+      handle = MethodHandles.permuteArguments(handle, MethodType.methodType(recordType, Values.class), new int[count]);
+      this.constructor = handle.asType(MethodType.methodType(Record.class, Values.class));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      throw new IllegalArgumentException("Cannot access the canonical constructor of " + recordType.getName(), e);
+    }
+  }
+
+  /**
+   * Returns the decoder for the given record type, building it the first time it is requested
+   *
+   * @param recordType The record type, whose components must all be annotated with {@link BGI}
+   * @param <R> The record type
+   * @return the decoder
+   * @throws IllegalArgumentException if a component is not annotated or has an unsupported type, or a field is
+   *                                  mapped more than once
+   * @since 0.3.0
+   */
+  @SuppressWarnings("unchecked")
+  public static <R extends Record> BGIRecordDecoder<R> of(Class<R> recordType) {
+    return (BGIRecordDecoder<R>) DECODERS.get(recordType);
+  }
+
+  /**
+   * Returns the record type created by this decoder
+   *
+   * @return the record type
+   * @since 0.3.0
+   */
+  public Class<R> getRecordType() {
+    return recordType;
+  }
+
+  /**
+   * Decodes the specified byte array into a record
+   *
+   * @param data Byte array from NBT data
+   * @return a {@link BGIParseResult} holding the decoded record
+   * @since 0.3.0
+   */
+  public BGIParseResult<R> decode(byte[] data) {
+    return decode(ByteBuffer.wrap(data), BGIParseOptions.DEFAULT);
+  }
+
+  /**
+   * Decodes the specified byte array into a record using the given options. Only the string pool, whether
+   * streams are deferred and whether streams report stackless errors are used.
+   *
+   * @param data Byte array from NBT data
+   * @param options Options used to control the decoding
+   * @return a {@link BGIParseResult} holding the decoded record
+   * @since 0.3.0
+   */
+  public BGIParseResult<R> decode(byte[] data, BGIParseOptions options) {
+    return decode(ByteBuffer.wrap(data), options);
+  }
+
+  /**
+   * Decodes the BGI data between the buffer's position and limit into a record. The buffer's position is not
+   * changed.
+   *
+   * @param data Buffer holding the BGI data
+   * @return a {@link BGIParseResult} holding the decoded record
+   * @since 0.3.0
+   */
+  public BGIParseResult<R> decode(ByteBuffer data) {
+    return decode(data, BGIParseOptions.DEFAULT);
+  }
+
+  /**
+   * Decodes the BGI data between the buffer's position and limit into a record using the given options. Only the
+   * string pool, whether streams are deferred and whether streams report stackless errors are used. The buffer's
+   * position is not changed.
+   *
+   * @param data Buffer holding the BGI data
+   * @param options Options used to control the decoding
+   * @return a {@link BGIParseResult} holding the decoded record
+   * @since 0.3.0
+   */
+  public BGIParseResult<R> decode(ByteBuffer data, BGIParseOptions options) {
+    ByteBuffer buffer = data.slice();
+    if (buffer.limit() < 5) {
+      return BGIParseResult.error(ErrorCode.DATA_TOO_SHORT);
+    }
+
+    if (buffer.get(0) != 7) {
+      return BGIParseResult.error(ErrorCode.GOBLINLESS);
+    }
+
+    buffer.position(3); // Skip initial 7 and the data version
+
+    var values = new Values(doubleCount, longCount, refCount);
+    try {
+      readProperties(buffer, values, options);
+    } catch (BGIParseException e) {
+      return BGIParseResult.error(e);
+    } catch (BufferUnderflowException e) {
+      return BGIParseResult.error(new BGIParseException(e, ErrorCode.DATA_TOO_SHORT));
+    } catch (IllegalArgumentException e) {
+      // Thrown by ByteParser for a variable int that is too long
+      return BGIParseResult.error(new BGIParseException(e, ErrorCode.MALFORMED_VAR_INT));
+    } catch (RuntimeException e) {
+      return BGIParseResult.error(new BGIParseException(e));
+    }
+
+    try {
+      return BGIParseResult.success(recordType.cast((Record) constructor.invokeExact(values)));
+    } catch (Throwable e) {
+      return BGIParseResult.error(new BGIParseException("Could not construct " + recordType.getName(), e));
+    }
+  }
+
+  private void readProperties(ByteBuffer buffer, Values values, BGIParseOptions options) throws BGIParseException {
+    BGIStringPool stringPool = options.getStringPool();
+
+    int numAttributes = ByteParser.getShort(buffer);
+    for (int i = 0; i < numAttributes; i++) {
+      int key = ByteParser.getInt(buffer);
+      BGIType type = BGIType.fromTypeId(ByteParser.getByte(buffer));
+
+      // Unknown types cannot be skipped, so they fail the whole decode
+      int component = tableComponents[indexOf(key)];
+      if (type == null || component < 0 || (types[component] != null && types[component] != type)) {
+        ByteParser.skip(type, buffer);
+        continue;
+      }
+
+      int slot = slots[component];
+      try {
+        // An Object component takes a value of any type, which is always stored as a reference
+        if (types[component] == null) {
+          values.refs[slot] = type == BGIType.STREAM
+              ? readStream(key, buffer, options)
+              : ByteParser.getByType(key, type, buffer, stringPool);
+          continue;
+        }
+
+        switch (type) {
+          case DOUBLE -> values.doubles[slot] = ByteParser.getDouble(buffer);
+          case FLOAT -> values.doubles[slot] = ByteParser.getFloat(buffer);
+          case LONG -> values.longs[slot] = ByteParser.getLong(buffer);
+          case INTEGER -> values.longs[slot] = ByteParser.getVarInt(buffer);
+          case SHORT -> values.longs[slot] = ByteParser.getShort(buffer);
+          case BYTE -> values.longs[slot] = ByteParser.getByte(buffer);
+          case BOOLEAN -> values.longs[slot] = ByteParser.getBoolean(buffer) ? 1 : 0;
+          case STRING -> values.refs[slot] = ByteParser.getString(buffer, stringPool);
+          case STRING_ARRAY -> values.refs[slot] = ByteParser.getStringArray(buffer, stringPool);
+          case STREAM -> {
+            StreamObject stream = readStream(key, buffer, options);
+            values.refs[slot] = refTypes[component].isInstance(stream) ? stream : null;
+          }
+          default -> values.refs[slot] = ByteParser.getByType(key, type, buffer, stringPool);
+        }
+      } catch (BGIParseException e) {
+        // Like BGIParser, a stream that fails to decode is left empty, since its bytes have already been read
+        values.refs[slot] = null;
+      }
+    }
+  }
+
+  private static StreamObject readStream(int key, ByteBuffer buffer, BGIParseOptions options) throws BGIParseException {
+    return options.isDeferStreams()
+        ? ByteParser.getDeferredStream(key, buffer, options)
+        : ByteParser.getStream(key, buffer, options);
+  }
+
+  private int indexOf(int key) {
+    int mask = tableKeys.length - 1;
+    int index = (key * 0x9E3779B9) >>> shift;
+    while (tableComponents[index] >= 0 && tableKeys[index] != key) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  /**
+   * Creates a handle reading one element of a {@link Values} array, converted to the component type
+   */
+  private static MethodHandle getter(MethodHandle array, Class<?> arrayType, int slot, Class<?> type) {
+    MethodHandle element = MethodHandles.insertArguments(MethodHandles.arrayElementGetter(arrayType), 1, slot);
+    element = MethodHandles.filterArguments(element, 0, array);
+    return MethodHandles.explicitCastArguments(element, MethodType.methodType(type, Values.class));
+  }
+
+  /**
+   * The decoded values of a single record. Floating-point components are stored as doubles, integral and boolean
+   * components as longs, and everything else as references.
+   */
+  private static final class Values {
+    private final double[] doubles;
+    private final long[] longs;
+    private final Object[] refs;
+
+    private Values(int doubles, int longs, int refs) {
+      this.doubles = new double[doubles];
+      this.longs = new long[longs];
+      this.refs = new Object[refs];
+    }
+  }
+}
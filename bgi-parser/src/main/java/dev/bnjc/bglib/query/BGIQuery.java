@@ -0,0 +1,200 @@
+package dev.bnjc.bglib.query;
+
+import dev.bnjc.bglib.BGIType;
+import dev.bnjc.bglib.utils.ByteParser;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compiled query that is matched directly against BGI bytes, without parsing them into
+ * {@link dev.bnjc.bglib.BGIData}. Compile a query once and reuse it for every item.
+ *
+ * <pre>
+ *   BGIQuery query = BGIQuery.compile("TIER == \"RARE\" &amp;&amp; DEFENSE &gt; 5 &amp;&amp; has(GEM_SOCKETS)");
+ *   boolean rareGear = query.matches(bytes);
+ * </pre>
+ *
+ * <p>A query combines conditions with {@code &&}, {@code ||}, {@code !} and parentheses. A condition is either
+ * {@code has(path)} or a comparison of a path to a number, a double-quoted string, {@code true} or {@code false}
+ * with {@code ==}, {@code !=}, {@code <}, {@code <=}, {@code >} or {@code >=}. A path starts with a property name,
+ * such as a {@link dev.bnjc.bglib.BGIField} name, and can continue into the fields of a stream property, named
+ * after the getters of its {@link dev.bnjc.bglib.stream.object.StreamObject}. For example
+ * {@code GEM_SOCKETS.gemstones.color == "red"} or {@code ABILITY.abilities.modifiers.value > 10}.</p>
+ *
+ * <p>Comparisons with a missing property are false. A comparison with a string array, or with a field inside a list
+ * of a stream, is true if any of the values matches. Strings are compared by code point. Comparisons that can never
+ * match a known field, such as comparing {@code DEFENSE} to a string, are rejected when compiling.</p>
+ *
+ * <p>Matching scans the property headers, skipping every value, and then tests only the properties the query refers
+ * to, stopping as soon as the outcome is known. For example, {@code TIER == "RARE" && DEFENSE > 5} never tests
+ * {@code DEFENSE} if the tier is not rare. Like the parser, a property stored more than once is tested by its last
+ * value. Data with a malformed property header never matches, and neither does a stream path in a malformed
+ * stream. Queries are immutable and can be matched from multiple threads at once.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class BGIQuery {
+  private final String source;
+  private final Expr expr;
+  // Every distinct property key in the query, and the conditions about each one
+  private final int[] keys;
+  private final Condition[][] conditionsByKey;
+  private final int[][] indicesByKey;
+
+  private BGIQuery(String source, Expr expr, List<Condition> conditions) {
+    this.source = source;
+    this.expr = expr;
+
+    int[] keys = conditions.stream().mapToInt(Condition::key).distinct().toArray();
+    this.keys = keys;
+    this.conditionsByKey = new Condition[keys.length][];
+    this.indicesByKey = new int[keys.length][];
+    for (int k = 0; k < keys.length; k++) {
+      List<Condition> matching = new ArrayList<>();
+      List<Integer> indices = new ArrayList<>();
+      for (int i = 0; i < conditions.size(); i++) {
+        if (conditions.get(i).key() == keys[k]) {
+          matching.add(conditions.get(i));
+          indices.add(i);
+        }
+      }
+      conditionsByKey[k] = matching.toArray(Condition[]::new);
+      indicesByKey[k] = indices.stream().mapToInt(Integer::intValue).toArray();
+    }
+  }
+
+  /**
+   * Compiles a query
+   *
+   * @param query The query source
+   * @return the compiled query
+   * @throws IllegalArgumentException if the query is not valid, with the position of the problem in the message
+   * @since 0.3.0
+   */
+  public static BGIQuery compile(String query) {
+    QueryParser parser = new QueryParser(query);
+    Expr expr = parser.parse();
+    return new BGIQuery(query, expr, parser.conditions());
+  }
+
+  /**
+   * Matches the query against BGI data
+   *
+   * @param data Byte array from NBT data
+   * @return whether the data matches
+   * @since 0.3.0
+   */
+  public boolean matches(byte[] data) {
+    return matches(ByteBuffer.wrap(data));
+  }
+
+  /**
+   * Matches the query against the BGI data between the buffer's position and limit. The buffer's position is not
+   * changed.
+   *
+   * @param data Buffer holding the BGI data
+   * @return whether the data matches
+   * @since 0.3.0
+   */
+  public boolean matches(ByteBuffer data) {
+    ByteBuffer buffer = data.slice();
+    int limit = buffer.limit();
+    if (limit < 5 || buffer.get(0) != 7) {
+      return false;
+    }
+
+    // Find the last property with each key in the query, which is the one the parser keeps
+    int[] positions = new int[keys.length];
+    int[] ends = new int[keys.length];
+    BGIType[] types = new BGIType[keys.length];
+    int numAttributes = buffer.getShort(3);
+    int position = 5;
+    for (int i = 0; i < numAttributes; i++) {
+      if (limit - position < 5) {
+        return false;
+      }
+
+      int key = buffer.getInt(position);
+      BGIType type = BGIType.fromTypeId(buffer.get(position + 4));
+      if (type == null) {
+        return false;
+      }
+      position += 5;
+      int length = ByteParser.measure(type, buffer, position);
+      if (length < 0) {
+        return false;
+      }
+
+      int k = indexOf(key);
+      if (k >= 0) {
+        positions[k] = position;
+        ends[k] = position + length;
+        types[k] = type;
+      }
+      position += length;
+    }
+
+    // Test the conditions one property at a time, stopping as soon as the outcome is known. Conditions about a
+    // missing property are false.
+    long known = 0;
+    long values = 0;
+    for (int k = 0; k < keys.length; k++) {
+      Condition[] conditions = conditionsByKey[k];
+      int[] indices = indicesByKey[k];
+      for (int c = 0; c < conditions.length; c++) {
+        known |= 1L << indices[c];
+        if (types[k] != null && conditions[c].testProperty(types[k], buffer, positions[k], ends[k])) {
+          values |= 1L << indices[c];
+        }
+      }
+
+      int outcome = expr.eval(known, values);
+      if (outcome != Expr.UNKNOWN) {
+        return outcome == Expr.TRUE;
+      }
+    }
+    return expr.eval(known, values) == Expr.TRUE;
+  }
+
+  private int indexOf(int key) {
+    for (int k = 0; k < keys.length; k++) {
+      if (keys[k] == key) {
+        return k;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof BGIQuery query && source.equals(query.source);
+  }
+
+  @Override
+  public int hashCode() {
+    return source.hashCode();
+  }
+
+  /**
+   * Returns the query with explicit parentheses, which shows how it was parsed
+   *
+   * @return the normalized query
+   */
+  @Override
+  public String toString() {
+    return expr.toString();
+  }
+
+  /**
+   * Returns the source text the query was compiled from
+   *
+   * @return the query source
+   * @since 0.3.0
+   */
+  public String getSource() {
+    return source;
+  }
+}
@@ -0,0 +1,255 @@
+package dev.bnjc.bglib.query;
+
+import dev.bnjc.bglib.BGIType;
+import dev.bnjc.bglib.stream.StreamLayout;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A single condition of a query, tested against the raw bytes of one property: either {@code has(path)} or
+ * {@code path op literal}. The path is a property name, optionally followed by the names of fields inside the
+ * property's stream.
+ *
+ * @author Jack Grzechowiak
+ */
+final class Condition {
+  private static final int UNORDERED = Integer.MIN_VALUE;
+
+  enum Operator {
+    EQUAL("=="),
+    NOT_EQUAL("!="),
+    LESS("<"),
+    LESS_OR_EQUAL("<="),
+    GREATER(">"),
+    GREATER_OR_EQUAL(">=");
+
+    final String symbol;
+
+    Operator(String symbol) {
+      this.symbol = symbol;
+    }
+
+    /**
+     * Applies the operator to the result of comparing the property value to the literal
+     */
+    boolean test(int comparison) {
+      return switch (this) {
+        case EQUAL -> comparison == 0;
+        case NOT_EQUAL -> comparison != 0;
+        case LESS -> comparison < 0;
+        case LESS_OR_EQUAL -> comparison <= 0;
+        case GREATER -> comparison > 0;
+        case GREATER_OR_EQUAL -> comparison >= 0;
+      };
+    }
+  }
+
+  private final String name;
+  private final int key;
+  private final @Nullable StreamLayout layout;
+  private final int @Nullable [] path;
+  private final @Nullable Operator operator;
+  private final @Nullable Object literal;
+  private final byte @Nullable [] literalBytes;
+
+  /**
+   * @param name The source text of the path, used in {@link #toString()}
+   * @param key The key hash of the property
+   * @param layout The layout of the property's stream, if the path continues into it
+   * @param path The resolved stream path, if the path continues into the stream
+   * @param operator The comparison, or {@code null} for {@code has(path)}
+   * @param literal A {@link Double}, {@link String} or {@link Boolean} to compare to
+   */
+  Condition(String name, int key, @Nullable StreamLayout layout, int @Nullable [] path, @Nullable Operator operator, @Nullable Object literal) {
+    this.name = name;
+    this.key = key;
+    this.layout = layout;
+    this.path = path;
+    this.operator = operator;
+    this.literal = literal;
+    this.literalBytes = literal instanceof String string ? string.getBytes(StandardCharsets.UTF_8) : null;
+  }
+
+  int key() {
+    return key;
+  }
+
+  boolean isHas() {
+    return operator == null;
+  }
+
+  /**
+   * Tests the value of the property this condition is about
+   *
+   * @param type The property type
+   * @param buffer The BGI data
+   * @param position The index of the property value
+   * @param end The index after the property value
+   * @return whether the condition holds
+   */
+  boolean testProperty(BGIType type, ByteBuffer buffer, int position, int end) {
+    if (path == null) {
+      return isHas() || test(type, buffer, position, end);
+    }
+    if (type != BGIType.STREAM || layout == null) {
+      return false;
+    }
+
+    // The stream length has already been checked, so only its size needs to be skipped
+    int start = position;
+    while ((buffer.get(start++) & 0x80) != 0) {
+      // Skip the variable int
+    }
+    return StreamWalker.matches(layout, buffer, start, end, path, this);
+  }
+
+  /**
+   * Compares a value to the literal. String arrays match if any of their elements match. Values of a type the
+   * literal cannot be compared to never match.
+   *
+   * @param type The value type, or {@code null} if unknown
+   * @param buffer The BGI data
+   * @param position The index of the value
+   * @param limit The index that the value must not extend past
+   * @return whether the comparison holds
+   */
+  boolean test(@Nullable BGIType type, ByteBuffer buffer, int position, int limit) {
+    if (type == null || operator == null) {
+      return false;
+    }
+
+    return switch (type) {
+      case BYTE, SHORT, INTEGER, LONG, FLOAT, DOUBLE -> {
+        if (!(literal instanceof Double number) || end(type, buffer, position, limit) < 0) {
+          yield false;
+        }
+        int comparison = compare(number(type, buffer, position), number);
+        yield comparison == UNORDERED ? operator == Operator.NOT_EQUAL : operator.test(comparison);
+      }
+      case BOOLEAN -> {
+        if (!(literal instanceof Boolean bool) || position >= limit) {
+          yield false;
+        }
+        boolean value = buffer.get(position) != 0;
+        yield (operator == Operator.EQUAL || operator == Operator.NOT_EQUAL) && operator.test(value == bool ? 0 : 1);
+      }
+      case STRING -> literalBytes != null && testString(buffer, position, limit) > 0;
+      case STRING_ARRAY -> {
+        if (literalBytes == null || varIntEnd(buffer, position, limit) < 0) {
+          yield false;
+        }
+        int count = readVarInt(buffer, position);
+        position = varIntEnd(buffer, position, limit);
+        for (int i = 0; i < count && position >= 0; i++) {
+          int result = testString(buffer, position, limit);
+          if (result > 0) {
+            yield true;
+          }
+          position = -result;
+        }
+        yield false;
+      }
+      case UUID, STREAM -> false;
+    };
+  }
+
+  /**
+   * Tests a length-prefixed string
+   *
+   * @return a positive value if the comparison holds, otherwise the negated index after the string, or
+   * {@link Integer#MIN_VALUE} if the string is malformed
+   */
+  private int testString(ByteBuffer buffer, int position, int limit) {
+    int start = varIntEnd(buffer, position, limit);
+    int length = start < 0 ? -1 : readVarInt(buffer, position);
+    if (length < 0 || length > limit - start) {
+      return Integer.MIN_VALUE;
+    }
+
+    // UTF-8 bytes compare in the same order as their code points
+    int comparison = 0;
+    int common = Math.min(length, literalBytes.length);
+    for (int i = 0; i < common && comparison == 0; i++) {
+      comparison = Integer.compare(buffer.get(start + i) & 0xFF, literalBytes[i] & 0xFF);
+    }
+    if (comparison == 0) {
+      comparison = Integer.compare(length, literalBytes.length);
+    }
+    return operator.test(comparison) ? 1 : -(start + length);
+  }
+
+  /**
+   * Compares numbers like the comparison operators do, so NaN is neither less than, equal to nor greater than
+   * anything
+   */
+  private static int compare(double value, double literal) {
+    return value < literal ? -1 : value > literal ? 1 : value == literal ? 0 : UNORDERED;
+  }
+
+  /**
+   * Returns the index after a number, or {@code -1} if it extends past the limit
+   */
+  private static int end(BGIType type, ByteBuffer buffer, int position, int limit) {
+    int end = switch (type) {
+      case INTEGER -> varIntEnd(buffer, position, limit);
+      case BYTE -> position + 1;
+      case SHORT -> position + 2;
+      case FLOAT -> position + 4;
+      default -> position + 8;
+    };
+    return end > limit ? -1 : end;
+  }
+
+  private static double number(BGIType type, ByteBuffer buffer, int position) {
+    return switch (type) {
+      case BYTE -> buffer.get(position);
+      case SHORT -> buffer.getShort(position);
+      case INTEGER -> readVarInt(buffer, position);
+      case LONG -> buffer.getLong(position);
+      case FLOAT -> buffer.getFloat(position);
+      default -> buffer.getDouble(position);
+    };
+  }
+
+  /**
+   * Returns the index after the variable int at the given index, or {@code -1} if it is malformed or cut off
+   */
+  static int varIntEnd(ByteBuffer buffer, int position, int limit) {
+    for (int i = 0; i < 5; i++) {
+      if (position + i >= limit) {
+        return -1;
+      }
+      if ((buffer.get(position + i) & 0x80) == 0) {
+        return position + i + 1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Reads the variable int at the given index, which must already be known to be well-formed
+   */
+  static int readVarInt(ByteBuffer buffer, int position) {
+    int value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = buffer.get(position++);
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    if (operator == null) {
+      return "has(" + name + ")";
+    }
+    String value = literal instanceof String string ? '"' + string.replace("\\", "\\\\").replace("\"", "\\\"") + '"'
+        : literal instanceof Double number && number == Math.rint(number) && !Double.isInfinite(number) ? String.valueOf(number.longValue())
+        : String.valueOf(literal);
+    return name + " " + operator.symbol + " " + value;
+  }
+}
@@ -0,0 +1,83 @@
+package dev.bnjc.bglib.query;
+
+/**
+ * A compiled query expression, evaluated with three values so that it can be decided before every condition is
+ * known. A condition is known once the property it tests has been scanned, or once the whole item has been scanned
+ * without finding it.
+ *
+ * @author Jack Grzechowiak
+ */
+sealed interface Expr {
+  int FALSE = 0;
+  int TRUE = 1;
+  int UNKNOWN = 2;
+
+  /**
+   * Evaluates the expression
+   *
+   * @param known Bit {@code i} is set if condition {@code i} is known
+   * @param values Bit {@code i} is set if condition {@code i} is known to be true
+   * @return {@link #TRUE}, {@link #FALSE} or {@link #UNKNOWN}
+   */
+  int eval(long known, long values);
+
+  record And(Expr left, Expr right) implements Expr {
+    @Override
+    public int eval(long known, long values) {
+      int left = this.left.eval(known, values);
+      if (left == FALSE) {
+        return FALSE;
+      }
+      int right = this.right.eval(known, values);
+      return right == FALSE ? FALSE : left == TRUE && right == TRUE ? TRUE : UNKNOWN;
+    }
+
+    @Override
+    public String toString() {
+      return "(" + left + " && " + right + ")";
+    }
+  }
+
+  record Or(Expr left, Expr right) implements Expr {
+    @Override
+    public int eval(long known, long values) {
+      int left = this.left.eval(known, values);
+      if (left == TRUE) {
+        return TRUE;
+      }
+      int right = this.right.eval(known, values);
+      return right == TRUE ? TRUE : left == FALSE && right == FALSE ? FALSE : UNKNOWN;
+    }
+
+    @Override
+    public String toString() {
+      return "(" + left + " || " + right + ")";
+    }
+  }
+
+  record Not(Expr operand) implements Expr {
+    @Override
+    public int eval(long known, long values) {
+      int value = operand.eval(known, values);
+      return value == UNKNOWN ? UNKNOWN : value ^ 1;
+    }
+
+    @Override
+    public String toString() {
+      return operand instanceof Leaf ? "!(" + operand + ")" : "!" + operand;
+    }
+  }
+
+  record Leaf(int index, Condition condition) implements Expr {
+    @Override
+    public int eval(long known, long values) {
+      long bit = 1L << index;
+      return (known & bit) == 0 ? UNKNOWN : (values & bit) != 0 ? TRUE : FALSE;
+    }
+
+    @Override
+    public String toString() {
+      return condition.toString();
+    }
+  }
+}
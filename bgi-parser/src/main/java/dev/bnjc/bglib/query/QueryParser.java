@@ -0,0 +1,266 @@
+package dev.bnjc.bglib.query;
+
+import dev.bnjc.bglib.BGIField;
+import dev.bnjc.bglib.BGIType;
+import dev.bnjc.bglib.stream.StreamLayout;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recursive-descent parser for the query language described by {@link BGIQuery}.
+ *
+ * <pre>
+ *   or         := and ('||' and)*
+ *   and        := unary ('&amp;&amp;' unary)*
+ *   unary      := '!' unary | '(' or ')' | 'has' '(' path ')' | path operator literal
+ *   path       := name ('.' name)*
+ *   operator   := '==' | '!=' | '&lt;' | '&lt;=' | '&gt;' | '&gt;='
+ *   literal    := number | string | 'true' | 'false'
+ * </pre>
+ *
+ * @author Jack Grzechowiak
+ */
+final class QueryParser {
+  private final String query;
+  private final List<Condition> conditions = new ArrayList<>();
+  private int position;
+
+  QueryParser(String query) {
+    this.query = query;
+  }
+
+  /**
+   * Parses the whole query
+   *
+   * @throws IllegalArgumentException if the query is not valid
+   */
+  Expr parse() {
+    Expr expr = or();
+    skipWhitespace();
+    if (position < query.length()) {
+      throw error("Unexpected '" + query.charAt(position) + "'");
+    }
+    return expr;
+  }
+
+  /**
+   * Returns every condition of the parsed query, indexed like the {@link Expr.Leaf} nodes
+   */
+  List<Condition> conditions() {
+    return conditions;
+  }
+
+  private Expr or() {
+    Expr expr = and();
+    while (accept("||")) {
+      expr = new Expr.Or(expr, and());
+    }
+    return expr;
+  }
+
+  private Expr and() {
+    Expr expr = unary();
+    while (accept("&&")) {
+      expr = new Expr.And(expr, unary());
+    }
+    return expr;
+  }
+
+  private Expr unary() {
+    if (accept("!")) {
+      return new Expr.Not(unary());
+    }
+    if (accept("(")) {
+      Expr expr = or();
+      expect(")");
+      return expr;
+    }
+
+    int start = skipWhitespace();
+    List<String> path = path();
+    if (path.size() == 1 && path.get(0).equals("has") && accept("(")) {
+      int pathStart = skipWhitespace();
+      Expr leaf = leaf(pathStart, path(), null, null);
+      expect(")");
+      return leaf;
+    }
+
+    Condition.Operator operator = operator();
+    return leaf(start, path, operator, literal());
+  }
+
+  private Expr leaf(int start, List<String> path, Condition.@Nullable Operator operator, @Nullable Object literal) {
+    if (conditions.size() == Long.SIZE) {
+      throw error("Queries can have at most " + Long.SIZE + " conditions", start);
+    }
+
+    String property = path.get(0);
+    int key = property.hashCode();
+    BGIField field = BGIField.fromKey(key);
+    StreamLayout layout = null;
+    int[] streamPath = null;
+    BGIType type = field == null ? null : field.type;
+
+    if (path.size() > 1) {
+      if (field != null && field.type != BGIType.STREAM) {
+        throw error("Field [" + field + "] is not a stream", start);
+      }
+
+      layout = StreamLayout.forKey(key);
+      try {
+        streamPath = StreamWalker.resolve(layout, path.subList(1, path.size()));
+      } catch (IllegalArgumentException e) {
+        throw error(e.getMessage() + " in [" + property + "]", start);
+      }
+      type = StreamWalker.typeOf(layout, streamPath);
+    }
+
+    if (operator != null && type != null) {
+      checkLiteral(String.join(".", path), type, operator, literal, start);
+    }
+
+    Condition condition = new Condition(String.join(".", path), key, layout, streamPath, operator, literal);
+    conditions.add(condition);
+    return new Expr.Leaf(conditions.size() - 1, condition);
+  }
+
+  /**
+   * Rejects comparisons that could never match a value of the known type
+   */
+  private void checkLiteral(String path, BGIType type, Condition.Operator operator, @Nullable Object literal, int start) {
+    boolean valid = switch (type) {
+      case BYTE, SHORT, INTEGER, LONG, FLOAT, DOUBLE -> literal instanceof Double;
+      case STRING, STRING_ARRAY -> literal instanceof String;
+      case BOOLEAN -> literal instanceof Boolean && (operator == Condition.Operator.EQUAL || operator == Condition.Operator.NOT_EQUAL);
+      case UUID, STREAM -> false;
+    };
+
+    if (!valid) {
+      String value = literal instanceof String ? '"' + literal.toString() + '"' : String.valueOf(literal);
+      throw error("[" + path + "] of type " + type + " cannot be compared with " + operator.symbol + " " + value, start);
+    }
+  }
+
+  private List<String> path() {
+    List<String> path = new ArrayList<>();
+    path.add(name());
+    while (accept(".")) {
+      path.add(name());
+    }
+    return path;
+  }
+
+  private String name() {
+    int start = skipWhitespace();
+    while (position < query.length() && (Character.isLetterOrDigit(query.charAt(position)) || query.charAt(position) == '_')) {
+      position++;
+    }
+    if (start == position) {
+      throw error(position < query.length() ? "Expected a name but found '" + query.charAt(position) + "'" : "Expected a name");
+    }
+    return query.substring(start, position);
+  }
+
+  private Condition.Operator operator() {
+    skipWhitespace();
+    // Two-character operators are checked first so that "<=" is not read as "<"
+    for (String symbol : new String[] {"==", "!=", "<=", ">=", "<", ">"}) {
+      if (query.startsWith(symbol, position)) {
+        position += symbol.length();
+        for (Condition.Operator operator : Condition.Operator.values()) {
+          if (operator.symbol.equals(symbol)) {
+            return operator;
+          }
+        }
+      }
+    }
+    throw error("Expected a comparison operator or has(...)");
+  }
+
+  private Object literal() {
+    int start = skipWhitespace();
+    if (position >= query.length()) {
+      throw error("Expected a value");
+    }
+
+    char c = query.charAt(position);
+    if (c == '"') {
+      return string();
+    }
+    if (c == '-' || c == '.' || Character.isDigit(c)) {
+      position++;
+      while (position < query.length() && isNumberChar(query.charAt(position))) {
+        position++;
+      }
+      try {
+        return Double.parseDouble(query.substring(start, position));
+      } catch (NumberFormatException e) {
+        throw error("Invalid number [" + query.substring(start, position) + "]", start);
+      }
+    }
+
+    String name = name();
+    return switch (name) {
+      case "true" -> Boolean.TRUE;
+      case "false" -> Boolean.FALSE;
+      default -> throw error("Expected a number, string, true or false but found [" + name + "]", start);
+    };
+  }
+
+  private boolean isNumberChar(char c) {
+    char previous = query.charAt(position - 1);
+    return Character.isDigit(c) || c == '.' || c == 'e' || c == 'E' || ((c == '-' || c == '+') && (previous == 'e' || previous == 'E'));
+  }
+
+  private String string() {
+    int start = position++;
+    StringBuilder builder = new StringBuilder();
+    while (position < query.length()) {
+      char c = query.charAt(position++);
+      if (c == '"') {
+        return builder.toString();
+      }
+      if (c == '\\' && position < query.length()) {
+        c = query.charAt(position++);
+      }
+      builder.append(c);
+    }
+    throw error("Unterminated string", start);
+  }
+
+  private boolean accept(String symbol) {
+    skipWhitespace();
+    if (!query.startsWith(symbol, position)) {
+      return false;
+    }
+    // "!" must not consume the start of "!="
+    if (symbol.equals("!") && query.startsWith("!=", position)) {
+      return false;
+    }
+    position += symbol.length();
+    return true;
+  }
+
+  private void expect(String symbol) {
+    if (!accept(symbol)) {
+      throw error("Expected '" + symbol + "'");
+    }
+  }
+
+  private int skipWhitespace() {
+    while (position < query.length() && Character.isWhitespace(query.charAt(position))) {
+      position++;
+    }
+    return position;
+  }
+
+  private IllegalArgumentException error(String message) {
+    return error(message, position);
+  }
+
+  private IllegalArgumentException error(String message, int at) {
+    return new IllegalArgumentException(message + " at position " + at + " of query [" + query + "]");
+  }
+}
@@ -0,0 +1,202 @@
+package dev.bnjc.bglib.query;
+
+import dev.bnjc.bglib.BGIType;
+import dev.bnjc.bglib.stream.StreamLayout;
+import dev.bnjc.bglib.stream.StreamLayout.Field;
+import dev.bnjc.bglib.utils.ByteParser;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Finds the values at a query path such as {@code GEM_SOCKETS.gemstones.color} in the raw bytes of a stream, by
+ * walking the stream's {@link StreamLayout} and skipping every field that is not on the path.
+ *
+ * @author Jack Grzechowiak
+ */
+final class StreamWalker {
+  // Walk results other than a position
+  private static final int MALFORMED = -1;
+  private static final int FOUND = -2;
+  private static final int NOT_FOUND = -3;
+
+  private StreamWalker() {
+  }
+
+  /**
+   * Resolves a path of field names into the index of the field at each depth
+   *
+   * @throws IllegalArgumentException if a name does not match a field
+   */
+  static int[] resolve(StreamLayout layout, List<String> names) {
+    int[] path = new int[names.size()];
+    List<Field> current = layout.getFields();
+    for (int depth = 0; depth < path.length; depth++) {
+      if (current == null) {
+        throw new IllegalArgumentException("[" + String.join(".", names.subList(0, depth)) + "] has no fields");
+      }
+
+      path[depth] = -1;
+      for (int i = 0; i < current.size(); i++) {
+        if (names.get(depth).equals(current.get(i).name())) {
+          path[depth] = i;
+          break;
+        }
+      }
+      if (path[depth] < 0) {
+        throw new IllegalArgumentException("Unknown stream field [" + String.join(".", names.subList(0, depth + 1)) + "]");
+      }
+      current = current.get(path[depth]).children();
+    }
+    return path;
+  }
+
+  /**
+   * Returns the type of the value at the end of a resolved path
+   *
+   * @return the value type, {@code null} for a value of any type, or {@link BGIType#STREAM} for a list
+   */
+  static @Nullable BGIType typeOf(StreamLayout layout, int[] path) {
+    List<Field> current = layout.getFields();
+    Field field = null;
+    for (int index : path) {
+      field = current.get(index);
+      current = field.children();
+    }
+    return switch (field.kind()) {
+      case TYPED -> null;
+      case VALUE, OPTIONAL -> field.type();
+      default -> BGIType.STREAM;
+    };
+  }
+
+  /**
+   * Whether the condition holds for any value found at the path in the stream between the two indices
+   */
+  static boolean matches(StreamLayout layout, ByteBuffer buffer, int start, int end, int[] path, Condition condition) {
+    return new Walker(buffer, end, path, condition).walk(layout.getFields(), 0, start) == FOUND;
+  }
+
+  /**
+   * Walks the stream bytes along a path, skipping every field that is not on it
+   */
+  private static final class Walker {
+    private final ByteBuffer buffer;
+    private final int limit;
+    private final int[] path;
+    private final Condition condition;
+
+    Walker(ByteBuffer buffer, int limit, int[] path, Condition condition) {
+      this.buffer = buffer;
+      this.limit = limit;
+      this.path = path;
+      this.condition = condition;
+    }
+
+    /**
+     * Walks the fields of one element
+     *
+     * @param depth The depth of the path the fields are at, or {@code -1} if the element is only being skipped
+     * @return the position after the fields, or {@link #FOUND}, {@link #NOT_FOUND} or {@link #MALFORMED}
+     */
+    int walk(List<Field> fields, int depth, int position) {
+      for (int i = 0; i < fields.size() && position >= 0; i++) {
+        Field field = fields.get(i);
+        boolean onPath = depth >= 0 && path[depth] == i;
+        boolean target = onPath && depth == path.length - 1;
+
+        position = switch (field.kind()) {
+          case VERSION -> position < limit && buffer.get(position) <= 1 ? position + 1 : MALFORMED;
+          case VALUE -> target && test(field.type(), position) ? FOUND : skip(field.type(), position);
+          case OPTIONAL -> {
+            if (position >= limit) {
+              yield MALFORMED;
+            }
+            if (buffer.get(position++) == 0) {
+              yield position;
+            }
+            yield target && test(field.type(), position) ? FOUND : skip(field.type(), position);
+          }
+          case TYPED -> {
+            BGIType type = position < limit ? BGIType.fromTypeId(buffer.get(position)) : null;
+            if (type == null) {
+              yield MALFORMED;
+            }
+            yield target && test(type, position + 1) ? FOUND : skip(type, position + 1);
+          }
+          case LIST -> elements(field, onPath, target, depth, position);
+          case FLAGGED_LIST -> {
+            if (position >= limit) {
+              yield MALFORMED;
+            }
+            yield buffer.get(position) == 0 ? position + 1 : elements(field, onPath, target, depth, position + 1);
+          }
+          case REPEATED -> {
+            while (position >= 0 && position < limit) {
+              if (target) {
+                yield FOUND;
+              }
+              position = walk(field.children(), onPath ? depth + 1 : -1, position);
+            }
+            yield position;
+          }
+        };
+
+        // Nothing after the field on the path can match
+        if (onPath && depth == 0 && position >= 0) {
+          return NOT_FOUND;
+        }
+      }
+      return position;
+    }
+
+    private int elements(Field field, boolean onPath, boolean target, int depth, int position) {
+      int start = varIntEnd(position);
+      if (start < 0) {
+        return MALFORMED;
+      }
+      int count = readVarInt(position);
+      if (count < 0) {
+        return MALFORMED;
+      }
+      if (target && count > 0) {
+        return FOUND;
+      }
+
+      position = start;
+      for (int i = 0; i < count && position >= 0; i++) {
+        position = walk(field.children(), onPath ? depth + 1 : -1, position);
+      }
+      return position;
+    }
+
+    private boolean test(@Nullable BGIType type, int position) {
+      return condition.isHas() || condition.test(type, buffer, position, limit);
+    }
+
+    private int skip(@Nullable BGIType type, int position) {
+      if (type == null || position > limit) {
+        return MALFORMED;
+      }
+      int length = ByteParser.measure(type, buffer, position);
+      return length < 0 || length > limit - position ? MALFORMED : position + length;
+    }
+
+    private int varIntEnd(int position) {
+      for (int i = 0; i < 5; i++) {
+        if (position + i >= limit) {
+          return MALFORMED;
+        }
+        if ((buffer.get(position + i) & 0x80) == 0) {
+          return position + i + 1;
+        }
+      }
+      return MALFORMED;
+    }
+
+    private int readVarInt(int position) {
+      return Condition.readVarInt(buffer, position);
+    }
+  }
+}
@@ -1,37 +1,56 @@
 package dev.bnjc.bglib.stream;
 
-import dev.bnjc.bglib.BGIField;
+import dev.bnjc.bglib.BGIParseOptions;
 import dev.bnjc.bglib.exceptions.BGIParseException;
-import dev.bnjc.bglib.stream.object.*;
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import dev.bnjc.bglib.stream.object.StreamObject;
 
 import java.nio.ByteBuffer;
 
 public final class BGIStreamParser {
   public static StreamObject parse(int key, byte[] streamBytes) throws BGIParseException {
-    if (streamBytes.length == 0) throw new BGIParseException("Empty stream data");
-
-    ByteBuffer buffer = ByteBuffer.wrap(streamBytes);
-
-    if (BGIField.COMMANDS.key() == key) {
-      return CommandStreamObject.from(key, buffer);
-    }
-
-    if (BGIField.ABILITY.key() == key) {
-      return AbilityStreamObject.from(key, buffer);
-    }
-
-    if (BGIField.ARROW_PARTICLES.key() == key) {
-      return ArrowParticlesStreamObject.from(key, buffer);
-    }
+    return parse(key, ByteBuffer.wrap(streamBytes), BGIParseOptions.DEFAULT);
+  }
 
-    if (BGIField.CONSUMABLE_BUFFS.key() == key) {
-      return ConsumableBuffStreamObject.from(key, buffer);
-    }
+  /**
+   * Decodes the stream between the buffer's position and limit. The stream object reads a view of the given buffer,
+   * so a stream inside a larger buffer is decoded without copying it, and the buffer's position is not changed.
+   * Strings are deduplicated through the options' {@linkplain BGIParseOptions#getStringPool() string pool}, and
+   * errors are reported with {@linkplain BGIParseException#stackless(ErrorCode) stackless exceptions} if the options
+   * ask for them.
+   *
+   * @param key The property key hash
+   * @param streamBuffer The stream bytes
+   * @param options The options used to decode the stream
+   * @return the decoded stream object
+   * @throws BGIParseException if the stream is empty or could not be decoded
+   * @since 0.3.0
+   */
+  public static StreamObject parse(int key, ByteBuffer streamBuffer, BGIParseOptions options) throws BGIParseException {
+    StreamObject stream = parseDeferred(key, streamBuffer, options);
+    stream.parse();
+    return stream;
+  }
 
-    if (BGIField.GEM_SOCKETS.key() == key) {
-      return GemSocketStreamObject.from(key, buffer);
+  /**
+   * Creates the stream object for the stream between the buffer's position and limit without decoding it, like
+   * {@link #parse(int, ByteBuffer, BGIParseOptions)}. The stream is decoded the first time one of its getters is
+   * called, and any decoding error is then available from {@link StreamObject#getParseError()}.
+   *
+   * @param key The property key hash
+   * @param buffer The stream bytes, which must not be modified until the stream is decoded
+   * @param options The options used to decode the stream
+   * @return the undecoded stream object
+   * @throws BGIParseException if the stream is empty
+   * @since 0.3.0
+   */
+  public static StreamObject parseDeferred(int key, ByteBuffer buffer, BGIParseOptions options) throws BGIParseException {
+    if (!buffer.hasRemaining()) {
+      throw options.isStacklessErrors()
+          ? BGIParseException.stackless(ErrorCode.DATA_TOO_SHORT)
+          : new BGIParseException("Empty stream data");
     }
 
-    return HistoryStreamObject.from(key, buffer);
+    return StreamLayout.forKey(key).create(key, buffer, options);
   }
 }
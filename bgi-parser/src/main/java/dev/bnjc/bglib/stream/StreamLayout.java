@@ -0,0 +1,190 @@
+package dev.bnjc.bglib.stream;
+
+import dev.bnjc.bglib.BGIField;
+import dev.bnjc.bglib.BGIParseOptions;
+import dev.bnjc.bglib.BGIType;
+import dev.bnjc.bglib.stream.object.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * The layout of each kind of stream, described as nested fields. This is the one place that decides which stream
+ * object a property key is decoded into ({@link BGIStreamParser} dispatches through {@link #forKey(int)}), and the
+ * layouts are what {@link dev.bnjc.bglib.BGIValidator} checks and {@link dev.bnjc.bglib.query.BGIQuery} searches
+ * in the raw stream bytes. Field names match the getters and record components of the matching
+ * {@link StreamObject}, and the layouts must be kept in step with their {@code decode} methods.
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class StreamLayout {
+  private static final List<Field> HISTORY_ENTRY = List.of(
+      value("key", BGIType.STRING),
+      new Field("value", Kind.TYPED, null)
+  );
+  private static final List<Field> HISTORY_STORY = List.of(
+      value("key", BGIType.UUID),
+      new Field("entries", Kind.LIST, null, HISTORY_ENTRY)
+  );
+
+  private static final StreamLayout COMMANDS = new StreamLayout(CommandStreamObject::deferred, List.of(
+      new Field(null, Kind.VERSION, null),
+      new Field("commands", Kind.LIST, null, List.of(
+          value("text", BGIType.STRING),
+          value("delay", BGIType.DOUBLE),
+          value("console", BGIType.BOOLEAN),
+          value("op", BGIType.BOOLEAN)
+      ))
+  ));
+  private static final StreamLayout ABILITY = new StreamLayout(AbilityStreamObject::deferred, List.of(
+      new Field(null, Kind.VERSION, null),
+      new Field("abilities", Kind.LIST, null, List.of(
+          value("id", BGIType.STRING),
+          value("castMode", BGIType.STRING),
+          new Field("modifiers", Kind.LIST, null, List.of(
+              value("name", BGIType.STRING),
+              value("value", BGIType.DOUBLE)
+          ))
+      ))
+  ));
+  private static final StreamLayout ARROW_PARTICLES = new StreamLayout(ArrowParticlesStreamObject::deferred, List.of(
+      new Field(null, Kind.VERSION, null),
+      value("particle", BGIType.STRING),
+      value("amount", BGIType.INTEGER),
+      value("offset", BGIType.DOUBLE),
+      value("colored", BGIType.BOOLEAN),
+      value("speed", BGIType.DOUBLE)
+  ));
+  private static final StreamLayout CONSUMABLE_BUFFS = new StreamLayout(ConsumableBuffStreamObject::deferred, List.of(
+      new Field(null, Kind.VERSION, null),
+      new Field("buffTypes", Kind.REPEATED, null, List.of(
+          value("type", BGIType.STRING),
+          new Field("buffs", Kind.LIST, null, List.of(
+              value("amountNew", BGIType.DOUBLE),
+              value("time", BGIType.DOUBLE),
+              value("stat", BGIType.STRING),
+              value("key", BGIType.STRING),
+              value("type", BGIType.STRING),
+              value("loreMultiplier", BGIType.DOUBLE)
+          ))
+      ))
+  ));
+  private static final StreamLayout GEM_SOCKETS = new StreamLayout(GemSocketStreamObject::deferred, List.of(
+      new Field(null, Kind.VERSION, null),
+      value("emptySlots", BGIType.STRING_ARRAY),
+      new Field("gemstones", Kind.LIST, null, List.of(
+          value("name", BGIType.STRING),
+          value("history", BGIType.UUID),
+          new Field("id", Kind.OPTIONAL, BGIType.STRING),
+          new Field("type", Kind.OPTIONAL, BGIType.STRING),
+          new Field("color", Kind.OPTIONAL, BGIType.STRING)
+      ))
+  ));
+  private static final StreamLayout HISTORY = new StreamLayout(HistoryStreamObject::deferred, List.of(
+      value("statName", BGIType.STRING),
+      new Field("ogStories", Kind.FLAGGED_LIST, null, HISTORY_ENTRY),
+      new Field("gemStories", Kind.FLAGGED_LIST, null, HISTORY_STORY),
+      value(null, BGIType.BOOLEAN),
+      new Field("modStories", Kind.FLAGGED_LIST, null, HISTORY_STORY)
+  ));
+
+  private final Factory factory;
+  private final List<Field> fields;
+
+  private StreamLayout(Factory factory, List<Field> fields) {
+    this.factory = factory;
+    this.fields = fields;
+  }
+
+  /**
+   * Returns the layout of the stream stored with the given key. Every stream that is not one of the known stream
+   * fields holds the history of the stat it is stored under.
+   *
+   * @param key The property key hash
+   * @return the layout of the stream
+   * @since 0.3.0
+   */
+  public static StreamLayout forKey(int key) {
+    if (key == BGIField.COMMANDS.key()) {
+      return COMMANDS;
+    } else if (key == BGIField.ABILITY.key()) {
+      return ABILITY;
+    } else if (key == BGIField.ARROW_PARTICLES.key()) {
+      return ARROW_PARTICLES;
+    } else if (key == BGIField.CONSUMABLE_BUFFS.key()) {
+      return CONSUMABLE_BUFFS;
+    } else if (key == BGIField.GEM_SOCKETS.key()) {
+      return GEM_SOCKETS;
+    }
+    return HISTORY;
+  }
+
+  /**
+   * Returns the top level fields of the stream, in the order they are stored
+   *
+   * @return the fields, which cannot be modified
+   * @since 0.3.0
+   */
+  public List<Field> getFields() {
+    return fields;
+  }
+
+  /**
+   * Creates the undecoded stream object for a stream with this layout
+   */
+  StreamObject create(int key, ByteBuffer buffer, BGIParseOptions options) {
+    return factory.create(key, buffer, options);
+  }
+
+  private static Field value(@Nullable String name, BGIType type) {
+    return new Field(name, Kind.VALUE, type);
+  }
+
+  /**
+   * How a field is stored
+   *
+   * @since 0.3.0
+   */
+  public enum Kind {
+    /** A version byte, which must be at most 1 */
+    VERSION,
+    /** A value of the field's type */
+    VALUE,
+    /** A boolean, followed by a value of the field's type if it is {@code true} */
+    OPTIONAL,
+    /**
+     * A type id followed by a value of that type. A nested stream is laid out according to the string stored just
+     * before it, which is its key.
+     */
+    TYPED,
+    /** A variable int count followed by that many elements, each made of the field's children */
+    LIST,
+    /** A boolean, followed by a {@link #LIST} if it is {@code true} */
+    FLAGGED_LIST,
+    /** Elements made of the field's children, repeated until the end of the stream */
+    REPEATED
+  }
+
+  /**
+   * A field of a stream. Fields without a name are skipped by queries.
+   *
+   * @param name The field name, or {@code null} if it cannot be queried
+   * @param kind How the field is stored
+   * @param type The value type of a {@link Kind#VALUE} or {@link Kind#OPTIONAL} field
+   * @param children The fields of each element of a {@link Kind#LIST}, {@link Kind#FLAGGED_LIST} or
+   *                 {@link Kind#REPEATED} field, or {@code null}
+   * @since 0.3.0
+   */
+  public record Field(@Nullable String name, Kind kind, @Nullable BGIType type, @Nullable List<Field> children) {
+    Field(@Nullable String name, Kind kind, @Nullable BGIType type) {
+      this(name, kind, type, null);
+    }
+  }
+
+  @FunctionalInterface
+  private interface Factory {
+    StreamObject create(int key, ByteBuffer buffer, BGIParseOptions options);
+  }
+}
@@ -1,7 +1,7 @@
 package dev.bnjc.bglib.stream.object;
 
+import dev.bnjc.bglib.BGIParseOptions;
 import dev.bnjc.bglib.exceptions.BGIParseException;
-import dev.bnjc.bglib.exceptions.ErrorCode;
 import dev.bnjc.bglib.utils.ByteParser;
 
 import java.nio.ByteBuffer;
@@ -11,49 +11,66 @@ import java.util.List;
 public class AbilityStreamObject extends VersionedStreamObject {
   private final List<Ability> abilities = new ArrayList<>();
 
-  private AbilityStreamObject(int key, ByteBuffer buffer) {
-    super(key, buffer);
+  private AbilityStreamObject(int key, ByteBuffer buffer, BGIParseOptions options) {
+    super(key, buffer, options);
   }
 
   public static AbilityStreamObject from(int key, ByteBuffer buffer) throws BGIParseException {
-    var aso = new AbilityStreamObject(key, buffer);
+    var aso = deferred(key, buffer, BGIParseOptions.DEFAULT);
     aso.parse();
     return aso;
   }
 
+  /**
+   * Creates the stream object without decoding it. The buffer is decoded the first time one of the getters is
+   * called.
+   *
+   * @param key The property key hash
+   * @param buffer The stream bytes
+   * @param options The options whose string pool and error reporting are used when decoding
+   * @return the undecoded stream object
+   * @since 0.3.0
+   */
+  public static AbilityStreamObject deferred(int key, ByteBuffer buffer, BGIParseOptions options) {
+    return new AbilityStreamObject(key, buffer, options);
+  }
+
   public List<Ability> getAbilities() {
-    return abilities;
+    ensureDecoded();
+    return readOnly(abilities);
   }
 
   public boolean hasAbilities() {
+    ensureDecoded();
     return !abilities.isEmpty();
   }
 
   @Override
   protected void parseBuffer() throws BGIParseException {
     if (this.version > 1) {
-      throw new BGIParseException("Unsupported ABILITY stream version [" + this.version + "]", ErrorCode.UNSUPPORTED_STREAM_VERSION);
+      throw unsupportedVersion("ABILITY");
     }
 
     int entryCount = ByteParser.getVarInt(this.buffer);
     for (int i = 0; i < entryCount; i++) {
-      String id = ByteParser.getString(this.buffer);
-      String castMode = ByteParser.getString(this.buffer);
+      String id = readString();
+      String castMode = readString();
       List<Modifier> modifiers = new ArrayList<>();
 
       int modCount = ByteParser.getVarInt(this.buffer);
       for (int m = 0; m < modCount; m++) {
-        String name = ByteParser.getString(this.buffer);
+        String name = readString();
         double value = ByteParser.getDouble(this.buffer);
         modifiers.add(new Modifier(name, value));
       }
 
-      this.abilities.add(new Ability(id, castMode, modifiers));
+      this.abilities.add(new Ability(id, castMode, readOnly(modifiers)));
     }
   }
 
   @Override
   public String toString() {
+    ensureDecoded();
     return "AbilityStreamObject{" +
         "abilities=" + abilities +
         ", version=" + version +
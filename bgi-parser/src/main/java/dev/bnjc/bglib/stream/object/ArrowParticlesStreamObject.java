@@ -1,7 +1,7 @@
 package dev.bnjc.bglib.stream.object;
 
+import dev.bnjc.bglib.BGIParseOptions;
 import dev.bnjc.bglib.exceptions.BGIParseException;
-import dev.bnjc.bglib.exceptions.ErrorCode;
 import dev.bnjc.bglib.utils.ByteParser;
 
 import java.nio.ByteBuffer;
@@ -13,43 +13,62 @@ public class ArrowParticlesStreamObject extends VersionedStreamObject {
   private boolean colored;
   private double speed;
 
-  private ArrowParticlesStreamObject(int key, ByteBuffer buffer) {
-    super(key, buffer);
+  private ArrowParticlesStreamObject(int key, ByteBuffer buffer, BGIParseOptions options) {
+    super(key, buffer, options);
   }
 
   public static ArrowParticlesStreamObject from(int key, ByteBuffer buffer) throws BGIParseException {
-    var apso = new ArrowParticlesStreamObject(key, buffer);
+    var apso = deferred(key, buffer, BGIParseOptions.DEFAULT);
     apso.parse();
     return apso;
   }
 
+  /**
+   * Creates the stream object without decoding it. The buffer is decoded the first time one of the getters is
+   * called.
+   *
+   * @param key The property key hash
+   * @param buffer The stream bytes
+   * @param options The options whose string pool and error reporting are used when decoding
+   * @return the undecoded stream object
+   * @since 0.3.0
+   */
+  public static ArrowParticlesStreamObject deferred(int key, ByteBuffer buffer, BGIParseOptions options) {
+    return new ArrowParticlesStreamObject(key, buffer, options);
+  }
+
   public String getParticle() {
+    ensureDecoded();
     return particle;
   }
 
   public int getAmount() {
+    ensureDecoded();
     return amount;
   }
 
   public double getSpeed() {
+    ensureDecoded();
     return speed;
   }
 
   public boolean isColored() {
+    ensureDecoded();
     return colored;
   }
 
   public double getOffset() {
+    ensureDecoded();
     return offset;
   }
 
   @Override
   protected void parseBuffer() throws BGIParseException {
     if (this.version > 1) {
-      throw new BGIParseException("Unsupported ARROW_PARTICLES stream version [" + this.version + "]", ErrorCode.UNSUPPORTED_STREAM_VERSION);
+      throw unsupportedVersion("ARROW_PARTICLES");
     }
 
-    this.particle = ByteParser.getString(this.buffer);
+    this.particle = readString();
     this.amount = ByteParser.getVarInt(this.buffer);
     this.offset = ByteParser.getDouble(this.buffer);
     this.colored = ByteParser.getBoolean(this.buffer);
@@ -58,6 +77,7 @@ public class ArrowParticlesStreamObject extends VersionedStreamObject {
 
   @Override
   public String toString() {
+    ensureDecoded();
     return "ArrowParticlesStreamObject{" +
         "particle='" + particle + '\'' +
         ", amount=" + amount +
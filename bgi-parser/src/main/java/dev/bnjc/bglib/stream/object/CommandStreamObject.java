@@ -1,7 +1,7 @@
 package dev.bnjc.bglib.stream.object;
 
+import dev.bnjc.bglib.BGIParseOptions;
 import dev.bnjc.bglib.exceptions.BGIParseException;
-import dev.bnjc.bglib.exceptions.ErrorCode;
 import dev.bnjc.bglib.utils.ByteParser;
 
 import java.nio.ByteBuffer;
@@ -11,35 +11,51 @@ import java.util.List;
 public class CommandStreamObject extends VersionedStreamObject {
   private final List<Command> commands;
 
-  private CommandStreamObject(int key, ByteBuffer buffer) {
-    super(key, buffer);
+  private CommandStreamObject(int key, ByteBuffer buffer, BGIParseOptions options) {
+    super(key, buffer, options);
 
     this.commands = new ArrayList<>();
   }
 
   public static CommandStreamObject from(int key, ByteBuffer buffer) throws BGIParseException {
-    var cso = new CommandStreamObject(key, buffer);
+    var cso = deferred(key, buffer, BGIParseOptions.DEFAULT);
     cso.parse();
     return cso;
   }
 
+  /**
+   * Creates the stream object without decoding it. The buffer is decoded the first time one of the getters is
+   * called.
+   *
+   * @param key The property key hash
+   * @param buffer The stream bytes
+   * @param options The options whose string pool and error reporting are used when decoding
+   * @return the undecoded stream object
+   * @since 0.3.0
+   */
+  public static CommandStreamObject deferred(int key, ByteBuffer buffer, BGIParseOptions options) {
+    return new CommandStreamObject(key, buffer, options);
+  }
+
   public List<Command> getCommands() {
-    return this.commands;
+    ensureDecoded();
+    return readOnly(this.commands);
   }
 
   public boolean hasCommands() {
+    ensureDecoded();
     return !this.commands.isEmpty();
   }
 
   @Override
   protected void parseBuffer() throws BGIParseException {
     if (this.version > 1) {
-      throw new BGIParseException("Unsupported COMMANDS stream version [" + this.version + "]", ErrorCode.UNSUPPORTED_STREAM_VERSION);
+      throw unsupportedVersion("COMMANDS");
     }
 
     int entryCount = ByteParser.getVarInt(this.buffer);
     for (var i = 0; i < entryCount; i++) {
-      String commandText = ByteParser.getString(this.buffer);
+      String commandText = readString();
       double delay = ByteParser.getDouble(this.buffer);
       boolean console = ByteParser.getBoolean(this.buffer);
       boolean op = ByteParser.getBoolean(this.buffer);
@@ -50,6 +66,7 @@ public class CommandStreamObject extends VersionedStreamObject {
 
   @Override
   public String toString() {
+    ensureDecoded();
     return "CommandStreamObject{" +
         "commands=" + commands +
         ", version=" + version +
@@ -1,7 +1,7 @@
 package dev.bnjc.bglib.stream.object;
 
+import dev.bnjc.bglib.BGIParseOptions;
 import dev.bnjc.bglib.exceptions.BGIParseException;
-import dev.bnjc.bglib.exceptions.ErrorCode;
 import dev.bnjc.bglib.utils.ByteParser;
 
 import java.nio.ByteBuffer;
@@ -13,51 +13,65 @@ import java.util.Map;
 public class ConsumableBuffStreamObject extends VersionedStreamObject {
   private final Map<String, List<Buff>> buffTypes;
 
-  private ConsumableBuffStreamObject(int key, ByteBuffer buffer) {
-    super(key, buffer);
+  private ConsumableBuffStreamObject(int key, ByteBuffer buffer, BGIParseOptions options) {
+    super(key, buffer, options);
 
     this.buffTypes = new HashMap<>();
   }
 
   public static ConsumableBuffStreamObject from(int key, ByteBuffer buffer) throws BGIParseException {
-    var cbso = new ConsumableBuffStreamObject(key, buffer);
+    var cbso = deferred(key, buffer, BGIParseOptions.DEFAULT);
     cbso.parse();
     return cbso;
   }
 
+  /**
+   * Creates the stream object without decoding it. The buffer is decoded the first time one of the getters is
+   * called.
+   *
+   * @param key The property key hash
+   * @param buffer The stream bytes
+   * @param options The options whose string pool and error reporting are used when decoding
+   * @return the undecoded stream object
+   * @since 0.3.0
+   */
+  public static ConsumableBuffStreamObject deferred(int key, ByteBuffer buffer, BGIParseOptions options) {
+    return new ConsumableBuffStreamObject(key, buffer, options);
+  }
+
   public Map<String, List<Buff>> getBuffTypes() {
-    return buffTypes;
+    ensureDecoded();
+    return readOnly(buffTypes);
   }
 
   @Override
   protected void parseBuffer() throws BGIParseException {
     if (this.version > 1) {
-      throw new BGIParseException("Unsupported CONSUMABLE_BUFFS stream version [" + this.version + "]", ErrorCode.UNSUPPORTED_STREAM_VERSION);
+      throw unsupportedVersion("CONSUMABLE_BUFFS");
     }
 
     while (this.buffer.hasRemaining()) {
-      String type = ByteParser.getString(this.buffer);
-      buffTypes.put(type, new ArrayList<>());
+      String type = readString();
+      List<Buff> buffs = new ArrayList<>();
+      buffTypes.put(type, readOnly(buffs));
 
       int buffCount = ByteParser.getVarInt(this.buffer);
       for (int i = 0; i < buffCount; i++) {
-        buffTypes.computeIfPresent(type, (s, buffs) -> {
-          buffs.add(new Buff(
-              ByteParser.getDouble(this.buffer),
-              ByteParser.getDouble(this.buffer),
-              ByteParser.getString(this.buffer),
-              ByteParser.getString(this.buffer),
-              ByteParser.getString(this.buffer),
-              ByteParser.getDouble(this.buffer)
-          ));
-          return buffs;
-        });
+        buffs.add(new Buff(
+            ByteParser.getDouble(this.buffer),
+            ByteParser.getDouble(this.buffer),
+            readString(),
+            readString(),
+            readString(),
+            ByteParser.getDouble(this.buffer)
+        ));
       }
     }
   }
 
   @Override
   public String toString() {
+    ensureDecoded();
     return "ConsumableBuffStreamObject{" +
         "buffTypes=" + buffTypes +
         ", version=" + version +
@@ -1,7 +1,7 @@
 package dev.bnjc.bglib.stream.object;
 
+import dev.bnjc.bglib.BGIParseOptions;
 import dev.bnjc.bglib.exceptions.BGIParseException;
-import dev.bnjc.bglib.exceptions.ErrorCode;
 import dev.bnjc.bglib.utils.ByteParser;
 import org.jetbrains.annotations.Nullable;
 
@@ -15,53 +15,69 @@ public class GemSocketStreamObject extends VersionedStreamObject {
   private final List<String> emptySlots;
   private final List<GemstoneEntry> gemstones;
 
-  private GemSocketStreamObject(int key, ByteBuffer buffer) {
-    super(key, buffer);
+  private GemSocketStreamObject(int key, ByteBuffer buffer, BGIParseOptions options) {
+    super(key, buffer, options);
 
     this.emptySlots = new ArrayList<>();
     this.gemstones = new ArrayList<>();
   }
 
   public static GemSocketStreamObject from(int key, ByteBuffer buffer) throws BGIParseException {
-    var gsso = new GemSocketStreamObject(key, buffer);
+    var gsso = deferred(key, buffer, BGIParseOptions.DEFAULT);
     gsso.parse();
     return gsso;
   }
 
+  /**
+   * Creates the stream object without decoding it. The buffer is decoded the first time one of the getters is
+   * called.
+   *
+   * @param key The property key hash
+   * @param buffer The stream bytes
+   * @param options The options whose string pool and error reporting are used when decoding
+   * @return the undecoded stream object
+   * @since 0.3.0
+   */
+  public static GemSocketStreamObject deferred(int key, ByteBuffer buffer, BGIParseOptions options) {
+    return new GemSocketStreamObject(key, buffer, options);
+  }
+
   public List<String> getEmptySlots() {
-    return emptySlots;
+    ensureDecoded();
+    return readOnly(emptySlots);
   }
 
   public List<GemstoneEntry> getGemstones() {
-    return gemstones;
+    ensureDecoded();
+    return readOnly(gemstones);
   }
 
   @Override
   protected void parseBuffer() throws BGIParseException {
     if (this.version > 1) {
-      throw new BGIParseException("Unsupported GEM_SOCKET stream version [" + this.version + "]", ErrorCode.UNSUPPORTED_STREAM_VERSION);
+      throw unsupportedVersion("GEM_SOCKET");
     }
 
-    this.emptySlots.addAll(Arrays.stream(ByteParser.getStringArray(this.buffer)).toList());
+    this.emptySlots.addAll(Arrays.stream(readStringArray()).toList());
 
     int entryCount = ByteParser.getVarInt(this.buffer);
     for (int i = 0; i < entryCount; i++) {
-      String name = ByteParser.getString(this.buffer);
+      String name = readString();
       UUID history = ByteParser.getUUID(this.buffer);
 
       String id = null;
       if (ByteParser.getBoolean(this.buffer)) {
-        id = ByteParser.getString(this.buffer);
+        id = readString();
       }
 
       String type = null;
       if (ByteParser.getBoolean(this.buffer)) {
-        type = ByteParser.getString(this.buffer);
+        type = readString();
       }
 
       String color = null;
       if (ByteParser.getBoolean(this.buffer)) {
-        color = ByteParser.getString(this.buffer);
+        color = readString();
       }
 
       this.gemstones.add(new GemstoneEntry(name, history, id, type, color));
@@ -70,6 +86,7 @@ public class GemSocketStreamObject extends VersionedStreamObject {
 
   @Override
   public String toString() {
+    ensureDecoded();
     return "GemSocketStreamObject{" +
         "version=" + version +
         ", gemstones=" + gemstones +
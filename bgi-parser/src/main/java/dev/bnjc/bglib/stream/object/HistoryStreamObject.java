@@ -1,5 +1,6 @@
 package dev.bnjc.bglib.stream.object;
 
+import dev.bnjc.bglib.BGIParseOptions;
 import dev.bnjc.bglib.exceptions.BGIParseException;
 import dev.bnjc.bglib.utils.ByteParser;
 
@@ -17,8 +18,8 @@ public class HistoryStreamObject extends StreamObject {
 
   private boolean unknown1;
 
-  private HistoryStreamObject(int key, ByteBuffer buffer) {
-    super(key, buffer);
+  private HistoryStreamObject(int key, ByteBuffer buffer, BGIParseOptions options) {
+    super(key, buffer, options);
 
     this.ogStories = new ArrayList<>();
     this.gemStories = new ArrayList<>();
@@ -28,51 +29,69 @@ public class HistoryStreamObject extends StreamObject {
   }
 
   public static HistoryStreamObject from(int key, ByteBuffer buffer) throws BGIParseException {
-    var hso = new HistoryStreamObject(key, buffer);
+    var hso = deferred(key, buffer, BGIParseOptions.DEFAULT);
     hso.parse();
     return hso;
   }
 
-  public void parse() throws BGIParseException {
-    this.parseBuffer();
+  /**
+   * Creates the stream object without decoding it. The buffer is decoded the first time one of the getters is
+   * called.
+   *
+   * @param key The property key hash
+   * @param buffer The stream bytes
+   * @param options The options whose string pool and error reporting are used when decoding
+   * @return the undecoded stream object
+   * @since 0.3.0
+   */
+  public static HistoryStreamObject deferred(int key, ByteBuffer buffer, BGIParseOptions options) {
+    return new HistoryStreamObject(key, buffer, options);
   }
 
   public String getStatName() {
+    ensureDecoded();
     return statName;
   }
 
   public List<GemStory> getGemStories() {
-    return gemStories;
+    ensureDecoded();
+    return readOnly(gemStories);
   }
 
   public boolean hasGemStories() {
+    ensureDecoded();
     return !gemStories.isEmpty();
   }
 
   public List<HistoryEntry> getOgStories() {
-    return ogStories;
+    ensureDecoded();
+    return readOnly(ogStories);
   }
 
   public boolean hasOGStories() {
+    ensureDecoded();
     return !ogStories.isEmpty();
   }
 
   public List<ModStory> getModStories() {
-    return modStories;
+    ensureDecoded();
+    return readOnly(modStories);
   }
 
   public boolean hasModStories() {
+    ensureDecoded();
     return !modStories.isEmpty();
   }
 
-  private void parseBuffer() throws BGIParseException {
-    this.statName = ByteParser.getString(this.buffer);
+  @Override
+  protected void decode() throws BGIParseException {
+    this.statName = readString();
     boolean hasOGStory = ByteParser.getBoolean(this.buffer);
     if (hasOGStory) {
       int entryCount = ByteParser.getVarInt(this.buffer);
       for (int i = 0; i < entryCount; i++) {
-        String key = ByteParser.getString(this.buffer);
-        Object value = ByteParser.getByType(key.hashCode(), this.buffer);
+        String key = readString();
+        Object value = readValue(key.hashCode());
         this.ogStories.add(new HistoryEntry(key, value));
       }
     }
@@ -85,11 +104,11 @@ public class HistoryStreamObject extends StreamObject {
         int entryCount = ByteParser.getVarInt(this.buffer);
         List<HistoryEntry> gems = new ArrayList<>();
         for (int e = 0; e < entryCount; e++) {
-          String entryKey = ByteParser.getString(this.buffer);
-          Object value = ByteParser.getByType(entryKey.hashCode(), this.buffer);
+          String entryKey = readString();
+          Object value = readValue(entryKey.hashCode());
           gems.add(new HistoryEntry(entryKey, value));
         }
-        this.gemStories.add(new GemStory(key, gems));
+        this.gemStories.add(new GemStory(key, readOnly(gems)));
       }
     }
 
@@ -103,17 +122,18 @@ public class HistoryStreamObject extends StreamObject {
         int entryCount = ByteParser.getVarInt(this.buffer);
         List<HistoryEntry> mods = new ArrayList<>();
         for (int e = 0; e < entryCount; e++) {
-          String entryKey = ByteParser.getString(this.buffer);
-          Object value = ByteParser.getByType(entryKey.hashCode(), this.buffer);
+          String entryKey = readString();
+          Object value = readValue(entryKey.hashCode());
           mods.add(new HistoryEntry(entryKey, value));
         }
-        this.modStories.add(new ModStory(key, mods));
+        this.modStories.add(new ModStory(key, readOnly(mods)));
       }
     }
   }
 
   @Override
   public String toString() {
+    ensureDecoded();
     return "HistoryStreamObject{" +
         "statName='" + statName + '\'' +
         ", ogStories=" + ogStories +
@@ -123,7 +143,19 @@ public class HistoryStreamObject extends StreamObject {
         '}';
   }
 
-  public record HistoryEntry(String key, Object value) {}
+  public record HistoryEntry(String key, Object value) {
+    /**
+     * Returns the value of the entry. A string array is copied every time it is returned, so the entry cannot be
+     * changed through it.
+     *
+     * @return the value, which is a boxed primitive, a string, a string array or a stream
+     * @since 0.3.0
+     */
+    @Override
+    public Object value() {
+      return value instanceof String[] array ? array.clone() : value;
+    }
+  }
   public record GemStory(UUID key, List<HistoryEntry> entries) {}
   public record ModStory(UUID key, List<HistoryEntry> entries) {}
 }
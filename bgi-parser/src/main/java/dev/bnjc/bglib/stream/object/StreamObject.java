@@ -1,21 +1,217 @@
 package dev.bnjc.bglib.stream.object;
 
+import dev.bnjc.bglib.BGIParseOptions;
+import dev.bnjc.bglib.BGIType;
+import dev.bnjc.bglib.exceptions.BGIParseException;
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import dev.bnjc.bglib.instrument.BGIInstrumentation;
+import dev.bnjc.bglib.instrument.BGIStreamDecodeEvent;
+import dev.bnjc.bglib.stream.BGIStreamParser;
+import dev.bnjc.bglib.utils.ByteParser;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 public abstract class StreamObject {
   protected final int key;
   protected final ByteBuffer buffer;
+  protected final BGIParseOptions options;
+
+  private volatile boolean decoded;
+  private BGIParseException parseError;
+  private boolean immutable;
 
   public StreamObject(int key, ByteBuffer buffer) {
+    this(key, buffer, BGIParseOptions.DEFAULT);
+  }
+
+  /**
+   * @param key The property key hash
+   * @param buffer The stream bytes, between the buffer's position and limit. The stream reads a view of them, so the
+   *               buffer's position is never changed.
+   * @param options The options whose {@linkplain BGIParseOptions#getStringPool() string pool} deduplicates the
+   *                stream's strings, and whose {@linkplain BGIParseOptions#isStacklessErrors() stackless errors}
+   *                setting is used to report decoding errors
+   * @since 0.3.0
+   */
+  public StreamObject(int key, ByteBuffer buffer, BGIParseOptions options) {
     this.key = key;
-    this.buffer = buffer;
+    this.buffer = buffer.slice();
+    this.options = options;
+  }
+
+  /**
+   * Decodes the stream, unless it has already been decoded. Calling this more than once has no effect.
+   *
+   * @throws BGIParseException if the stream could not be decoded
+   */
+  public void parse() throws BGIParseException {
+    ensureDecoded();
+    if (parseError != null) {
+      throw parseError;
+    }
+  }
+
+  /**
+   * Whether the stream has been decoded. Streams created by a {@code deferred} factory are only decoded once one of
+   * their getters is called.
+   *
+   * @return {@code true} if the stream has been decoded
+   * @since 0.3.0
+   */
+  public boolean isDecoded() {
+    return decoded;
+  }
+
+  /**
+   * Returns the error that occurred while decoding the stream, decoding it first if needed. If decoding failed, the
+   * getters return whatever was decoded before the error.
+   *
+   * @return the decoding error, or {@code null} if the stream was decoded successfully
+   * @since 0.3.0
+   */
+  public @Nullable BGIParseException getParseError() {
+    ensureDecoded();
+    return parseError;
+  }
+
+  /**
+   * Whether the lists and maps returned by the getters can be modified
+   *
+   * @return {@code true} if this stream was created by {@link #toImmutable()}
+   * @since 0.3.0
+   */
+  public boolean isImmutable() {
+    return immutable;
+  }
+
+  /**
+   * Returns a copy of this stream whose getters return lists and maps that cannot be modified, including the lists
+   * nested in its records and the streams held by history entries. The copy decodes its own copy of the stream bytes
+   * the first time one of its getters is called, so it never sees changes made to this stream.
+   *
+   * @return the immutable copy, or this stream if it is already immutable
+   * @since 0.3.0
+   */
+  public StreamObject toImmutable() {
+    if (immutable) {
+      return this;
+    }
+
+    StreamObject copy;
+    try {
+      copy = BGIStreamParser.parseDeferred(key, ByteBuffer.wrap(bufferBytes()), options);
+    } catch (BGIParseException e) {
+      // Only an empty stream is rejected, and the stream parser never creates one
+      throw new IllegalStateException("Cannot copy an empty stream", e);
+    }
+    copy.immutable = true;
+    return copy;
+  }
+
+  /**
+   * Returns the list as it should be handed out by a getter, which is unmodifiable if this stream is immutable
+   */
+  protected final <T> List<T> readOnly(List<T> list) {
+    return immutable ? Collections.unmodifiableList(list) : list;
+  }
+
+  /**
+   * Returns the map as it should be handed out by a getter, which is unmodifiable if this stream is immutable
+   */
+  protected final <K, V> Map<K, V> readOnly(Map<K, V> map) {
+    return immutable ? Collections.unmodifiableMap(map) : map;
+  }
+
+  /**
+   * Reads the stream's fields from the buffer. Only ever called once, by {@link #ensureDecoded()}.
+   */
+  protected abstract void decode() throws BGIParseException;
+
+  protected String readString() {
+    return ByteParser.getString(this.buffer, options.getStringPool());
+  }
+
+  protected String[] readStringArray() {
+    return ByteParser.getStringArray(this.buffer, options.getStringPool());
+  }
+
+  /**
+   * Reads a type id followed by a value of that type. A stream read by an immutable stream is immutable as well.
+   */
+  protected Object readValue(int key) throws BGIParseException {
+    BGIType type = BGIType.fromTypeId(ByteParser.getByte(this.buffer));
+    if (type == BGIType.STREAM) {
+      StreamObject stream = ByteParser.getStream(key, this.buffer, options);
+      return immutable ? stream.toImmutable() : stream;
+    }
+    return ByteParser.getByType(key, type, this.buffer, options.getStringPool());
+  }
+
+  /**
+   * Decodes the stream the first time it is called. This is safe to call from multiple threads, and every getter
+   * of a subclass must call it before reading its fields.
+   */
+  protected final void ensureDecoded() {
+    if (decoded) {
+      return;
+    }
+
+    synchronized (this) {
+      if (decoded) {
+        return;
+      }
+
+      BGIStreamDecodeEvent event = null;
+      long start = 0;
+      if (BGIInstrumentation.isEnabled()) {
+        event = BGIInstrumentation.beginStreamDecode();
+        start = System.nanoTime();
+      }
+
+      try {
+        decode();
+      } catch (BGIParseException e) {
+        parseError = e;
+      } catch (RuntimeException e) {
+        parseError = options.isStacklessErrors() ? BGIParseException.stackless(errorCode(e)) : new BGIParseException(e);
+      }
+      decoded = true;
+
+      if (event != null) {
+        BGIInstrumentation.endStreamDecode(event, start, key, buffer.limit(), parseError);
+      }
+    }
+  }
+
+  /**
+   * Picks the error code for an exception thrown by the buffer or by {@link ByteParser}
+   */
+  private static ErrorCode errorCode(RuntimeException e) {
+    if (e instanceof BufferUnderflowException) {
+      return ErrorCode.DATA_TOO_SHORT;
+    }
+    return e instanceof IllegalArgumentException ? ErrorCode.MALFORMED_VAR_INT : ErrorCode.DEFAULT;
+  }
+
+  /**
+   * Copies the stream bytes, which works for read-only buffers as well
+   */
+  private byte[] bufferBytes() {
+    byte[] bytes = new byte[buffer.limit()];
+    buffer.get(0, bytes);
+    return bytes;
   }
 
   @Override
   public String toString() {
     return "StreamObject{" +
-        "buffer=" + Arrays.toString(buffer.array()) +
+        "buffer=" + Arrays.toString(bufferBytes()) +
         '}';
   }
 }
@@ -1,6 +1,8 @@
 package dev.bnjc.bglib.stream.object;
 
+import dev.bnjc.bglib.BGIParseOptions;
 import dev.bnjc.bglib.exceptions.BGIParseException;
+import dev.bnjc.bglib.exceptions.ErrorCode;
 import dev.bnjc.bglib.utils.ByteParser;
 
 import java.nio.ByteBuffer;
@@ -12,17 +14,35 @@ abstract class VersionedStreamObject extends StreamObject {
     super(key, buffer);
   }
 
-  public void parse() throws BGIParseException {
-    this.version = ByteParser.getByte(this.buffer);
-    this.parseBuffer();
+  public VersionedStreamObject(int key, ByteBuffer buffer, BGIParseOptions options) {
+    super(key, buffer, options);
   }
 
   public byte getVersion() {
+    ensureDecoded();
     return version;
   }
 
+  @Override
+  protected final void decode() throws BGIParseException {
+    this.version = ByteParser.getByte(this.buffer);
+    this.parseBuffer();
+  }
+
   protected abstract void parseBuffer() throws BGIParseException;
 
+  /**
+   * Creates the error thrown by {@link #parseBuffer()} when the stream's version is not supported
+   *
+   * @param streamName The name of the stream in the error message
+   */
+  protected BGIParseException unsupportedVersion(String streamName) {
+    if (options.isStacklessErrors()) {
+      return BGIParseException.stackless(ErrorCode.UNSUPPORTED_STREAM_VERSION);
+    }
+    return new BGIParseException("Unsupported " + streamName + " stream version [" + this.version + "]", ErrorCode.UNSUPPORTED_STREAM_VERSION);
+  }
+
   @Override
   public String toString() {
     return "VersionedStreamObject{" +
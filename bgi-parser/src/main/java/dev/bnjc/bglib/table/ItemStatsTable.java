@@ -0,0 +1,868 @@
+package dev.bnjc.bglib.table;
+
+import dev.bnjc.bglib.BGIData;
+import dev.bnjc.bglib.BGIField;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * A column-oriented table of many parsed items, built for filtering, sorting and ranking large listings quickly.
+ * Every item added becomes a row, numbered in the order it was added.
+ *
+ * <p>Each numeric {@link BGIField} (such as {@link BGIField#DEFENSE} or {@link BGIField#REQUIRED_LEVEL_CLASS}) is
+ * stored as a {@code double[]} column with a presence bitmap, and {@link BGIField#TIER}, {@link BGIField#ITEM_ID}
+ * and {@link BGIField#SET} are stored as dictionary-encoded {@code int[]} columns. Filters return a {@link BitSet}
+ * of matching rows, which can be combined with {@link BitSet#and} and passed to {@link #sort} and {@link #top}.</p>
+ *
+ * <pre>
+ *   ItemStatsTable table = ItemStatsTable.of(items);
+ *   BitSet rows = table.range(BGIField.DEFENSE, 5, Double.POSITIVE_INFINITY);
+ *   rows.and(table.equalTo(BGIField.TIER, "RARE"));
+ *   int[] best = table.top(BGIField.DEFENSE, 10, true, rows);
+ * </pre>
+ *
+ * <p>Filters, sorts and top-k selections over at least {@value #PARALLEL_THRESHOLD} rows are split across the
+ * common fork/join pool. A table is immutable once built and can be queried from multiple threads.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class ItemStatsTable {
+  /**
+   * The number of rows at which filters, sorts and top-k selections start running in parallel
+   */
+  public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+  private static final BGIField[] DICTIONARY_FIELDS = {BGIField.TIER, BGIField.ITEM_ID, BGIField.SET};
+  private static final BGIField[] NUMERIC_FIELDS;
+
+  // Column index of every field by ordinal, or -1 if the field is not stored in a column of that kind
+  private static final int[] NUMERIC_COLUMN = new int[BGIField.values().length];
+  private static final int[] DICTIONARY_COLUMN = new int[BGIField.values().length];
+  static {
+    Arrays.fill(NUMERIC_COLUMN, -1);
+    Arrays.fill(DICTIONARY_COLUMN, -1);
+
+    List<BGIField> numeric = new ArrayList<>();
+    for (BGIField field : BGIField.values()) {
+      switch (field.type) {
+        case BYTE, SHORT, INTEGER, LONG, FLOAT, DOUBLE -> {
+          NUMERIC_COLUMN[field.ordinal()] = numeric.size();
+          numeric.add(field);
+        }
+        default -> {}
+      }
+    }
+    NUMERIC_FIELDS = numeric.toArray(BGIField[]::new);
+
+    for (int i = 0; i < DICTIONARY_FIELDS.length; i++) {
+      DICTIONARY_COLUMN[DICTIONARY_FIELDS[i].ordinal()] = i;
+    }
+  }
+
+  // Sorts and top-k selections below this many rows are not split any further
+  private static final int SEQUENTIAL_CHUNK = 1 << 13;
+
+  private final int size;
+  // Indexed by column then row. A column is null if no row has the field, and rows without the field hold NaN.
+  private final double[][] values;
+  private final long[][] present;
+  // Indexed by dictionary column then row, holding -1 for rows without the field
+  private final int[][] codes;
+  private final String[][] dictionaries;
+  private final Map<String, Integer>[] dictionaryCodes;
+
+  private ItemStatsTable(Builder builder) {
+    this.size = builder.size;
+    int words = wordCount(size);
+
+    this.values = new double[NUMERIC_FIELDS.length][];
+    this.present = new long[NUMERIC_FIELDS.length][];
+    for (int c = 0; c < NUMERIC_FIELDS.length; c++) {
+      if (builder.values[c] != null) {
+        values[c] = Arrays.copyOf(builder.values[c], size);
+        present[c] = Arrays.copyOf(builder.present[c], words);
+      }
+    }
+
+    this.codes = new int[DICTIONARY_FIELDS.length][];
+    this.dictionaries = new String[DICTIONARY_FIELDS.length][];
+    @SuppressWarnings("unchecked")
+    Map<String, Integer>[] dictionaryCodes = new Map[DICTIONARY_FIELDS.length];
+    for (int d = 0; d < DICTIONARY_FIELDS.length; d++) {
+      codes[d] = Arrays.copyOf(builder.codes[d], size);
+      dictionaries[d] = builder.dictionaries.get(d).toArray(String[]::new);
+      dictionaryCodes[d] = Map.copyOf(builder.dictionaryCodes.get(d));
+    }
+    this.dictionaryCodes = dictionaryCodes;
+  }
+
+  /**
+   * Creates a builder for adding items one at a time
+   *
+   * @return a new builder
+   * @since 0.3.0
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a table with a row for each item, in iteration order
+   *
+   * @param items The parsed items
+   * @return a new table
+   * @since 0.3.0
+   */
+  public static ItemStatsTable of(Iterable<? extends BGIData> items) {
+    return builder().addAll(items).build();
+  }
+
+  /**
+   * Whether the field is stored as a numeric column
+   *
+   * @param field The BGI field
+   * @return {@code true} if the field holds a number
+   * @since 0.3.0
+   */
+  public static boolean isNumeric(BGIField field) {
+    return NUMERIC_COLUMN[field.ordinal()] >= 0;
+  }
+
+  /**
+   * Whether the field is stored as a dictionary-encoded column
+   *
+   * @param field The BGI field
+   * @return {@code true} for {@link BGIField#TIER}, {@link BGIField#ITEM_ID} and {@link BGIField#SET}
+   * @since 0.3.0
+   */
+  public static boolean isDictionaryEncoded(BGIField field) {
+    return DICTIONARY_COLUMN[field.ordinal()] >= 0;
+  }
+
+  /**
+   * Returns the number of rows
+   *
+   * @return the number of items added
+   * @since 0.3.0
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Whether the item in the given row has the field
+   *
+   * @param field A numeric or dictionary-encoded field
+   * @param row The row index
+   * @return {@code true} if the field is present
+   * @since 0.3.0
+   */
+  public boolean has(BGIField field, int row) {
+    checkRow(row);
+    int dictionary = DICTIONARY_COLUMN[field.ordinal()];
+    if (dictionary >= 0) {
+      return codes[dictionary][row] >= 0;
+    }
+
+    long[] bits = present[numericColumn(field)];
+    return bits != null && (bits[row >>> 6] & (1L << row)) != 0;
+  }
+
+  /**
+   * Returns a numeric value without boxing it
+   *
+   * @param field A numeric field
+   * @param row The row index
+   * @param defaultValue The value returned if the item does not have the field
+   * @return the value, or the default value
+   * @since 0.3.0
+   */
+  public double getDouble(BGIField field, int row, double defaultValue) {
+    checkRow(row);
+    int column = numericColumn(field);
+    long[] bits = present[column];
+    return bits != null && (bits[row >>> 6] & (1L << row)) != 0 ? values[column][row] : defaultValue;
+  }
+
+  /**
+   * Returns the dictionary code of a value, which is the same for every row with an equal value
+   *
+   * @param field A dictionary-encoded field
+   * @param row The row index
+   * @return the code, or {@code -1} if the item does not have the field
+   * @since 0.3.0
+   */
+  public int getCode(BGIField field, int row) {
+    checkRow(row);
+    return codes[dictionaryColumn(field)][row];
+  }
+
+  /**
+   * Returns a dictionary-encoded value
+   *
+   * @param field A dictionary-encoded field
+   * @param row The row index
+   * @return the value, or {@code null} if the item does not have the field
+   * @since 0.3.0
+   */
+  public @Nullable String getString(BGIField field, int row) {
+    int code = getCode(field, row);
+    return code < 0 ? null : dictionaries[dictionaryColumn(field)][code];
+  }
+
+  /**
+   * Returns the dictionary code of a value
+   *
+   * @param field A dictionary-encoded field
+   * @param value The value to look up
+   * @return the code, or {@code -1} if no row has the value
+   * @since 0.3.0
+   */
+  public int codeOf(BGIField field, String value) {
+    return dictionaryCodes[dictionaryColumn(field)].getOrDefault(value, -1);
+  }
+
+  /**
+   * Returns every distinct value of a dictionary-encoded field, indexed by code
+   *
+   * @param field A dictionary-encoded field
+   * @return an unmodifiable list of the values
+   * @since 0.3.0
+   */
+  public List<String> dictionary(BGIField field) {
+    return Collections.unmodifiableList(Arrays.asList(dictionaries[dictionaryColumn(field)]));
+  }
+
+  /**
+   * Finds the rows that have the field
+   *
+   * @param field A numeric or dictionary-encoded field
+   * @return the matching rows
+   * @since 0.3.0
+   */
+  public BitSet present(BGIField field) {
+    int dictionary = DICTIONARY_COLUMN[field.ordinal()];
+    if (dictionary >= 0) {
+      int[] column = codes[dictionary];
+      return filter((start, end) -> {
+        long word = 0;
+        for (int row = start; row < end; row++) {
+          word |= (long) (~column[row] >>> 31) << row;
+        }
+        return word;
+      });
+    }
+
+    long[] bits = present[numericColumn(field)];
+    return bits == null ? new BitSet() : BitSet.valueOf(bits);
+  }
+
+  /**
+   * Finds the rows whose value is between the two bounds, inclusive. Use infinite bounds for a one-sided range.
+   *
+   * @param field A numeric field
+   * @param min The lowest matching value
+   * @param max The highest matching value
+   * @return the matching rows
+   * @since 0.3.0
+   */
+  public BitSet range(BGIField field, double min, double max) {
+    double[] column = values[numericColumn(field)];
+    if (column == null) {
+      return new BitSet();
+    }
+
+    // Rows without the field hold NaN, which fails both comparisons
+    return filter((start, end) -> {
+      long word = 0;
+      for (int row = start; row < end; row++) {
+        double value = column[row];
+        word |= (value >= min & value <= max ? 1L : 0L) << row;
+      }
+      return word;
+    });
+  }
+
+  /**
+   * Finds the rows with the given value
+   *
+   * @param field A dictionary-encoded field
+   * @param value The value to match
+   * @return the matching rows
+   * @since 0.3.0
+   */
+  public BitSet equalTo(BGIField field, String value) {
+    int code = codeOf(field, value);
+    if (code < 0) {
+      return new BitSet();
+    }
+
+    int[] column = codes[dictionaryColumn(field)];
+    return filter((start, end) -> {
+      long word = 0;
+      for (int row = start; row < end; row++) {
+        word |= (column[row] == code ? 1L : 0L) << row;
+      }
+      return word;
+    });
+  }
+
+  /**
+   * Finds the rows with any of the given values
+   *
+   * @param field A dictionary-encoded field
+   * @param values The values to match
+   * @return the matching rows
+   * @since 0.3.0
+   */
+  public BitSet in(BGIField field, Collection<String> values) {
+    int dictionary = dictionaryColumn(field);
+    BitSet matches = new BitSet(dictionaries[dictionary].length);
+    for (String value : values) {
+      int code = codeOf(field, value);
+      if (code >= 0) {
+        matches.set(code);
+      }
+    }
+    if (matches.isEmpty()) {
+      return new BitSet();
+    }
+
+    long[] matchWords = Arrays.copyOf(matches.toLongArray(), wordCount(dictionaries[dictionary].length));
+    int[] column = codes[dictionary];
+    return filter((start, end) -> {
+      long word = 0;
+      for (int row = start; row < end; row++) {
+        int code = column[row];
+        long match = code < 0 ? 0 : matchWords[code >>> 6] >>> code;
+        word |= (match & 1L) << row;
+      }
+      return word;
+    });
+  }
+
+  /**
+   * Orders rows by a field. Dictionary-encoded fields are ordered by their string value. Rows with equal values
+   * keep their relative order, and rows without the field come last.
+   *
+   * @param field A numeric or dictionary-encoded field
+   * @param descending Whether the highest values come first
+   * @param rows The rows to order, or {@code null} for every row
+   * @return the ordered row indices
+   * @since 0.3.0
+   */
+  public int[] sort(BGIField field, boolean descending, @Nullable BitSet rows) {
+    int[] candidates = rows(rows);
+    long[] keys = new long[candidates.length];
+    int count = sortKeys(field, descending, candidates, keys);
+
+    int[] missing = Arrays.copyOfRange(candidates, count, candidates.length);
+    int[] sorted = Arrays.copyOf(candidates, count);
+    long[] sortedKeys = Arrays.copyOf(keys, count);
+    MergeSort mergeSort = new MergeSort(sortedKeys, sorted, new long[count], new int[count], 0, count, count >= PARALLEL_THRESHOLD);
+    if (count >= PARALLEL_THRESHOLD) {
+      ForkJoinPool.commonPool().invoke(mergeSort);
+    } else {
+      mergeSort.compute();
+    }
+
+    int[] result = Arrays.copyOf(sorted, candidates.length);
+    System.arraycopy(missing, 0, result, count, missing.length);
+    return result;
+  }
+
+  /**
+   * Orders every row by a field
+   *
+   * @param field A numeric or dictionary-encoded field
+   * @param descending Whether the highest values come first
+   * @return the ordered row indices
+   * @see #sort(BGIField, boolean, BitSet)
+   * @since 0.3.0
+   */
+  public int[] sort(BGIField field, boolean descending) {
+    return sort(field, descending, null);
+  }
+
+  /**
+   * Selects the rows with the highest (or lowest) values of a field, without ordering every row. Rows without the
+   * field are never selected, and of rows with equal values, the lowest rows are selected first.
+   *
+   * @param field A numeric or dictionary-encoded field
+   * @param k The most rows to select
+   * @param descending Whether to select the highest values rather than the lowest
+   * @param rows The rows to select from, or {@code null} for every row
+   * @return up to {@code k} row indices, ordered like {@link #sort}
+   * @since 0.3.0
+   */
+  public int[] top(BGIField field, int k, boolean descending, @Nullable BitSet rows) {
+    if (k < 0) {
+      throw new IllegalArgumentException("Number of rows must not be negative");
+    }
+
+    int[] candidates = rows(rows);
+    long[] keys = new long[candidates.length];
+    int count = sortKeys(field, descending, candidates, keys);
+    if (k == 0 || count == 0) {
+      return new int[0];
+    }
+
+    int[] selected;
+    if (count < PARALLEL_THRESHOLD) {
+      selected = select(keys, candidates, 0, count, k);
+    } else {
+      // Select the top k of each chunk in parallel, then the top k of those
+      int chunks = (count + SEQUENTIAL_CHUNK - 1) / SEQUENTIAL_CHUNK;
+      int[][] chunkTops = IntStream.range(0, chunks)
+          .parallel()
+          .mapToObj(c -> select(keys, candidates, c * SEQUENTIAL_CHUNK, Math.min(count, (c + 1) * SEQUENTIAL_CHUNK), k))
+          .toArray(int[][]::new);
+
+      int total = 0;
+      for (int[] chunkTop : chunkTops) {
+        total += chunkTop.length;
+      }
+      int[] merged = new int[total];
+      long[] mergedKeys = new long[total];
+      int position = 0;
+      for (int c = 0; c < chunks; c++) {
+        for (int index : chunkTops[c]) {
+          merged[position] = candidates[index];
+          mergedKeys[position++] = keys[index];
+        }
+      }
+      selected = select(mergedKeys, merged, 0, total, k);
+      toRows(selected, merged);
+      return selected;
+    }
+
+    toRows(selected, candidates);
+    return selected;
+  }
+
+  /**
+   * Selects the rows with the highest (or lowest) values of a field out of every row
+   *
+   * @param field A numeric or dictionary-encoded field
+   * @param k The most rows to select
+   * @param descending Whether to select the highest values rather than the lowest
+   * @return up to {@code k} row indices
+   * @see #top(BGIField, int, boolean, BitSet)
+   * @since 0.3.0
+   */
+  public int[] top(BGIField field, int k, boolean descending) {
+    return top(field, k, descending, null);
+  }
+
+  /**
+   * Replaces the selected candidate indices with their row indices
+   */
+  private static void toRows(int[] selected, int[] candidates) {
+    for (int i = 0; i < selected.length; i++) {
+      selected[i] = candidates[selected[i]];
+    }
+  }
+
+  /**
+   * Selects the indices of the {@code k} smallest keys between {@code start} and {@code end} using a bounded
+   * max-heap, and returns them in ascending key order. Keys are compared along with their row so that equal keys
+   * prefer lower rows.
+   */
+  private static int[] select(long[] keys, int[] candidates, int start, int end, int k) {
+    int capacity = Math.min(k, end - start);
+    int[] heap = new int[capacity];
+    int heapSize = 0;
+
+    for (int i = start; i < end; i++) {
+      if (heapSize < capacity) {
+        heap[heapSize] = i;
+        siftUp(heap, heapSize++, keys, candidates);
+      } else if (less(i, heap[0], keys, candidates)) {
+        heap[0] = i;
+        siftDown(heap, heapSize, keys, candidates);
+      }
+    }
+
+    // Pop the largest key to the end until the heap is empty, leaving the keys in ascending order
+    for (int last = heapSize - 1; last > 0; last--) {
+      int largest = heap[0];
+      heap[0] = heap[last];
+      heap[last] = largest;
+      siftDown(heap, last, keys, candidates);
+    }
+    return heap;
+  }
+
+  private static void siftUp(int[] heap, int index, long[] keys, int[] candidates) {
+    int value = heap[index];
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (!less(heap[parent], value, keys, candidates)) {
+        break;
+      }
+      heap[index] = heap[parent];
+      index = parent;
+    }
+    heap[index] = value;
+  }
+
+  private static void siftDown(int[] heap, int heapSize, long[] keys, int[] candidates) {
+    int index = 0;
+    int value = heap[0];
+    while (true) {
+      int child = 2 * index + 1;
+      if (child >= heapSize) {
+        break;
+      }
+      if (child + 1 < heapSize && less(heap[child], heap[child + 1], keys, candidates)) {
+        child++;
+      }
+      if (!less(value, heap[child], keys, candidates)) {
+        break;
+      }
+      heap[index] = heap[child];
+      index = child;
+    }
+    heap[index] = value;
+  }
+
+  private static boolean less(int a, int b, long[] keys, int[] candidates) {
+    return keys[a] < keys[b] || (keys[a] == keys[b] && candidates[a] < candidates[b]);
+  }
+
+  /**
+   * Moves the candidates that have the field to the front, in their original order, and computes their sort keys.
+   * Keys are ordered so that ascending keys give the requested order.
+   *
+   * @return the number of candidates that have the field
+   */
+  private int sortKeys(BGIField field, boolean descending, int[] candidates, long[] keys) {
+    long flip = descending ? -1L : 0L;
+    int[] missing = new int[candidates.length];
+    int missingCount = 0;
+    int count = 0;
+
+    int dictionary = DICTIONARY_COLUMN[field.ordinal()];
+    if (dictionary >= 0) {
+      int[] column = codes[dictionary];
+      int[] ranks = ranks(dictionaries[dictionary]);
+      for (int row : candidates) {
+        int code = column[row];
+        if (code < 0) {
+          missing[missingCount++] = row;
+        } else {
+          keys[count] = ranks[code] ^ flip;
+          candidates[count++] = row;
+        }
+      }
+    } else {
+      int numeric = numericColumn(field);
+      double[] column = values[numeric];
+      long[] bits = present[numeric];
+      for (int row : candidates) {
+        if (bits == null || (bits[row >>> 6] & (1L << row)) == 0) {
+          missing[missingCount++] = row;
+        } else {
+          // Flip the magnitude bits of negative values so that the bits order like the values
+          long value = Double.doubleToLongBits(column[row]);
+          keys[count] = (value ^ ((value >> 63) & Long.MAX_VALUE)) ^ flip;
+          candidates[count++] = row;
+        }
+      }
+    }
+
+    System.arraycopy(missing, 0, candidates, count, missingCount);
+    return count;
+  }
+
+  /**
+   * Returns the position of each dictionary value when the values are sorted
+   */
+  private static int[] ranks(String[] dictionary) {
+    Integer[] order = new Integer[dictionary.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> dictionary[a].compareTo(dictionary[b]));
+
+    int[] ranks = new int[dictionary.length];
+    for (int i = 0; i < order.length; i++) {
+      ranks[order[i]] = i;
+    }
+    return ranks;
+  }
+
+  private int[] rows(@Nullable BitSet rows) {
+    if (rows == null) {
+      int[] all = new int[size];
+      for (int i = 0; i < size; i++) {
+        all[i] = i;
+      }
+      return all;
+    }
+    return rows.stream().takeWhile(row -> row < size).toArray();
+  }
+
+  /**
+   * Builds a bit set one word of 64 rows at a time, in parallel for large tables
+   */
+  private BitSet filter(WordFilter filter) {
+    long[] words = new long[wordCount(size)];
+    if (size < PARALLEL_THRESHOLD) {
+      filterWords(filter, words, 0, words.length);
+    } else {
+      int chunkWords = SEQUENTIAL_CHUNK >>> 6;
+      IntStream.range(0, (words.length + chunkWords - 1) / chunkWords)
+          .parallel()
+          .forEach(c -> filterWords(filter, words, c * chunkWords, Math.min(words.length, (c + 1) * chunkWords)));
+    }
+    return BitSet.valueOf(words);
+  }
+
+  private void filterWords(WordFilter filter, long[] words, int start, int end) {
+    for (int w = start; w < end; w++) {
+      words[w] = filter.word(w << 6, Math.min(size, (w + 1) << 6));
+    }
+  }
+
+  @FunctionalInterface
+  private interface WordFilter {
+    /**
+     * Computes the bits of one word, where bit {@code row % 64} is set if the row matches
+     */
+    long word(int start, int end);
+  }
+
+  private int numericColumn(BGIField field) {
+    int column = NUMERIC_COLUMN[field.ordinal()];
+    if (column < 0) {
+      throw new IllegalArgumentException("Field [" + field + "] is not a numeric column");
+    }
+    return column;
+  }
+
+  private int dictionaryColumn(BGIField field) {
+    int column = DICTIONARY_COLUMN[field.ordinal()];
+    if (column < 0) {
+      throw new IllegalArgumentException("Field [" + field + "] is not a dictionary-encoded column");
+    }
+    return column;
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= size) {
+      throw new IndexOutOfBoundsException("Row [" + row + "] is outside the table of size " + size);
+    }
+  }
+
+  private static int wordCount(int rows) {
+    return (rows + 63) >>> 6;
+  }
+
+  /**
+   * A stable merge sort of rows by their keys, which sorts both halves of a large range in parallel
+   */
+  private static final class MergeSort extends RecursiveAction {
+    private final long[] keys;
+    private final int[] rows;
+    private final long[] keyBuffer;
+    private final int[] rowBuffer;
+    private final int start;
+    private final int end;
+    private final boolean parallel;
+
+    MergeSort(long[] keys, int[] rows, long[] keyBuffer, int[] rowBuffer, int start, int end, boolean parallel) {
+      this.keys = keys;
+      this.rows = rows;
+      this.keyBuffer = keyBuffer;
+      this.rowBuffer = rowBuffer;
+      this.start = start;
+      this.end = end;
+      this.parallel = parallel;
+    }
+
+    @Override
+    protected void compute() {
+      int length = end - start;
+      if (length <= 32) {
+        insertionSort();
+        return;
+      }
+
+      int middle = (start + end) >>> 1;
+      boolean split = parallel && length >= SEQUENTIAL_CHUNK;
+      MergeSort left = new MergeSort(keys, rows, keyBuffer, rowBuffer, start, middle, split);
+      MergeSort right = new MergeSort(keys, rows, keyBuffer, rowBuffer, middle, end, split);
+      if (split) {
+        ForkJoinTask.invokeAll(left, right);
+      } else {
+        left.compute();
+        right.compute();
+      }
+
+      if (keys[middle - 1] <= keys[middle]) {
+        return;
+      }
+      merge(middle);
+    }
+
+    private void insertionSort() {
+      for (int i = start + 1; i < end; i++) {
+        long key = keys[i];
+        int row = rows[i];
+        int j = i - 1;
+        while (j >= start && keys[j] > key) {
+          keys[j + 1] = keys[j];
+          rows[j + 1] = rows[j];
+          j--;
+        }
+        keys[j + 1] = key;
+        rows[j + 1] = row;
+      }
+    }
+
+    private void merge(int middle) {
+      System.arraycopy(keys, start, keyBuffer, start, end - start);
+      System.arraycopy(rows, start, rowBuffer, start, end - start);
+
+      int left = start;
+      int right = middle;
+      for (int i = start; i < end; i++) {
+        if (right >= end || (left < middle && keyBuffer[left] <= keyBuffer[right])) {
+          keys[i] = keyBuffer[left];
+          rows[i] = rowBuffer[left++];
+        } else {
+          keys[i] = keyBuffer[right];
+          rows[i] = rowBuffer[right++];
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds items to a new {@link ItemStatsTable}. A builder can keep adding items after building a table, which does
+   * not affect tables already built.
+   *
+   * @since 0.3.0
+   */
+  public static final class Builder {
+    private int size;
+    private int capacity = 64;
+    private final double[][] values = new double[NUMERIC_FIELDS.length][];
+    private final long[][] present = new long[NUMERIC_FIELDS.length][];
+    private final int[][] codes = new int[DICTIONARY_FIELDS.length][];
+    private final List<List<String>> dictionaries = new ArrayList<>();
+    private final List<Map<String, Integer>> dictionaryCodes = new ArrayList<>();
+
+    private Builder() {
+      for (int d = 0; d < DICTIONARY_FIELDS.length; d++) {
+        codes[d] = new int[capacity];
+        dictionaries.add(new ArrayList<>());
+        dictionaryCodes.add(new HashMap<>());
+      }
+    }
+
+    /**
+     * Adds an item as the next row. Numeric fields holding a value of another type are left out.
+     *
+     * @param data The parsed item
+     * @return this builder
+     * @since 0.3.0
+     */
+    public Builder add(BGIData data) {
+      if (size == capacity) {
+        grow();
+      }
+      int row = size++;
+
+      for (int c = 0; c < NUMERIC_FIELDS.length; c++) {
+        Object value = data.getAttribute(NUMERIC_FIELDS[c]).orElse(null);
+        if (value instanceof Number number) {
+          if (values[c] == null) {
+            values[c] = new double[capacity];
+            Arrays.fill(values[c], Double.NaN);
+            present[c] = new long[wordCount(capacity)];
+          }
+          values[c][row] = number.doubleValue();
+          present[c][row >>> 6] |= 1L << row;
+        }
+      }
+
+      for (int d = 0; d < DICTIONARY_FIELDS.length; d++) {
+        String value = dictionaryValue(data.getAttribute(DICTIONARY_FIELDS[d]).orElse(null));
+        List<String> dictionary = dictionaries.get(d);
+        codes[d][row] = value == null ? -1 : dictionaryCodes.get(d).computeIfAbsent(value, v -> {
+          dictionary.add(v);
+          return dictionary.size() - 1;
+        });
+      }
+      return this;
+    }
+
+    /**
+     * Adds each item as the next row, in iteration order
+     *
+     * @param items The parsed items
+     * @return this builder
+     * @since 0.3.0
+     */
+    public Builder addAll(Iterable<? extends BGIData> items) {
+      for (BGIData item : items) {
+        add(item);
+      }
+      return this;
+    }
+
+    /**
+     * Builds a table of every item added so far
+     *
+     * @return a new table
+     * @since 0.3.0
+     */
+    public ItemStatsTable build() {
+      return new ItemStatsTable(this);
+    }
+
+    /**
+     * Dictionary fields are strings, although {@link BGIField#SET} is declared as a string array. An array with a
+     * single element is stored as that element, and a longer array as its elements joined by commas.
+     */
+    private static @Nullable String dictionaryValue(@Nullable Object value) {
+      if (value instanceof String string) {
+        return string;
+      }
+      if (value instanceof String[] array && array.length > 0) {
+        return array.length == 1 ? array[0] : String.join(",", array);
+      }
+      return null;
+    }
+
+    private void grow() {
+      capacity *= 2;
+      for (int c = 0; c < NUMERIC_FIELDS.length; c++) {
+        if (values[c] != null) {
+          int oldCapacity = values[c].length;
+          values[c] = Arrays.copyOf(values[c], capacity);
+          Arrays.fill(values[c], oldCapacity, capacity, Double.NaN);
+          present[c] = Arrays.copyOf(present[c], wordCount(capacity));
+        }
+      }
+      for (int d = 0; d < DICTIONARY_FIELDS.length; d++) {
+        codes[d] = Arrays.copyOf(codes[d], capacity);
+      }
+    }
+  }
+}
@@ -1,37 +1,234 @@
 package dev.bnjc.bglib.utils;
 
+import dev.bnjc.bglib.BGIParseOptions;
+import dev.bnjc.bglib.BGIStringPool;
 import dev.bnjc.bglib.BGIType;
 import dev.bnjc.bglib.exceptions.BGIParseException;
 import dev.bnjc.bglib.exceptions.ErrorCode;
 import dev.bnjc.bglib.stream.BGIStreamParser;
 import dev.bnjc.bglib.stream.object.StreamObject;
+import org.jetbrains.annotations.Nullable;
 
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 public final class ByteParser {
+  /**
+   * Returned by {@link #measure(BGIType, ByteBuffer, int)} when a value extends past the buffer's limit
+   */
+  public static final int TRUNCATED = -1;
+
+  /**
+   * Returned by {@link #measure(BGIType, ByteBuffer, int)} when a value has a malformed or negative length
+   */
+  public static final int MALFORMED = -2;
+
   private ByteParser() {}
 
   public static Object getByType(int key, ByteBuffer buffer) throws BGIParseException {
     BGIType type = BGIType.fromTypeId(ByteParser.getByte(buffer));
+    return getByType(key, type, buffer);
+  }
 
+  public static Object getByType(int key, BGIType type, ByteBuffer buffer) throws BGIParseException {
+    return getByType(key, type, buffer, null);
+  }
+
+  /**
+   * Reads a value of the given type, deduplicating strings through the given pool
+   */
+  public static Object getByType(int key, BGIType type, ByteBuffer buffer, @Nullable BGIStringPool stringPool) throws BGIParseException {
     return switch (type) {
       case BGIType.BYTE -> getByte(buffer);
       case BGIType.INTEGER -> getVarInt(buffer);
-      case BGIType.STRING -> getString(buffer);
-      case BGIType.STRING_ARRAY -> getStringArray(buffer);
+      case BGIType.STRING -> getString(buffer, stringPool);
+      case BGIType.STRING_ARRAY -> getStringArray(buffer, stringPool);
       case BGIType.SHORT -> getShort(buffer);
       case BGIType.LONG -> getLong(buffer);
       case BGIType.FLOAT -> getFloat(buffer);
       case BGIType.DOUBLE -> getDouble(buffer);
-      case BGIType.STREAM -> getStream(key, buffer);
+      case BGIType.STREAM -> getStream(key, buffer, stringPool == null
+          ? BGIParseOptions.DEFAULT
+          : BGIParseOptions.builder().stringPool(stringPool).build());
       case BGIType.BOOLEAN -> getBoolean(buffer);
       case BGIType.UUID -> getUUID(buffer);
       default -> throw new BGIParseException("Could not parse data type [" + type + "]", ErrorCode.UNKNOWN_DATA_TYPE);
     };
   }
 
+  /**
+   * Advances the buffer past a value of the given type without decoding it
+   */
+  public static void skip(BGIType type, ByteBuffer buffer) throws BGIParseException {
+    if (type == null) {
+      throw new BGIParseException("Could not skip data type [null]", ErrorCode.UNKNOWN_DATA_TYPE);
+    }
+
+    switch (type) {
+      case BGIType.BYTE, BGIType.BOOLEAN -> skipBytes(buffer, 1);
+      case BGIType.SHORT -> skipBytes(buffer, 2);
+      case BGIType.FLOAT -> skipBytes(buffer, 4);
+      case BGIType.LONG, BGIType.DOUBLE -> skipBytes(buffer, 8);
+      case BGIType.UUID -> skipBytes(buffer, 16);
+      case BGIType.INTEGER -> getVarInt(buffer);
+      case BGIType.STRING, BGIType.STREAM -> skipBytes(buffer, getVarInt(buffer));
+      case BGIType.STRING_ARRAY -> {
+        int count = getVarInt(buffer);
+        for (int j = 0; j < count; j++) {
+          skipBytes(buffer, getVarInt(buffer));
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of bytes taken by a value of the given type starting at the given index, without moving the
+   * buffer or throwing. Returns {@link #TRUNCATED} if the value extends past the buffer's limit, or {@link #MALFORMED}
+   * if one of its lengths is a malformed variable int or is negative.
+   */
+  public static int measure(BGIType type, ByteBuffer buffer, int offset) {
+    int end = switch (type) {
+      case BGIType.BYTE, BGIType.BOOLEAN -> offset + 1;
+      case BGIType.SHORT -> offset + 2;
+      case BGIType.FLOAT -> offset + 4;
+      case BGIType.LONG, BGIType.DOUBLE -> offset + 8;
+      case BGIType.UUID -> offset + 16;
+      case BGIType.INTEGER -> skipVarInt(buffer, offset);
+      case BGIType.STRING, BGIType.STREAM -> skipLengthPrefixed(buffer, offset);
+      case BGIType.STRING_ARRAY -> {
+        int position = skipVarInt(buffer, offset);
+        int count = position < 0 ? 0 : readVarInt(buffer, offset);
+        if (count < 0) {
+          position = MALFORMED;
+        }
+        for (int j = 0; j < count && position >= 0; j++) {
+          position = skipLengthPrefixed(buffer, position);
+        }
+        yield position;
+      }
+    };
+
+    if (end < 0) {
+      return end;
+    }
+    return end > buffer.limit() ? TRUNCATED : end - offset;
+  }
+
+  /**
+   * Returns the index after the variable int at the given index, or a negative error code
+   */
+  private static int skipVarInt(ByteBuffer buffer, int offset) {
+    int limit = buffer.limit();
+    for (int i = 0; i < 5; i++) {
+      if (offset + i >= limit) {
+        return TRUNCATED;
+      }
+      if ((buffer.get(offset + i) & 0x80) == 0) {
+        return offset + i + 1;
+      }
+    }
+    return MALFORMED;
+  }
+
+  /**
+   * Reads the variable int at the given index, which must already be known to be well-formed
+   */
+  private static int readVarInt(ByteBuffer buffer, int offset) {
+    int value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = buffer.get(offset++);
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+  }
+
+  /**
+   * Returns the index after the length-prefixed value at the given index, or a negative error code
+   */
+  private static int skipLengthPrefixed(ByteBuffer buffer, int offset) {
+    int start = skipVarInt(buffer, offset);
+    if (start < 0) {
+      return start;
+    }
+
+    int length = readVarInt(buffer, offset);
+    if (length < 0) {
+      return MALFORMED;
+    }
+    return length > buffer.limit() - start ? TRUNCATED : start + length;
+  }
+
+  /**
+   * Scans the properties starting at the buffer's position (the property count) for the given key. If found, the
+   * buffer is left positioned at the start of the value and its type is returned. Otherwise, or if the data cannot
+   * be scanned, {@code null} is returned.
+   *
+   * <p>Like a full parse, the last property with the key wins, so every property is measured, and data with a
+   * property that is cut off or malformed is treated as not having the key at all.</p>
+   */
+  public static BGIType seek(int key, ByteBuffer buffer) {
+    int position = buffer.position();
+    int limit = buffer.limit();
+    if (limit - position < 2) {
+      return null;
+    }
+
+    int numAttributes = buffer.getShort(position);
+    position += 2;
+
+    int valuePosition = -1;
+    BGIType valueType = null;
+    for (int i = 0; i < numAttributes; i++) {
+      if (limit - position < 5) {
+        return null;
+      }
+
+      int propertyKey = buffer.getInt(position);
+      BGIType type = BGIType.fromTypeId(buffer.get(position + 4));
+      position += 5;
+      if (type == null) {
+        return null;
+      }
+
+      int length = measure(type, buffer, position);
+      if (length < 0) {
+        return null;
+      }
+
+      if (propertyKey == key) {
+        valuePosition = position;
+        valueType = type;
+      }
+      position += length;
+    }
+
+    if (valuePosition < 0) {
+      return null;
+    }
+    buffer.position(valuePosition);
+    return valueType;
+  }
+
+  public static void skipBytes(ByteBuffer buffer, int length) {
+    if (length < 0 || length > buffer.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    buffer.position(buffer.position() + length);
+  }
+
+  /**
+   * Returns a view of the next {@code length} bytes and advances the buffer past them
+   */
+  private static ByteBuffer slice(ByteBuffer buffer, int length) {
+    int offset = buffer.position();
+    skipBytes(buffer, length);
+    return buffer.slice(offset, length);
+  }
+
   public static byte getByte(ByteBuffer buffer) {
     return buffer.get();
   }
@@ -56,15 +253,80 @@ public final class ByteParser {
     return getByte(buffer) != 0;
   }
 
+  /**
+   * Reads a length-prefixed UTF-8 string. Heap buffers are decoded straight from their backing array, without
+   * copying the bytes first. The UTF-8 decoder already builds a compact Latin-1 string when every byte is ASCII,
+   * which is the case for almost every BGI string.
+   */
   public static String getString(ByteBuffer buffer) {
+    return getString(buffer, getVarInt(buffer));
+  }
+
+  /**
+   * Reads a length-prefixed UTF-8 string, reusing the pooled instance if the same string was read before. Without a
+   * pool, this is the same as {@link #getString(ByteBuffer)}.
+   */
+  public static String getString(ByteBuffer buffer, @Nullable BGIStringPool stringPool) {
     int length = getVarInt(buffer);
+    if (stringPool == null) {
+      return getString(buffer, length);
+    }
+
+    int offset = buffer.position();
+    skipBytes(buffer, length);
+    return stringPool.get(buffer, offset, length);
+  }
+
+  /**
+   * Reads a UTF-8 string of the given length in bytes
+   */
+  static String getString(ByteBuffer buffer, int length) {
+    if (buffer.hasArray()) {
+      int offset = buffer.arrayOffset() + buffer.position();
+      skipBytes(buffer, length);
+      return new String(buffer.array(), offset, length, StandardCharsets.UTF_8);
+    }
+
     byte[] strBytes = new byte[length];
     buffer.get(strBytes);
     return new String(strBytes, StandardCharsets.UTF_8);
   }
 
-  public static String[] getStringArray(ByteBuffer buffer) {
+  /**
+   * Reads a length-prefixed UTF-8 string without decoding it. The returned view shares the buffer's bytes and only
+   * decodes them when needed, so the buffer must not be modified while the view is in use.
+   */
+  public static Utf8CharSequence getLazyString(ByteBuffer buffer) {
+    return getLazyString(buffer, new Utf8CharSequence());
+  }
+
+  /**
+   * Reads a length-prefixed UTF-8 string without decoding it, pointing the given sequence at its bytes instead of
+   * creating a new one
+   *
+   * @see #getLazyString(ByteBuffer)
+   */
+  public static Utf8CharSequence getLazyString(ByteBuffer buffer, Utf8CharSequence reuse) {
+    int length = getVarInt(buffer);
+    int offset = buffer.position();
+    skipBytes(buffer, length);
+    return reuse.wrap(buffer, offset, length);
+  }
+
+  /**
+   * Reads the length of a string array. Every element takes at least one byte, so a length larger than the rest of
+   * the buffer is rejected before a huge array is allocated for it.
+   */
+  private static int getArrayLength(ByteBuffer buffer) {
     int count = getVarInt(buffer);
+    if (count < 0 || count > buffer.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    return count;
+  }
+
+  public static String[] getStringArray(ByteBuffer buffer) {
+    int count = getArrayLength(buffer);
     String[] array = new String[count];
     for (int j = 0; j < count; j++) {
       array[j] = getString(buffer);
@@ -72,11 +334,43 @@ public final class ByteParser {
     return array;
   }
 
+  public static String[] getStringArray(ByteBuffer buffer, @Nullable BGIStringPool stringPool) {
+    int count = getArrayLength(buffer);
+    String[] array = new String[count];
+    for (int j = 0; j < count; j++) {
+      array[j] = getString(buffer, stringPool);
+    }
+    return array;
+  }
+
   public static StreamObject getStream(int key, ByteBuffer buffer) throws BGIParseException {
+    return getStream(key, buffer, BGIParseOptions.DEFAULT);
+  }
+
+  /**
+   * Reads and decodes a stream value with the given options' string pool and error reporting
+   */
+  public static StreamObject getStream(int key, ByteBuffer buffer, BGIParseOptions options) throws BGIParseException {
+    return BGIStreamParser.parse(key, getStreamSlice(buffer), options);
+  }
+
+  /**
+   * Reads a stream value like {@link #getStream(int, ByteBuffer, BGIParseOptions)}, but leaves the stream undecoded
+   * until one of its getters is called
+   */
+  public static StreamObject getDeferredStream(int key, ByteBuffer buffer, BGIParseOptions options) throws BGIParseException {
+    return BGIStreamParser.parseDeferred(key, getStreamSlice(buffer), options);
+  }
+
+  /**
+   * Reads the length of a stream value and returns a view of its bytes, without copying them. The buffer is advanced
+   * past the stream. The view shares the buffer's backing array, so strings in the stream can be decoded straight
+   * from it. It is deliberately not read-only, since a read-only view hides the backing array: stream objects never
+   * write to it, and callers of the parser are responsible for not modifying the bytes while streams use them.
+   */
+  public static ByteBuffer getStreamSlice(ByteBuffer buffer) {
     int length = getVarInt(buffer);
-    byte[] streamBytes = new byte[length];
-    buffer.get(streamBytes);
-    return BGIStreamParser.parse(key, streamBytes);
+    return slice(buffer, length);
   }
 
   public static int getInt(ByteBuffer buffer) {
@@ -0,0 +1,20 @@
+package dev.bnjc.bglib.utils;
+
+/**
+ * An operation that accepts an {@code int} and an object, such as a property key hash and its value, without boxing
+ * the {@code int}.
+ *
+ * @param <T> The type of the object
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+@FunctionalInterface
+public interface IntObjConsumer<T> {
+  /**
+   * Performs the operation
+   *
+   * @param key The {@code int} argument
+   * @param value The object argument
+   */
+  void accept(int key, T value);
+}
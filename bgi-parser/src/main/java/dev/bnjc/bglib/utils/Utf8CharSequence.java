@@ -0,0 +1,197 @@
+package dev.bnjc.bglib.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link CharSequence} over UTF-8 encoded bytes that are only decoded when needed. ASCII text (which most BGI
+ * strings are) is read character by character straight from the bytes, so {@link #length()}, {@link #charAt(int)}
+ * and {@link #subSequence(int, int)} never decode it. Anything else is decoded once, the first time a character or
+ * {@link #toString()} is requested.
+ *
+ * <p>The sequence keeps a reference to the bytes it was read from, which must not be modified while it is in use.
+ * Call {@link #toString()} to keep the value without holding on to the bytes. {@link dev.bnjc.bglib.BGIEventReader}
+ * hands its visitors one reused sequence, so reading strings never allocates. A sequence is not thread-safe.</p>
+ *
+ * @since 0.3.0
+ * @author Jack Grzechowiak
+ */
+public final class Utf8CharSequence implements CharSequence {
+  private static final byte UNKNOWN = 0;
+  private static final byte ASCII = 1;
+  private static final byte NON_ASCII = 2;
+  // Decoded into chars, or malformed and only available through toString()
+  private static final byte CHARS = 3;
+  private static final byte MALFORMED = 4;
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+  private ByteBuffer bytes;
+  private int offset;
+  private int length;
+  private byte encoding;
+  private String decoded;
+
+  // Reused between wrapped strings, a UTF-8 string never has more characters than bytes
+  private char[] chars;
+  private int charLength;
+
+  /**
+   * Creates an empty sequence, to be reused by {@link ByteParser#getLazyString(ByteBuffer, Utf8CharSequence)}
+   */
+  public Utf8CharSequence() {
+    this(EMPTY, 0, 0);
+  }
+
+  Utf8CharSequence(ByteBuffer bytes, int offset, int length) {
+    wrap(bytes, offset, length);
+  }
+
+  /**
+   * Points the sequence at other bytes, forgetting everything known about the previous ones
+   */
+  Utf8CharSequence wrap(ByteBuffer bytes, int offset, int length) {
+    this.bytes = bytes;
+    this.offset = offset;
+    this.length = length;
+    this.encoding = UNKNOWN;
+    this.decoded = null;
+    return this;
+  }
+
+  /**
+   * Returns the length of the encoded string in bytes, which is available without decoding it
+   *
+   * @return the number of UTF-8 bytes
+   */
+  public int byteLength() {
+    return length;
+  }
+
+  /**
+   * Whether the string only contains ASCII characters, in which case it is never decoded
+   *
+   * @return {@code true} if every byte is ASCII
+   */
+  public boolean isAscii() {
+    if (encoding == UNKNOWN) {
+      encoding = ASCII;
+      for (int i = 0; i < length; i++) {
+        if (bytes.get(offset + i) < 0) {
+          encoding = NON_ASCII;
+          break;
+        }
+      }
+    }
+    return encoding == ASCII;
+  }
+
+  @Override
+  public int length() {
+    return switch (decode()) {
+      case ASCII -> length;
+      case CHARS -> charLength;
+      default -> toString().length();
+    };
+  }
+
+  @Override
+  public char charAt(int index) {
+    byte state = decode();
+    if (state == MALFORMED) {
+      return toString().charAt(index);
+    }
+
+    int count = state == ASCII ? length : charLength;
+    if (index < 0 || index >= count) {
+      throw new StringIndexOutOfBoundsException(index);
+    }
+    return state == ASCII ? (char) bytes.get(offset + index) : chars[index];
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    if (!isAscii()) {
+      return toString().subSequence(start, end);
+    }
+
+    if (start < 0 || end > length || start > end) {
+      throw new StringIndexOutOfBoundsException("begin " + start + ", end " + end + ", length " + length);
+    }
+    return new Utf8CharSequence(bytes, offset + start, end - start);
+  }
+
+  @Override
+  public String toString() {
+    String value = decoded;
+    if (value == null) {
+      if (encoding == CHARS) {
+        value = new String(chars, 0, charLength);
+      } else if (bytes.hasArray()) {
+        value = new String(bytes.array(), bytes.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+      } else {
+        byte[] copy = new byte[length];
+        bytes.get(offset, copy);
+        value = new String(copy, StandardCharsets.UTF_8);
+      }
+      decoded = value;
+    }
+    return value;
+  }
+
+  /**
+   * Decodes text that is not ASCII into the reused characters, unless it is malformed. Malformed text is left to
+   * {@link String}, so that it gets the same replacement characters as {@link ByteParser#getString(ByteBuffer)}.
+   */
+  private byte decode() {
+    if (isAscii() || encoding != NON_ASCII) {
+      return encoding;
+    }
+
+    if (chars == null || chars.length < length) {
+      chars = new char[Math.max(length, 64)];
+    }
+
+    int count = 0;
+    int i = 0;
+    while (i < length) {
+      int b = bytes.get(offset + i) & 0xFF;
+      if (b < 0x80) {
+        chars[count++] = (char) b;
+        i++;
+        continue;
+      }
+
+      int extra = b >= 0xC2 && b < 0xE0 ? 1 : b >= 0xE0 && b < 0xF0 ? 2 : b >= 0xF0 && b < 0xF5 ? 3 : 0;
+      if (extra == 0 || i + extra >= length) {
+        return encoding = MALFORMED;
+      }
+
+      int codePoint = b & (0x3F >> extra);
+      for (int j = 1; j <= extra; j++) {
+        int next = bytes.get(offset + i + j) & 0xFF;
+        if ((next & 0xC0) != 0x80) {
+          return encoding = MALFORMED;
+        }
+        codePoint = (codePoint << 6) | (next & 0x3F);
+      }
+
+      // Overlong encodings, surrogates and code points past the last one are malformed
+      int min = extra == 1 ? 0x80 : extra == 2 ? 0x800 : 0x10000;
+      if (codePoint < min || codePoint > Character.MAX_CODE_POINT
+          || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+        return encoding = MALFORMED;
+      }
+
+      if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+        chars[count++] = Character.highSurrogate(codePoint);
+        chars[count++] = Character.lowSurrogate(codePoint);
+      } else {
+        chars[count++] = (char) codePoint;
+      }
+      i += extra + 1;
+    }
+
+    charLength = count;
+    return encoding = CHARS;
+  }
+}
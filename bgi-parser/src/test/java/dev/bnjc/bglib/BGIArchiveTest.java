@@ -0,0 +1,143 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.archive.BGIArchiveReader;
+import dev.bnjc.bglib.archive.BGIArchiveWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIArchiveTest {
+  @TempDir
+  Path directory;
+
+  @Test
+  public void corpusRoundTrips() throws IOException {
+    List<byte[]> items = TestItems.corpus();
+    Path path = directory.resolve("items.bgia");
+    try (BGIArchiveWriter writer = BGIArchiveWriter.create(path)) {
+      for (byte[] item : items) {
+        writer.add(item);
+      }
+      assertEquals(items.size(), writer.size());
+    }
+
+    try (BGIArchiveReader reader = BGIArchiveReader.open(path)) {
+      assertEquals(items.size(), reader.size());
+      assertTrue(reader.hasChecksums());
+      assertTrue(reader.hasBloomFilters());
+
+      for (int i = 0; i < items.size(); i++) {
+        byte[] item = items.get(i);
+        assertEquals(ByteBuffer.wrap(item), reader.get(i));
+        assertTrue(reader.verify(i));
+        assertEquals(TestItems.describe(BGIParser.parse(item)), TestItems.describe(reader.parse(i)));
+
+        // Bloom filters may report false positives, but never false negatives
+        int index = i;
+        BGIParser.parse(item).ifSuccess(data -> data.forEachAttribute((key, value) ->
+            assertTrue(reader.mightContain(index, key))
+        ));
+      }
+      assertEquals(items.size(), reader.parseAll(BGIParseOptions.DEFAULT).count());
+    }
+  }
+
+  @Test
+  public void manyEntriesRoundTrip() throws IOException {
+    // Enough entries that the writer spills its index to a temporary file
+    int count = 20_000;
+    Path path = directory.resolve("many.bgia");
+    try (BGIArchiveWriter writer = BGIArchiveWriter.create(path)) {
+      for (int i = 0; i < count; i++) {
+        writer.add(new BGIWriter((short) 1).addInt("REVISION_ID", i).write());
+      }
+    }
+
+    try (BGIArchiveReader reader = BGIArchiveReader.open(path)) {
+      assertEquals(count, reader.size());
+      for (int i = 0; i < count; i++) {
+        assertTrue(reader.verify(i));
+        assertEquals(i, reader.parse(i).result().orElseThrow().getIntOrDefault("REVISION_ID", -1));
+      }
+    }
+
+    try (var files = Files.list(directory)) {
+      assertEquals(List.of(path), files.toList());
+    }
+  }
+
+  @Test
+  public void emptyArchiveRoundTrips() throws IOException {
+    Path path = directory.resolve("empty.bgia");
+    BGIArchiveWriter.create(path).close();
+
+    try (BGIArchiveReader reader = BGIArchiveReader.open(path)) {
+      assertEquals(0, reader.size());
+      assertThrows(IndexOutOfBoundsException.class, () -> reader.get(0));
+    }
+  }
+
+  @Test
+  public void corruptedEntryFailsVerification() throws IOException {
+    Path path = directory.resolve("corrupt.bgia");
+    byte[] first = new BGIWriter((short) 1).addString("NAME", "first").write();
+    byte[] second = new BGIWriter((short) 1).addString("NAME", "second").write();
+    try (BGIArchiveWriter writer = BGIArchiveWriter.create(path)) {
+      writer.add(first).add(second);
+    }
+
+    // Entries follow the 32 byte header, so this is the last byte of the first entry
+    try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+      file.seek(32 + first.length - 1);
+      file.write('X');
+    }
+
+    try (BGIArchiveReader reader = BGIArchiveReader.open(path)) {
+      assertFalse(reader.verify(0));
+      assertTrue(reader.verify(1));
+    }
+  }
+
+  @Test
+  public void archiveWithoutChecksumsOrFilters() throws IOException {
+    Path path = directory.resolve("plain.bgia");
+    byte[] item = new BGIWriter((short) 1).addString("NAME", "plain").write();
+    try (BGIArchiveWriter writer = BGIArchiveWriter.create(path, false, false)) {
+      writer.add(item);
+    }
+
+    try (BGIArchiveReader reader = BGIArchiveReader.open(path)) {
+      assertFalse(reader.hasChecksums());
+      assertFalse(reader.hasBloomFilters());
+      assertTrue(reader.verify(0));
+      assertTrue(reader.mightContain(0, BGIField.TIER));
+      assertEquals(ByteBuffer.wrap(item), reader.get(0));
+    }
+  }
+
+  @Test
+  public void closedWriterRejectsEntries() throws IOException {
+    BGIArchiveWriter writer = BGIArchiveWriter.create(directory.resolve("closed.bgia"));
+    writer.close();
+    writer.close();
+
+    assertThrows(IOException.class, () -> writer.add(new byte[] {7, 0, 1, 0, 0}));
+  }
+
+  @Test
+  public void otherFilesAreRejected() throws IOException {
+    Path path = Files.write(directory.resolve("other.bgia"), new byte[64]);
+    assertThrows(IOException.class, () -> BGIArchiveReader.open(path));
+
+    Path shortPath = Files.write(directory.resolve("short.bgia"), new byte[4]);
+    assertThrows(IOException.class, () -> BGIArchiveReader.open(shortPath));
+  }
+}
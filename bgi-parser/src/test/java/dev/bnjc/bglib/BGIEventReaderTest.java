@@ -0,0 +1,234 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.exceptions.BGIParseException;
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import dev.bnjc.bglib.stream.object.StreamObject;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIEventReaderTest {
+  @Test
+  public void visitedPropertiesMatchTheParser() throws BGIParseException {
+    BGIEventReader reader = new BGIEventReader();
+    for (byte[] item : TestItems.corpus()) {
+      BGIParseResult<BGIData> expected = BGIParser.parse(item);
+      if (expected.isError()) {
+        assertThrows(BGIParseException.class, () -> reader.read(item, new RecordingVisitor()));
+        continue;
+      }
+
+      RecordingVisitor visitor = new RecordingVisitor();
+      reader.read(item, visitor);
+      assertEquals(TestItems.describe(expected), visitor.describe());
+    }
+  }
+
+  @Test
+  public void bufferIsReadBigEndianFromItsPosition() throws BGIParseException {
+    BGIEventReader reader = new BGIEventReader();
+    List<byte[]> items = TestItems.corpus();
+    for (int i = 0; i < items.size(); i += 10) {
+      byte[] item = items.get(i);
+      String expected = TestItems.describe(BGIParser.parse(item));
+
+      for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+        for (boolean direct : new boolean[] {false, true}) {
+          // Trailing bytes after the item must be left alone
+          int capacity = item.length + 10;
+          ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+          buffer.order(order).put(3, item).position(3);
+
+          RecordingVisitor visitor = new RecordingVisitor();
+          reader.read(buffer, visitor);
+          assertEquals(expected, visitor.describe(), order + " item " + i);
+          assertEquals(3 + item.length, buffer.position());
+          assertEquals(order, buffer.order());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void skippedValuesAreNotVisited() throws BGIParseException {
+    BGIEventReader reader = new BGIEventReader();
+    for (byte[] item : TestItems.corpus()) {
+      if (BGIParser.parse(item).isError()) {
+        continue;
+      }
+
+      // Skip every other property, which must still leave the reader on the next one
+      RecordingVisitor visitor = new RecordingVisitor() {
+        private int count;
+
+        @Override
+        public boolean visitProperty(int key, BGIType type) {
+          return count++ % 2 == 0;
+        }
+      };
+      ByteBuffer buffer = ByteBuffer.wrap(item);
+      reader.read(buffer, visitor);
+      assertFalse(buffer.hasRemaining());
+      assertTrue(visitor.ended);
+    }
+  }
+
+  @Test
+  public void visitorExceptionsArePassedOnUnchanged() {
+    byte[] item = new BGIWriter((short) 1)
+        .addInt("REVISION_ID", 1)
+        .addString("NAME", "Sword")
+        .addDouble("DEFENSE", 2)
+        .write();
+    RuntimeException thrown = new IllegalStateException("visitor failed");
+    BGIVisitor visitor = new BGIVisitor() {
+      @Override
+      public void visitString(int key, CharSequence value) {
+        throw thrown;
+      }
+    };
+
+    BGIEventReader reader = new BGIEventReader();
+    for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+      ByteBuffer buffer = ByteBuffer.wrap(item).order(order);
+      assertSame(thrown, assertThrows(IllegalStateException.class, () -> reader.read(buffer, visitor)));
+
+      // The buffer is left after the string that was being visited
+      int afterName = new BGIWriter((short) 1).addInt("REVISION_ID", 1).addString("NAME", "Sword").size();
+      assertEquals(afterName, buffer.position(), order.toString());
+      assertEquals(order, buffer.order());
+    }
+
+    // The reader can still be used afterwards
+    assertDoesNotThrow(() -> reader.read(item, new RecordingVisitor()));
+  }
+
+  @Test
+  public void malformedDataIsReported() {
+    byte[] item = new BGIWriter((short) 1).addString("NAME", "Sword").addInt("REVISION_ID", 1).write();
+    BGIEventReader reader = new BGIEventReader();
+
+    assertFailure(reader, ErrorCode.DATA_TOO_SHORT, new byte[] {7, 0, 1, 0});
+    assertFailure(reader, ErrorCode.GOBLINLESS, new byte[] {1, 0, 1, 0, 0});
+    for (int length = 5; length < item.length; length++) {
+      assertFailure(reader, ErrorCode.DATA_TOO_SHORT, Arrays.copyOf(item, length));
+    }
+
+    byte[] unknownType = item.clone();
+    unknownType[9] = 99;
+    assertFailure(reader, ErrorCode.UNKNOWN_DATA_TYPE, unknownType);
+
+    byte[] malformed = new BGIWriter((short) 1).addInt("REVISION_ID", -1).write();
+    malformed[malformed.length - 1] = (byte) 0xFF;
+    assertFailure(reader, ErrorCode.MALFORMED_VAR_INT, malformed);
+  }
+
+  private static void assertFailure(BGIEventReader reader, ErrorCode code, byte[] data) {
+    BGIParseException error = assertThrows(BGIParseException.class, () -> reader.read(data, new RecordingVisitor()));
+    assertEquals(code, error.getErrorCode(), Arrays.toString(data));
+  }
+
+  /**
+   * Collects every visited value, boxed the way {@link BGIData} stores it
+   */
+  private static class RecordingVisitor implements BGIVisitor {
+    private final Map<Integer, Object> values = new HashMap<>();
+    private int dataVersion = -1;
+    private boolean ended;
+
+    @Override
+    public void visitHeader(int dataVersion, int propertyCount) {
+      this.dataVersion = dataVersion;
+    }
+
+    @Override
+    public void visitByte(int key, byte value) {
+      values.put(key, value);
+    }
+
+    @Override
+    public void visitShort(int key, short value) {
+      values.put(key, value);
+    }
+
+    @Override
+    public void visitInt(int key, int value) {
+      values.put(key, value);
+    }
+
+    @Override
+    public void visitLong(int key, long value) {
+      values.put(key, value);
+    }
+
+    @Override
+    public void visitFloat(int key, float value) {
+      values.put(key, value);
+    }
+
+    @Override
+    public void visitDouble(int key, double value) {
+      values.put(key, value);
+    }
+
+    @Override
+    public void visitBoolean(int key, boolean value) {
+      values.put(key, value);
+    }
+
+    @Override
+    public void visitUUID(int key, long mostSigBits, long leastSigBits) {
+      values.put(key, new UUID(mostSigBits, leastSigBits));
+    }
+
+    @Override
+    public void visitString(int key, CharSequence value) {
+      values.put(key, value.toString());
+    }
+
+    @Override
+    public void visitStringArray(int key, int length) {
+      values.put(key, new String[length]);
+    }
+
+    @Override
+    public void visitStringArrayElement(int key, int index, CharSequence value) {
+      ((String[]) values.get(key))[index] = value.toString();
+    }
+
+    @Override
+    public boolean visitStreamStart(int key, int length) {
+      return true;
+    }
+
+    @Override
+    public void visitStream(int key, @Nullable StreamObject stream) {
+      values.put(key, stream);
+    }
+
+    @Override
+    public void visitEnd() {
+      ended = true;
+    }
+
+    /**
+     * Describes the visited values like {@link TestItems#describe(BGIParseResult)}
+     */
+    String describe() {
+      assertTrue(ended);
+      Map<Integer, String> properties = new TreeMap<>();
+      values.forEach((key, value) -> properties.put(key, TestItems.describe(value)));
+      return "v" + dataVersion + " " + properties;
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package dev.bnjc.bglib;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIFieldTest {
+  @Test
+  public void everyKeyIsUnique() {
+    Map<Integer, BGIField> fields = new HashMap<>();
+    for (BGIField field : BGIField.values()) {
+      BGIField other = fields.put(field.key(), field);
+      assertNull(other, () -> "Fields " + other + " and " + field + " have the same key");
+    }
+  }
+
+  @Test
+  public void everyFieldIsFoundByItsKey() {
+    for (BGIField field : BGIField.values()) {
+      assertEquals(field.name().hashCode(), field.key());
+      assertSame(field, BGIField.fromKey(field.key()));
+      assertSame(field, BGIField.fromHashCode(field.key()).orElseThrow());
+    }
+  }
+
+  @Test
+  public void unknownKeysAreNotFound() {
+    for (String name : new String[] {"", "NOT_A_FIELD", "name", "KEY_0"}) {
+      assertNull(BGIField.fromKey(name.hashCode()));
+      assertTrue(BGIField.fromHashCode(name.hashCode()).isEmpty());
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIParseAllTest {
+  // Sizes around the 64 item chunks, and the whole corpus, which is split into larger chunks
+  private static final int[] SIZES = {0, 1, 63, 64, 65, 127, 128, 129, 200, 1264};
+
+  @Test
+  public void resultsMatchSequentialParses() {
+    CountingPool pool = new CountingPool(4);
+    try {
+      for (BGIParseOptions options : new BGIParseOptions[] {BGIParseOptions.DEFAULT, BGIParseOptions.builder().lazy(true).build()}) {
+        for (int size : SIZES) {
+          List<byte[]> items = items(size);
+          List<BGIParseResult<BGIData>> results = BGIParser.parseAll(items, options, pool);
+          assertEquals(describe(parseSequentially(items, options)), describe(results), "size " + size);
+          assertThrows(UnsupportedOperationException.class, () -> results.add(null));
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void commonPoolAndLinkedListsMatchSequentialParses() {
+    List<byte[]> items = items(300);
+    String expected = describe(parseSequentially(items, BGIParseOptions.DEFAULT));
+    assertEquals(expected, describe(BGIParser.parseAll(items)));
+    assertEquals(expected, describe(BGIParser.parseAll(new LinkedList<>(items), BGIParseOptions.DEFAULT, ForkJoinPool.commonPool())));
+  }
+
+  @Test
+  public void callerParsesTheFirstChunk() {
+    // With a parallelism of 2, chunks hold 64 items until there are more than 8 of them
+    int[][] expectedTasks = {{0, 0}, {1, 0}, {64, 0}, {65, 1}, {128, 1}, {129, 2}, {512, 7}, {1000, 7}};
+
+    CountingPool pool = new CountingPool(2);
+    try {
+      for (int[] expected : expectedTasks) {
+        pool.submitted.set(0);
+        BGIParser.parseAll(items(expected[0]), BGIParseOptions.DEFAULT, pool);
+        assertEquals(expected[1], pool.submitted.get(), "size " + expected[0]);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void rejectedChunksAreParsedByTheCaller() {
+    Executor rejecting = task -> {
+      throw new RejectedExecutionException();
+    };
+
+    // Accepts the first chunk and rejects the others, like a saturated executor
+    AtomicInteger accepted = new AtomicInteger();
+    Executor saturated = task -> {
+      if (accepted.getAndIncrement() > 0) {
+        throw new RejectedExecutionException();
+      }
+      new Thread(task).start();
+    };
+
+    ForkJoinPool shutDown = new ForkJoinPool(2);
+    shutDown.shutdown();
+
+    for (Executor executor : new Executor[] {rejecting, saturated, shutDown}) {
+      for (int size : SIZES) {
+        accepted.set(0);
+        List<byte[]> items = items(size);
+        assertEquals(describe(parseSequentially(items, BGIParseOptions.DEFAULT)),
+            describe(BGIParser.parseAll(items, BGIParseOptions.DEFAULT, executor)), "size " + size);
+      }
+    }
+  }
+
+  @Test
+  public void errorsAreReportedPerItem() {
+    byte[] valid = new BGIWriter((short) 1).addString("NAME", "Sword").write();
+    List<byte[]> items = new ArrayList<>();
+    for (int i = 0; i < 150; i++) {
+      items.add(valid);
+    }
+    items.set(3, null);
+    items.set(64, new byte[] {7, 0});
+    items.set(100, new byte[] {1, 0, 1, 0, 0});
+
+    CountingPool pool = new CountingPool(2);
+    try {
+      List<BGIParseResult<BGIData>> results = BGIParser.parseAll(items, BGIParseOptions.DEFAULT, pool);
+      assertEquals(150, results.size());
+      for (int i = 0; i < results.size(); i++) {
+        String expected = switch (i) {
+          case 3 -> "error MISSING_TAG";
+          case 64 -> "error DATA_TOO_SHORT";
+          case 100 -> "error GOBLINLESS";
+          default -> TestItems.describe(BGIParser.parse(valid));
+        };
+        assertEquals(expected, TestItems.describe(results.get(i)), "item " + i);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Cycles through the corpus, with missing and truncated items mixed in so that every chunk has errors
+   */
+  private static List<byte[]> items(int count) {
+    List<byte[]> corpus = TestItems.corpus();
+    List<byte[]> items = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      byte[] item = corpus.get(i % corpus.size());
+      switch (i % 7) {
+        case 3 -> items.add(null);
+        case 5 -> items.add(Arrays.copyOf(item, item.length / 2));
+        default -> items.add(item);
+      }
+    }
+    return items;
+  }
+
+  private static List<BGIParseResult<BGIData>> parseSequentially(List<byte[]> items, BGIParseOptions options) {
+    List<BGIParseResult<BGIData>> results = new ArrayList<>();
+    for (byte[] item : items) {
+      results.add(item == null ? BGIParseResult.error(ErrorCode.MISSING_TAG) : BGIParser.parse(item, options));
+    }
+    return results;
+  }
+
+  private static String describe(List<BGIParseResult<BGIData>> results) {
+    List<String> described = new ArrayList<>();
+    for (BGIParseResult<BGIData> result : results) {
+      described.add(TestItems.describe(result));
+    }
+    return String.join("\n", described);
+  }
+
+  /**
+   * Counts the chunks handed to the pool, while keeping its parallelism visible to the parser
+   */
+  private static class CountingPool extends ForkJoinPool {
+    private final AtomicInteger submitted = new AtomicInteger();
+
+    CountingPool(int parallelism) {
+      super(parallelism);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+      submitted.incrementAndGet();
+      super.execute(task);
+    }
+  }
+}
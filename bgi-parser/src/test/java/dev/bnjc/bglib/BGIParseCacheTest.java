@@ -0,0 +1,173 @@
+package dev.bnjc.bglib;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIParseCacheTest {
+  @Test
+  public void sameArrayIsParsedOnce() {
+    BGIParseCache cache = new BGIParseCache(8);
+    byte[] data = item("first");
+
+    BGIParseResult<BGIData> first = cache.parse(data);
+    BGIParseResult<BGIData> second = cache.parse(data);
+
+    assertSame(first, second);
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+    assertEquals("first", first.result().orElseThrow().getString("NAME").orElseThrow());
+  }
+
+  @Test
+  public void equalContentsHitTheCache() {
+    BGIParseCache cache = new BGIParseCache(8);
+    byte[] data = item("first");
+
+    BGIParseResult<BGIData> first = cache.parse(data);
+    BGIParseResult<BGIData> second = cache.parse(data.clone());
+
+    assertSame(first, second);
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+  }
+
+  @Test
+  public void differentContentsMissTheCache() {
+    BGIParseCache cache = new BGIParseCache(8);
+
+    BGIParseResult<BGIData> first = cache.parse(item("first"));
+    BGIParseResult<BGIData> second = cache.parse(item("second"));
+
+    assertNotSame(first, second);
+    assertEquals(2, cache.getMissCount());
+    assertEquals(0, cache.getHitCount());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void resultDoesNotChangeWithTheArray() {
+    // Lazy data decodes from the bytes it was parsed from, so it would see changes to an array it shares
+    BGIParseCache cache = new BGIParseCache(8, BGIParseOptions.builder().lazy(true).build());
+    byte[] data = new BGIWriter((short) 1).addString("NAME", "first").write();
+
+    BGIData cached = cache.parse(data).result().orElseThrow();
+    data[data.length - 1] = 'X';
+
+    assertEquals("first", cached.getString("NAME").orElseThrow());
+  }
+
+  @Test
+  public void leastRecentlyUsedResultIsEvicted() {
+    BGIParseCache cache = new BGIParseCache(2);
+    byte[] a = item("a");
+    byte[] b = item("b");
+    byte[] c = item("c");
+
+    // New arrays are used for every lookup, so only the by-content entries are hit
+    cache.parse(a.clone());
+    cache.parse(b.clone());
+    cache.parse(a.clone());
+    cache.parse(c.clone());
+    assertEquals(2, cache.size());
+    assertEquals(3, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+
+    cache.parse(a.clone());
+    assertEquals(2, cache.getHitCount());
+    cache.parse(b.clone());
+    assertEquals(4, cache.getMissCount());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void evictedResultsAreNotFoundByIdentity() {
+    BGIParseCache cache = new BGIParseCache(2);
+    byte[] a = item("a");
+    byte[] b = item("b");
+
+    // Finding a by identity marks it as used, so b is the one evicted, along with its array
+    cache.parse(a);
+    cache.parse(b);
+    cache.parse(a);
+    cache.parse(item("c"));
+    assertEquals(1, cache.getHitCount());
+
+    cache.parse(a);
+    assertEquals(2, cache.getHitCount());
+    cache.parse(b);
+    assertEquals(4, cache.getMissCount());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void cacheHoldsAtMostMaxSizeResults() {
+    // Several arrays share each contents, and an array is hit only while its contents are among the last used
+    int maxSize = 8;
+    byte[][][] arrays = new byte[20][3][];
+    for (int i = 0; i < arrays.length; i++) {
+      byte[] data = item("item " + i);
+      for (int j = 0; j < arrays[i].length; j++) {
+        arrays[i][j] = data.clone();
+      }
+    }
+
+    BGIParseCache cache = new BGIParseCache(maxSize);
+    Map<Integer, Boolean> used = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, Boolean> eldest) {
+        return size() > maxSize;
+      }
+    };
+    Random random = new Random(1);
+    for (int n = 0; n < 5_000; n++) {
+      // Favor a few contents, so that most lookups are hits
+      int i = random.nextInt(4) == 0 ? random.nextInt(arrays.length) : random.nextInt(maxSize / 2);
+      long hits = cache.getHitCount();
+
+      cache.parse(arrays[i][random.nextInt(arrays[i].length)]);
+      assertEquals(used.put(i, true) != null, cache.getHitCount() > hits, "lookup " + n);
+      assertEquals(used.size(), cache.size());
+    }
+  }
+
+  @Test
+  public void clearKeepsTheCounts() {
+    BGIParseCache cache = new BGIParseCache(8);
+    byte[] data = item("first");
+    cache.parse(data);
+    cache.parse(data);
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+
+    cache.parse(data);
+    assertEquals(2, cache.getMissCount());
+  }
+
+  @Test
+  public void errorsAreCached() {
+    BGIParseCache cache = new BGIParseCache(8);
+    byte[] data = {1, 2, 3};
+
+    BGIParseResult<BGIData> first = cache.parse(data);
+    assertTrue(first.isError());
+    assertSame(first, cache.parse(data.clone()));
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void sizeMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new BGIParseCache(0));
+  }
+
+  private static byte[] item(String name) {
+    return new BGIWriter((short) 1).addString("NAME", name).addInt("REVISION_ID", 1).write();
+  }
+}
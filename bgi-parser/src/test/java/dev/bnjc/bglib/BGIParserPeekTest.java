@@ -0,0 +1,120 @@
+package dev.bnjc.bglib;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIParserPeekTest {
+  private static final BGIParseOptions STACKLESS = BGIParseOptions.builder().stacklessErrors(true).build();
+
+  @Test
+  public void peekedValuesMatchTheParser() {
+    for (byte[] item : TestItems.corpus()) {
+      assertPeeksMatch(item, BGIParser.parse(item));
+    }
+  }
+
+  @Test
+  public void truncatedDataHasNoFields() {
+    List<byte[]> items = TestItems.corpus();
+    for (int i = 0; i < items.size(); i += 25) {
+      byte[] item = items.get(i);
+      for (int length = 0; length < item.length; length++) {
+        byte[] truncated = Arrays.copyOf(item, length);
+
+        // A cut in the last value is still parsed by default, with that value left null, but is rejected by a
+        // stackless parse, which is what peeking follows
+        BGIParseResult<BGIData> result = BGIParser.parse(truncated, STACKLESS);
+        assertTrue(result.isError(), () -> "cut at " + truncated.length);
+        assertPeeksMatch(truncated, result);
+      }
+    }
+  }
+
+  @Test
+  public void lastRepeatedKeyWins() {
+    byte[] data = new BGIWriter((short) 1)
+        .addString("NAME", "Sword")
+        .addDouble("DEFENSE", 2)
+        .addStringArray("CUSTOM_NBT", new String[] {"a"})
+        .addBoolean("CAN_DECONSTRUCT", false)
+        .addString("NAME", "Axe")
+        .addInt("REVISION_ID", 1)
+        .addDouble("DEFENSE", 3)
+        .addStringArray("CUSTOM_NBT", new String[] {"b", "c"})
+        .addBoolean("CAN_DECONSTRUCT", true)
+        .addInt("REVISION_ID", 2)
+        .write();
+    BGIParseResult<BGIData> result = BGIParser.parse(data);
+    assertPeeksMatch(data, result);
+
+    assertEquals("Axe", BGIParser.peekString(data, BGIField.NAME));
+    assertEquals(2, BGIParser.peekInt(data, BGIField.REVISION_ID, -1));
+    assertEquals(3, BGIParser.peekDouble(data, BGIField.DEFENSE, -1));
+    assertArrayEquals(new String[] {"b", "c"}, BGIParser.peekStringArray(data, BGIField.CUSTOM_NBT));
+    assertTrue(BGIParser.peekBoolean(data, BGIField.CAN_DECONSTRUCT, false));
+  }
+
+  @Test
+  public void repeatedKeyWithAnotherTypeHidesTheFirstValue() {
+    byte[] data = new BGIWriter((short) 1)
+        .addString("NAME", "Sword")
+        .addInt("NAME", 5)
+        .write();
+    assertPeeksMatch(data, BGIParser.parse(data));
+
+    assertNull(BGIParser.peekString(data, BGIField.NAME));
+    assertEquals(5, BGIParser.peekInt(data, BGIField.NAME, -1));
+    assertTrue(BGIParser.hasField(data, BGIField.NAME));
+  }
+
+  @Test
+  public void malformedDataHasNoFields() {
+    byte[] item = new BGIWriter((short) 1).addString("NAME", "Sword").addInt("REVISION_ID", 1).write();
+
+    byte[] goblinless = item.clone();
+    goblinless[0] = 1;
+    assertPeeksMatch(goblinless, BGIParser.parse(goblinless));
+
+    byte[] unknownType = item.clone();
+    unknownType[9] = 99;
+    assertPeeksMatch(unknownType, BGIParser.parse(unknownType, STACKLESS));
+
+    byte[] malformed = new BGIWriter((short) 1).addString("NAME", "Sword").addInt("REVISION_ID", -1).write();
+    malformed[malformed.length - 1] = (byte) 0xFF;
+    assertPeeksMatch(malformed, BGIParser.parse(malformed, STACKLESS));
+  }
+
+  /**
+   * Checks every peek method against the parsed result, which has no fields if it is an error
+   */
+  private static void assertPeeksMatch(byte[] data, BGIParseResult<BGIData> result) {
+    BGIData parsed = result.result().orElse(null);
+    for (BGIField field : BGIField.values()) {
+      String message = field + " in " + TestItems.describe(result);
+      if (parsed == null) {
+        assertNull(BGIParser.peek(data, field), message);
+        assertNull(BGIParser.peekString(data, field), message);
+        assertNull(BGIParser.peekStringArray(data, field), message);
+        assertEquals(-1.5, BGIParser.peekDouble(data, field, -1.5), message);
+        assertEquals(Integer.MIN_VALUE, BGIParser.peekInt(data, field, Integer.MIN_VALUE), message);
+        assertFalse(BGIParser.peekBoolean(data, field, false), message);
+        assertTrue(BGIParser.peekBoolean(data, field, true), message);
+        assertFalse(BGIParser.hasField(data, field), message);
+        continue;
+      }
+
+      assertEquals(TestItems.describe(parsed.getAttribute(field).orElse(null)), TestItems.describe(BGIParser.peek(data, field)), message);
+      assertEquals(parsed.getString(field).orElse(null), BGIParser.peekString(data, field), message);
+      assertArrayEquals(parsed.getStringArray(field).orElse(null), BGIParser.peekStringArray(data, field), message);
+      assertEquals(parsed.getDoubleOrDefault(field, -1.5), BGIParser.peekDouble(data, field, -1.5), message);
+      assertEquals(parsed.getIntOrDefault(field, Integer.MIN_VALUE), BGIParser.peekInt(data, field, Integer.MIN_VALUE), message);
+      assertEquals(parsed.getBooleanOrDefault(field, false), BGIParser.peekBoolean(data, field, false), message);
+      assertEquals(parsed.getBooleanOrDefault(field, true), BGIParser.peekBoolean(data, field, true), message);
+      assertEquals(parsed.hasField(field), BGIParser.hasField(data, field), message);
+    }
+  }
+}
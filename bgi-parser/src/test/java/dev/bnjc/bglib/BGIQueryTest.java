@@ -0,0 +1,259 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.query.BGIQuery;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIQueryTest {
+  private static final String[] TIERS = {"RARE", "COMMON", null};
+  private static final Double[] DEFENSES = {10.0, 1.0, null};
+  private static final Integer[] LEVELS = {20, 5, null};
+
+  @Test
+  public void queriesMatchParsedDataForEveryItem() {
+    Map<String, Predicate<BGIData>> queries = Map.of(
+        "DEFENSE > 5 && !(REQUIRED_LEVEL >= 30)", data ->
+            data.getDouble(BGIField.DEFENSE).filter(v -> v > 5).isPresent()
+                && data.getInt(BGIField.REQUIRED_LEVEL).filter(v -> v >= 30).isEmpty(),
+        "!has(GEM_SOCKETS) || REQUIRED_LEVEL >= 10", data ->
+            !data.hasField(BGIField.GEM_SOCKETS) || data.getInt(BGIField.REQUIRED_LEVEL).filter(v -> v >= 10).isPresent(),
+        "has(LORE) && !(has(SET) || CAN_DECONSTRUCT == true)", data ->
+            data.hasField(BGIField.LORE)
+                && !(data.hasField(BGIField.SET) || data.getBooleanOrDefault(BGIField.CAN_DECONSTRUCT, false)),
+        "TIER != \"COMMON\" || MAX_DURABILITY < 100", data ->
+            data.getString(BGIField.TIER).filter(v -> !v.equals("COMMON")).isPresent()
+                || data.getInt(BGIField.MAX_DURABILITY).filter(v -> v < 100).isPresent()
+    );
+
+    for (Map.Entry<String, Predicate<BGIData>> entry : queries.entrySet()) {
+      BGIQuery query = BGIQuery.compile(entry.getKey());
+      for (byte[] item : TestItems.corpus()) {
+        BGIParseResult<BGIData> parsed = BGIParser.parse(item);
+        boolean expected = parsed.isSuccess() && entry.getValue().test(parsed.result().orElseThrow());
+        assertEquals(expected, query.matches(item), entry.getKey() + " " + TestItems.describe(parsed));
+      }
+    }
+  }
+
+  @Test
+  public void conditionsCombineLikeBooleans() {
+    // Every combination of present, absent and missing values, so that every condition is true, false or unknown
+    // when the query stops early
+    Map<String, Predicate<Object[]>> queries = Map.of(
+        "TIER == \"RARE\" && DEFENSE > 5", v -> "RARE".equals(v[0]) && v[1] != null && (double) v[1] > 5,
+        "TIER == \"RARE\" || DEFENSE > 5", v -> "RARE".equals(v[0]) || v[1] != null && (double) v[1] > 5,
+        "!(TIER == \"RARE\") && !(DEFENSE > 5)", v -> !"RARE".equals(v[0]) && !(v[1] != null && (double) v[1] > 5),
+        "!(TIER == \"RARE\" || DEFENSE <= 5) || REQUIRED_LEVEL > 10",
+        v -> !("RARE".equals(v[0]) || v[1] != null && (double) v[1] <= 5) || v[2] != null && (int) v[2] > 10,
+        "DEFENSE > 5 && (REQUIRED_LEVEL > 10 || !has(TIER))",
+        v -> v[1] != null && (double) v[1] > 5 && (v[2] != null && (int) v[2] > 10 || v[0] == null),
+        "!has(TIER) && !has(DEFENSE) && !has(REQUIRED_LEVEL)", v -> v[0] == null && v[1] == null && v[2] == null,
+        "TIER != \"RARE\"", v -> v[0] != null && !"RARE".equals(v[0])
+    );
+
+    for (Map.Entry<String, Predicate<Object[]>> entry : queries.entrySet()) {
+      BGIQuery query = BGIQuery.compile(entry.getKey());
+      for (String tier : TIERS) {
+        for (Double defense : DEFENSES) {
+          for (Integer level : LEVELS) {
+            byte[] data = item(tier, defense, level);
+            String message = entry.getKey() + " with " + tier + ", " + defense + ", " + level;
+            assertEquals(entry.getValue().test(new Object[] {tier, defense, level}), query.matches(data), message);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void streamPathsMatchAnyEntry() {
+    byte[] data = new BGIWriter((short) 1)
+        .addStream("GEM_SOCKETS", gemSockets(new String[] {"Ruby"}, new String[] {"blue", null, "red"}))
+        .write();
+    byte[] empty = new BGIWriter((short) 1).addStream("GEM_SOCKETS", gemSockets(new String[0], new String[0])).write();
+
+    assertTrue(BGIQuery.compile("GEM_SOCKETS.gemstones.color == \"red\"").matches(data));
+    assertTrue(BGIQuery.compile("GEM_SOCKETS.gemstones.color != \"red\"").matches(data));
+    assertFalse(BGIQuery.compile("GEM_SOCKETS.gemstones.color == \"green\"").matches(data));
+    assertTrue(BGIQuery.compile("GEM_SOCKETS.emptySlots == \"Ruby\"").matches(data));
+    assertTrue(BGIQuery.compile("has(GEM_SOCKETS.gemstones.color)").matches(data));
+
+    assertTrue(BGIQuery.compile("has(GEM_SOCKETS)").matches(empty));
+    assertFalse(BGIQuery.compile("GEM_SOCKETS.gemstones.color != \"red\"").matches(empty));
+    assertFalse(BGIQuery.compile("GEM_SOCKETS.emptySlots == \"Ruby\"").matches(empty));
+    assertTrue(BGIQuery.compile("!has(GEM_SOCKETS.gemstones.color)").matches(empty));
+  }
+
+  @Test
+  public void malformedStreamsNeverMatch() {
+    byte[] stream = gemSockets(new String[0], new String[] {"red"});
+    byte[] data = new BGIWriter((short) 1)
+        .addStream("GEM_SOCKETS", Arrays.copyOf(stream, stream.length - 2))
+        .addString("TIER", "RARE")
+        .write();
+
+    assertFalse(BGIQuery.compile("GEM_SOCKETS.gemstones.color == \"red\"").matches(data));
+    assertTrue(BGIQuery.compile("TIER == \"RARE\"").matches(data));
+  }
+
+  @Test
+  public void missingPropertiesMatchNoComparison() {
+    byte[] data = new BGIWriter((short) 1).addString("NAME", "Sword").write();
+
+    assertFalse(BGIQuery.compile("DEFENSE > 5").matches(data));
+    assertFalse(BGIQuery.compile("DEFENSE <= 5").matches(data));
+    assertFalse(BGIQuery.compile("TIER != \"RARE\"").matches(data));
+    assertTrue(BGIQuery.compile("!(DEFENSE > 5)").matches(data));
+    assertTrue(BGIQuery.compile("!has(DEFENSE)").matches(data));
+  }
+
+  @Test
+  public void stringArraysMatchAnyValue() {
+    byte[] data = new BGIWriter((short) 1).addStringArray("LORE", new String[] {"first", "second"}).write();
+
+    assertTrue(BGIQuery.compile("LORE == \"second\"").matches(data));
+    assertFalse(BGIQuery.compile("LORE == \"third\"").matches(data));
+    assertTrue(BGIQuery.compile("LORE < \"g\"").matches(data));
+  }
+
+  @Test
+  public void repeatedKeyUsesTheLastValue() {
+    byte[] data = new BGIWriter((short) 1)
+        .addString("TIER", "COMMON")
+        .addDouble("DEFENSE", 1)
+        .addString("TIER", "RARE")
+        .write();
+
+    assertTrue(BGIQuery.compile("TIER == \"RARE\"").matches(data));
+    assertFalse(BGIQuery.compile("TIER == \"COMMON\"").matches(data));
+  }
+
+  @Test
+  public void malformedDataNeverMatches() {
+    BGIQuery query = BGIQuery.compile("!has(TIER)");
+    assertTrue(query.matches(new byte[] {7, 0, 1, 0, 0}));
+    assertFalse(query.matches(new byte[] {7, 0, 1, 0}));
+    assertFalse(query.matches(new byte[] {1, 0, 1, 0, 0}));
+
+    byte[] full = new BGIWriter((short) 1).addString("NAME", "Sword").addInt("REVISION_ID", 3).write();
+    for (int length = 5; length < full.length; length++) {
+      assertFalse(query.matches(Arrays.copyOf(full, length)), "length " + length);
+    }
+
+    byte[] unknownType = new BGIWriter((short) 1).addString("NAME", "Sword").write();
+    unknownType[9] = 99;
+    assertFalse(query.matches(unknownType));
+  }
+
+  @Test
+  public void matchingDoesNotMoveTheBuffer() {
+    byte[] data = new BGIWriter((short) 1).addString("TIER", "RARE").write();
+    ByteBuffer buffer = ByteBuffer.allocate(data.length + 2).put((byte) 0).put(data).put((byte) 0);
+    buffer.position(1).limit(1 + data.length);
+
+    assertTrue(BGIQuery.compile("TIER == \"RARE\"").matches(buffer));
+    assertEquals(1, buffer.position());
+  }
+
+  @Test
+  public void invalidQueriesAreRejected() {
+    String[] queries = {
+        "",
+        "TIER ==",
+        "TIER == \"RARE",
+        "TIER = \"RARE\"",
+        "(TIER == \"RARE\"",
+        "TIER == \"RARE\" &&",
+        "DEFENSE > 1.2.3",
+        "DEFENSE > \"high\"",
+        "TIER > 5",
+        "CAN_DECONSTRUCT > true",
+        "TIER.color == \"red\"",
+        "GEM_SOCKETS.colour == \"red\"",
+        "DEFENSE > 5 DEFENSE < 10",
+        "has(TIER",
+        "DEFENSE > high",
+        "DEFENSE > 5 " + "|| DEFENSE > 5 ".repeat(Long.SIZE)
+    };
+
+    for (String query : queries) {
+      IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> BGIQuery.compile(query), query);
+      assertTrue(e.getMessage().contains(" at position "), e.getMessage());
+      assertTrue(e.getMessage().endsWith("of query [" + query + "]"), e.getMessage());
+    }
+  }
+
+  @Test
+  public void errorsPointAtTheProblem() {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> BGIQuery.compile("TIER == \"RARE"));
+    assertTrue(e.getMessage().startsWith("Unterminated string at position 8 "), e.getMessage());
+
+    e = assertThrows(IllegalArgumentException.class, () -> BGIQuery.compile("TIER == \"RARE\" && DEFENSE > \"high\""));
+    assertTrue(e.getMessage().startsWith("[DEFENSE] of type DOUBLE cannot be compared with > \"high\" at position 18 "), e.getMessage());
+  }
+
+  @Test
+  public void queriesKeepTheirSource() {
+    String source = "TIER == \"RARE\" && (DEFENSE > 5 || !has(GEM_SOCKETS))";
+    BGIQuery query = BGIQuery.compile(source);
+
+    assertEquals(source, query.getSource());
+    assertEquals(BGIQuery.compile(source), query);
+    assertEquals(BGIQuery.compile(source).hashCode(), query.hashCode());
+    assertNotEquals(BGIQuery.compile("TIER == \"RARE\""), query);
+    assertEquals(query.toString(), BGIQuery.compile(query.toString()).toString());
+  }
+
+  private static byte[] item(String tier, Double defense, Integer level) {
+    BGIWriter writer = new BGIWriter((short) 1).addString("NAME", "Sword");
+    if (tier != null) {
+      writer.addString("TIER", tier);
+    }
+    if (defense != null) {
+      writer.addDouble("DEFENSE", defense);
+    }
+    if (level != null) {
+      writer.addInt("REQUIRED_LEVEL", level);
+    }
+    return writer.write();
+  }
+
+  /**
+   * Creates a version 1 gem sockets stream, with a gemstone for each color and no color where it is {@code null}
+   */
+  private static byte[] gemSockets(String[] emptySlots, String[] colors) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(1);
+    out.write(emptySlots.length);
+    for (String slot : emptySlots) {
+      writeString(out, slot);
+    }
+
+    out.write(colors.length);
+    for (String color : colors) {
+      writeString(out, "Gemstone");
+      out.writeBytes(new byte[16]);
+      out.write(0);
+      out.write(0);
+      out.write(color == null ? 0 : 1);
+      if (color != null) {
+        writeString(out, color);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeString(ByteArrayOutputStream out, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.write(bytes.length);
+    out.writeBytes(bytes);
+  }
+}
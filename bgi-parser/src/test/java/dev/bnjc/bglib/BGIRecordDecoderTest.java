@@ -0,0 +1,174 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import dev.bnjc.bglib.mapping.BGI;
+import dev.bnjc.bglib.mapping.BGIRecordDecoder;
+import dev.bnjc.bglib.stream.object.AbilityStreamObject;
+import dev.bnjc.bglib.stream.object.GemSocketStreamObject;
+import dev.bnjc.bglib.stream.object.StreamObject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static dev.bnjc.bglib.BGIField.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIRecordDecoderTest {
+  record Gear(
+      @BGI(ITEM_ID) String id,
+      @BGI(TIER) String tier,
+      @BGI(DEFENSE) double defense,
+      @BGI(MAX_DURABILITY) int durability,
+      @BGI(LORE) String[] lore,
+      @BGI(CAN_DECONSTRUCT) boolean deconstruct,
+      @BGI(GEM_SOCKETS) GemSocketStreamObject sockets
+  ) {}
+
+  record Anything(@BGI(ITEM_ID) Object id, @BGI(DEFENSE) Object defense, @BGI(LORE) Object lore,
+                  @BGI(GEM_SOCKETS) Object sockets, @BGI(MAX_DURABILITY) Object durability) {}
+
+  record Primitives(@BGI(REVISION_ID) long revision, @BGI(MAX_DURABILITY) short durability, @BGI(TIER) byte tier,
+                    @BGI(DEFENSE) float defense, @BGI(NAME) UUID name) {}
+
+  record Mismatched(@BGI(ITEM_ID) int id, @BGI(DEFENSE) String defense, @BGI(MAX_DURABILITY) double durability,
+                    @BGI(GEM_SOCKETS) AbilityStreamObject sockets) {}
+
+  record Unannotated(@BGI(ITEM_ID) String id, String name) {}
+
+  record Unsupported(@BGI(ITEM_ID) StringBuilder id) {}
+
+  record Duplicated(@BGI(ITEM_ID) String id, @BGI(ITEM_ID) Object other) {}
+
+  @Test
+  public void recordMatchesParsedDataForEveryItem() {
+    BGIRecordDecoder<Gear> decoder = BGIRecordDecoder.of(Gear.class);
+    for (byte[] item : TestItems.corpus()) {
+      BGIParseResult<BGIData> parsed = BGIParser.parse(item);
+      BGIParseResult<Gear> decoded = decoder.decode(item);
+      assertEquals(parsed.isSuccess(), decoded.isSuccess());
+      if (parsed.isError()) {
+        continue;
+      }
+
+      BGIData data = parsed.result().orElseThrow();
+      Gear gear = decoded.result().orElseThrow();
+      assertEquals(data.getString(ITEM_ID).orElse(null), gear.id());
+      assertEquals(data.getString(TIER).orElse(null), gear.tier());
+      assertEquals(data.getDoubleOrDefault(DEFENSE, 0), gear.defense());
+      assertEquals(data.getIntOrDefault(MAX_DURABILITY, 0), gear.durability());
+      assertArrayEquals(data.getStringArray(LORE).orElse(null), gear.lore());
+      assertEquals(data.getBooleanOrDefault(CAN_DECONSTRUCT, false), gear.deconstruct());
+      assertEquals(
+          TestItems.describe(data.getStream(GEM_SOCKETS).orElse(null)),
+          TestItems.describe(gear.sockets())
+      );
+    }
+  }
+
+  @Test
+  public void objectComponentsTakeAnyType() {
+    byte[] data = new BGIWriter((short) 1)
+        .addString("ITEM_ID", "SWORD")
+        .addDouble("DEFENSE", 2.5)
+        .addStringArray("LORE", new String[] {"a", "b"})
+        .addInt("MAX_DURABILITY", 100)
+        .write();
+
+    Anything anything = BGIRecordDecoder.of(Anything.class).decode(data).result().orElseThrow();
+    assertEquals("SWORD", anything.id());
+    assertEquals(2.5, anything.defense());
+    assertArrayEquals(new String[] {"a", "b"}, (String[]) anything.lore());
+    assertEquals(100, anything.durability());
+    assertNull(anything.sockets());
+  }
+
+  @Test
+  public void objectComponentsTakeStreams() {
+    for (byte[] item : TestItems.corpus()) {
+      BGIParseResult<BGIData> parsed = BGIParser.parse(item);
+      if (parsed.isError()) {
+        continue;
+      }
+
+      Anything anything = BGIRecordDecoder.of(Anything.class).decode(item).result().orElseThrow();
+      StreamObject sockets = parsed.result().orElseThrow().getStream(GEM_SOCKETS).orElse(null);
+      assertEquals(TestItems.describe(sockets), TestItems.describe(anything.sockets()));
+      if (sockets != null) {
+        assertInstanceOf(GemSocketStreamObject.class, anything.sockets());
+      }
+    }
+  }
+
+  @Test
+  public void primitiveComponentsReadTheirOwnTypes() {
+    UUID uuid = new UUID(1, 2);
+    byte[] data = data(5, ByteBuffer.allocate(64)
+        .putInt("REVISION_ID".hashCode()).put(BGIType.LONG.typeId).putLong(1L << 40)
+        .putInt("MAX_DURABILITY".hashCode()).put(BGIType.SHORT.typeId).putShort((short) -3)
+        .putInt("TIER".hashCode()).put(BGIType.BYTE.typeId).put((byte) 7)
+        .putInt("DEFENSE".hashCode()).put(BGIType.FLOAT.typeId).putFloat(1.5f)
+        .putInt("NAME".hashCode()).put(BGIType.UUID.typeId)
+        .putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()));
+
+    Primitives primitives = BGIRecordDecoder.of(Primitives.class).decode(data).result().orElseThrow();
+    assertEquals(new Primitives(1L << 40, (short) -3, (byte) 7, 1.5f, uuid), primitives);
+  }
+
+  @Test
+  public void mismatchedAndMissingPropertiesAreLeftEmpty() {
+    byte[] data = new BGIWriter((short) 1)
+        .addString("ITEM_ID", "SWORD")
+        .addDouble("DEFENSE", 2.5)
+        .addInt("MAX_DURABILITY", 100)
+        .write();
+
+    Mismatched mismatched = BGIRecordDecoder.of(Mismatched.class).decode(data).result().orElseThrow();
+    assertEquals(new Mismatched(0, null, 0, null), mismatched);
+  }
+
+  @Test
+  public void streamOfAnotherKindIsLeftEmpty() {
+    for (byte[] item : TestItems.corpus()) {
+      BGIParseResult<Mismatched> decoded = BGIRecordDecoder.of(Mismatched.class).decode(item);
+      decoded.ifSuccess(mismatched -> assertNull(mismatched.sockets()));
+    }
+  }
+
+  @Test
+  public void invalidDataIsAnError() {
+    BGIRecordDecoder<Gear> decoder = BGIRecordDecoder.of(Gear.class);
+    assertEquals(ErrorCode.DATA_TOO_SHORT, decoder.decode(new byte[] {7, 0}).error().orElseThrow().getErrorCode());
+    assertEquals(ErrorCode.GOBLINLESS, decoder.decode(new byte[] {1, 0, 1, 0, 0}).error().orElseThrow().getErrorCode());
+
+    byte[] truncated = new BGIWriter((short) 1).addString("ITEM_ID", "SWORD").write();
+    BGIParseResult<Gear> result = decoder.decode(ByteBuffer.wrap(truncated, 0, truncated.length - 1));
+    assertEquals(ErrorCode.DATA_TOO_SHORT, result.error().orElseThrow().getErrorCode());
+  }
+
+  @Test
+  public void decodingDoesNotMoveTheBuffer() {
+    byte[] data = new BGIWriter((short) 1).addString("ITEM_ID", "SWORD").write();
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+
+    assertEquals("SWORD", BGIRecordDecoder.of(Gear.class).decode(buffer).result().orElseThrow().id());
+    assertEquals(0, buffer.position());
+  }
+
+  @Test
+  public void invalidRecordsAreRejected() {
+    assertThrows(IllegalArgumentException.class, () -> BGIRecordDecoder.of(Unannotated.class));
+    assertThrows(IllegalArgumentException.class, () -> BGIRecordDecoder.of(Unsupported.class));
+    assertThrows(IllegalArgumentException.class, () -> BGIRecordDecoder.of(Duplicated.class));
+  }
+
+  private static byte[] data(int count, ByteBuffer properties) {
+    properties.flip();
+    ByteBuffer data = ByteBuffer.allocate(5 + properties.remaining())
+        .put((byte) 7)
+        .putShort((short) 1)
+        .putShort((short) count)
+        .put(properties);
+    return data.array();
+  }
+}
@@ -0,0 +1,103 @@
+package dev.bnjc.bglib;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIShapeCacheTest {
+  @Test
+  public void cachedParsesMatchUncachedParses() {
+    List<byte[]> items = TestItems.corpus();
+    BGIShapeCache cache = new BGIShapeCache();
+    BGIParseOptions options = BGIParseOptions.builder().shapeCache(cache).build();
+
+    int size = 0;
+    for (int pass = 0; pass < 3; pass++) {
+      for (byte[] item : items) {
+        assertEquals(TestItems.describe(BGIParser.parse(item)), TestItems.describe(BGIParser.parse(item, options)));
+      }
+
+      // Every shape is recorded by the first pass, and later passes only follow them
+      if (pass == 0) {
+        size = cache.size();
+        assertTrue(size > 0);
+      }
+      assertEquals(size, cache.size());
+    }
+  }
+
+  @Test
+  public void fullCacheParsesTheRestNormally() {
+    List<byte[]> items = TestItems.corpus();
+    for (int maxShapes : new int[] {1, 2, 5, 50}) {
+      BGIShapeCache cache = new BGIShapeCache(maxShapes);
+      BGIParseOptions options = BGIParseOptions.builder().shapeCache(cache).build();
+      for (int pass = 0; pass < 2; pass++) {
+        for (byte[] item : items) {
+          assertEquals(TestItems.describe(BGIParser.parse(item)), TestItems.describe(BGIParser.parse(item, options)));
+        }
+      }
+      assertEquals(maxShapes, cache.size());
+    }
+  }
+
+  @Test
+  public void truncatedItemsMatchUncachedParses() {
+    List<byte[]> items = TestItems.corpus();
+    BGIParseOptions options = BGIParseOptions.builder().shapeCache(new BGIShapeCache()).build();
+    for (byte[] item : items) {
+      BGIParser.parse(item, options);
+    }
+
+    for (int i = 0; i < items.size(); i += 25) {
+      byte[] item = items.get(i);
+      for (int length = 0; length < item.length; length++) {
+        byte[] data = Arrays.copyOf(item, length);
+        assertEquals(TestItems.describe(BGIParser.parse(data)), TestItems.describe(BGIParser.parse(data, options)));
+      }
+
+      // The cut off parses must not have left shapes behind that break the full item
+      assertEquals(TestItems.describe(BGIParser.parse(item)), TestItems.describe(BGIParser.parse(item, options)));
+    }
+  }
+
+  @Test
+  public void templatesWithTheSameHeaderStayApart() {
+    // The same data version and property count, but different keys, orders and types
+    List<byte[]> items = List.of(
+        new BGIWriter((short) 1).addString("NAME", "Sword").addInt("REVISION_ID", 1).addDouble("DEFENSE", 2).write(),
+        new BGIWriter((short) 1).addInt("REVISION_ID", 3).addString("NAME", "Bow").addDouble("DEFENSE", 4).write(),
+        new BGIWriter((short) 1).addInt("NAME", 5).addInt("REVISION_ID", 6).addDouble("DEFENSE", 7).write(),
+        new BGIWriter((short) 1).addString("NAME", "Axe").addString("NAME", "Pick").addDouble("DEFENSE", 8).write(),
+        new BGIWriter((short) 1).addString("NAME", "Axe").addInt("REVISION_ID", 9).addString("NAME", "Hoe").write(),
+        new BGIWriter((short) 1).addString("NAME", "Sword").addInt("REVISION_ID", 1).addStream("COMMANDS", new byte[] {1, 1}).write(),
+        new BGIWriter((short) 1).addString("NAME", "Sword").addInt("REVISION_ID", 1).addStream("COMMANDS", new byte[] {1, 0}).write()
+    );
+
+    BGIParseOptions options = BGIParseOptions.builder().shapeCache(new BGIShapeCache()).build();
+    for (int pass = 0; pass < 3; pass++) {
+      for (byte[] item : items) {
+        assertEquals(TestItems.describe(BGIParser.parse(item)), TestItems.describe(BGIParser.parse(item, options)));
+      }
+    }
+  }
+
+  @Test
+  public void clearRemovesEveryShape() {
+    BGIShapeCache cache = new BGIShapeCache();
+    BGIParseOptions options = BGIParseOptions.builder().shapeCache(cache).build();
+    byte[] item = new BGIWriter((short) 1).addString("NAME", "Sword").addInt("REVISION_ID", 1).write();
+
+    BGIParser.parse(item, options);
+    assertEquals(3, cache.size());
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(TestItems.describe(BGIParser.parse(item)), TestItems.describe(BGIParser.parse(item, options)));
+    assertEquals(3, cache.size());
+
+    assertThrows(IllegalArgumentException.class, () -> new BGIShapeCache(0));
+  }
+}
@@ -0,0 +1,55 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.exceptions.BGIParseException;
+import dev.bnjc.bglib.stream.BGIStreamParser;
+import dev.bnjc.bglib.stream.object.CommandStreamObject;
+import dev.bnjc.bglib.stream.object.StreamObject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIStreamParserTest {
+  // A commands stream with one console command, run without a delay
+  private static final byte[] COMMANDS = {1, 1, 3, 'a', 'b', 'c', 0, 0, 0, 0, 0, 0, 0, 0, 1, 0};
+
+  @Test
+  public void streamsReadBetweenPositionAndLimit() throws BGIParseException {
+    ByteBuffer buffer = padded(COMMANDS, 3);
+    StreamObject deferred = BGIStreamParser.parseDeferred(BGIField.COMMANDS.key(), buffer, BGIParseOptions.DEFAULT);
+    String expected = BGIStreamParser.parse(BGIField.COMMANDS.key(), COMMANDS).toString();
+
+    // Decoding happens on the first getter, and must not move the caller's buffer
+    assertEquals(expected, deferred.toString());
+    assertEquals(3, buffer.position());
+    assertEquals(3 + COMMANDS.length, buffer.limit());
+
+    StreamObject parsed = BGIStreamParser.parse(BGIField.COMMANDS.key(), buffer, BGIParseOptions.DEFAULT);
+    assertEquals("abc", ((CommandStreamObject) parsed).getCommands().get(0).text());
+    assertEquals(expected, parsed.toString());
+    assertEquals(3, buffer.position());
+  }
+
+  @Test
+  public void immutableCopyHoldsOnlyTheStream() throws BGIParseException {
+    ByteBuffer buffer = padded(COMMANDS, 3);
+    StreamObject stream = BGIStreamParser.parseDeferred(BGIField.COMMANDS.key(), buffer, BGIParseOptions.DEFAULT);
+    StreamObject copy = stream.toImmutable();
+
+    assertInstanceOf(CommandStreamObject.class, copy);
+    assertEquals(stream.toString(), copy.toString());
+    assertNull(copy.getParseError());
+    assertEquals(3, buffer.position());
+  }
+
+  /**
+   * Places the bytes in a larger buffer, between the returned buffer's position and limit
+   */
+  private static ByteBuffer padded(byte[] bytes, int offset) {
+    ByteBuffer buffer = ByteBuffer.allocate(offset + bytes.length + 5);
+    buffer.position(offset);
+    buffer.put(bytes);
+    return buffer.position(offset).limit(offset + bytes.length);
+  }
+}
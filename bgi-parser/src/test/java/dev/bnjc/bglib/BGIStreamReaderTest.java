@@ -0,0 +1,207 @@
+package dev.bnjc.bglib;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIStreamReaderTest {
+  private static final byte[] SEPARATOR = "<<<END>>>".getBytes(StandardCharsets.UTF_8);
+  private static final int[] CHUNK_SIZES = {1, 3, 7, 8, 9, 10, 64, 1 << 16};
+
+  @Test
+  public void delimitedRecordsMatchTheCorpus() throws IOException {
+    List<byte[]> items = TestItems.corpus();
+    byte[] input = delimited(items, true);
+    for (int chunkSize : CHUNK_SIZES) {
+      // The smallest buffer that fits every record, so the unread bytes are compacted over and over
+      assertRecords(items, BGIStreamReader.delimited(new ChunkedChannel(input, chunkSize), largest(items)), chunkSize);
+      assertRecords(items, BGIStreamReader.delimited(new ChunkedChannel(input, chunkSize)), chunkSize);
+    }
+  }
+
+  @Test
+  public void lengthPrefixedRecordsMatchTheCorpus() throws IOException {
+    List<byte[]> items = TestItems.corpus();
+    byte[] input = lengthPrefixed(items);
+    for (int chunkSize : CHUNK_SIZES) {
+      assertRecords(items, BGIStreamReader.lengthPrefixed(new ChunkedChannel(input, chunkSize), largest(items)), chunkSize);
+      assertRecords(items, BGIStreamReader.lengthPrefixed(new ChunkedChannel(input, chunkSize)), chunkSize);
+    }
+  }
+
+  @Test
+  public void lastRecordNeedsNoSeparator() throws IOException {
+    List<byte[]> items = TestItems.corpus();
+    byte[] input = delimited(items, false);
+    for (int chunkSize : CHUNK_SIZES) {
+      assertRecords(items, BGIStreamReader.delimited(new ChunkedChannel(input, chunkSize), largest(items)), chunkSize);
+    }
+  }
+
+  @Test
+  public void separatorsAreFoundAcrossReads() throws IOException {
+    // Records that end with, or hold, the start of a separator
+    List<byte[]> items = List.of(
+        bytes("a<<"),
+        bytes("<<<END>>"),
+        bytes(""),
+        bytes("<<<<<<<<"),
+        bytes("b<<<END>>"),
+        bytes("<")
+    );
+    byte[] input = delimited(items, false);
+    for (int chunkSize = 1; chunkSize <= input.length; chunkSize++) {
+      assertRecords(items, BGIStreamReader.delimited(new ChunkedChannel(input, chunkSize), 9), chunkSize);
+    }
+  }
+
+  @Test
+  public void nextParsesEachRecord() throws IOException {
+    List<byte[]> items = TestItems.corpus();
+    try (BGIStreamReader reader = BGIStreamReader.delimited(new ByteArrayInputStream(delimited(items, true)))) {
+      for (byte[] item : items) {
+        assertEquals(TestItems.describe(BGIParser.parse(item)), TestItems.describe(reader.next()));
+      }
+      assertNull(reader.next());
+    }
+  }
+
+  @Test
+  public void emptyInputHasNoRecords() throws IOException {
+    assertNull(BGIStreamReader.delimited(new ChunkedChannel(new byte[0], 1)).nextRecord());
+    assertNull(BGIStreamReader.lengthPrefixed(new ChunkedChannel(new byte[0], 1)).nextRecord());
+  }
+
+  @Test
+  public void oversizeRecordsAreRejected() throws IOException {
+    byte[] record = new byte[100];
+    List<byte[]> items = List.of(record);
+
+    assertEquals(100, BGIStreamReader.delimited(new ChunkedChannel(delimited(items, true), 7), 100).nextRecord().remaining());
+    assertEquals(100, BGIStreamReader.lengthPrefixed(new ChunkedChannel(lengthPrefixed(items), 7), 100).nextRecord().remaining());
+
+    BGIStreamReader delimited = BGIStreamReader.delimited(new ChunkedChannel(delimited(items, true), 7), 99);
+    assertThrows(IOException.class, delimited::nextRecord);
+    BGIStreamReader lengthPrefixed = BGIStreamReader.lengthPrefixed(new ChunkedChannel(lengthPrefixed(items), 7), 99);
+    assertThrows(IOException.class, lengthPrefixed::nextRecord);
+
+    BGIStreamReader negative = BGIStreamReader.lengthPrefixed(new ChunkedChannel(new byte[] {-1, -1, -1, -1}, 1));
+    assertThrows(IOException.class, negative::nextRecord);
+
+    assertThrows(IllegalArgumentException.class, () -> BGIStreamReader.delimited(new ChunkedChannel(new byte[0], 1), 0));
+  }
+
+  @Test
+  public void inputEndingInsideARecordIsAnError() throws IOException {
+    BGIStreamReader length = BGIStreamReader.lengthPrefixed(new ChunkedChannel(new byte[] {0, 0}, 1));
+    assertThrows(EOFException.class, length::nextRecord);
+
+    byte[] cutOff = ByteBuffer.allocate(8).putInt(10).putInt(0).array();
+    BGIStreamReader record = BGIStreamReader.lengthPrefixed(new ChunkedChannel(cutOff, 3));
+    assertThrows(EOFException.class, record::nextRecord);
+  }
+
+  @Test
+  public void visitorReadsEachRecord() throws Exception {
+    byte[] item = new BGIWriter((short) 1).addString("NAME", "Sword").write();
+    BGIStreamReader reader = BGIStreamReader.lengthPrefixed(new ChunkedChannel(lengthPrefixed(List.of(item, item)), 5));
+    List<String> names = new ArrayList<>();
+    BGIVisitor visitor = new BGIVisitor() {
+      @Override
+      public void visitString(int key, CharSequence value) {
+        names.add(value.toString());
+      }
+    };
+
+    assertTrue(reader.next(visitor));
+    assertTrue(reader.next(visitor));
+    assertFalse(reader.next(visitor));
+    assertEquals(List.of("Sword", "Sword"), names);
+  }
+
+  private static void assertRecords(List<byte[]> expected, BGIStreamReader reader, int chunkSize) throws IOException {
+    try (reader) {
+      for (int i = 0; i < expected.size(); i++) {
+        ByteBuffer record = reader.nextRecord();
+        assertNotNull(record, "record " + i + " read in chunks of " + chunkSize);
+        assertEquals(ByteBuffer.wrap(expected.get(i)), record, "record " + i + " read in chunks of " + chunkSize);
+      }
+      assertNull(reader.nextRecord(), "read in chunks of " + chunkSize);
+      assertNull(reader.nextRecord(), "read in chunks of " + chunkSize);
+    }
+  }
+
+  private static byte[] delimited(List<byte[]> items, boolean trailingSeparator) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < items.size(); i++) {
+      out.writeBytes(items.get(i));
+      if (trailingSeparator || i < items.size() - 1) {
+        out.writeBytes(SEPARATOR);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] lengthPrefixed(List<byte[]> items) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] item : items) {
+      out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(item.length).array());
+      out.writeBytes(item);
+    }
+    return out.toByteArray();
+  }
+
+  private static int largest(List<byte[]> items) {
+    return items.stream().mapToInt(item -> item.length).max().orElse(1);
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * A channel that hands out at most the given number of bytes per read
+   */
+  private static final class ChunkedChannel implements ReadableByteChannel {
+    private final ByteBuffer input;
+    private final int chunkSize;
+    private boolean open = true;
+
+    ChunkedChannel(byte[] input, int chunkSize) {
+      this.input = ByteBuffer.wrap(input);
+      this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) {
+      if (!input.hasRemaining()) {
+        return -1;
+      }
+
+      int count = Math.min(chunkSize, Math.min(dst.remaining(), input.remaining()));
+      dst.put(input.slice(input.position(), count));
+      input.position(input.position() + count);
+      return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return open;
+    }
+
+    @Override
+    public void close() {
+      open = false;
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package dev.bnjc.bglib;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIStringPoolTest {
+  @Test
+  public void pooledParsesMatchUnpooledParses() {
+    List<byte[]> items = TestItems.corpus();
+    BGIStringPool pool = new BGIStringPool();
+    BGIParseOptions[] options = {
+        BGIParseOptions.builder().stringPool(pool).build(),
+        BGIParseOptions.builder().stringPool(pool).lazy(true).build(),
+        BGIParseOptions.builder().stringPool(pool).lazy(true).deferStreams(true).build(),
+    };
+
+    // The second pass finds the strings pooled by the first
+    for (int pass = 0; pass < 2; pass++) {
+      for (byte[] item : items) {
+        String expected = TestItems.describe(BGIParser.parse(item));
+        for (BGIParseOptions pooled : options) {
+          assertEquals(expected, TestItems.describe(BGIParser.parse(item, pooled)));
+          assertEquals(expected, TestItems.describe(BGIParser.parse(direct(item), pooled)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void equalStringsAreTheSameInstance() {
+    BGIParseOptions options = BGIParseOptions.builder().stringPool(new BGIStringPool()).build();
+    byte[] first = new BGIWriter((short) 1).addString("TIER", "LEGENDARY").addInt("REVISION_ID", 1).write();
+    byte[] second = new BGIWriter((short) 1).addInt("REVISION_ID", 2).addString("TIER", "LEGENDARY").write();
+
+    String tier = BGIParser.parse(first, options).result().orElseThrow().getString(BGIField.TIER).orElseThrow();
+    assertEquals("LEGENDARY", tier);
+    assertSame(tier, BGIParser.parse(second, options).result().orElseThrow().getString(BGIField.TIER).orElseThrow());
+    assertSame(tier, BGIParser.parse(direct(second), options).result().orElseThrow().getString(BGIField.TIER).orElseThrow());
+
+    // Unpooled parses create a new string every time
+    assertNotSame(tier, BGIParser.parse(first).result().orElseThrow().getString(BGIField.TIER).orElseThrow());
+  }
+
+  @Test
+  public void heapAndDirectLookupsShareEntries() {
+    BGIStringPool pool = new BGIStringPool();
+    for (String value : new String[] {"", "RARE", "«Legendary»", "日本語", "😀"}) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      byte[] padded = new byte[bytes.length + 6];
+      System.arraycopy(bytes, 0, padded, 3, bytes.length);
+
+      String pooled = pool.get(padded, 3, bytes.length);
+      assertEquals(value, pooled);
+      assertSame(pooled, pool.get(bytes, 0, bytes.length));
+      assertSame(pooled, pool.get(ByteBuffer.wrap(padded), 3, bytes.length));
+      assertSame(pooled, pool.get(ByteBuffer.allocate(padded.length + 2).put(2, padded).slice(2, padded.length), 3, bytes.length));
+      assertSame(pooled, pool.get(direct(padded), 3, bytes.length));
+      assertSame(pooled, pool.get(direct(padded).asReadOnlyBuffer(), 3, bytes.length));
+    }
+  }
+
+  @Test
+  public void longStringsBypassThePool() {
+    BGIStringPool pool = new BGIStringPool();
+
+    // The maximum length counts bytes, so a shorter string of multi-byte characters can be too long
+    String longest = "a".repeat(BGIStringPool.DEFAULT_MAX_LENGTH);
+    String tooLong = "a".repeat(BGIStringPool.DEFAULT_MAX_LENGTH + 1);
+    String wide = "«".repeat(BGIStringPool.DEFAULT_MAX_LENGTH / 2 + 1);
+    assertTrue(wide.length() < BGIStringPool.DEFAULT_MAX_LENGTH);
+
+    assertPooled(pool, longest, true);
+    assertPooled(pool, tooLong, false);
+    assertPooled(pool, wide, false);
+    assertEquals(BGIStringPool.DEFAULT_MAX_LENGTH, pool.getMaxLength());
+  }
+
+  @Test
+  public void replacedSlotsStillDecodeCorrectly() {
+    // Every string shares the single slot, so each lookup replaces the last one
+    BGIStringPool pool = new BGIStringPool(1, 16);
+    String[] values = {"a", "b", "RARE", "a", "a", "EPIC", "b"};
+    for (int pass = 0; pass < 3; pass++) {
+      for (String value : values) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        assertEquals(value, pool.get(bytes, 0, bytes.length));
+        assertEquals(value, pool.get(direct(bytes), 0, bytes.length));
+      }
+    }
+  }
+
+  @Test
+  public void clearRemovesEveryString() {
+    BGIStringPool pool = new BGIStringPool();
+    byte[] bytes = "RARE".getBytes(StandardCharsets.UTF_8);
+    String pooled = pool.get(bytes, 0, bytes.length);
+
+    pool.clear();
+    String after = pool.get(bytes, 0, bytes.length);
+    assertNotSame(pooled, after);
+    assertSame(after, pool.get(bytes, 0, bytes.length));
+  }
+
+  @Test
+  public void sizesAreChecked() {
+    assertThrows(IllegalArgumentException.class, () -> new BGIStringPool(0, 16));
+    assertThrows(IllegalArgumentException.class, () -> new BGIStringPool((1 << 30) + 1, 16));
+    assertThrows(IllegalArgumentException.class, () -> new BGIStringPool(16, -1));
+
+    // A maximum length of zero still pools the empty string
+    BGIStringPool pool = new BGIStringPool(3, 0);
+    assertSame(pool.get(new byte[0], 0, 0), pool.get(new byte[1], 1, 0));
+  }
+
+  private static void assertPooled(BGIStringPool pool, String value, boolean pooled) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    for (boolean direct : new boolean[] {false, true}) {
+      String first = direct ? pool.get(direct(bytes), 0, bytes.length) : pool.get(bytes, 0, bytes.length);
+      String second = direct ? pool.get(direct(bytes), 0, bytes.length) : pool.get(bytes, 0, bytes.length);
+      assertEquals(value, first);
+      assertEquals(value, second);
+      assertEquals(pooled, first == second, value + (direct ? " direct" : " heap"));
+    }
+  }
+
+  private static ByteBuffer direct(byte[] bytes) {
+    return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+  }
+}
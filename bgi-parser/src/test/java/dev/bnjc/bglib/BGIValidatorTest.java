@@ -0,0 +1,140 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIValidatorTest {
+  @Test
+  public void validItemsParse() {
+    for (byte[] item : TestItems.corpus()) {
+      BGIValidationResult result = BGIValidator.validate(item);
+      if (!result.isValid()) {
+        assertTrue(BGIParser.parse(item).isError(), result.toString());
+        continue;
+      }
+
+      // Valid data parses without any stream being replaced by null
+      BGIData data = BGIParser.parse(item).result().orElseThrow();
+      data.forEachAttribute((key, value) -> assertNotNull(value));
+    }
+  }
+
+  @Test
+  public void truncatedItemsAreTooShort() {
+    for (byte[] item : TestItems.corpus()) {
+      for (int length = 0; length < item.length; length++) {
+        BGIValidationResult result = BGIValidator.validate(Arrays.copyOf(item, length));
+        assertEquals(ErrorCode.DATA_TOO_SHORT, result.getErrorCode());
+        assertTrue(result.getOffset() <= length, result.toString());
+      }
+    }
+  }
+
+  @Test
+  public void truncatedStreamIsInvalid() {
+    // A commands stream with one command whose text is followed by nothing
+    byte[] stream = {1, 1, 3, 'a', 'b', 'c'};
+    byte[] data = new BGIWriter((short) 1).addStream("COMMANDS", stream).write();
+
+    BGIValidationResult result = BGIValidator.validate(data);
+    assertEquals(ErrorCode.DATA_TOO_SHORT, result.getErrorCode());
+    assertEquals(BGIField.COMMANDS.key(), result.getKey());
+    assertTrue(result.getOffset() >= data.length - stream.length, result.toString());
+
+    // The parser can only leave the stream out
+    assertFalse(BGIParser.parse(data).result().orElseThrow().getStream(BGIField.COMMANDS).isPresent());
+  }
+
+  @Test
+  public void truncatedHistoryStreamIsInvalid() {
+    // A history stream whose original stories are flagged as present but missing
+    byte[] stream = ByteBuffer.allocate(8).put((byte) 3).put("DEF".getBytes(StandardCharsets.UTF_8)).put((byte) 1).array();
+    byte[] data = new BGIWriter((short) 1).addStream("HSTRY_DEFENSE", Arrays.copyOf(stream, 5)).write();
+
+    assertEquals(ErrorCode.DATA_TOO_SHORT, BGIValidator.validate(data).getErrorCode());
+  }
+
+  @Test
+  public void streamsAreChecked() {
+    // Streams the parser would replace with null are violations
+    byte[] empty = new BGIWriter((short) 1).addStream("COMMANDS", new byte[0]).write();
+    assertEquals(ErrorCode.DATA_TOO_SHORT, BGIValidator.validate(empty).getErrorCode());
+
+    byte[] newerVersion = new BGIWriter((short) 1).addStream("COMMANDS", new byte[] {2, 0}).write();
+    assertEquals(ErrorCode.UNSUPPORTED_STREAM_VERSION, BGIValidator.validate(newerVersion).getErrorCode());
+
+    byte[] valid = new BGIWriter((short) 1).addStream("COMMANDS", new byte[] {1, 0}).write();
+    assertTrue(BGIValidator.validate(valid).isValid());
+
+    // Like the parser, bytes after the end of a stream's layout are ignored
+    byte[] trailing = new BGIWriter((short) 1).addStream("COMMANDS", new byte[] {1, 0, 0}).write();
+    assertTrue(BGIValidator.validate(trailing).isValid());
+    assertTrue(BGIParser.parse(trailing).result().orElseThrow().getStream(BGIField.COMMANDS).isPresent());
+  }
+
+  @Test
+  public void headerIsChecked() {
+    assertEquals(ErrorCode.DATA_TOO_SHORT, BGIValidator.validate(new byte[] {7, 0, 1}).getErrorCode());
+    assertEquals(ErrorCode.GOBLINLESS, BGIValidator.validate(new byte[] {1, 0, 1, 0, 0}).getErrorCode());
+    assertTrue(BGIValidator.validate(new byte[] {7, 0, 1, 0, 0}).isValid());
+  }
+
+  @Test
+  public void valuesAreChecked() {
+    byte[] unknownType = property(BGIField.NAME, (byte) 99);
+    BGIValidationResult result = BGIValidator.validate(unknownType);
+    assertEquals(ErrorCode.UNKNOWN_DATA_TYPE, result.getErrorCode());
+    assertEquals(9, result.getOffset());
+    assertEquals(BGIField.NAME.key(), result.getKey());
+
+    byte[] malformedVarInt = property(BGIField.REVISION_ID, BGIType.INTEGER.typeId, -1, -1, -1, -1, -1, 1);
+    assertEquals(ErrorCode.MALFORMED_VAR_INT, BGIValidator.validate(malformedVarInt).getErrorCode());
+
+    byte[] negativeLength = property(BGIField.NAME, BGIType.STRING.typeId, -1, -1, -1, -1, 15);
+    assertFalse(BGIValidator.validate(negativeLength).isValid());
+
+    byte[] cutOffVarInt = property(BGIField.REVISION_ID, BGIType.INTEGER.typeId, -1);
+    assertEquals(ErrorCode.DATA_TOO_SHORT, BGIValidator.validate(cutOffVarInt).getErrorCode());
+  }
+
+  @Test
+  public void resultConvertsToException() {
+    assertNull(BGIValidationResult.OK.toException());
+    assertEquals(
+        ErrorCode.GOBLINLESS,
+        BGIValidator.validate(new byte[] {1, 0, 1, 0, 0}).toException().getErrorCode()
+    );
+  }
+
+  @Test
+  public void validationDoesNotMoveTheBuffer() {
+    byte[] data = new BGIWriter((short) 1).addString("NAME", "value").write();
+    ByteBuffer buffer = ByteBuffer.allocate(data.length + 2).put((byte) 0).put(data).put((byte) 0);
+    buffer.position(1).limit(1 + data.length);
+
+    assertTrue(BGIValidator.validate(buffer).isValid());
+    assertEquals(1, buffer.position());
+  }
+
+  /**
+   * Creates data holding a single property of the given type id, followed by the given bytes
+   */
+  private static byte[] property(BGIField field, byte typeId, int... value) {
+    ByteBuffer data = ByteBuffer.allocate(10 + value.length)
+        .put((byte) 7)
+        .putShort((short) 1)
+        .putShort((short) 1)
+        .putInt(field.key())
+        .put(typeId);
+    for (int b : value) {
+      data.put((byte) b);
+    }
+    return data.array();
+  }
+}
@@ -0,0 +1,154 @@
+package dev.bnjc.bglib;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BGIWriterTest {
+  private static final String[] STRINGS = {
+      "",
+      "Sword",
+      "«Legendary» §6lore",
+      "日本語のテキスト",
+      "😀 emoji 🗡 and 𝄞",
+      "a".repeat(200),
+      "«".repeat(100),
+  };
+
+  private static final int[] INTS = {0, 1, 127, 128, 16_383, 16_384, -1, -128, Integer.MAX_VALUE, Integer.MIN_VALUE};
+
+  @Test
+  public void propertiesRoundTrip() {
+    for (int initialCapacity : new int[] {0, 1, 256}) {
+      byte[] bytes = addProperties(new BGIWriter((short) 3, initialCapacity)).write();
+      BGIData data = BGIParser.parse(bytes).result().orElseThrow();
+      assertEquals(3, data.getDataVersion());
+      assertProperties(data);
+    }
+  }
+
+  @Test
+  public void varIntsUseSevenBitGroups() {
+    byte[] data = new BGIWriter((short) 1, 0).addInt("REVISION_ID", -1).addInt("REQUIRED_LEVEL", 300).write();
+
+    // Negative values always take five bytes, with the sign in the last one
+    assertArrayEquals(new byte[] {-1, -1, -1, -1, 0x0F}, Arrays.copyOfRange(data, 10, 15));
+    assertArrayEquals(new byte[] {(byte) 0xAC, 0x02}, Arrays.copyOfRange(data, 20, 22));
+  }
+
+  @Test
+  public void stringsWithoutValidUtf16AreReplaced() {
+    // A lone surrogate cannot be encoded, so the charset writes a replacement, like String.getBytes
+    String lone = "a\uD800b";
+    byte[] data = new BGIWriter((short) 1, 0).addString("NAME", lone).addStringArray("LORE", new String[] {lone}).write();
+
+    String expected = new String(lone.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    BGIData parsed = BGIParser.parse(data).result().orElseThrow();
+    assertEquals(expected, parsed.getString(BGIField.NAME).orElseThrow());
+    assertArrayEquals(new String[] {expected}, parsed.getStringArray(BGIField.LORE).orElseThrow());
+  }
+
+  @Test
+  public void writeToMatchesWrite() {
+    BGIWriter writer = addProperties(new BGIWriter((short) 2, 0));
+    byte[] expected = writer.write();
+    assertEquals(expected.length, writer.size());
+
+    for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+      for (boolean direct : new boolean[] {false, true}) {
+        int capacity = expected.length + 10;
+        ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        buffer.order(order).position(3);
+
+        assertEquals(expected.length, writer.writeTo(buffer));
+        assertEquals(3 + expected.length, buffer.position());
+        assertEquals(ByteBuffer.wrap(expected), buffer.flip().position(3));
+      }
+    }
+  }
+
+  @Test
+  public void writeToRejectsSmallBuffers() {
+    BGIWriter writer = addProperties(new BGIWriter((short) 1));
+    ByteBuffer buffer = ByteBuffer.allocate(writer.size() - 1);
+
+    assertThrows(BufferOverflowException.class, () -> writer.writeTo(buffer));
+    assertEquals(0, buffer.position());
+  }
+
+  @Test
+  public void resetWriterCanBeReused() {
+    BGIWriter writer = new BGIWriter((short) 1, 0);
+    addProperties(writer).write();
+    writer.reset();
+    assertEquals(5, writer.size());
+    assertArrayEquals(new byte[] {7, 0, 1, 0, 0}, writer.write());
+
+    // A smaller item written after a larger one holds nothing from it
+    byte[] small = writer.addString("NAME", "Bow").write();
+    assertArrayEquals(new BGIWriter((short) 1).addString("NAME", "Bow").write(), small);
+
+    writer.reset();
+    assertProperties(BGIParser.parse(addProperties(writer).write()).result().orElseThrow());
+  }
+
+  @Test
+  public void manyPropertiesAreCounted() {
+    BGIWriter writer = new BGIWriter((short) 1, 0);
+    for (int i = 0; i < 1_000; i++) {
+      writer.addInt("KEY_" + i, i);
+    }
+
+    BGIData data = BGIParser.parse(writer.write()).result().orElseThrow();
+    assertEquals(1_000, data.getNumAttributes());
+    assertEquals(999, data.getIntOrDefault("KEY_999", -1));
+  }
+
+  @Test
+  public void negativeCapacityIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new BGIWriter((short) 1, -1));
+  }
+
+  /**
+   * Adds a property of every type the writer supports, read back by {@link #assertProperties(BGIData)}
+   */
+  private static BGIWriter addProperties(BGIWriter writer) {
+    for (int i = 0; i < STRINGS.length; i++) {
+      writer.addString("STRING_" + i, STRINGS[i]);
+    }
+    for (int i = 0; i < INTS.length; i++) {
+      writer.addInt("INT_" + i, INTS[i]);
+    }
+    return writer
+        .addStringArray("LORE", STRINGS)
+        .addStringArray("EMPTY", new String[0])
+        .addDouble("DEFENSE", -2.5)
+        .addDouble("NAN", Double.NaN)
+        .addBoolean("CAN_DECONSTRUCT", true)
+        .addBoolean("FALSE", false)
+        .addStream("COMMANDS", new byte[] {1, 0});
+  }
+
+  private static void assertProperties(BGIData data) {
+    for (int i = 0; i < STRINGS.length; i++) {
+      assertEquals(STRINGS[i], data.getString("STRING_" + i).orElseThrow());
+    }
+    for (int i = 0; i < INTS.length; i++) {
+      assertEquals(INTS[i], data.getIntOrDefault("INT_" + i, 42), "INT_" + i);
+    }
+    assertArrayEquals(STRINGS, data.getStringArray(BGIField.LORE).orElseThrow());
+    assertArrayEquals(new String[0], data.getStringArray("EMPTY").orElseThrow());
+    assertEquals(-2.5, data.getDoubleOrDefault(BGIField.DEFENSE, 0));
+    assertTrue(Double.isNaN(data.getDoubleOrDefault("NAN", 0)));
+    assertTrue(data.getBooleanOrDefault(BGIField.CAN_DECONSTRUCT, false));
+    assertFalse(data.getBooleanOrDefault("FALSE", true));
+    assertTrue(data.getStream(BGIField.COMMANDS).isPresent());
+    assertEquals(STRINGS.length + INTS.length + 7, data.getNumAttributes());
+  }
+}
@@ -0,0 +1,167 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.stream.object.HistoryStreamObject;
+import dev.bnjc.bglib.stream.object.StreamObject;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImmutableBGIDataTest {
+  private static final BGIParseOptions[] OPTIONS = {
+      BGIParseOptions.DEFAULT,
+      BGIParseOptions.builder().lazy(true).build(),
+      BGIParseOptions.builder().lazy(true).deferStreams(true).build(),
+  };
+
+  @Test
+  public void copyMatchesTheSourceForEveryItem() {
+    for (BGIParseOptions options : OPTIONS) {
+      for (byte[] item : TestItems.corpus()) {
+        BGIParseResult<BGIData> result = BGIParser.parse(item, options);
+        if (result.isError()) {
+          continue;
+        }
+
+        BGIData data = result.result().orElseThrow();
+        ImmutableBGIData copy = data.toImmutable();
+        assertSame(copy, copy.toImmutable());
+        assertEquals(TestItems.describe(result), TestItems.describe(BGIParseResult.success(copy)));
+        assertEquals(data.getNumAttributes(), copy.getNumAttributes());
+        assertEquals(fields(data), fields(copy));
+
+        for (BGIField field : BGIField.values()) {
+          assertEquals(data.hasField(field), copy.hasField(field), field.name());
+          assertEquals(
+              TestItems.describe(data.getAttribute(field).orElse(null)),
+              TestItems.describe(copy.getAttribute(field).orElse(null)),
+              field.name()
+          );
+          assertEquals(data.getIntOrDefault(field, -1), copy.getIntOrDefault(field, -1), field.name());
+          assertEquals(data.getDoubleOrDefault(field, -1), copy.getDoubleOrDefault(field, -1), field.name());
+          assertEquals(data.getBooleanOrDefault(field, false), copy.getBooleanOrDefault(field, false), field.name());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void streamsCannotBeModified() throws ReflectiveOperationException {
+    int streams = 0;
+    for (byte[] item : TestItems.corpus()) {
+      BGIParseResult<BGIData> result = BGIParser.parse(item);
+      if (result.isError()) {
+        continue;
+      }
+
+      for (Object value : result.result().orElseThrow().toImmutable().getAttributes().values()) {
+        if (value instanceof StreamObject stream) {
+          assertImmutable(stream);
+          streams++;
+        }
+      }
+    }
+    assertTrue(streams > 0);
+  }
+
+  @Test
+  public void copyDoesNotSeeChangesToTheSource() {
+    for (byte[] item : TestItems.corpus()) {
+      BGIParseResult<BGIData> result = BGIParser.parse(item);
+      if (result.isError()) {
+        continue;
+      }
+
+      BGIData data = result.result().orElseThrow();
+      ImmutableBGIData copy = data.toImmutable();
+      String expected = TestItems.describe(BGIParseResult.success(copy));
+
+      // The source streams are mutable, so empty every list they hand out
+      data.forEachAttribute((key, value) -> {
+        if (value instanceof HistoryStreamObject history) {
+          history.getOgStories().clear();
+          history.getGemStories().clear();
+          history.getModStories().clear();
+        } else if (value instanceof String[] array && array.length > 0) {
+          array[0] = "changed";
+        }
+      });
+      assertEquals(expected, TestItems.describe(BGIParseResult.success(copy)));
+    }
+  }
+
+  @Test
+  public void arraysAreDefensiveCopies() {
+    byte[] item = new BGIWriter((short) 1).addStringArray("LORE", new String[] {"first", "second"}).write();
+    ImmutableBGIData copy = BGIParser.parse(item).result().orElseThrow().toImmutable();
+
+    String[] lore = copy.getStringArray(BGIField.LORE).orElseThrow();
+    lore[0] = "changed";
+    assertNotSame(lore, copy.getStringArray(BGIField.LORE).orElseThrow());
+    assertArrayEquals(new String[] {"first", "second"}, copy.getStringArray(BGIField.LORE).orElseThrow());
+
+    copy.forEachAttribute((key, value) -> ((String[]) value)[1] = "changed");
+    copy.forEachField((field, value) -> ((String[]) value)[1] = "changed");
+    copy.getAttributes().put(BGIField.LORE.key(), new String[0]);
+    ((String[]) copy.getAttributes().get(BGIField.LORE.key()))[0] = "changed";
+    assertArrayEquals(new String[] {"first", "second"}, copy.getStringArray(BGIField.LORE).orElseThrow());
+  }
+
+  private static Map<BGIField, String> fields(BGIData data) {
+    Map<BGIField, String> fields = new TreeMap<>();
+    data.forEachField((field, value) -> fields.put(field, TestItems.describe(value)));
+    return fields;
+  }
+
+  /**
+   * Checks that nothing reachable through the stream's getters can be modified
+   */
+  private static void assertImmutable(StreamObject stream) throws ReflectiveOperationException {
+    assertTrue(stream.isImmutable(), stream.getClass().getSimpleName());
+    for (Method getter : stream.getClass().getDeclaredMethods()) {
+      if (Modifier.isPublic(getter.getModifiers()) && !Modifier.isStatic(getter.getModifiers())
+          && getter.getParameterCount() == 0 && getter.getName().startsWith("get")) {
+        assertDeeplyImmutable(getter.invoke(stream), getter.getName());
+      }
+    }
+  }
+
+  private static void assertDeeplyImmutable(Object value, String path) throws ReflectiveOperationException {
+    switch (value) {
+      case StreamObject stream -> assertImmutable(stream);
+      case List<?> list -> {
+        assertThrows(UnsupportedOperationException.class, list::clear, path);
+        for (Object element : list) {
+          assertDeeplyImmutable(element, path + "[]");
+        }
+      }
+      case Map<?, ?> map -> {
+        assertThrows(UnsupportedOperationException.class, map::clear, path);
+        for (Object element : map.values()) {
+          assertDeeplyImmutable(element, path + "{}");
+        }
+      }
+      case Record record -> {
+        for (RecordComponent component : record.getClass().getRecordComponents()) {
+          Object first = component.getAccessor().invoke(record);
+          if (first instanceof String[] array) {
+            // Arrays cannot be read-only, so each one handed out must be a copy
+            Object second = component.getAccessor().invoke(record);
+            assertNotSame(array, second, path + "." + component.getName());
+            assertArrayEquals(array, (String[]) second, path + "." + component.getName());
+          } else {
+            assertDeeplyImmutable(first, path + "." + component.getName());
+          }
+        }
+      }
+      case null, default -> {
+      }
+    }
+  }
+}
@@ -0,0 +1,213 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.table.ItemStatsTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemStatsTableTest {
+  private static final String[] TIERS = {"COMMON", "RARE", "EPIC", "LEGENDARY"};
+
+  @Test
+  public void valuesAreStoredByRow() {
+    ItemStatsTable table = ItemStatsTable.of(List.of(
+        item(2.5, 10, "RARE"),
+        item(null, null, null),
+        item(-1.0, 3, "COMMON")
+    ));
+
+    assertEquals(3, table.size());
+    assertEquals(2.5, table.getDouble(BGIField.DEFENSE, 0, Double.NaN));
+    assertEquals(10.0, table.getDouble(BGIField.REQUIRED_LEVEL, 0, Double.NaN));
+    assertEquals(-7.0, table.getDouble(BGIField.DEFENSE, 1, -7.0));
+    assertFalse(table.has(BGIField.DEFENSE, 1));
+    assertFalse(table.has(BGIField.TIER, 1));
+    assertEquals("RARE", table.getString(BGIField.TIER, 0));
+    assertNull(table.getString(BGIField.TIER, 1));
+    assertEquals(table.codeOf(BGIField.TIER, "COMMON"), table.getCode(BGIField.TIER, 2));
+    assertEquals(-1, table.codeOf(BGIField.TIER, "EPIC"));
+    assertEquals(List.of("RARE", "COMMON"), table.dictionary(BGIField.TIER));
+    assertThrows(IndexOutOfBoundsException.class, () -> table.has(BGIField.DEFENSE, 3));
+  }
+
+  @Test
+  public void valuesOfTheWrongTypeAreLeftOut() {
+    Map<Integer, Object> properties = new HashMap<>();
+    properties.put(BGIField.DEFENSE.key(), "high");
+    properties.put(BGIField.SET.key(), new String[] {"SET_MINER"});
+    ItemStatsTable table = ItemStatsTable.of(List.of(new BGIData(1, properties)));
+
+    assertFalse(table.has(BGIField.DEFENSE, 0));
+    assertEquals("SET_MINER", table.getString(BGIField.SET, 0));
+  }
+
+  @Test
+  public void filtersMatchEveryRow() {
+    List<BGIData> items = randomItems(1_000, 1);
+    ItemStatsTable table = ItemStatsTable.of(items);
+    checkFilters(items, table);
+  }
+
+  @Test
+  public void sortAndTopMatchAStableSort() {
+    List<BGIData> items = randomItems(1_000, 2);
+    ItemStatsTable table = ItemStatsTable.of(items);
+    BitSet rows = table.range(BGIField.REQUIRED_LEVEL, 10, 30);
+    checkOrdering(items, table, null);
+    checkOrdering(items, table, rows);
+  }
+
+  @Test
+  public void largeTablesMatchInParallel() {
+    List<BGIData> items = randomItems(ItemStatsTable.PARALLEL_THRESHOLD + 1_000, 3);
+    ItemStatsTable table = ItemStatsTable.of(items);
+    checkFilters(items, table);
+    checkOrdering(items, table, null);
+  }
+
+  @Test
+  public void missingColumnsMatchNothing() {
+    ItemStatsTable table = ItemStatsTable.of(List.of(item(1.0, null, null)));
+
+    assertTrue(table.range(BGIField.ATTACK_DAMAGE, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY).isEmpty());
+    assertTrue(table.equalTo(BGIField.TIER, "RARE").isEmpty());
+    assertTrue(table.in(BGIField.TIER, Set.of("RARE")).isEmpty());
+    assertTrue(table.present(BGIField.REQUIRED_LEVEL).isEmpty());
+    assertArrayEquals(new int[0], table.top(BGIField.REQUIRED_LEVEL, 5, true));
+    assertArrayEquals(new int[] {0}, table.sort(BGIField.REQUIRED_LEVEL, true));
+  }
+
+  @Test
+  public void topRejectsNegativeCounts() {
+    ItemStatsTable table = ItemStatsTable.of(List.of(item(1.0, 1, "RARE")));
+    assertThrows(IllegalArgumentException.class, () -> table.top(BGIField.DEFENSE, -1, true));
+    assertArrayEquals(new int[0], table.top(BGIField.DEFENSE, 0, true));
+  }
+
+  @Test
+  public void builderCanKeepAddingAfterBuilding() {
+    ItemStatsTable.Builder builder = ItemStatsTable.builder().add(item(1.0, 1, "RARE"));
+    ItemStatsTable first = builder.build();
+    ItemStatsTable second = builder.add(item(2.0, 2, "EPIC")).build();
+
+    assertEquals(1, first.size());
+    assertEquals(-1, first.codeOf(BGIField.TIER, "EPIC"));
+    assertEquals(2, second.size());
+    assertEquals("EPIC", second.getString(BGIField.TIER, 1));
+  }
+
+  private static void checkFilters(List<BGIData> items, ItemStatsTable table) {
+    assertEquals(
+        expected(items, data -> data.getDouble(BGIField.DEFENSE).filter(v -> v >= -1 && v <= 2).isPresent()),
+        table.range(BGIField.DEFENSE, -1, 2)
+    );
+    assertEquals(
+        expected(items, data -> data.getInt(BGIField.REQUIRED_LEVEL).filter(v -> v >= 20).isPresent()),
+        table.range(BGIField.REQUIRED_LEVEL, 20, Double.POSITIVE_INFINITY)
+    );
+    assertEquals(
+        expected(items, data -> data.getString(BGIField.TIER).filter("RARE"::equals).isPresent()),
+        table.equalTo(BGIField.TIER, "RARE")
+    );
+    assertEquals(
+        expected(items, data -> data.getString(BGIField.TIER).filter(v -> v.equals("EPIC") || v.equals("COMMON")).isPresent()),
+        table.in(BGIField.TIER, List.of("EPIC", "COMMON", "MISSING"))
+    );
+    assertEquals(expected(items, data -> data.hasField(BGIField.DEFENSE)), table.present(BGIField.DEFENSE));
+    assertEquals(expected(items, data -> data.hasField(BGIField.TIER)), table.present(BGIField.TIER));
+  }
+
+  private static void checkOrdering(List<BGIData> items, ItemStatsTable table, BitSet rows) {
+    for (BGIField field : new BGIField[] {BGIField.DEFENSE, BGIField.REQUIRED_LEVEL, BGIField.TIER}) {
+      for (boolean descending : new boolean[] {false, true}) {
+        int[] expected = expectedOrder(items, field, descending, rows);
+        String message = field + (descending ? " descending" : " ascending");
+        assertArrayEquals(expected, table.sort(field, descending, rows), message);
+
+        int withField = (int) IntStream.of(expected).filter(row -> table.has(field, row)).count();
+        for (int k : new int[] {1, 10, withField, withField + 5}) {
+          int[] top = IntStream.of(expected).limit(Math.min(k, withField)).toArray();
+          assertArrayEquals(top, table.top(field, k, descending, rows), message + " top " + k);
+        }
+      }
+    }
+  }
+
+  private static BitSet expected(List<BGIData> items, Predicate<BGIData> filter) {
+    BitSet rows = new BitSet();
+    for (int row = 0; row < items.size(); row++) {
+      if (filter.test(items.get(row))) {
+        rows.set(row);
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Orders the rows with a stable sort, with rows that do not have the field last
+   */
+  private static int[] expectedOrder(List<BGIData> items, BGIField field, boolean descending, BitSet rows) {
+    Comparator<Integer> byValue = field == BGIField.TIER
+        ? Comparator.comparing(row -> items.get(row).getString(field).orElseThrow())
+        : Comparator.comparingDouble(row -> ((Number) items.get(row).getAttribute(field).orElseThrow()).doubleValue());
+    if (descending) {
+      byValue = byValue.reversed();
+    }
+
+    List<Integer> present = new ArrayList<>();
+    List<Integer> missing = new ArrayList<>();
+    for (int row = 0; row < items.size(); row++) {
+      if (rows == null || rows.get(row)) {
+        (items.get(row).hasField(field) ? present : missing).add(row);
+      }
+    }
+    present.sort(byValue);
+    present.addAll(missing);
+    return present.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * Creates items with few distinct values, so that there are many ties, and some fields left out
+   */
+  private static List<BGIData> randomItems(int count, long seed) {
+    Random random = new Random(seed);
+    List<BGIData> items = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      // Negative zero orders before zero, like Double.compare
+      Double defense = switch (random.nextInt(10)) {
+        case 0, 1 -> null;
+        case 2 -> -0.0;
+        default -> (random.nextInt(9) - 4) / 2.0;
+      };
+      Integer level = random.nextInt(6) == 0 ? null : random.nextInt(40);
+      String tier = random.nextInt(7) == 0 ? null : TIERS[random.nextInt(TIERS.length)];
+      items.add(item(defense, level, tier));
+    }
+    return items;
+  }
+
+  private static BGIData item(Double defense, Integer level, String tier) {
+    Map<Integer, Object> properties = new HashMap<>();
+    if (defense != null) {
+      properties.put(BGIField.DEFENSE.key(), defense);
+    }
+    if (level != null) {
+      properties.put(BGIField.REQUIRED_LEVEL.key(), level);
+    }
+    if (tier != null) {
+      properties.put(BGIField.TIER.key(), tier);
+    }
+    return new BGIData(1, properties);
+  }
+}
@@ -0,0 +1,103 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyBGIDataTest {
+  private static final BGIParseOptions LAZY = BGIParseOptions.builder().lazy(true).build();
+  private static final BGIParseOptions LAZY_DEFERRED = BGIParseOptions.builder().lazy(true).deferStreams(true).build();
+
+  @Test
+  public void lazyDataMatchesEagerDataForEveryItem() {
+    for (byte[] item : TestItems.corpus()) {
+      String eager = TestItems.describe(BGIParser.parse(item));
+      assertEquals(eager, TestItems.describe(BGIParser.parse(item, LAZY)));
+      assertEquals(eager, TestItems.describe(BGIParser.parse(item, LAZY_DEFERRED)));
+    }
+  }
+
+  @Test
+  public void lazyGettersMatchEagerGetters() {
+    for (byte[] item : TestItems.corpus()) {
+      BGIParseResult<BGIData> eagerResult = BGIParser.parse(item);
+      if (eagerResult.isError()) {
+        continue;
+      }
+
+      BGIData eager = eagerResult.result().orElseThrow();
+      BGIData lazy = BGIParser.parse(item, LAZY).result().orElseThrow();
+      assertEquals(eager.getNumAttributes(), lazy.getNumAttributes());
+      for (BGIField field : BGIField.values()) {
+        assertEquals(eager.hasField(field), lazy.hasField(field), field.name());
+        assertEquals(
+            TestItems.describe(eager.getAttribute(field).orElse(null)),
+            TestItems.describe(lazy.getAttribute(field).orElse(null)),
+            field.name()
+        );
+        assertEquals(eager.getIntOrDefault(field, -1), lazy.getIntOrDefault(field, -1), field.name());
+        assertEquals(eager.getDoubleOrDefault(field, -1), lazy.getDoubleOrDefault(field, -1));
+        assertEquals(eager.getBooleanOrDefault(field, false), lazy.getBooleanOrDefault(field, false), field.name());
+      }
+    }
+  }
+
+  @Test
+  public void repeatedKeyKeepsTheLastValue() {
+    byte[] data = new BGIWriter((short) 1)
+        .addString("NAME", "first")
+        .addInt("REVISION_ID", 2)
+        .addString("NAME", "second")
+        .write();
+
+    for (BGIParseOptions options : new BGIParseOptions[] {BGIParseOptions.DEFAULT, LAZY}) {
+      BGIData parsed = BGIParser.parse(data, options).result().orElseThrow();
+      assertEquals("second", parsed.getString("NAME").orElseThrow());
+      assertEquals(2, parsed.getIntOrDefault("REVISION_ID", 0));
+    }
+  }
+
+  @Test
+  public void negativeCountReadsNoProperties() {
+    byte[] data = withCount(new BGIWriter((short) 1).addString("NAME", "value").write(), (short) -1);
+
+    String eager = TestItems.describe(BGIParser.parse(data));
+    assertEquals("v1 {}", eager);
+    assertEquals(eager, TestItems.describe(BGIParser.parse(data, LAZY)));
+  }
+
+  @Test
+  public void countLargerThanTheDataIsTooShort() {
+    byte[] data = withCount(new BGIWriter((short) 1).addString("NAME", "value").write(), Short.MAX_VALUE);
+
+    String eager = TestItems.describe(BGIParser.parse(data));
+    assertEquals("error " + ErrorCode.DATA_TOO_SHORT, eager);
+    assertEquals(eager, TestItems.describe(BGIParser.parse(data, LAZY)));
+  }
+
+  @Test
+  public void countAboveTheSignedRangeReadsNoProperties() {
+    // Counts are signed shorts, so 0x8000 and above are negative
+    byte[] data = withCount(new BGIWriter((short) 1).addInt("REVISION_ID", 3).write(), (short) 0x8000);
+
+    assertEquals(TestItems.describe(BGIParser.parse(data)), TestItems.describe(BGIParser.parse(data, LAZY)));
+  }
+
+  @Test
+  public void truncatedPropertyHeaderIsTooShort() {
+    byte[] full = new BGIWriter((short) 1).addInt("REVISION_ID", 3).addInt("REQUIRED_LEVEL", 4).write();
+    for (int length = 5; length < full.length; length++) {
+      byte[] data = Arrays.copyOf(full, length);
+      assertEquals(TestItems.describe(BGIParser.parse(data)), TestItems.describe(BGIParser.parse(data, LAZY)));
+    }
+  }
+
+  private static byte[] withCount(byte[] data, short count) {
+    data[3] = (byte) (count >> 8);
+    data[4] = (byte) count;
+    return data;
+  }
+}
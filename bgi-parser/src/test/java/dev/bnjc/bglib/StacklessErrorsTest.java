@@ -0,0 +1,155 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.exceptions.BGIParseException;
+import dev.bnjc.bglib.exceptions.ErrorCode;
+import dev.bnjc.bglib.instrument.BGIInstrumentation;
+import dev.bnjc.bglib.utils.ByteParser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StacklessErrorsTest {
+  private static final BGIParseOptions STACKLESS = BGIParseOptions.builder().stacklessErrors(true).build();
+
+  @Test
+  public void sharedExceptionsAreAllocatedOnce() {
+    for (ErrorCode code : ErrorCode.values()) {
+      BGIParseException exception = BGIParseException.stackless(code);
+      assertSame(exception, BGIParseException.stackless(code));
+      assertSame(BGIParseResult.stacklessError(code), BGIParseResult.stacklessError(code));
+      assertSame(exception, BGIParseResult.stacklessError(code).getError());
+      assertEquals(code, exception.getErrorCode());
+      assertEquals(-1, exception.getOffset());
+      assertEquals(0, exception.getStackTrace().length);
+    }
+
+    // Header failures have no property to report, so they return the shared result
+    assertSame(BGIParseResult.stacklessError(ErrorCode.DATA_TOO_SHORT), BGIParser.parse(new byte[] {7, 0}, STACKLESS));
+    assertSame(BGIParseResult.stacklessError(ErrorCode.GOBLINLESS), BGIParser.parse(new byte[] {1, 0, 1, 0, 0}, STACKLESS));
+  }
+
+  @Test
+  public void validItemsMatchTheDefaultParse() {
+    for (byte[] item : TestItems.corpus()) {
+      assertEquals(TestItems.describe(BGIParser.parse(item)), TestItems.describe(BGIParser.parse(item, STACKLESS)));
+    }
+  }
+
+  @Test
+  public void unknownTypeReportsThePropertyOffsetAndKey() {
+    int offset = new BGIWriter((short) 1).addString("NAME", "Sword").size();
+    byte[] data = new BGIWriter((short) 1).addString("NAME", "Sword").addInt("REVISION_ID", 1).write();
+    data[offset + 4] = 99;
+
+    BGIParseException error = assertFailure(ErrorCode.UNKNOWN_DATA_TYPE, data);
+    assertEquals(offset, error.getOffset());
+    assertEquals(BGIField.REVISION_ID.key(), error.getKey());
+    assertEquals(0, error.getStackTrace().length);
+    assertTrue(error.getMessage().contains("at offset " + offset), error.getMessage());
+  }
+
+  @Test
+  public void malformedVarIntReportsThePropertyOffsetAndKey() {
+    int offset = new BGIWriter((short) 1).addString("NAME", "Sword").size();
+    byte[] data = new BGIWriter((short) 1).addString("NAME", "Sword").addInt("REVISION_ID", -1).write();
+    data[data.length - 1] = (byte) 0xFF;
+
+    BGIParseException error = assertFailure(ErrorCode.MALFORMED_VAR_INT, data);
+    assertEquals(offset, error.getOffset());
+    assertEquals(BGIField.REVISION_ID.key(), error.getKey());
+  }
+
+  @Test
+  public void truncationReportsTheCutProperty() {
+    List<byte[]> items = TestItems.corpus();
+    for (int i = 0; i < items.size(); i += 50) {
+      byte[] item = items.get(i);
+      List<Integer> starts = propertyStarts(item);
+
+      for (int length = 5; length < item.length; length++) {
+        BGIParseException error = assertFailure(ErrorCode.DATA_TOO_SHORT, Arrays.copyOf(item, length));
+
+        // The failing property is the last one starting before the cut, and its key is only known if it was read
+        int start = 0;
+        for (int s : starts) {
+          if (s <= length) {
+            start = s;
+          }
+        }
+        assertEquals(start, error.getOffset(), "item " + i + " cut at " + length);
+        assertEquals(length - start < 5 ? 0 : ByteBuffer.wrap(item).getInt(start), error.getKey());
+        assertNotSame(error, BGIParseException.stackless(ErrorCode.DATA_TOO_SHORT));
+      }
+    }
+  }
+
+  @Test
+  public void failedValueResumesAfterItsDeclaredLength() {
+    // The commands stream claims five commands but holds none, so decoding it fails after its length was read
+    byte[] data = new BGIWriter((short) 1)
+        .addString("NAME", "Sword")
+        .addStream("COMMANDS", new byte[] {1, 5})
+        .addInt("REVISION_ID", 7)
+        .addString("TIER", "RARE")
+        .write();
+
+    for (BGIParseOptions options : new BGIParseOptions[] {STACKLESS, STACKLESS.toBuilder().deferStreams(true).build()}) {
+      BGIData parsed = BGIParser.parse(data, options).result().orElseThrow();
+      assertEquals("Sword", parsed.getString(BGIField.NAME).orElseThrow());
+      assertEquals(7, parsed.getIntOrDefault(BGIField.REVISION_ID, -1));
+      assertEquals("RARE", parsed.getString(BGIField.TIER).orElseThrow());
+      assertEquals(4, parsed.getNumAttributes());
+    }
+    assertEquals(TestItems.describe(BGIParser.parse(data)), TestItems.describe(BGIParser.parse(data, STACKLESS)));
+  }
+
+  @Test
+  public void unknownTypeIsCountedOnce() {
+    byte[] data = new BGIWriter((short) 1).addString("NAME", "Sword").write();
+    data[9] = 99;
+
+    boolean enabled = BGIInstrumentation.isEnabled();
+    BGIInstrumentation.reset();
+    BGIInstrumentation.enable();
+    try {
+      BGIParser.parse(data, STACKLESS);
+      assertEquals(1, BGIInstrumentation.snapshot().errorCount(ErrorCode.UNKNOWN_DATA_TYPE));
+      BGIParser.parse(data);
+      assertEquals(2, BGIInstrumentation.snapshot().errorCount(ErrorCode.UNKNOWN_DATA_TYPE));
+    } finally {
+      if (!enabled) {
+        BGIInstrumentation.disable();
+      }
+      BGIInstrumentation.reset();
+    }
+  }
+
+  private static BGIParseException assertFailure(ErrorCode code, byte[] data) {
+    BGIParseResult<BGIData> result = BGIParser.parse(data, STACKLESS);
+    assertTrue(result.isError(), () -> "expected " + code + " for " + Arrays.toString(data));
+
+    BGIParseException error = result.error().orElseThrow();
+    assertEquals(code, error.getErrorCode());
+    return error;
+  }
+
+  /**
+   * Finds the offset of every property in well-formed data
+   */
+  private static List<Integer> propertyStarts(byte[] item) {
+    ByteBuffer buffer = ByteBuffer.wrap(item);
+    List<Integer> starts = new ArrayList<>();
+    int position = 5;
+    for (int i = 0; i < buffer.getShort(3); i++) {
+      starts.add(position);
+      BGIType type = BGIType.fromTypeId(buffer.get(position + 4));
+      position += 5 + ByteParser.measure(type, buffer, position + 5);
+    }
+    return starts;
+  }
+}
@@ -0,0 +1,78 @@
+package dev.bnjc.bglib;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Shared helpers for the tests: the sample item corpus and a way to compare parsed data
+ */
+final class TestItems {
+  private static final byte[] SEPARATOR = "<<<END>>>".getBytes(StandardCharsets.UTF_8);
+  private static final Pattern IDENTITY_HASH = Pattern.compile("@[0-9a-f]+");
+
+  private TestItems() {
+  }
+
+  /**
+   * Reads every item in the {@code itemBGI.bytes} sample corpus
+   */
+  static List<byte[]> corpus() {
+    byte[] bytes;
+    try (InputStream in = TestItems.class.getClassLoader().getResourceAsStream("itemBGI.bytes")) {
+      if (in == null) {
+        throw new IllegalStateException("Missing itemBGI.bytes test resource");
+      }
+      bytes = in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    List<byte[]> items = new ArrayList<>();
+    int start = 0;
+    for (int i = 0; i <= bytes.length - SEPARATOR.length; i++) {
+      if (Arrays.equals(bytes, i, i + SEPARATOR.length, SEPARATOR, 0, SEPARATOR.length)) {
+        items.add(Arrays.copyOfRange(bytes, start, i));
+        start = i + SEPARATOR.length;
+        i = start - 1;
+      }
+    }
+    if (start < bytes.length) {
+      items.add(Arrays.copyOfRange(bytes, start, bytes.length));
+    }
+    return items;
+  }
+
+  /**
+   * Describes a parse result so that results can be compared with {@code assertEquals}: the error code of an error,
+   * or the data version and every property sorted by key
+   */
+  static String describe(BGIParseResult<BGIData> result) {
+    if (result.isError()) {
+      return "error " + result.error().orElseThrow().getErrorCode();
+    }
+
+    BGIData data = result.result().orElseThrow();
+    Map<Integer, String> properties = new TreeMap<>();
+    data.forEachAttribute((key, value) -> properties.put(key, describe(value)));
+    return "v" + data.getDataVersion() + " " + properties;
+  }
+
+  /**
+   * Describes a property value, comparing arrays by their contents. Arrays nested in streams are printed with their
+   * identity hash by the stream's {@code toString}, so the hash is left out.
+   */
+  static String describe(Object value) {
+    if (value instanceof String[] array) {
+      return Arrays.toString(array);
+    }
+    return IDENTITY_HASH.matcher(String.valueOf(value)).replaceAll("");
+  }
+}
@@ -0,0 +1,186 @@
+package dev.bnjc.bglib;
+
+import dev.bnjc.bglib.utils.ByteParser;
+import dev.bnjc.bglib.utils.Utf8CharSequence;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Utf8CharSequenceTest {
+  private static final String[] TEXT = {
+      "",
+      "Sword",
+      "«Legendary»",
+      "§6«§lRare§6» lore line",
+      "日本語のテキスト",
+      "😀 emoji 🗡 and 𝄞",
+      "mixed ASCII, é, ü, 中, 🎉 and more",
+  };
+
+  private static final int[][] MALFORMED = {
+      {0xC0, 0xAF},             // Overlong slash
+      {0xC1, 0xBF},             // Overlong two byte form
+      {0xE0, 0x80, 0xAF},       // Overlong three byte form
+      {0xF0, 0x80, 0x80, 0xAF}, // Overlong four byte form
+      {0xED, 0xA0, 0x80},       // High surrogate
+      {0xED, 0xBF, 0xBF},       // Low surrogate
+      {0xF4, 0x90, 0x80, 0x80}, // Past the last code point
+      {0xF5, 0x80, 0x80, 0x80}, // Invalid lead byte
+      {0xFF},
+      {0x80},                   // Lone continuation byte
+      {'a', 0xC3},              // Truncated tail
+      {'a', 0xE6, 0x97},
+      {0xF0, 0x9F, 0x98},
+      {0xC3, 'a'},              // Missing continuation byte
+      {0xE6, 'a', 0x97},
+      {'o', 'k', 0xC3, 0xA9, 0xC3},
+  };
+
+  @Test
+  public void textMatchesStringDecoding() {
+    Utf8CharSequence reused = new Utf8CharSequence();
+    for (String text : TEXT) {
+      byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+      assertMatches(bytes, read(bytes, reused, false));
+      assertMatches(bytes, read(bytes, reused, true));
+      assertMatches(bytes, read(bytes, new Utf8CharSequence(), false));
+    }
+  }
+
+  @Test
+  public void malformedTextMatchesStringDecoding() {
+    Utf8CharSequence reused = new Utf8CharSequence();
+    for (int[] values : MALFORMED) {
+      byte[] bytes = new byte[values.length];
+      for (int i = 0; i < values.length; i++) {
+        bytes[i] = (byte) values[i];
+      }
+      assertMatches(bytes, read(bytes, reused, false));
+      assertMatches(bytes, read(bytes, reused, true));
+    }
+  }
+
+  @Test
+  public void everyTwoByteSequenceMatchesStringDecoding() {
+    Utf8CharSequence reused = new Utf8CharSequence();
+    for (int first = 0; first < 256; first++) {
+      for (int second = 0; second < 256; second++) {
+        byte[] bytes = {(byte) first, (byte) second};
+        assertMatches(bytes, read(bytes, reused, false));
+      }
+    }
+  }
+
+  @Test
+  public void randomBytesMatchStringDecoding() {
+    // Mostly lead and continuation bytes, so that many sequences are nearly valid
+    int[] pool = {'a', 0x80, 0x9F, 0xA0, 0xBF, 0xC2, 0xDF, 0xE0, 0xED, 0xEF, 0xF0, 0xF4, 0xF5, 0xFF};
+    Random random = new Random(1);
+    Utf8CharSequence reused = new Utf8CharSequence();
+    for (int n = 0; n < 50_000; n++) {
+      byte[] bytes = new byte[1 + random.nextInt(8)];
+      for (int i = 0; i < bytes.length; i++) {
+        bytes[i] = (byte) pool[random.nextInt(pool.length)];
+      }
+      assertMatches(bytes, read(bytes, reused, n % 2 == 0));
+    }
+  }
+
+  @Test
+  public void reusedSequenceForgetsThePreviousString() {
+    List<byte[]> values = new ArrayList<>();
+    for (String text : TEXT) {
+      values.add(text.getBytes(StandardCharsets.UTF_8));
+    }
+    values.add(new byte[] {(byte) 0xC0, (byte) 0xAF});
+    values.add("the longest value in the list, so that the reused characters have to grow: «»«»«»«»«»«»«»«»«»«»"
+        .getBytes(StandardCharsets.UTF_8));
+
+    // Read every value in order from one buffer, like the event reader does
+    ByteBuffer buffer = ByteBuffer.wrap(lengthPrefixed(values));
+    Utf8CharSequence reused = new Utf8CharSequence();
+    for (int pass = 0; pass < 2; pass++) {
+      buffer.rewind();
+      for (byte[] value : values) {
+        Utf8CharSequence sequence = ByteParser.getLazyString(buffer, reused);
+        assertSame(reused, sequence);
+        assertMatches(value, sequence);
+      }
+      assertFalse(buffer.hasRemaining());
+    }
+  }
+
+  @Test
+  public void asciiIsReadWithoutDecoding() {
+    Utf8CharSequence ascii = read("Sword".getBytes(StandardCharsets.UTF_8), new Utf8CharSequence(), false);
+    assertTrue(ascii.isAscii());
+    assertEquals(5, ascii.byteLength());
+    assertEquals("wor", ascii.subSequence(1, 4).toString());
+    assertInstanceOf(Utf8CharSequence.class, ascii.subSequence(1, 4));
+
+    Utf8CharSequence lore = read("«»".getBytes(StandardCharsets.UTF_8), new Utf8CharSequence(), false);
+    assertFalse(lore.isAscii());
+    assertEquals(4, lore.byteLength());
+    assertEquals(2, lore.length());
+  }
+
+  private static void assertMatches(byte[] bytes, Utf8CharSequence sequence) {
+    String expected = new String(bytes, StandardCharsets.UTF_8);
+    String message = expected + " " + Arrays.toString(bytes);
+
+    assertEquals(bytes.length, sequence.byteLength(), message);
+    assertEquals(expected.length(), sequence.length(), message);
+    for (int i = 0; i < expected.length(); i++) {
+      assertEquals(expected.charAt(i), sequence.charAt(i), message);
+    }
+    assertThrows(IndexOutOfBoundsException.class, () -> sequence.charAt(expected.length()), message);
+    assertThrows(IndexOutOfBoundsException.class, () -> sequence.charAt(-1), message);
+
+    for (int start = 0; start <= expected.length(); start++) {
+      for (int end = start; end <= expected.length(); end++) {
+        assertEquals(expected.substring(start, end), sequence.subSequence(start, end).toString(), message);
+      }
+    }
+    assertThrows(IndexOutOfBoundsException.class, () -> sequence.subSequence(0, expected.length() + 1), message);
+
+    assertEquals(expected, sequence.toString(), message);
+    assertEquals(expected, sequence.toString(), message);
+  }
+
+  /**
+   * Reads the bytes as a length-prefixed string, from a slice of a heap buffer or from a direct buffer, neither of
+   * which starts at index 0 of its memory
+   */
+  private static Utf8CharSequence read(byte[] bytes, Utf8CharSequence reuse, boolean direct) {
+    byte[] data = lengthPrefixed(List.of(bytes));
+    if (!direct) {
+      return ByteParser.getLazyString(ByteBuffer.allocate(data.length + 6).put(3, data).slice(3, data.length), reuse);
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(data.length + 3);
+    buffer.put(3, data).position(3);
+    return ByteParser.getLazyString(buffer, reuse);
+  }
+
+  private static byte[] lengthPrefixed(List<byte[]> values) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] value : values) {
+      int length = value.length;
+      while ((length & ~0x7F) != 0) {
+        out.write((length & 0x7F) | 0x80);
+        length >>>= 7;
+      }
+      out.write(length);
+      out.writeBytes(value);
+    }
+    return out.toByteArray();
+  }
+}